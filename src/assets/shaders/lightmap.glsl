@@ -20,15 +20,18 @@ void main() {
 in vec2 fPos;
 
 /**
- * The lighting uniform variables.
- * MAX_LIGHTS can be changed here. If you want more lights make sure to change the RenderBatch::addPointLight fuction as well.
+ * The lights are kept in a buffer texture, two texels per light:
+ * (x, y, intensity, radius) and (r, g, b, unused).
+ * The view is divided into tiles of uTileSize, the first uTilesX * uTilesY + 1 values of uTileLights
+ * are the offsets of the light list of each tile, followed by the light indices of all tiles.
  */
-#define MAX_LIGHTS 10
-uniform vec2 uLightPosition[MAX_LIGHTS];
-uniform vec3 uLightColor[MAX_LIGHTS];
-uniform float uIntensity[MAX_LIGHTS];
+uniform samplerBuffer uLights;
+uniform isamplerBuffer uTileLights;
+uniform float uTileSize;
+uniform int uTilesX;
+uniform int uTilesY;
 uniform float uMinLighting;
-uniform int uNumLights;
+uniform vec2 uCameraOffset;
 
 layout (location=0) out vec4 color;
 
@@ -44,14 +47,22 @@ float calculateLighting(float d, float intensity) {
 void main () {
 	// Total lighting accumulation variable
 	vec3 totalLighting = vec3(0.0);
-	// Eventhough the arrays are crated with MAX_LIGHTS size, the arrays are iterated over only [uNumLights] times
-	for (int i = 0; i < uNumLights; i++) {
+	// Only the lights reaching the tile of this pixel are looked at
+	ivec2 tile = clamp(ivec2(floor((fPos - uCameraOffset) / uTileSize)), ivec2(0), ivec2(uTilesX - 1, uTilesY - 1));
+	int tileIndex = tile.y * uTilesX + tile.x;
+	int first = texelFetch(uTileLights, tileIndex).r;
+	int last = texelFetch(uTileLights, tileIndex + 1).r;
+	int listStart = uTilesX * uTilesY + 1;
+	for (int i = first; i < last; i++) {
+		int light = texelFetch(uTileLights, listStart + i).r;
+		vec4 data = texelFetch(uLights, light * 2);
+		vec3 lightColor = texelFetch(uLights, light * 2 + 1).rgb;
 		// Distance between the current pixel and the light position
-		float dist = distance(uLightPosition[i], fPos);
+		float dist = distance(data.xy, fPos);
 		// calculate brightness using the attenuation function
-		float attenuation = calculateLighting(dist, uIntensity[i]);
+		float attenuation = calculateLighting(dist, data.z);
 		// accumulate the value into total lighting by adding
-		totalLighting += uLightColor[i] * attenuation;
+		totalLighting += lightColor * attenuation;
 	}
 	// Take minimum lighting into account
 	totalLighting.x = max(totalLighting.x, uMinLighting);
@@ -0,0 +1,78 @@
+package ai.path;
+
+import ai.path.vector2f.Vector2fMap;
+import ai.path.vector2f.Vector2fNode;
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves the queries of many agents on a shared grid graph with 20% walls,
+ * one after another on a single thread and all at once with {@link Pathfinding#solveAll(List, java.util.function.Function)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathfindingBenchmark {
+
+    @Param({"128"})
+    public int gridSize;
+
+    @Param({"1", "64", "512"})
+    public int agents;
+
+    private List<Vector2fMap> queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        Vector2fNode[][] grid = new Vector2fNode[gridSize][gridSize];
+        List<Vector2fNode> free = new ArrayList<>();
+        for (int x = 0; x < gridSize; x++)
+            for (int y = 0; y < gridSize; y++)
+                if (random.nextFloat() > 0.2f) {
+                    grid[x][y] = new Vector2fNode(new Vector2f(x, y));
+                    free.add(grid[x][y]);
+                }
+        for (int x = 0; x < gridSize; x++)
+            for (int y = 0; y < gridSize; y++) {
+                if (grid[x][y] == null) continue;
+                if (x + 1 < gridSize && grid[x + 1][y] != null) grid[x][y].addPathTo(grid[x + 1][y], 1, true);
+                if (y + 1 < gridSize && grid[x][y + 1] != null) grid[x][y].addPathTo(grid[x][y + 1], 1, true);
+            }
+        queries = new ArrayList<>(agents);
+        for (int i = 0; i < agents; i++)
+            queries.add(new Vector2fMap(free.get(random.nextInt(free.size())), free.get(random.nextInt(free.size()))));
+    }
+
+    private static Float manhattan(Vector2f a, Vector2f b) {
+        return Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+    }
+
+    @Benchmark
+    public void astarSequential(Blackhole blackhole) {
+        for (Vector2fMap query : queries)
+            blackhole.consume(Pathfinding.astar(query, PathfindingBenchmark::manhattan));
+    }
+
+    @Benchmark
+    public List<Optional<ResultPath<Vector2f>>> astarParallel() {
+        return Pathfinding.solveAll(queries, map -> Pathfinding.astar(map, PathfindingBenchmark::manhattan));
+    }
+
+    @Benchmark
+    public void dijkstraSequential(Blackhole blackhole) {
+        for (Vector2fMap query : queries)
+            blackhole.consume(Pathfinding.dijkstra(query));
+    }
+
+}
@@ -0,0 +1,45 @@
+package audio;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixes a block of 1024 frames while 512 looping sounds are spread over the world,
+ * once with every sound getting a voice and once with the default amount of voices and the rest virtual.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AudioMixerBenchmark {
+
+    @Param({"32", "512"})
+    public int voices;
+
+    private AudioMixer mixer;
+    private final short[] out = new short[2 * 1024];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        short[] samples = new short[22050];
+        for (int i = 0; i < samples.length; i++)
+            samples[i] = (short) random.nextInt(4000);
+        AudioClip clip = new AudioClip(samples, 1, 44100);
+
+        mixer = new AudioMixer(44100, voices, 512);
+        for (int i = 0; i < 512; i++)
+            mixer.play(clip, random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000, 1, 0, true);
+    }
+
+    @Benchmark
+    public short[] mix() {
+        mixer.mix(out, 1024);
+        return out;
+    }
+
+}
@@ -0,0 +1,75 @@
+package audio;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading and reading a minute long stereo track, once decoded into memory as a whole and once streamed
+ * through the ring of an {@link AudioStreamer}. Runs without an audio device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AudioStreamBenchmark {
+
+    private File file;
+    private AudioStreamer streamer;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("azurite-bench", ".wav");
+        int frames = 44100 * 60, dataSize = frames * 4;
+        ByteBuffer wave = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        wave.put("RIFF".getBytes()).putInt(36 + dataSize).put("WAVE".getBytes());
+        wave.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) 2)
+                .putInt(44100).putInt(44100 * 4).putShort((short) 4).putShort((short) 16);
+        wave.put("data".getBytes()).putInt(dataSize);
+        for (int i = 0; i < frames * 2; i++)
+            wave.putShort((short) (Math.sin(i * 0.01) * 10000));
+        Files.write(file.toPath(), wave.array());
+        streamer = new AudioStreamer(AudioBuffer.NUM_BUFFERS, AudioBuffer.BUFFER_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Time until the first buffer can be queued
+     */
+    @Benchmark
+    public ByteBuffer firstBufferDecoded() {
+        streamer.open(AudioBuffer.decode(file.getPath()).openStream());
+        return streamer.next();
+    }
+
+    @Benchmark
+    public ByteBuffer firstBufferStreamed() {
+        streamer.open(AudioBuffer.openFile(file.getPath()));
+        return streamer.next();
+    }
+
+    /**
+     * Reads the whole track buffer by buffer, like playing it
+     */
+    @Benchmark
+    public long playStreamed() {
+        streamer.open(AudioBuffer.openFile(file.getPath()));
+        long sum = 0;
+        ByteBuffer buffer;
+        while ((buffer = streamer.next()) != null)
+            sum += buffer.remaining();
+        return sum;
+    }
+
+}
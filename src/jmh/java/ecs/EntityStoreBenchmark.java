@@ -0,0 +1,58 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import physics.collision.Shapes;
+import physics.force.ConstantForce;
+import scene.Scene;
+import util.Engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates all gameObjects of a scene once, either object by object or with the entity store.
+ * Every object has dynamics and a collider, but only a tenth of them is pushed by a force and actually moves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityStoreBenchmark {
+
+    @Param({"10000", "100000"})
+    public int objects;
+
+    @Param({"false", "true"})
+    public boolean entityStore;
+
+    private Scene scene;
+
+    @Setup
+    public void setUp() {
+        Engine.updateDeltaTime(1 / 60f);
+        scene = new Scene() {
+        };
+        if (entityStore) scene.enableEntityStore();
+        Random random = new Random(1);
+        float size = (float) Math.sqrt(objects) * 60;
+        for (int i = 0; i < objects; i++) {
+            GameObject object = new GameObject(scene, "object " + i, new Vector2f(random.nextFloat() * size, random.nextFloat() * size), 0);
+            Dynamics dynamics = new Dynamics();
+            if (i % 10 == 0)
+                dynamics.applyForce(new ConstantForce("drift", new Vector2f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f)));
+            object.addComponent(dynamics);
+            object.addComponent(new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 20, 20)).layer(1).mask(1));
+        }
+        //move all shapes to their objects once
+        scene.updateGameObjects();
+    }
+
+    @Benchmark
+    public void updateGameObjects() {
+        scene.updateGameObjects();
+    }
+
+}
@@ -0,0 +1,88 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import physics.force.ConstantForce;
+import scene.Scene;
+import util.Engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates a scene whose objects run a CPU bound steering component and dynamics,
+ * on one thread and spread across several threads of the scheduler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelUpdateBenchmark {
+
+    @Param({"10000"})
+    public int objects;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private Scene scene;
+
+    /**
+     * Stands in for some AI, which only changes its own force.
+     */
+    static class Steering extends Component implements ConcurrentUpdate {
+
+        private final Vector2f direction;
+        private float heading;
+
+        Steering(Vector2f direction, float heading) {
+            super(ComponentOrder.INPUT);
+            this.direction = direction;
+            this.heading = heading;
+        }
+
+        @Override
+        public void update(float dt) {
+            float x = 0, y = 0;
+            for (int i = 0; i < 64; i++) {
+                float angle = heading + i * 0.1f;
+                x += (float) Math.cos(angle);
+                y += (float) Math.sin(angle);
+            }
+            heading += dt;
+            direction.set(x / 64, y / 64);
+        }
+
+    }
+
+    @Setup
+    public void setUp() {
+        Engine.updateDeltaTime(1 / 60f);
+        scene = new Scene() {
+        };
+        scene.enableEntityStore();
+        scene.getScheduler().setParallelism(threads);
+        Random random = new Random(1);
+        for (int i = 0; i < objects; i++) {
+            GameObject object = new GameObject(scene, "object " + i, new Vector2f(random.nextFloat() * 1000, random.nextFloat() * 1000), 0);
+            Vector2f direction = new Vector2f();
+            Dynamics dynamics = new Dynamics();
+            dynamics.applyForce(new ConstantForce("steering", direction));
+            object.addComponent(new Steering(direction, random.nextFloat()));
+            object.addComponent(dynamics);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scene.getScheduler().setParallelism(1);
+    }
+
+    @Benchmark
+    public void updateGameObjects() {
+        scene.updateGameObjects();
+    }
+
+}
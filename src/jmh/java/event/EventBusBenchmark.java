@@ -0,0 +1,85 @@
+package event;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key events sent to a few listeners, one batch per invocation as during a busy frame.
+ * The baseline is the former node, with a linked list of listeners and new event data for every key,
+ * compared to the {@link Events} statics with reused event data, and to pooled events posted to an {@link EventBus}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBusBenchmark {
+
+    private static final int EVENTS = 1000;
+
+    @Param({"1", "8"})
+    public int listeners;
+
+    private LinkedListNode<EventData.KeyEventData> linkedListNode;
+    private EventNode<EventData.KeyEventData> node;
+    private EventBus bus;
+    private EventPool<EventData.KeyEventData> pool;
+    private final EventData.KeyEventData reused = new EventData.KeyEventData();
+    private int sum;
+
+    @Setup
+    public void setUp() {
+        linkedListNode = new LinkedListNode<>();
+        node = new EventNode<>();
+        bus = new EventBus();
+        pool = new EventPool<>(EventData.KeyEventData::new, EVENTS);
+        for (int i = 0; i < listeners; i++) {
+            linkedListNode.subscribe(e -> sum += e.keycode);
+            node.subscribe(e -> sum += e.keycode);
+            bus.subscribe(EventData.KeyEventData.class, e -> sum += e.keycode);
+        }
+    }
+
+    @Benchmark
+    public void linkedListAllocating(Blackhole blackhole) {
+        for (int i = 0; i < EVENTS; i++)
+            linkedListNode.onEvent(new EventData.KeyEventData(i, 0, 1, 0));
+        blackhole.consume(sum);
+    }
+
+    @Benchmark
+    public void nodeReused(Blackhole blackhole) {
+        for (int i = 0; i < EVENTS; i++)
+            node.onEvent(reused.set(i, 0, 1, 0));
+        blackhole.consume(sum);
+    }
+
+    @Benchmark
+    public void busPostPooled(Blackhole blackhole) {
+        for (int i = 0; i < EVENTS; i++)
+            bus.post(pool.obtain().set(i, 0, 1, 0));
+        bus.dispatch(EventBus.Phase.FRAME_START);
+        blackhole.consume(sum);
+    }
+
+    /**
+     * The event node as it was before the listeners were kept in an array
+     */
+    private static class LinkedListNode<T extends EventData> {
+        private final List<EventListener<T>> listeners = new LinkedList<>();
+
+        void subscribe(EventListener<T> listener) {
+            listeners.add(listener);
+        }
+
+        void onEvent(T t) {
+            listeners.forEach(listener -> listener.onEvent(t));
+        }
+    }
+
+}
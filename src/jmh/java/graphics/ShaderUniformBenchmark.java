@@ -0,0 +1,175 @@
+package graphics;
+
+import org.joml.Matrix4f;
+import org.lwjgl.BufferUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The uniforms the batch renderers upload every frame, the texture slots and the matrices of the camera,
+ * for four renderers sharing a camera. The backend only counts the calls, so this measures the cpu side.
+ * The baseline looks the locations up by name and allocates a buffer for every matrix, as the shader used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShaderUniformBenchmark {
+
+    private static final int RENDERERS = 4;
+
+    private final int[] textureSlots = {0, 1, 2, 3, 4, 5, 6, 7};
+    private final Matrix4f projection = new Matrix4f().ortho(0, 1920, 1080, 0, 0, 100);
+    private final Matrix4f view = new Matrix4f();
+
+    private GLBackend former;
+    private final Shader[] shaders = new Shader[RENDERERS];
+    private final Shader.Uniform[][] handles = new Shader.Uniform[RENDERERS][];
+    private final HashMap<String, Integer> locations = new HashMap<>();
+    private CountingGL gl;
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        gl = new CountingGL();
+        former = GLState.setBackend(gl);
+        for (int i = 0; i < RENDERERS; i++) {
+            shaders[i] = new Shader(i + 1);
+            handles[i] = new Shader.Uniform[]{
+                    shaders[i].uniform("uTextures"), shaders[i].uniform("uProjection"), shaders[i].uniform("uView")};
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        GLState.setBackend(former);
+    }
+
+    @Benchmark
+    public int lookupAndAllocate() {
+        for (int i = 0; i < RENDERERS; i++) {
+            gl.useProgram(i + 1);
+            gl.uniform1iv(location("uTextures"), BufferUtils.createIntBuffer(8).put(textureSlots).flip());
+            FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+            projection.get(buffer);
+            gl.uniformMatrix4fv(location("uProjection"), buffer);
+            buffer = BufferUtils.createFloatBuffer(16);
+            view.get(buffer);
+            gl.uniformMatrix4fv(location("uView"), buffer);
+        }
+        return gl.calls;
+    }
+
+    private int location(String name) {
+        Integer location = locations.get(name);
+        if (location == null) locations.put(name, location = locations.size());
+        return location;
+    }
+
+    @Benchmark
+    public int cachedStill() {
+        for (int i = 0; i < RENDERERS; i++)
+            upload(handles[i]);
+        return gl.calls;
+    }
+
+    @Benchmark
+    public int cachedMoving() {
+        view.translation(frame++ % 100, 0, 0);
+        for (int i = 0; i < RENDERERS; i++)
+            upload(handles[i]);
+        return gl.calls;
+    }
+
+    private void upload(Shader.Uniform[] handles) {
+        handles[0].set(textureSlots);
+        handles[1].set(projection);
+        handles[2].set(view);
+    }
+
+    private static final class CountingGL implements GLBackend {
+        int calls;
+
+        @Override
+        public void useProgram(int program) {
+            calls++;
+        }
+
+        @Override
+        public void activeTexture(int unit) {
+            calls++;
+        }
+
+        @Override
+        public void bindTexture(int target, int texture) {
+            calls++;
+        }
+
+        @Override
+        public void bindVertexArray(int vertexArray) {
+            calls++;
+        }
+
+        @Override
+        public int getUniformLocation(int program, String name) {
+            return name.length();
+        }
+
+        @Override
+        public void uniform1i(int location, int value) {
+            calls++;
+        }
+
+        @Override
+        public void uniform1f(int location, float value) {
+            calls++;
+        }
+
+        @Override
+        public void uniform2f(int location, float x, float y) {
+            calls++;
+        }
+
+        @Override
+        public void uniform4f(int location, float x, float y, float z, float w) {
+            calls++;
+        }
+
+        @Override
+        public void uniform1iv(int location, IntBuffer values) {
+            calls += values.get(0) + 1;
+        }
+
+        @Override
+        public void uniform1fv(int location, FloatBuffer values) {
+            calls++;
+        }
+
+        @Override
+        public void uniform2fv(int location, FloatBuffer values) {
+            calls++;
+        }
+
+        @Override
+        public void uniform3fv(int location, FloatBuffer values) {
+            calls++;
+        }
+
+        @Override
+        public void uniformMatrix3fv(int location, FloatBuffer values) {
+            calls++;
+        }
+
+        @Override
+        public void uniformMatrix4fv(int location, FloatBuffer values) {
+            calls += (int) values.get(0) + 1;
+        }
+    }
+
+}
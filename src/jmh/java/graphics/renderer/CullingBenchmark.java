@@ -0,0 +1,89 @@
+package graphics.renderer;
+
+import ecs.GameObject;
+import ecs.SpriteRenderer;
+import graphics.Color;
+import graphics.ShaderDatatype;
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import scene.Scene;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the vertex data of a frame for 100k sprites spread over a large level, while a 1280x720 view
+ * scrolls through it, on the cpu only. With culling only the sprites inside the view are looked up and written,
+ * without it every sprite keeps its slot and is written whenever the scrolling makes it visible again.
+ * Returns the amount of floats to upload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CullingBenchmark {
+
+    private static final float LEVEL_SIZE = 20000;
+
+    @Param({"100000"})
+    public int sprites;
+
+    @Param({"true", "false"})
+    public boolean culling;
+
+    private CpuRenderer renderer;
+    private float scroll;
+
+    //keeps all batches on the cpu and scrolls a fixed view
+    static class CpuRenderer extends DefaultRenderer {
+        float x;
+
+        @Override
+        SpriteBatch createSpriteBatch(int zIndex) {
+            return new SpriteBatch(1000, zIndex, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT4, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT);
+        }
+
+        @Override
+        protected boolean updateView() {
+            setView(x, LEVEL_SIZE / 2, x + 1280, LEVEL_SIZE / 2 + 720);
+            return true;
+        }
+
+        int frame() {
+            rebuffer();
+            int uploaded = 0;
+            for (RenderBatch batch : batches) {
+                uploaded += ((SpriteBatch) batch).dirtyLength();
+                ((SpriteBatch) batch).clearDirty();
+            }
+            return uploaded;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        Scene scene = new Scene() {
+        };
+        scene.activate();
+        renderer = new CpuRenderer();
+        renderer.setCulling(culling);
+        for (int i = 0; i < sprites; i++) {
+            GameObject object = new GameObject(scene, "sprite", new Vector2f(random.nextFloat() * LEVEL_SIZE, random.nextFloat() * LEVEL_SIZE), random.nextInt(3));
+            object.addComponent(new SpriteRenderer(Color.WHITE, new Vector2f(16)));
+            object.start();
+            renderer.add(object);
+        }
+        renderer.frame();
+    }
+
+    @Benchmark
+    public int scrolling() {
+        scroll = (scroll + 8) % (LEVEL_SIZE - 1280);
+        renderer.x = scroll;
+        return renderer.frame();
+    }
+
+}
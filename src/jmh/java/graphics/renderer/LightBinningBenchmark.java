@@ -0,0 +1,51 @@
+package graphics.renderer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts torches spread over a large night level into the tiles of a 1280x720 view, which scrolls every frame.
+ * This is the cpu work of the lightmap renderer whenever the camera or a light moves.
+ * Returns the amount of light indices, which are uploaded for the tiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LightBinningBenchmark {
+
+    private static final float LEVEL_SIZE = 10000;
+
+    @Param({"100", "1000", "10000"})
+    public int lights;
+
+    private LightGrid grid;
+    private float[] x, y, radius;
+    private float scroll;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        grid = new LightGrid();
+        x = new float[lights];
+        y = new float[lights];
+        radius = new float[lights];
+        for (int i = 0; i < lights; i++) {
+            x[i] = random.nextFloat() * LEVEL_SIZE;
+            y[i] = random.nextFloat() * 720;
+            radius[i] = LightGrid.radius(0.05f + random.nextFloat() * 0.2f, 1 / 256f);
+        }
+    }
+
+    @Benchmark
+    public int bin() {
+        scroll = (scroll + 8) % (LEVEL_SIZE - 1280);
+        grid.bin(scroll, 0, 1280, 720, x, y, radius, lights);
+        return grid.getIndexCount();
+    }
+
+}
@@ -0,0 +1,102 @@
+package graphics.renderer;
+
+import ecs.GameObject;
+import ecs.SpriteRenderer;
+import graphics.Color;
+import graphics.ShaderDatatype;
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the vertex data of a frame for 100k sprites, of which only a few move, on the cpu only.
+ * The incremental case is what the default renderer does every frame, the full rebuild marks every sprite
+ * as dirty, which is what rebuffering all sprites used to cost. Returns the amount of floats to upload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpriteBatchBenchmark {
+
+    @Param({"100000"})
+    public int sprites;
+
+    @Param({"0.01"})
+    public float moving;
+
+    private CpuRenderer renderer;
+    private List<SpriteRenderer> spriteRenderers;
+    private List<GameObject> movers;
+    private float direction = 1;
+
+    //keeps all batches on the cpu
+    static class CpuRenderer extends DefaultRenderer {
+        @Override
+        SpriteBatch createSpriteBatch(int zIndex) {
+            return new SpriteBatch(1000, zIndex, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT4, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT);
+        }
+
+        int frame() {
+            rebuffer();
+            int uploaded = 0;
+            for (RenderBatch batch : batches) {
+                uploaded += ((SpriteBatch) batch).dirtyLength();
+                ((SpriteBatch) batch).clearDirty();
+            }
+            return uploaded;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        Scene scene = new Scene() {
+        };
+        scene.activate();
+        renderer = new CpuRenderer();
+        spriteRenderers = new ArrayList<>(sprites);
+        movers = new ArrayList<>();
+        for (int i = 0; i < sprites; i++) {
+            GameObject object = new GameObject(scene, "sprite", new Vector2f(random.nextFloat() * 10000, random.nextFloat() * 10000), random.nextInt(3));
+            SpriteRenderer spriteRenderer = new SpriteRenderer(Color.WHITE, new Vector2f(16));
+            object.addComponent(spriteRenderer);
+            object.start();
+            renderer.add(object);
+            spriteRenderers.add(spriteRenderer);
+            if (random.nextFloat() < moving) movers.add(object);
+        }
+        renderer.frame();
+    }
+
+    private void move() {
+        direction = -direction;
+        for (GameObject mover : movers) {
+            mover.getPositionData()[0] += direction;
+            //the update of the sprite renderer notices the movement
+            mover.update(1 / 60f);
+        }
+    }
+
+    @Benchmark
+    public int incremental() {
+        move();
+        return renderer.frame();
+    }
+
+    @Benchmark
+    public int fullRebuild() {
+        move();
+        for (SpriteRenderer spriteRenderer : spriteRenderers)
+            spriteRenderer.markDirty();
+        return renderer.frame();
+    }
+
+}
@@ -0,0 +1,82 @@
+package io.json;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes and deserializes a level with many small objects,
+ * with the binder and with the old reflective writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JSONBenchmark {
+
+    public static class Prop {
+        public String name;
+        public float x, y;
+        public int sprite;
+        public boolean solid;
+    }
+
+    public static class Level {
+        public String title;
+        public List<Prop> props;
+    }
+
+    @Param({"100000"})
+    public int objects;
+
+    private JSONBinder binder;
+    private Level level;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        level = new Level();
+        level.title = "benchmark";
+        level.props = new ArrayList<>(objects);
+        for (int i = 0; i < objects; i++) {
+            Prop prop = new Prop();
+            prop.name = "prop" + i;
+            prop.x = random.nextFloat() * 1000;
+            prop.y = random.nextFloat() * 1000;
+            prop.sprite = random.nextInt(256);
+            prop.solid = random.nextBoolean();
+            level.props.add(prop);
+        }
+        binder = new JSONBinder();
+        json = binder.toJSON(level);
+    }
+
+    @Benchmark
+    public String write() {
+        StringWriter out = new StringWriter(json.length());
+        binder.write(level, out);
+        return out.toString();
+    }
+
+    @Benchmark
+    public Level read() {
+        return binder.fromJSON(json, Level.class);
+    }
+
+    @Benchmark
+    public String writeLegacy() {
+        JSONObject object = new JSONObject();
+        object.startJSON();
+        object.addObject("level", level, 1, true, false);
+        object.endJSON();
+        return object.getJSON();
+    }
+
+}
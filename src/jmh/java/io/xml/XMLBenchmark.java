@@ -0,0 +1,71 @@
+package io.xml;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a generated Tiled map with two csv layers of the given size.
+ * A 1024x1024 map is about 8 MB, 2048x2048 about 35 MB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XMLBenchmark {
+
+    @Param({"256", "1024", "2048"})
+    public int mapSize;
+
+    private byte[] tmx;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        StringBuilder builder = new StringBuilder();
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        builder.append("<map version=\"1.8\" orientation=\"orthogonal\" width=\"").append(mapSize)
+                .append("\" height=\"").append(mapSize).append("\" tilewidth=\"16\" tileheight=\"16\">\n");
+        builder.append(" <tileset firstgid=\"1\" source=\"tiles.tsx\"/>\n");
+        for (int layer = 1; layer <= 2; layer++) {
+            builder.append(" <layer id=\"").append(layer).append("\" name=\"Layer ").append(layer)
+                    .append("\" width=\"").append(mapSize).append("\" height=\"").append(mapSize).append("\">\n");
+            builder.append("  <data encoding=\"csv\">\n");
+            for (int y = 0; y < mapSize; y++) {
+                for (int x = 0; x < mapSize; x++)
+                    builder.append(random.nextInt(300)).append(',');
+                builder.append('\n');
+            }
+            builder.append("</data>\n </layer>\n");
+        }
+        builder.append("</map>\n");
+        tmx = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public XMLElement parseTree() {
+        return XML.parse(tmx);
+    }
+
+    @Benchmark
+    public void readHandler(Blackhole blackhole) {
+        XML.read(tmx, new XMLHandler() {
+            @Override
+            public void startElement(String tag, Map<String, String> attributes) {
+                blackhole.consume(attributes);
+            }
+
+            @Override
+            public void value(String value) {
+                blackhole.consume(value.length());
+            }
+        });
+    }
+
+}
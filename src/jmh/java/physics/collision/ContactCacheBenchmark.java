@@ -0,0 +1,104 @@
+package physics.collision;
+
+import ecs.PolygonCollider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import physics.collision.shape.PrimitiveShape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures the narrow phase of a frame of stacked resting bodies: columns of octagons, each one resting on the one below,
+ * with a small gap to the neighbouring columns. Every body tests the bodies around it.
+ * "cached" keeps a {@link ContactCache} per body, "fresh" detects every pair from scratch.
+ * While resting the cache reuses the results of the last frame, while the whole stack drifts sideways
+ * the pairs have to be detected again and start with the axis of the last frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactCacheBenchmark {
+
+    private static final int COLUMNS = 10;
+    private static final float RADIUS = 5;
+
+    @Param({"10", "40"})
+    public int height;
+
+    @Param({"resting", "drifting"})
+    public String motion;
+
+    private PolygonCollider[] bodies;
+    private int[][] neighbours;
+    private ContactCache[] caches;
+    private final Consumer<ContactCache.Pair> ended = pair -> {
+    };
+    private float drift = 0.01f;
+
+    @Setup
+    public void setUp() {
+        float[] octagon = new float[16];
+        for (int i = 0; i < 8; i++) {
+            double angle = Math.PI / 8 + i * Math.PI / 4;
+            octagon[i * 2] = (float) Math.cos(angle) * RADIUS;
+            octagon[i * 2 + 1] = (float) Math.sin(angle) * RADIUS;
+        }
+        float flats = 2 * RADIUS * (float) Math.cos(Math.PI / 8);
+        bodies = new PolygonCollider[COLUMNS * height];
+        caches = new ContactCache[bodies.length];
+        for (int column = 0; column < COLUMNS; column++)
+            for (int row = 0; row < height; row++) {
+                PrimitiveShape shape = Shapes.convexPolygon(octagon);
+                //resting on the one below with a tiny overlap, a small gap to the next column
+                shape.setPosition(column * (flats + 0.3f), row * (flats - 0.02f));
+                bodies[column * height + row] = new PolygonCollider(shape);
+                caches[column * height + row] = new ContactCache();
+            }
+        neighbours = new int[bodies.length][];
+        for (int i = 0; i < bodies.length; i++) {
+            List<Integer> close = new ArrayList<>();
+            for (int j = 0; j < bodies.length; j++)
+                if (i != j && bodies[i].getShape().boundingSphere().intersection(bodies[j].getShape().boundingSphere()))
+                    close.add(j);
+            neighbours[i] = close.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    //moves all bodies by the same offset, so the pairs stay as they are
+    private void move() {
+        if (!motion.equals("drifting")) return;
+        drift = -drift;
+        for (PolygonCollider body : bodies) {
+            body.getShape().position().add(drift, 0);
+            body.getShape().adjust();
+        }
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        move();
+        for (int i = 0; i < bodies.length; i++) {
+            ContactCache cache = caches[i];
+            cache.beginFrame();
+            for (int j : neighbours[i]) {
+                blackhole.consume(cache.get(bodies[j]).detect(bodies[i]));
+            }
+            cache.endFrame(ended);
+        }
+    }
+
+    @Benchmark
+    public void fresh(Blackhole blackhole) {
+        move();
+        for (int i = 0; i < bodies.length; i++)
+            for (int j : neighbours[i])
+                blackhole.consume(bodies[i].detectCollision(bodies[j]).collision());
+    }
+
+}
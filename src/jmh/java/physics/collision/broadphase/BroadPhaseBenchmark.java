@@ -0,0 +1,94 @@
+package physics.collision.broadphase;
+
+import ecs.PolygonCollider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import physics.collision.Collider;
+import physics.collision.Shapes;
+import physics.collision.shape.Circle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single collision frame: every collider looks up its collision candidates.
+ * The colliders are tile sized and spread over a square world with a constant density,
+ * so the amount of actual candidates per collider stays the same while the collider count grows.
+ * "none" is the former scan over all colliders of a scene, testing the bounding spheres of every pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadPhaseBenchmark {
+
+    private static final float TILE = 32;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int colliders;
+
+    @Param({"none", "grid", "sap"})
+    public String broadPhase;
+
+    private List<PolygonCollider> all;
+    private BroadPhase phase;
+    private List<Collider> candidates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        //roughly 5 colliders per 10x10 tiles
+        float worldSize = (float) Math.sqrt(colliders * 20.0) * TILE;
+        all = new ArrayList<>(colliders);
+        for (int i = 0; i < colliders; i++) {
+            PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, TILE, TILE));
+            collider.getShape().setPosition(random.nextFloat() * worldSize, random.nextFloat() * worldSize);
+            all.add(collider);
+        }
+        switch (broadPhase) {
+            case "grid":
+                phase = new UniformGrid(TILE * 2);
+                break;
+            case "sap":
+                phase = new SweepAndPrune();
+                break;
+            default:
+                phase = null;
+        }
+        if (phase != null) all.forEach(phase::add);
+        candidates = new ArrayList<>();
+    }
+
+    @Benchmark
+    public void frame(Blackhole blackhole) {
+        for (PolygonCollider collider : all) {
+            candidates.clear();
+            if (phase != null) phase.query(collider, candidates);
+            else bruteForce(collider);
+            blackhole.consume(candidates.size());
+        }
+    }
+
+    @Benchmark
+    public void moveAndFrame(Blackhole blackhole) {
+        //every collider moves a little, like the dynamic ones would do each frame
+        for (PolygonCollider collider : all) {
+            collider.getShape().setPosition(collider.getShape().position().x + 1, collider.getShape().position().y);
+            if (phase != null) phase.update(collider);
+        }
+        frame(blackhole);
+    }
+
+    private void bruteForce(PolygonCollider collider) {
+        Circle sphere = collider.getShape().boundingSphere();
+        for (PolygonCollider other : all) {
+            if (other != collider && sphere.intersection(other.getShape().boundingSphere()))
+                candidates.add(other);
+        }
+    }
+
+}
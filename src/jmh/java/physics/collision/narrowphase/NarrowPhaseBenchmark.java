@@ -0,0 +1,67 @@
+package physics.collision.narrowphase;
+
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import physics.collision.CollisionInformation;
+import physics.collision.Shapes;
+import physics.collision.shape.PrimitiveShape;
+import util.MathUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the narrow phase of an overlapping and a separated pair of shapes.
+ * "vectors" goes through {@link MathUtils#gjksmCollision(PrimitiveShape, PrimitiveShape)}
+ * and {@link MathUtils#expandingPolytopeAlgorithm(PrimitiveShape, PrimitiveShape, Vector2f[])}, which wrap the results into new objects,
+ * "contact" writes them into a reused {@link Contact} with {@link NarrowPhase#collide(PrimitiveShape, PrimitiveShape, Contact)}.
+ * Run with -prof gc to see the allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NarrowPhaseBenchmark {
+
+    @Param({"boxes", "circles", "box-circle"})
+    public String shapes;
+
+    private PrimitiveShape a, overlapping, separated;
+    private final Contact contact = new Contact();
+
+    @Setup
+    public void setUp() {
+        a = shape(shapes.startsWith("box"));
+        a.setPosition(0, 0);
+        overlapping = shape(shapes.equals("boxes"));
+        overlapping.setPosition(7, 3);
+        separated = shape(shapes.equals("boxes"));
+        separated.setPosition(30, 12);
+    }
+
+    private static PrimitiveShape shape(boolean box) {
+        return box ? Shapes.axisAlignedRectangle(0, 0, 10, 10) : Shapes.circle(0, 0, 5);
+    }
+
+    @Benchmark
+    public Vector2f vectors() {
+        Vector2f penetration = null;
+        CollisionInformation information = MathUtils.gjksmCollision(a, overlapping);
+        if (information.collision()) {
+            Optional<Vector2f> optional = MathUtils.expandingPolytopeAlgorithm(a, overlapping, (Vector2f[]) information.get());
+            penetration = optional.orElse(null);
+        }
+        if (MathUtils.gjksmCollision(a, separated).collision()) penetration = null;
+        return penetration;
+    }
+
+    @Benchmark
+    public Contact contact() {
+        NarrowPhase.collide(a, separated, contact);
+        NarrowPhase.collide(a, overlapping, contact);
+        return contact;
+    }
+
+}
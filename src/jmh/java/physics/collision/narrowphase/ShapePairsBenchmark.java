@@ -0,0 +1,63 @@
+package physics.collision.narrowphase;
+
+import org.openjdk.jmh.annotations.*;
+import physics.collision.Shapes;
+import physics.collision.shape.PrimitiveShape;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the closed form tests of {@link ShapePairs} against GJK and EPA for each pair type,
+ * with an overlapping and a separated pair per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShapePairsBenchmark {
+
+    @Param({"box-box", "circle-circle", "circle-box", "circle-triangle"})
+    public String pair;
+
+    private PrimitiveShape a, overlapping, separated;
+    private final Contact contact = new Contact();
+
+    @Setup
+    public void setUp() {
+        String[] kinds = pair.split("-");
+        a = shape(kinds[0]);
+        a.setPosition(0, 0);
+        overlapping = shape(kinds[1]);
+        overlapping.setPosition(3, 2);
+        separated = shape(kinds[1]);
+        separated.setPosition(30, 12);
+    }
+
+    private static PrimitiveShape shape(String kind) {
+        switch (kind) {
+            case "circle":
+                return Shapes.circle(0, 0, 5);
+            case "triangle":
+                return Shapes.triangle(0, 0, 10, 0, 5, 10);
+            default:
+                return Shapes.axisAlignedRectangle(0, 0, 10, 10);
+        }
+    }
+
+    @Benchmark
+    public Contact closedForm() {
+        ShapePairs.collide(a, separated, contact);
+        ShapePairs.collide(a, overlapping, contact);
+        return contact;
+    }
+
+    @Benchmark
+    public Contact gjk() {
+        NarrowPhase.collide(a, separated, contact);
+        NarrowPhase.collide(a, overlapping, contact);
+        return contact;
+    }
+
+}
@@ -0,0 +1,80 @@
+package scene;
+
+import ecs.CollisionHandlers;
+import ecs.Dynamics;
+import ecs.GameObject;
+import ecs.PolygonCollider;
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import physics.collision.Shapes;
+import physics.collision.shape.PrimitiveShape;
+import physics.force.ConstantForce;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a single tick of a crowded scene, where every drifting object resolves its collisions with the others.
+ * Compares the collision pass of the scene, detecting each pair once, with every handler checking on its own.
+ * Boxes are detected in closed form, octagons by GJK and EPA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionPassBenchmark {
+
+    @Param({"1000", "5000"})
+    public int objects;
+
+    @Param({"true", "false"})
+    public boolean pass;
+
+    @Param({"box", "octagon"})
+    public String shape;
+
+    private HeadlessLoop loop;
+
+    @Setup
+    public void setUp() {
+        loop = new HeadlessLoop(60);
+        loop.getSceneManager().switchScene(new Scene() {
+            @Override
+            public void awake() {
+                enableEntityStore();
+                if (pass) enableCollisionPass();
+                Random random = new Random(1);
+                //dense enough for every object to touch a few others
+                float size = (float) Math.sqrt(objects) * 25;
+                for (int i = 0; i < objects; i++) {
+                    GameObject object = new GameObject(this, "object " + i, new Vector2f(random.nextFloat() * size, random.nextFloat() * size), 0);
+                    Dynamics dynamics = new Dynamics();
+                    dynamics.applyForce(new ConstantForce("drift", new Vector2f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f)));
+                    PolygonCollider collider = new PolygonCollider(shape.equals("box")
+                            ? Shapes.axisAlignedRectangle(0, 0, 20, 20) : octagon()).layer(1).mask(1);
+                    object.addComponent(dynamics);
+                    object.addComponent(collider);
+                    object.addComponent(CollisionHandlers.unpassablePolygonCollider(collider));
+                }
+            }
+        });
+        loop.start();
+    }
+
+    private static PrimitiveShape octagon() {
+        float[] coords = new float[16];
+        for (int i = 0; i < 8; i++) {
+            coords[i * 2] = 10 * (float) Math.cos(i * Math.PI / 4);
+            coords[i * 2 + 1] = 10 * (float) Math.sin(i * Math.PI / 4);
+        }
+        return Shapes.convexPolygon(coords);
+    }
+
+    @Benchmark
+    public void tick() {
+        loop.tick();
+    }
+
+}
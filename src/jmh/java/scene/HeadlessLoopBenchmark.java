@@ -0,0 +1,59 @@
+package scene;
+
+import ecs.CollisionHandlers;
+import ecs.Dynamics;
+import ecs.GameObject;
+import ecs.PolygonCollider;
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import physics.collision.Shapes;
+import physics.force.ConstantForce;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a single tick of a scene without a window.
+ * Every object is pushed by a constant force and a tenth of them resolve collisions with the others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeadlessLoopBenchmark {
+
+    @Param({"1000", "10000"})
+    public int objects;
+
+    private HeadlessLoop loop;
+
+    @Setup
+    public void setUp() {
+        loop = new HeadlessLoop(60);
+        loop.getSceneManager().switchScene(new Scene() {
+            @Override
+            public void awake() {
+                Random random = new Random(1);
+                float size = (float) Math.sqrt(objects) * 60;
+                for (int i = 0; i < objects; i++) {
+                    GameObject object = new GameObject(this, "object " + i, new Vector2f(random.nextFloat() * size, random.nextFloat() * size), 0);
+                    Dynamics dynamics = new Dynamics();
+                    dynamics.applyForce(new ConstantForce("drift", new Vector2f(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f)));
+                    PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 20, 20)).layer(1).mask(1);
+                    object.addComponent(dynamics);
+                    object.addComponent(collider);
+                    if (i % 10 == 0) object.addComponent(CollisionHandlers.unpassablePolygonCollider(collider));
+                }
+            }
+        });
+        loop.start();
+    }
+
+    @Benchmark
+    public void tick() {
+        loop.tick();
+    }
+
+}
@@ -0,0 +1,68 @@
+package scene;
+
+import ecs.CollisionHandlers;
+import ecs.Dynamics;
+import ecs.GameObject;
+import ecs.PolygonCollider;
+import org.joml.Vector2f;
+import org.openjdk.jmh.annotations.*;
+import physics.collision.BodyType;
+import physics.collision.Shapes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a single tick of a scene where nothing moves: bodies resting next to walls, each resolving its collisions.
+ * Compares static walls and sleeping bodies with a world where all colliders are dynamic and never fall asleep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdleWorldBenchmark {
+
+    @Param({"1000", "10000"})
+    public int bodies;
+
+    @Param({"true", "false"})
+    public boolean sleeping;
+
+    private HeadlessLoop loop;
+
+    @Setup
+    public void setUp() {
+        loop = new HeadlessLoop(60);
+        loop.getSceneManager().switchScene(new Scene() {
+            @Override
+            public void awake() {
+                int columns = (int) Math.sqrt(bodies);
+                for (int i = 0; i < bodies; i++) {
+                    float x = (i % columns) * 60, y = (i / columns) * 60;
+                    GameObject wall = new GameObject(this, "wall " + i, new Vector2f(x, y + 20), 0);
+                    PolygonCollider wallCollider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 40, 20)).layer(1).mask(1);
+                    wall.addComponent(wallCollider.bodyType(sleeping ? BodyType.STATIC : BodyType.DYNAMIC));
+
+                    GameObject body = new GameObject(this, "body " + i, new Vector2f(x + 10, y), 0);
+                    Dynamics dynamics = new Dynamics();
+                    dynamics.setSleepingAllowed(sleeping);
+                    PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 20, 20)).layer(1).mask(1);
+                    body.addComponent(dynamics);
+                    body.addComponent(collider);
+                    body.addComponent(CollisionHandlers.unpassablePolygonCollider(collider));
+                }
+            }
+        });
+        loop.start();
+        //let the bodies fall asleep
+        for (int i = 0; i <= Dynamics.SLEEP_FRAMES; i++)
+            loop.tick();
+    }
+
+    @Benchmark
+    public void tick() {
+        loop.tick();
+    }
+
+}
@@ -0,0 +1,64 @@
+package tiles;
+
+import ecs.PolygonCollider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import physics.collision.Collider;
+import physics.collision.Shapes;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Visits the tiles of a 1280x720 view and resolves the tile collisions of a single body on maps of growing size
+ * with a filled ground layer and a collidable layer with 20% walls.
+ * Both should stay constant, no matter how large the map is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TileMapBenchmark {
+
+    private static final float TILE_SIZE = 32;
+
+    @Param({"100", "500", "2000"})
+    public int mapSize;
+
+    private TileMap tileMap;
+    private PolygonCollider body;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        tileMap = new TileMap(TILE_SIZE, TILE_SIZE);
+        TileLayer ground = new TileLayer("ground", mapSize, mapSize, false);
+        TileLayer walls = new TileLayer("walls collidable", mapSize, mapSize, true);
+        for (int y = 0; y < mapSize; y++) {
+            for (int x = 0; x < mapSize; x++) {
+                ground.set(x, y, 1 + random.nextInt(200));
+                if (random.nextFloat() < 0.2f) walls.set(x, y, 1 + random.nextInt(200));
+            }
+        }
+        tileMap.addLayer(ground).addLayer(walls);
+        tileMap.getTileCollider().layer(2).mask(2);
+        body = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 100, 100)).layer(2).mask(2);
+        body.getShape().setPosition(mapSize * TILE_SIZE / 2, mapSize * TILE_SIZE / 2);
+    }
+
+    @Benchmark
+    public void visibleTiles(Blackhole blackhole) {
+        float x = mapSize * TILE_SIZE / 2, y = mapSize * TILE_SIZE / 2;
+        tileMap.forEachTile(x, y, x + 1280, y + 720, false, (layer, tileX, tileY, id) -> blackhole.consume(id));
+    }
+
+    @Benchmark
+    public void collisionQuery(Blackhole blackhole) {
+        Consumer<Collider> check = tile -> blackhole.consume(body.detectCollision(tile).collision());
+        tileMap.query(body, check);
+    }
+
+}
@@ -0,0 +1,52 @@
+package ui;
+
+import graphics.Color;
+import org.openjdk.jmh.annotations.*;
+import scene.Scene;
+import ui.fonts.Font;
+import util.Assets;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changes the string of 1000 HUD labels, like health or score counters, once per frame.
+ * The labels share a single font and reuse their glyphs, so only the changed digits are marked for redrawing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextUpdateBenchmark {
+
+    @Param({"1000"})
+    public int labels;
+
+    private Text[] texts;
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("java.awt.headless", "true");
+        Scene scene = new Scene() {
+        };
+        Font font = Assets.getFont(16, true);
+        texts = new Text[labels];
+        for (int i = 0; i < labels; i++)
+            texts[i] = new Text(scene, "Score: 0", font, Color.WHITE, (i % 40) * 100, (i / 40) * 20, 1, true, false);
+    }
+
+    @Benchmark
+    public int updateLabels() {
+        frame++;
+        int glyphs = 0;
+        for (int i = 0; i < labels; i++) {
+            Text text = texts[i];
+            text.change("Score: " + (frame + i));
+            glyphs += text.getGlyphRenderers().size();
+        }
+        return glyphs;
+    }
+
+}
@@ -0,0 +1,57 @@
+package util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debug logs inside of a hot loop, once with debug logs filtered out and once written to a log file in the background.
+ * Filtered out logs should cost about as much as the level check, the message of the supplier is never built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private File folder;
+    private int value;
+
+    @Setup
+    public void setUp() throws IOException {
+        Log.setLogLevel(Log.FATAL_ONLY);
+        if (enabled) {
+            folder = Files.createTempDirectory("azurite-log").toFile();
+            Log.startLogging(folder, Log.ALL);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Log.stopLogging();
+        if (folder != null) {
+            File[] files = folder.listFiles();
+            if (files != null) for (File file : files) file.delete();
+            folder.delete();
+        }
+    }
+
+    @Benchmark
+    public void debug() {
+        Log.debug("value " + value++);
+    }
+
+    @Benchmark
+    public void debugSupplier() {
+        Log.debug(() -> "value " + value++);
+    }
+
+}
@@ -0,0 +1,51 @@
+package util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A nested pair of scopes, as placed around every system of a frame, with the profiler disabled and enabled.
+ * A frame is ended every 256 scopes so the ring buffers wrap around like in a running game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfilerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private int calls;
+
+    @Setup
+    public void setUp() {
+        Profiler.enable();
+        if (!enabled) Profiler.disable();
+        Profiler.beginFrame();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Profiler.disable();
+        Profiler.clear();
+    }
+
+    @Benchmark
+    public void nestedScopes(Blackhole blackhole) {
+        try (Profiler.Scope outer = Profiler.scope("outer")) {
+            blackhole.consume(outer);
+            Profiler.begin("inner");
+            Profiler.end();
+        }
+        if ((++calls & 255) == 0) {
+            Profiler.endFrame();
+            Profiler.beginFrame();
+        }
+    }
+
+}
@@ -12,9 +12,6 @@ import java.util.List;
  */
 public abstract class Node<Position> {
 
-    //a marker used for pathfinding algorithms - can be anything depending on the algorithm
-    private Marker<Position> marker = null;
-
     /**
      * The external position data contained in this node.
      * The exact value of this method is ignored by the pathfinding algorithms,
@@ -31,19 +28,4 @@ public abstract class Node<Position> {
      */
     public abstract List<Path<Position>> paths();
 
-    public final Marker<Position> getMarker() {
-        return marker;
-    }
-
-    public final void setMarker(Marker<Position> marker) {
-        this.marker = marker;
-    }
-
-    public final boolean hasMarker() {
-        return marker != null;
-    }
-
-    interface Marker<T> {
-    }
-
 }
\ No newline at end of file
@@ -1,12 +1,20 @@
 package ai.path;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * This class contains currently 2 pathfinding methods:
  * - a-star (A*)
  * - dijkstra
+ * All bookkeeping of a search is kept in a {@link SearchContext}, so the graph is never modified
+ * and searches on the same graph can run in parallel, see {@link #solveAll(List, Function)}.
  *
  * @author Juyas
  * @version 08.07.2021
@@ -14,6 +22,9 @@ import java.util.function.BiFunction;
  */
 public class Pathfinding {
 
+    //a reusable context per thread, so queries by different threads never share any state
+    private static final ThreadLocal<SearchContext> CONTEXT = ThreadLocal.withInitial(SearchContext::new);
+
     /**
      * A flexible implementation of the dijkstra pathfinding algorithm.
      * It uses a finite possibly directional weighted graph structure
@@ -26,43 +37,21 @@ public class Pathfinding {
      * @return an optional containing the shortest path if there is one
      */
     public static <Position> Optional<ResultPath<Position>> dijkstra(Map<Position> map) {
-        //special case might break algorithm, so better exit directly
-        if (map.start().equals(map.target())) return Optional.of(new DijkstraPath<>(map.start()));
-
-        PriorityQueue<DijkstraPath<Position>> queue = new PriorityQueue<>((a, b) -> Float.compare(a.cost, b.cost));
-        Node<Position> current = map.start();
-        queue.offer(new DijkstraPath<>(current));
-        while (!queue.isEmpty()) {
-            DijkstraPath<Position> poll = queue.poll();
-            current = poll.target();
-            //if the current shortest path is our target path, we are done here
-            if (current.equals(map.target()))
-                return Optional.of((DijkstraPath<Position>) current.getMarker());
-            //mark the path as the shortest possible
-            poll.blacked = true;
-            for (Path<Position> path : current.paths()) {
-                Node<Position> successor = path.end();
-                if (successor.hasMarker()) {
-                    DijkstraPath<?> marker = (DijkstraPath<?>) successor.getMarker();
-                    //blacked nodes can be ignored, their shortest path is already known
-                    if (marker.blacked) continue;
-                    //if the new path is better, use it
-                    if (marker.cost > poll.cost) {
-                        //queue should only contain active and relevant paths
-                        queue.remove(marker);
-                        DijkstraPath<Position> newPath = new DijkstraPath<>(poll, successor, path.cost());
-                        queue.offer(newPath);
-                        successor.setMarker(newPath);
-                    }
-                } else {
-                    //add path, because there is none yet known for this node
-                    DijkstraPath<Position> newPath = new DijkstraPath<>(poll, successor, path.cost());
-                    queue.offer(newPath);
-                    successor.setMarker(newPath);
-                }
-            }
-        }
-        return Optional.empty();
+        return dijkstra(map, CONTEXT.get());
+    }
+
+    /**
+     * The dijkstra pathfinding algorithm using a given context for its bookkeeping.
+     *
+     * @param map        a map containing a graph of weighted node references
+     * @param context    the context to use, it must not be used by another thread at the same time
+     * @param <Position> any class describing a node - untouched by the algorithm - only for the result to make sense
+     * @return an optional containing the shortest path if there is one
+     * @see #dijkstra(Map)
+     */
+    public static <Position> Optional<ResultPath<Position>> dijkstra(Map<Position> map, SearchContext context) {
+        //dijkstra is A* without any guess about the remaining distance
+        return astar(map, (a, b) -> 0f, context);
     }
 
     /**
@@ -82,134 +71,156 @@ public class Pathfinding {
      * @return an optional containing the found path if there is one
      */
     public static <Position> Optional<ResultPath<Position>> astar(Map<Position> map, BiFunction<Position, Position, Float> hCost) {
-        PriorityQueue<Node<Position>> openList = new PriorityQueue<>(Pathfinding::compareAStarNode);
+        return astar(map, hCost, CONTEXT.get());
+    }
+
+    /**
+     * The A* (a-star) algorithm using a given context for its bookkeeping.
+     *
+     * @param map        a map containing a graph of weighted node references
+     * @param hCost      the hCost algorithm, see {@link #astar(Map, BiFunction)}
+     * @param context    the context to use, it must not be used by another thread at the same time
+     * @param <Position> any class describing a node - untouched by the algorithm - only for the result to make sense
+     * @return an optional containing the found path if there is one
+     * @see #astar(Map, BiFunction)
+     */
+    public static <Position> Optional<ResultPath<Position>> astar(Map<Position> map, BiFunction<Position, Position, Float> hCost, SearchContext context) {
         final Node<Position> start = map.start();
         final Node<Position> target = map.target();
-        AStarMarker<Position> startMarker = new AStarMarker<>();
-        startMarker.gcost = 0;
-        startMarker.hcost = hCost.apply(map.start().position(), target.position());
-        startMarker.closed = true; //start node does not have to be worked on
-        start.setMarker(startMarker);
-        openList.offer(start);
-        //repeat until the target node is found
-        while (!openList.isEmpty()) {
-            //the next node to expand
-            Node<Position> curr = openList.poll();
-            //if the target node is found, the algorithm is done, no further calculation is necessary
-            if (curr.equals(target)) return Optional.of(createAStarPath(map.start(), map.target()));
-            //expand the current node by running over all adjacent nodes, calculating their costs and enqueue them
-            AStarMarker<Position> currentMarker = (AStarMarker<Position>) curr.getMarker();
-            for (Path<Position> positionPath : curr.paths()) {
-                AStarMarker<Position> nextMarker;
-                Node<Position> next = positionPath.end();
-                //on the first visit, a node may not have a marker
-                boolean hasMarker = next.hasMarker();
-                if (hasMarker) {
-                    nextMarker = (AStarMarker<Position>) next.getMarker();
-                    //if the cell already has been processed, go on
-                    if (nextMarker.closed) continue;
-                } else next.setMarker(nextMarker = new AStarMarker<>());
-                float gCost = currentMarker.gcost + positionPath.cost();
-                //whether the current node is known to the queue
-                boolean inQueue = hasMarker && openList.contains(next);
-                //if gcost is higher anyways, no need to waste time here
-                if (inQueue && gCost >= nextMarker.gcost) continue;
-                nextMarker.predecessor = curr;
-                nextMarker.gcost = gCost;
-                //the hcost is infinite, if its a new marker - new marker check does not work,
-                //since the marker can be added but not proceeded the first time
-                if (Float.isInfinite(nextMarker.hcost))
-                    nextMarker.hcost = hCost.apply(next.position(), target.position());
-                //enqueue if necessary
-                if (!inQueue)
-                    openList.offer(next);
+        context.reset();
+        try {
+            int startSlot = context.slot(start);
+            context.setHCost(startSlot, hCost.apply(start.position(), target.position()));
+            context.open(startSlot, -1, 0);
+            //repeat until the target node is found
+            while (context.hasOpen()) {
+                //the next node to expand, it is closed by polling it
+                int currSlot = context.poll();
+                @SuppressWarnings("unchecked")
+                Node<Position> curr = (Node<Position>) context.node(currSlot);
+                //if the target node is found, the algorithm is done, no further calculation is necessary
+                if (curr.equals(target))
+                    return Optional.of(new NodePath<>(start, target, context.backtrace(currSlot)));
+                //expand the current node by running over all adjacent nodes, calculating their costs and enqueue them
+                List<Path<Position>> paths = curr.paths();
+                for (int i = 0; i < paths.size(); i++) {
+                    Path<Position> path = paths.get(i);
+                    Node<Position> next = path.end();
+                    int nextSlot = context.slot(next);
+                    //if the node already has been processed, go on
+                    if (context.isClosed(nextSlot)) continue;
+                    float gCost = context.gCost(currSlot) + path.cost();
+                    //if gcost is higher anyways, no need to waste time here
+                    if (gCost >= context.gCost(nextSlot)) continue;
+                    //the hcost is only calculated once per node
+                    if (!context.hasHCost(nextSlot))
+                        context.setHCost(nextSlot, hCost.apply(next.position(), target.position()));
+                    //enqueue or move up in the queue
+                    context.open(nextSlot, currSlot, gCost);
+                }
             }
-            currentMarker.closed = true;
+            //no path found
+            return Optional.empty();
+        } finally {
+            //do not keep references to the graph after the search
+            context.reset();
         }
-        //no path found
-        return Optional.empty();
     }
 
-    private static <Position> int compareAStarNode(Node<Position> node1, Node<Position> node2) {
-        AStarMarker<Position> marker1 = (AStarMarker<Position>) node1.getMarker();
-        AStarMarker<Position> marker2 = (AStarMarker<Position>) node2.getMarker();
-        return Float.compare(marker1.fcost(), marker2.fcost()) * 2 + Float.compare(marker1.hcost, marker2.hcost);
+    /**
+     * Solves many pathfinding queries at once, e.g. for all agents of a scene, using the common {@link ForkJoinPool}.
+     *
+     * @param maps       all queries to solve
+     * @param algorithm  the algorithm to solve each query with, e.g. {@code map -> Pathfinding.astar(map, hCost)}
+     * @param <Position> any class describing a node
+     * @return the results in the same order as the given maps
+     * @see #solveAll(List, Function, ForkJoinPool)
+     */
+    public static <Position> List<Optional<ResultPath<Position>>> solveAll(List<? extends Map<Position>> maps,
+                                                                            Function<Map<Position>, Optional<ResultPath<Position>>> algorithm) {
+        return solveAll(maps, algorithm, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Solves many pathfinding queries at once in parallel on a given pool.
+     * Every worker thread uses its own {@link SearchContext}, so the queries may share the same graph,
+     * as long as the graph itself is not modified while solving.
+     * The hCost function of the algorithm is called by multiple threads and therefore has to be thread safe.
+     *
+     * @param maps       all queries to solve
+     * @param algorithm  the algorithm to solve each query with, e.g. {@code map -> Pathfinding.astar(map, hCost)}
+     * @param pool       the pool to run the queries on
+     * @param <Position> any class describing a node
+     * @return the results in the same order as the given maps
+     */
+    public static <Position> List<Optional<ResultPath<Position>>> solveAll(List<? extends Map<Position>> maps,
+                                                                            Function<Map<Position>, Optional<ResultPath<Position>>> algorithm,
+                                                                            ForkJoinPool pool) {
+        //every task only sets the results of its own range
+        List<Optional<ResultPath<Position>>> results = new ArrayList<>(Collections.nCopies(maps.size(), Optional.empty()));
+        pool.invoke(new BatchTask<>(maps, algorithm, results, 0, maps.size()));
+        return results;
     }
 
-    //helper method for astar algorithm - this method creates the result path via backtrace
-    private static <Position> ResultPath<Position> createAStarPath(Node<Position> start, Node<Position> target) {
-        List<Node<Position>> fullPath = new ArrayList<>();
-        fullPath.add(target);
-        Node<Position> c = target;
-        //backtrace all marked predecessors
-        while (!c.equals(start)) {
-            AStarMarker<Position> marker = (AStarMarker<Position>) c.getMarker();
-            c = marker.predecessor;
-            fullPath.add(c);
+    //helper task for solveAll - splits the queries until only a few are left to be solved directly
+    private static class BatchTask<Position> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 4;
+
+        private final List<? extends Map<Position>> maps;
+        private final Function<Map<Position>, Optional<ResultPath<Position>>> algorithm;
+        private final List<Optional<ResultPath<Position>>> results;
+        private final int from, to;
+
+        BatchTask(List<? extends Map<Position>> maps, Function<Map<Position>, Optional<ResultPath<Position>>> algorithm,
+                  List<Optional<ResultPath<Position>>> results, int from, int to) {
+            this.maps = maps;
+            this.algorithm = algorithm;
+            this.results = results;
+            this.from = from;
+            this.to = to;
         }
-        //reverse order to make it start from the beginning
-        Collections.reverse(fullPath);
-        return new ResultPath<Position>() {
-            @Override
-            public Node<Position> start() {
-                return start;
-            }
 
-            @Override
-            public Node<Position> target() {
-                return target;
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++)
+                    results.set(i, algorithm.apply(maps.get(i)));
+                return;
             }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask<>(maps, algorithm, results, from, mid), new BatchTask<>(maps, algorithm, results, mid, to));
+        }
 
-            @Override
-            public List<Node<Position>> fullPath() {
-                return fullPath;
-            }
-        };
     }
 
-    //helper class describing a path to a specific node in the dijkstra algorithm
-    private static class DijkstraPath<Position> implements ResultPath<Position>, Node.Marker<Position> {
-        float cost;
-        List<Node<Position>> path;
-        private boolean blacked = false; //true means this path is the shortest one
+    //helper class describing the result of a search
+    private static class NodePath<Position> implements ResultPath<Position> {
 
-        DijkstraPath(Node<Position> node) {
-            this.path = new ArrayList<>();
-            this.path.add(node);
-            this.cost = 0;
-        }
+        private final Node<Position> start;
+        private final Node<Position> target;
+        private final List<Node<Position>> fullPath;
 
-        DijkstraPath(DijkstraPath<Position> prev, Node<Position> newNode, float additionalCost) {
-            path = new ArrayList<>();
-            path.addAll(prev.path);
-            path.add(newNode);
-            this.cost = prev.cost + additionalCost;
+        NodePath(Node<Position> start, Node<Position> target, List<Node<Position>> fullPath) {
+            this.start = start;
+            this.target = target;
+            this.fullPath = fullPath;
         }
 
         @Override
         public Node<Position> start() {
-            return path.get(0);
+            return start;
         }
 
         @Override
         public Node<Position> target() {
-            return path.get(path.size() - 1);
+            return target;
         }
 
         @Override
         public List<Node<Position>> fullPath() {
-            return path;
-        }
-    }
-
-    private static class AStarMarker<Position> implements Node.Marker<Position> {
-        float gcost = Float.POSITIVE_INFINITY;
-        float hcost = Float.POSITIVE_INFINITY;
-        boolean closed = false;
-        Node<Position> predecessor = null;
-
-        float fcost() {
-            return gcost + hcost;
+            return fullPath;
         }
     }
 
@@ -0,0 +1,246 @@
+package ai.path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The bookkeeping of a single pathfinding query.
+ * Every node reached by a search gets a slot (in order of discovery) and all data of the search,
+ * like the costs and the predecessor of a node, is kept in arrays indexed by that slot instead of the nodes themselves.
+ * Therefore, the graph is never modified by a search and any amount of searches can run on the same graph at once,
+ * as long as every running search uses its own context.
+ * <p>
+ * A context can be reused for any amount of subsequent searches, which avoids most allocations,
+ * but it must never be used by two threads at the same time.
+ *
+ * @see Pathfinding
+ */
+public final class SearchContext {
+
+    private static final byte UNSEEN = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    //open addressing identity hash table mapping nodes to their slots
+    private Node<?>[] table;
+    private int[] tableSlots;
+
+    //side arrays indexed by slot
+    private Node<?>[] nodes;
+    private int[] tableIndex;
+    private float[] gCost;
+    private float[] hCost;
+    private int[] parent;
+    private byte[] state;
+    private int[] heapIndex;
+    private int count;
+
+    //indexed binary heap of slots ordered by fCost, then hCost
+    private int[] heap;
+    private int heapSize;
+
+    public SearchContext() {
+        this.table = new Node<?>[INITIAL_CAPACITY * 2];
+        this.tableSlots = new int[INITIAL_CAPACITY * 2];
+        this.nodes = new Node<?>[INITIAL_CAPACITY];
+        this.tableIndex = new int[INITIAL_CAPACITY];
+        this.gCost = new float[INITIAL_CAPACITY];
+        this.hCost = new float[INITIAL_CAPACITY];
+        this.parent = new int[INITIAL_CAPACITY];
+        this.state = new byte[INITIAL_CAPACITY];
+        this.heapIndex = new int[INITIAL_CAPACITY];
+        this.heap = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Forget everything about the previous search.
+     * Only touches the data of the nodes reached by the previous search.
+     */
+    void reset() {
+        for (int i = 0; i < count; i++) {
+            table[tableIndex[i]] = null;
+            nodes[i] = null;
+        }
+        count = 0;
+        heapSize = 0;
+    }
+
+    /**
+     * The slot of a node, creates a new unseen slot if the node was not reached before.
+     *
+     * @param node the node
+     * @return the slot of the node
+     */
+    int slot(Node<?> node) {
+        int mask = table.length - 1;
+        int i = mix(System.identityHashCode(node)) & mask;
+        while (table[i] != null) {
+            if (table[i] == node) return tableSlots[i];
+            i = (i + 1) & mask;
+        }
+        if (count == nodes.length) {
+            grow();
+            return slot(node);
+        }
+        int slot = count++;
+        table[i] = node;
+        tableSlots[i] = slot;
+        nodes[slot] = node;
+        tableIndex[slot] = i;
+        gCost[slot] = Float.POSITIVE_INFINITY;
+        hCost[slot] = Float.POSITIVE_INFINITY;
+        parent[slot] = -1;
+        state[slot] = UNSEEN;
+        return slot;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    //double all capacities, the hash table is rebuilt, since its size changes
+    private void grow() {
+        int capacity = nodes.length * 2;
+        nodes = Arrays.copyOf(nodes, capacity);
+        tableIndex = Arrays.copyOf(tableIndex, capacity);
+        gCost = Arrays.copyOf(gCost, capacity);
+        hCost = Arrays.copyOf(hCost, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        state = Arrays.copyOf(state, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        table = new Node<?>[capacity * 2];
+        tableSlots = new int[capacity * 2];
+        int mask = table.length - 1;
+        for (int slot = 0; slot < count; slot++) {
+            int i = mix(System.identityHashCode(nodes[slot])) & mask;
+            while (table[i] != null) i = (i + 1) & mask;
+            table[i] = nodes[slot];
+            tableSlots[i] = slot;
+            tableIndex[slot] = i;
+        }
+    }
+
+    Node<?> node(int slot) {
+        return nodes[slot];
+    }
+
+    float gCost(int slot) {
+        return gCost[slot];
+    }
+
+    boolean isClosed(int slot) {
+        return state[slot] == CLOSED;
+    }
+
+    boolean hasHCost(int slot) {
+        return hCost[slot] != Float.POSITIVE_INFINITY;
+    }
+
+    void setHCost(int slot, float value) {
+        hCost[slot] = value;
+    }
+
+    /**
+     * Reach a node with a new cost from a predecessor.
+     * Enqueues the node, if it is not yet in the open set, or moves it up in the open set otherwise.
+     *
+     * @param slot        the slot of the reached node
+     * @param predecessor the slot of the predecessor or -1
+     * @param g           the new cost from the start
+     */
+    void open(int slot, int predecessor, float g) {
+        gCost[slot] = g;
+        parent[slot] = predecessor;
+        if (state[slot] == OPEN) {
+            siftUp(heapIndex[slot]);
+            return;
+        }
+        state[slot] = OPEN;
+        heap[heapSize] = slot;
+        heapIndex[slot] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    boolean hasOpen() {
+        return heapSize > 0;
+    }
+
+    /**
+     * Removes the slot with the lowest fCost from the open set.
+     * The slot is closed afterwards.
+     *
+     * @return the slot with the lowest fCost
+     */
+    int poll() {
+        int min = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        state[min] = CLOSED;
+        return min;
+    }
+
+    //the same order as the previous priority queue: fCost first, hCost decides for equal fCosts
+    private boolean less(int slotA, int slotB) {
+        float fA = gCost[slotA] + hCost[slotA];
+        float fB = gCost[slotB] + hCost[slotB];
+        if (fA != fB) return fA < fB;
+        return hCost[slotA] < hCost[slotB];
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parentSlot = heap[parentIndex];
+            if (!less(slot, parentSlot)) break;
+            heap[index] = parentSlot;
+            heapIndex[parentSlot] = index;
+            index = parentIndex;
+        }
+        heap[index] = slot;
+        heapIndex[slot] = index;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < heapSize && less(heap[right], heap[child])) child = right;
+            if (!less(heap[child], slot)) break;
+            heap[index] = heap[child];
+            heapIndex[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = slot;
+        heapIndex[slot] = index;
+    }
+
+    /**
+     * Creates the list of nodes from the start to a given slot by following all predecessors.
+     *
+     * @param targetSlot the slot of the last node of the path
+     * @return the full path
+     */
+    @SuppressWarnings("unchecked")
+    <Position> List<Node<Position>> backtrace(int targetSlot) {
+        List<Node<Position>> path = new ArrayList<>();
+        for (int slot = targetSlot; slot != -1; slot = parent[slot])
+            path.add((Node<Position>) nodes[slot]);
+        //reverse order to make it start from the beginning
+        Collections.reverse(path);
+        return path;
+    }
+
+}
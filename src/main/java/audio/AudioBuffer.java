@@ -1,6 +1,8 @@
 package audio;
 
 import org.lwjgl.BufferUtils;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.libc.LibCStdlib;
 
 import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
@@ -10,10 +12,13 @@ import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 import java.util.Arrays;
 
 import static org.lwjgl.openal.AL10.*;
+import static org.lwjgl.stb.STBVorbis.stb_vorbis_decode_filename;
 
 /**
  * 
@@ -40,9 +45,14 @@ public class AudioBuffer {
      */
     private long fileSize = -1;
     /**
-     * Music data.
+     * Music data, or null if the file is streamed.
      */
     private byte[] audioData;
+    /**
+     * The file, which is read again every time a streamed buffer is played.
+     */
+    private String path;
+    private boolean streaming;
     /**
      * Audio metadata.
      */
@@ -63,24 +73,84 @@ public class AudioBuffer {
 
     public AudioBuffer(String path) {
         this.init(path);
+        this.upload();
+    }
+
+    /**
+     * Decodes an audio file without touching OpenAL, so this can be called from any thread.
+     * The buffer has to be {@link #upload() uploaded} on the thread of the audio context before it can be played.
+     *
+     * @param path the path to a .wav or .ogg file
+     * @return the decoded buffer
+     */
+    public static AudioBuffer decode(String path) {
+        AudioBuffer buffer = new AudioBuffer();
+        buffer.init(path);
+        return buffer;
+    }
+
+    /**
+     * Prepares an audio file for streaming: only its format is read now, the samples are decoded from the file
+     * piece by piece while the buffer is played. Use this for music and other long files.
+     * Like {@link #decode(String)}, this does not touch OpenAL.
+     *
+     * @param path the path to a .wav or .ogg file
+     * @return the streamed buffer, which has to be {@link #upload() uploaded} before it can be played
+     */
+    public static AudioBuffer stream(String path) {
+        AudioBuffer buffer = new AudioBuffer();
+        buffer.path = path;
+        buffer.streaming = true;
+        try (AudioStream stream = openFile(path)) {
+            buffer.channels = stream.getChannels();
+            buffer.sampleSize = stream.getSampleSize();
+            buffer.sampleRate = stream.getSampleRate();
+            buffer.fileSize = stream.getLength();
+            buffer.selectFormat();
+            buffer.computeTime();
+        } catch (RuntimeException e) {
+            assert false : "something went wrong with loading file " + path + ": " + e;
+            buffer.fileSize = -1;
+        }
+        return buffer;
+    }
+
+    /**
+     * Opens a stream decoding an audio file while it is read.
+     *
+     * @param path the path to a .wav or .ogg file
+     * @return the stream
+     */
+    public static AudioStream openFile(String path) {
+        if (path.toLowerCase().endsWith(".ogg")) return new VorbisStream(path);
+        return new WaveStream(path);
+    }
+
+    /**
+     * Opens a new stream over the samples of this buffer, which are read from memory or decoded from the file if it is streamed.
+     *
+     * @return the stream, which has to be closed once it is no longer needed
+     */
+    public AudioStream openStream() {
+        if (fileSize == -1) throw new IllegalStateException("the audio buffer could not be loaded");
+        if (streaming) return openFile(path);
+        return new DecodedStream(this);
     }
 
     /**
      * Initializer of an audio buffer.
      */
     private void init(String path) {
-        AudioInputStream stream;
-
         // i don't know if we should be able to run this twice.
         if (fileSize != -1) return;
 
         try {
-            for (int i = 0; i < NUM_BUFFERS; i++) {
-                alBuffers[i] = alGenBuffers();
+            if (path.toLowerCase().endsWith(".ogg")) {
+                initVorbis(path);
+                return;
             }
-            AudioMaster.alGetError();
 
-            stream = AudioSystem.getAudioInputStream(new File(path));
+            AudioInputStream stream = AudioSystem.getAudioInputStream(new File(path));
             fileSize = stream.getFrameLength() * stream.getFormat().getFrameSize();
 
             AudioFormat audioFormat = stream.getFormat();
@@ -89,34 +159,94 @@ public class AudioBuffer {
             channels = audioFormat.getChannels();
             sampleSize = audioFormat.getSampleSizeInBits();
             sampleRate = audioFormat.getSampleRate();
-
-            if (channels == MONO) {
-                if (sampleSize == 8) {
-                    format = AL_FORMAT_MONO8;
-                } else if (sampleSize == 16) {
-                    format = AL_FORMAT_MONO16;
-                }
-            } else if (channels == STEREO) {
-                if (sampleSize == 8) {
-                    format = AL_FORMAT_STEREO8;
-                } else if (sampleSize == 16) {
-                    format = AL_FORMAT_STEREO16;
-                }
-            }
+            selectFormat();
 
             audioData = new byte[stream.available()];
             stream.read(audioData);
+            computeTime();
         } catch (UnsupportedAudioFileException | IOException e) {
             assert false : "something went wrong with loading file " + path + ": " + e;
             fileSize = -1;
-            alDeleteBuffers(alBuffers);
         }
     }
 
+    /**
+     * Decodes a whole ogg vorbis file with STB into 16 bit samples.
+     */
+    private void initVorbis(String path) throws IOException {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer channelCount = stack.mallocInt(1);
+            IntBuffer rate = stack.mallocInt(1);
+            ShortBuffer pcm = stb_vorbis_decode_filename(path, channelCount, rate);
+            if (pcm == null) throw new IOException("could not decode " + path);
+
+            channels = channelCount.get(0);
+            sampleSize = 16;
+            sampleRate = rate.get(0);
+            selectFormat();
+
+            audioData = new byte[pcm.remaining() * 2];
+            ByteBuffer.wrap(audioData).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().put(pcm);
+            fileSize = audioData.length;
+            computeTime();
+            LibCStdlib.free(pcm);
+        }
+    }
+
+    private void computeTime() {
+        int frameSize = channels * sampleSize / 8;
+        long bytes = audioData != null ? audioData.length : fileSize;
+        if (frameSize > 0 && sampleRate > 0) time = (long) (bytes / frameSize * 1000 / sampleRate);
+    }
+
+    private void selectFormat() {
+        if (channels == MONO) {
+            if (sampleSize == 8) {
+                format = AL_FORMAT_MONO8;
+            } else if (sampleSize == 16) {
+                format = AL_FORMAT_MONO16;
+            }
+        } else if (channels == STEREO) {
+            if (sampleSize == 8) {
+                format = AL_FORMAT_STEREO8;
+            } else if (sampleSize == 16) {
+                format = AL_FORMAT_STEREO16;
+            }
+        }
+    }
+
+    /**
+     * Creates the OpenAL buffers of a decoded file, has to be called once on the thread of the audio context.
+     */
+    public void upload() {
+        if (fileSize == -1 || alBuffers[0] != 0) return;
+        for (int i = 0; i < NUM_BUFFERS; i++) {
+            alBuffers[i] = alGenBuffers();
+        }
+        AudioMaster.alGetError();
+    }
+
+    /**
+     * @return true, if the file was decoded successfully
+     */
+    public boolean isValid() {
+        return fileSize != -1;
+    }
+
+    /**
+     * @return the decoded samples, or null if the buffer is streamed
+     */
     public byte[] getAudioData() {
         return audioData;
     }
 
+    /**
+     * @return true, if the samples are decoded from the file while playing instead of being held in memory
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     int getALBuffer(int index) {
         return alBuffers[index];
     }
@@ -136,4 +266,58 @@ public class AudioBuffer {
     public float getSampleRate() {
         return sampleRate;
     }
+
+    /**
+     * Reads the samples of a fully decoded buffer
+     */
+    private static final class DecodedStream implements AudioStream {
+
+        private final AudioBuffer buffer;
+        private final ByteBuffer data;
+
+        DecodedStream(AudioBuffer buffer) {
+            this.buffer = buffer;
+            this.data = ByteBuffer.wrap(buffer.audioData);
+        }
+
+        @Override
+        public int read(ByteBuffer target) {
+            if (!data.hasRemaining()) return -1;
+            int count = Math.min(target.remaining(), data.remaining());
+            count -= count % Math.max(getFrameSize(), 1);
+            target.put(buffer.audioData, data.position(), count);
+            data.position(data.position() + count);
+            return count;
+        }
+
+        @Override
+        public void rewind() {
+            data.rewind();
+        }
+
+        @Override
+        public int getChannels() {
+            return buffer.channels;
+        }
+
+        @Override
+        public int getSampleSize() {
+            return buffer.sampleSize;
+        }
+
+        @Override
+        public int getSampleRate() {
+            return (int) buffer.sampleRate;
+        }
+
+        @Override
+        public long getLength() {
+            return buffer.audioData.length;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
 }
@@ -0,0 +1,89 @@
+package audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A short sound held in memory as 16 bit samples, e.g. a footstep or an impact, which is played by an {@link AudioMixer}.
+ * Any number of sounds can play the same clip at once.
+ */
+public final class AudioClip {
+
+    private final short[] samples;
+    private final int channels;
+    private final int sampleRate;
+
+    /**
+     * @param samples    the interleaved samples
+     * @param channels   1 for mono or 2 for stereo
+     * @param sampleRate the amount of frames per second
+     */
+    public AudioClip(short[] samples, int channels, int sampleRate) {
+        if (channels != 1 && channels != 2) throw new IllegalArgumentException("an audio clip has to be mono or stereo");
+        if (sampleRate <= 0) throw new IllegalArgumentException("the sample rate of an audio clip has to be positive");
+        if (samples.length % channels != 0) throw new IllegalArgumentException("an audio clip has to contain whole frames");
+        this.samples = samples;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Reads all samples of a stream into a clip, 8 bit samples are converted to 16 bit.
+     *
+     * @param stream the stream, which is read to its end but not closed
+     * @return the clip
+     */
+    public static AudioClip read(AudioStream stream) {
+        int sampleBytes = stream.getSampleSize() / 8;
+        long length = stream.getLength();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length > 0 ? (int) Math.min(length, Integer.MAX_VALUE - 8) : 1 << 16)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                buffer = larger.put(buffer);
+            }
+            if (stream.read(buffer) <= 0) break;
+        }
+        buffer.flip();
+
+        short[] samples = new short[buffer.remaining() / sampleBytes];
+        if (sampleBytes == 2) buffer.asShortBuffer().get(samples);
+        else for (int i = 0; i < samples.length; i++)
+            samples[i] = (short) (((buffer.get(i) & 0xFF) - 128) << 8);
+        return new AudioClip(samples, stream.getChannels(), stream.getSampleRate());
+    }
+
+    /**
+     * Decodes an audio file into a clip.
+     *
+     * @param path the path to a .wav or .ogg file
+     * @return the clip
+     */
+    public static AudioClip load(String path) {
+        try (AudioStream stream = AudioBuffer.openFile(path)) {
+            return read(stream);
+        }
+    }
+
+    public short[] getSamples() {
+        return samples;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return the amount of frames, each holding one sample per channel
+     */
+    public int getFrames() {
+        return samples.length / channels;
+    }
+
+}
@@ -45,4 +45,11 @@ public class AudioListener {
         AudioMaster.alGetError();
         position = secondPos;
     }
+
+    /**
+     * @return the position of the listener after its last update
+     */
+    public Vector2f getPosition() {
+        return position;
+    }
 }
@@ -1,5 +1,6 @@
 package audio;
 
+import org.joml.Vector2f;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.*;
 import util.Log;
@@ -26,6 +27,9 @@ public class AudioMaster {
     private static AudioMaster instance;
     private static long device;
 
+    private AudioMixer mixer;
+    private MixerOutput mixerOutput;
+
     private AudioMaster() {
 
     }
@@ -85,11 +89,32 @@ public class AudioMaster {
         sources.add(s);
     }
 
+    /**
+     * Gets the mixer for short sound effects, which is started by the first call.
+     * Sounds played through the mixer share a single OpenAL source, so any number of them can be played at once.
+     *
+     * @return the mixer
+     */
+    public AudioMixer getMixer() {
+        if (mixer == null) {
+            mixer = new AudioMixer();
+            mixerOutput = new MixerOutput(mixer);
+        }
+        return mixer;
+    }
+
     public void update(float dt) {
         AudioListener.get().update(dt);
+        if (mixer != null) {
+            Vector2f listener = AudioListener.get().getPosition();
+            mixer.setListener(listener.x, listener.y);
+            mixerOutput.update();
+        }
     }
 
     public void clean() {
+        if (mixerOutput != null) mixerOutput.delete();
+
         for (AudioSource s : sources) {
             s.delete();
         }
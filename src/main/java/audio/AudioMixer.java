@@ -0,0 +1,428 @@
+package audio;
+
+import java.util.Arrays;
+
+/**
+ * Mixes many short sounds in software into a single stereo stream, so hundreds of footsteps or impacts
+ * do not each need an OpenAL source of their own.
+ * <p>
+ * Only a fixed amount of voices is actually mixed. Before every block, sounds are ranked by their priority and
+ * then by how loud they are at the listener, which depends on their volume and distance. Sounds which do not get
+ * a voice, or which cannot be heard at all, become virtual: they keep their playback position advancing
+ * without being mixed, and continue at the right position once they get a voice again.
+ * Gains change smoothly over a block, so sounds getting or losing a voice do not click.
+ * <p>
+ * Sounds are pooled and referred to by handles, a handle of a finished sound stays invalid even after its slot is reused.
+ * The mixer does not touch OpenAL, {@link #mix(short[], int)} can render into any array, e.g. for tests.
+ * It is not thread safe, play sounds and mix them on the same thread.
+ *
+ * @see AudioMaster#getMixer()
+ */
+public final class AudioMixer {
+
+    public static final int DEFAULT_SAMPLE_RATE = 44100;
+    public static final int DEFAULT_VOICES = 32;
+    public static final int DEFAULT_MAX_SOUNDS = 256;
+
+    /**
+     * Returned instead of a handle, if a sound could not be played.
+     */
+    public static final long NO_SOUND = -1;
+
+    // quieter sounds are never mixed, about -60dB
+    private static final float AUDIBLE = 1f / 1024;
+
+    private final int sampleRate;
+    private final int maxVoices;
+
+    private final Sound[] sounds;
+    private final int[] free;
+    private int freeCount;
+    // indices of the playing sounds, ordered by their rank after each block
+    private final int[] active;
+    private int activeCount;
+    private int realVoices;
+
+    private float listenerX, listenerY;
+    private float referenceDistance = 100, maxDistance = 1500;
+    private float masterVolume = 1;
+
+    private int[] accumulator = new int[0];
+
+    public AudioMixer() {
+        this(DEFAULT_SAMPLE_RATE, DEFAULT_VOICES, DEFAULT_MAX_SOUNDS);
+    }
+
+    /**
+     * @param sampleRate the amount of frames per second of the mixed stream
+     * @param maxVoices  the amount of sounds mixed at most at once
+     * @param maxSounds  the amount of sounds playing at most at once, including virtual ones
+     */
+    public AudioMixer(int sampleRate, int maxVoices, int maxSounds) {
+        if (sampleRate <= 0) throw new IllegalArgumentException("the sample rate of a mixer has to be positive");
+        if (maxVoices <= 0) throw new IllegalArgumentException("a mixer requires at least one voice");
+        if (maxSounds < maxVoices) throw new IllegalArgumentException("a mixer has to be able to play at least as many sounds as it has voices");
+        this.sampleRate = sampleRate;
+        this.maxVoices = maxVoices;
+        this.sounds = new Sound[maxSounds];
+        this.free = new int[maxSounds];
+        this.active = new int[maxSounds];
+        for (int i = 0; i < maxSounds; i++) {
+            sounds[i] = new Sound(i);
+            free[i] = maxSounds - 1 - i;
+        }
+        freeCount = maxSounds;
+    }
+
+    /**
+     * Plays a sound at a position in the world.
+     *
+     * @param clip     the clip to play
+     * @param x        the x position of the sound
+     * @param y        the y position of the sound
+     * @param volume   the volume, 1 plays the clip as is
+     * @param priority sounds with a higher priority get a voice first, regardless of their volume
+     * @param looping  whether the clip starts over at its end
+     * @return a handle to change the sound, or {@link #NO_SOUND} if too many sounds with a higher priority are playing
+     */
+    public long play(AudioClip clip, float x, float y, float volume, int priority, boolean looping) {
+        return play(clip, x, y, false, volume, priority, looping);
+    }
+
+    /**
+     * Plays a sound, which is always heard as if it was at the position of the listener, e.g. for interface sounds.
+     *
+     * @param clip     the clip to play
+     * @param volume   the volume, 1 plays the clip as is
+     * @param priority sounds with a higher priority get a voice first, regardless of their volume
+     * @return a handle to change the sound, or {@link #NO_SOUND} if too many sounds with a higher priority are playing
+     */
+    public long play(AudioClip clip, float volume, int priority) {
+        return play(clip, 0, 0, true, volume, priority, false);
+    }
+
+    private long play(AudioClip clip, float x, float y, boolean relative, float volume, int priority, boolean looping) {
+        if (clip == null) throw new IllegalArgumentException("a sound requires a clip");
+        Sound sound;
+        if (freeCount > 0) {
+            sound = sounds[free[--freeCount]];
+        } else {
+            // steal the slot of the least important sound, if the new one is more important
+            Sound weakest = sounds[active[0]];
+            for (int i = 0; i < activeCount; i++) {
+                Sound other = sounds[active[i]];
+                attenuate(other);
+                if (compare(other, weakest) > 0) weakest = other;
+            }
+            float audibility = audibility(x, y, relative, volume);
+            if (priority < weakest.priority || (priority == weakest.priority && audibility <= weakest.audibility))
+                return NO_SOUND;
+            release(weakest);
+            sound = sounds[free[--freeCount]];
+        }
+        sound.clip = clip;
+        sound.x = x;
+        sound.y = y;
+        sound.relative = relative;
+        sound.volume = volume;
+        sound.priority = priority;
+        sound.looping = looping;
+        sound.position = 0;
+        sound.step = (double) clip.getSampleRate() / sampleRate;
+        sound.real = false;
+        sound.gainLeft = sound.gainRight = 0;
+        sound.started = false;
+        sound.finished = false;
+        active[activeCount++] = sound.index;
+        return handle(sound);
+    }
+
+    /**
+     * Stops a sound right away.
+     *
+     * @param handle the handle of the sound
+     * @return false, if the sound has already finished
+     */
+    public boolean stop(long handle) {
+        Sound sound = get(handle);
+        if (sound == null) return false;
+        release(sound);
+        return true;
+    }
+
+    /**
+     * Stops all sounds.
+     */
+    public void stopAll() {
+        while (activeCount > 0)
+            release(sounds[active[activeCount - 1]]);
+    }
+
+    /**
+     * @return true, if the sound has neither finished nor been stopped
+     */
+    public boolean isPlaying(long handle) {
+        return get(handle) != null;
+    }
+
+    /**
+     * @return true, if the sound is playing but was not mixed in the last block
+     */
+    public boolean isVirtual(long handle) {
+        Sound sound = get(handle);
+        return sound != null && !sound.real;
+    }
+
+    public void setPosition(long handle, float x, float y) {
+        Sound sound = get(handle);
+        if (sound == null) return;
+        sound.x = x;
+        sound.y = y;
+    }
+
+    public void setVolume(long handle, float volume) {
+        Sound sound = get(handle);
+        if (sound != null) sound.volume = volume;
+    }
+
+    /**
+     * Sets the position the sounds are heard from, usually the camera.
+     */
+    public void setListener(float x, float y) {
+        listenerX = x;
+        listenerY = y;
+    }
+
+    /**
+     * Sets how sounds fade with their distance to the listener.
+     *
+     * @param reference sounds closer than this are played at their full volume
+     * @param max       sounds further away than this cannot be heard
+     */
+    public void setDistances(float reference, float max) {
+        if (!(reference >= 0) || !(max > reference))
+            throw new IllegalArgumentException("the maximum distance of a sound has to be greater than its reference distance");
+        this.referenceDistance = reference;
+        this.maxDistance = max;
+    }
+
+    public void setMasterVolume(float masterVolume) {
+        this.masterVolume = masterVolume;
+    }
+
+    /**
+     * Renders the next block of the mixed stream.
+     *
+     * @param out    receives interleaved 16 bit stereo samples, two per frame
+     * @param frames the amount of frames to render
+     */
+    public void mix(short[] out, int frames) {
+        if (out.length < frames * 2) throw new IllegalArgumentException("the output cannot hold " + frames + " stereo frames");
+        if (accumulator.length < frames * 2) accumulator = new int[frames * 2];
+        Arrays.fill(accumulator, 0, frames * 2, 0);
+
+        assignVoices();
+        for (int i = 0; i < activeCount; i++) {
+            Sound sound = sounds[active[i]];
+            boolean audible = sound.gainLeft != 0 || sound.gainRight != 0;
+            if (sound.real || audible) mixSound(sound, frames);
+            else advance(sound, frames);
+        }
+
+        for (int i = 0; i < frames * 2; i++) {
+            int sample = accumulator[i];
+            out[i] = (short) (sample > Short.MAX_VALUE ? Short.MAX_VALUE : Math.max(sample, Short.MIN_VALUE));
+        }
+
+        // release finished sounds, keeping the order of the others
+        int kept = 0;
+        for (int i = 0; i < activeCount; i++) {
+            Sound sound = sounds[active[i]];
+            if (sound.finished) {
+                sound.generation++;
+                sound.clip = null;
+                free[freeCount++] = sound.index;
+            } else active[kept++] = sound.index;
+        }
+        activeCount = kept;
+    }
+
+    /**
+     * Ranks the sounds and gives the most important audible ones a voice.
+     */
+    private void assignVoices() {
+        for (int i = 0; i < activeCount; i++)
+            attenuate(sounds[active[i]]);
+        // insertion sort, the order barely changes between two blocks
+        for (int i = 1; i < activeCount; i++) {
+            int index = active[i];
+            Sound sound = sounds[index];
+            int j = i - 1;
+            while (j >= 0 && compare(sounds[active[j]], sound) > 0) {
+                active[j + 1] = active[j];
+                j--;
+            }
+            active[j + 1] = index;
+        }
+        realVoices = 0;
+        for (int i = 0; i < activeCount; i++) {
+            Sound sound = sounds[active[i]];
+            sound.real = realVoices < maxVoices && sound.audibility >= AUDIBLE;
+            if (sound.real) realVoices++;
+            else sound.targetLeft = sound.targetRight = 0;
+        }
+    }
+
+    /**
+     * @return a positive number, if a is less important than b
+     */
+    private static int compare(Sound a, Sound b) {
+        if (a.priority != b.priority) return Integer.compare(b.priority, a.priority);
+        return Float.compare(b.audibility, a.audibility);
+    }
+
+    private float audibility(float x, float y, boolean relative, float volume) {
+        if (relative) return volume * masterVolume;
+        float distance = (float) Math.hypot(x - listenerX, y - listenerY);
+        float attenuation = 1 - (distance - referenceDistance) / (maxDistance - referenceDistance);
+        return volume * masterVolume * Math.max(0, Math.min(1, attenuation));
+    }
+
+    private void attenuate(Sound sound) {
+        sound.audibility = audibility(sound.x, sound.y, sound.relative, sound.volume);
+        // equal power panning, sounds at the side of the listener are only heard on that side
+        float pan = sound.relative ? 0 : Math.max(-1, Math.min(1, (sound.x - listenerX) / maxDistance));
+        double angle = (pan + 1) * Math.PI / 4;
+        sound.targetLeft = (float) (sound.audibility * Math.cos(angle));
+        sound.targetRight = (float) (sound.audibility * Math.sin(angle));
+        // a new sound starts at its volume right away instead of fading in
+        if (!sound.started) {
+            sound.gainLeft = sound.targetLeft;
+            sound.gainRight = sound.targetRight;
+            sound.started = true;
+        }
+    }
+
+    private void mixSound(Sound sound, int frames) {
+        short[] samples = sound.clip.getSamples();
+        int channels = sound.clip.getChannels();
+        int clipFrames = sound.clip.getFrames();
+        int[] out = accumulator;
+        double position = sound.position, step = sound.step;
+        float left = sound.gainLeft, right = sound.gainRight;
+        float stepLeft = (sound.targetLeft - left) / frames, stepRight = (sound.targetRight - right) / frames;
+
+        for (int f = 0; f < frames; f++) {
+            int frame = (int) position;
+            if (frame >= clipFrames) {
+                if (!sound.looping || clipFrames == 0) {
+                    sound.finished = true;
+                    break;
+                }
+                position %= clipFrames;
+                frame = (int) position;
+            }
+            float fraction = (float) (position - frame);
+            int next = frame + 1 < clipFrames ? frame + 1 : sound.looping ? 0 : frame;
+            // linear interpolation between two frames, in case the clip has another sample rate
+            float sampleLeft, sampleRight;
+            if (channels == 1) {
+                sampleLeft = sampleRight = samples[frame] + (samples[next] - samples[frame]) * fraction;
+            } else {
+                sampleLeft = samples[frame * 2] + (samples[next * 2] - samples[frame * 2]) * fraction;
+                sampleRight = samples[frame * 2 + 1] + (samples[next * 2 + 1] - samples[frame * 2 + 1]) * fraction;
+            }
+            out[f * 2] += (int) (sampleLeft * left);
+            out[f * 2 + 1] += (int) (sampleRight * right);
+            left += stepLeft;
+            right += stepRight;
+            position += step;
+        }
+        sound.position = position;
+        sound.gainLeft = sound.targetLeft;
+        sound.gainRight = sound.targetRight;
+    }
+
+    // virtual sounds keep time without being mixed
+    private void advance(Sound sound, int frames) {
+        int clipFrames = sound.clip.getFrames();
+        sound.position += frames * sound.step;
+        if (sound.position < clipFrames) return;
+        if (sound.looping && clipFrames > 0) sound.position %= clipFrames;
+        else sound.finished = true;
+    }
+
+    private void release(Sound sound) {
+        for (int i = 0; i < activeCount; i++) {
+            if (active[i] != sound.index) continue;
+            System.arraycopy(active, i + 1, active, i, activeCount - i - 1);
+            activeCount--;
+            break;
+        }
+        sound.generation++;
+        sound.clip = null;
+        sound.real = false;
+        free[freeCount++] = sound.index;
+    }
+
+    private Sound get(long handle) {
+        if (handle < 0) return null;
+        int index = (int) handle;
+        if (index >= sounds.length) return null;
+        Sound sound = sounds[index];
+        return sound.clip != null && !sound.finished && (sound.generation & Integer.MAX_VALUE) == (int) (handle >>> 32) ? sound : null;
+    }
+
+    private static long handle(Sound sound) {
+        return ((long) (sound.generation & Integer.MAX_VALUE) << 32) | sound.index;
+    }
+
+    /**
+     * @return the amount of sounds mixed in the last block
+     */
+    public int getRealVoices() {
+        return realVoices;
+    }
+
+    /**
+     * @return the amount of playing sounds, including virtual ones
+     */
+    public int getPlayingCount() {
+        return activeCount;
+    }
+
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * A pooled playing sound
+     */
+    private static final class Sound {
+
+        final int index;
+        int generation;
+
+        AudioClip clip;
+        float x, y;
+        boolean relative;
+        float volume;
+        int priority;
+        boolean looping;
+
+        double position, step;
+        boolean real, started, finished;
+        float audibility;
+        float gainLeft, gainRight, targetLeft, targetRight;
+
+        Sound(int index) {
+            this.index = index;
+        }
+
+    }
+
+}
@@ -2,7 +2,6 @@ package audio;
 
 import ecs.Component;
 import org.joml.Vector2f;
-import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.AL10;
 import util.Assets;
 import util.Engine;
@@ -33,16 +32,9 @@ public class AudioSource extends Component {
     private int index = 0;
 
     /**
-     * Index of the next alBuffer to be queued.
+     * Reads the selected buffer into a ring of reusable buffers, created once the first buffer is played.
      */
-    private int buffPtr = 0;
-
-    /**
-     * Current position in loaded buffer. Updated every time a new buffer is queued.
-     */
-    private long cursor = 0;
-
-    private boolean atEnd = false;
+    private AudioStreamer streamer;
 
     /**
      * Whether the buffer loops, a.k.a. the value of dest after
@@ -76,6 +68,7 @@ public class AudioSource extends Component {
         // artificial looping, because it doesn't work with
         // alSourcei
         isLooping = looping;
+        if (streamer != null) streamer.setLooping(looping);
     }
 
     public boolean isLooping() {
@@ -98,9 +91,6 @@ public class AudioSource extends Component {
         if (isPlaying()) stop();
         AudioMaster.alGetError();
 
-        this.cursor = 0;
-        this.atEnd = false;
-
         setLooping(isLooping);
 
         clearQueue();
@@ -123,13 +113,12 @@ public class AudioSource extends Component {
 
         clearQueue();
 
-        this.cursor = 0;
-        this.buffPtr = 0;
-        this.atEnd = true;
+        if (streamer != null) streamer.close();
     }
 
     void delete() {
         alDeleteSources(sourceID);
+        if (streamer != null) streamer.close();
     }
 
     public AudioBuffer getSelectedBuffer() {
@@ -140,73 +129,37 @@ public class AudioSource extends Component {
         index = i;
 
         AudioBuffer buff = audioBuffers.get(index);
+        if (streamer == null) streamer = new AudioStreamer(NUM_BUFFERS, BUFFER_SIZE);
+        streamer.open(buff.openStream());
+        streamer.setLooping(isLooping);
 
-        int toBuffer = Math.min(NUM_BUFFERS, (int) Math.ceil((float) buff.getAudioData().length / BUFFER_SIZE));
+        for (int inc = 0; inc < NUM_BUFFERS; inc++) {
+            ByteBuffer data = streamer.next();
+            if (data == null) break;
 
-        for (int inc = 0; inc < toBuffer; inc++) {
-            int toCopy = Math.min(BUFFER_SIZE, buff.getAudioData().length - inc*BUFFER_SIZE);
+            alBufferData(buff.getALBuffer(inc), buff.getFormat(), data, (int) buff.getSampleRate());
             AudioMaster.alGetError();
 
-            ByteBuffer bu = BufferUtils.createByteBuffer(BUFFER_SIZE);
-            if (toCopy > 0) bu.put(buff.getAudioData(), (int) cursor, toCopy);
-            AudioMaster.alGetError();
-
-            bu.flip();
-            if (toCopy > 0) cursor += toCopy;
-            else cursor = buff.getAudioData().length;
-
-            alBufferData(audioBuffers.get(index).getALBuffer(inc), buff.getFormat(), bu, (int) buff.getSampleRate());
-            AudioMaster.alGetError();
-
-            alSourceQueueBuffers(sourceID, audioBuffers.get(index).getALBuffer(inc));
+            alSourceQueueBuffers(sourceID, buff.getALBuffer(inc));
             AudioMaster.alGetError();
         }
-        buffPtr = toBuffer - 1;
-        atEnd = false;
     }
 
     private void updateStream() {
+        if (streamer == null) return;
         int processedBuffers = alGetSourcei(sourceID, AL_BUFFERS_PROCESSED);
 
-        if (processedBuffers <= 0) return;
-
-        while (processedBuffers-- != 0) {
-            if (++buffPtr >= NUM_BUFFERS) buffPtr = 0;
-
-            int currentBuffer = getSelectedBuffer().getALBuffer(buffPtr);
-            alSourceUnqueueBuffers(sourceID, new int[]{currentBuffer});
+        while (processedBuffers-- > 0) {
+            // the oldest queued buffer is played first and therefore processed first
+            int currentBuffer = alSourceUnqueueBuffers(sourceID);
             AudioMaster.alGetError();
             if (!isPlaying()) return;
 
-            int toCopy = Math.min(BUFFER_SIZE, getSelectedBuffer().getAudioData().length - (int) cursor);
-            AudioMaster.alGetError();
+            // at the end of the audio data the queue just runs empty
+            ByteBuffer data = streamer.next();
+            if (data == null) continue;
 
-            ByteBuffer bu;
-
-            // if this occurs we're at the end of the audio data
-            if (cursor + BUFFER_SIZE > getSelectedBuffer().getAudioData().length) {
-                // if we're looping, put start of file at the end of the most recent buffer
-                if (this.isLooping) {
-                    bu = BufferUtils.createByteBuffer(BUFFER_SIZE);
-                    bu.put(this.getSelectedBuffer().getAudioData(), (int) cursor, toCopy);
-                    if (!atEnd)
-                        bu.put(this.getSelectedBuffer().getAudioData(), 0, BUFFER_SIZE - toCopy);
-                    this.cursor = BUFFER_SIZE - toCopy;
-                } else {
-                    bu = BufferUtils.createByteBuffer(toCopy);
-                    bu.put(this.getSelectedBuffer().getAudioData(), (int) cursor, toCopy);
-                    atEnd = true; // otherwise we're at the end.
-                    this.cursor = getSelectedBuffer().getAudioData().length;
-                }
-            } else {
-                bu = BufferUtils.createByteBuffer(BUFFER_SIZE);
-                bu.put(this.getSelectedBuffer().getAudioData(), (int) cursor, BUFFER_SIZE);
-                this.cursor += BUFFER_SIZE;
-            }
-
-            bu.flip();
-
-            alBufferData(currentBuffer, getSelectedBuffer().getFormat(), bu, (int) getSelectedBuffer().getSampleRate());
+            alBufferData(currentBuffer, getSelectedBuffer().getFormat(), data, (int) getSelectedBuffer().getSampleRate());
             AudioMaster.alGetError();
             alSourceQueueBuffers(sourceID, currentBuffer);
             AudioMaster.alGetError();
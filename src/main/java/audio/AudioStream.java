@@ -0,0 +1,56 @@
+package audio;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+
+/**
+ * Decoded PCM samples, which are read piece by piece instead of being held in memory as a whole.
+ * Samples are interleaved and little endian, like OpenAL expects them.
+ * A stream does not touch OpenAL, so it can be read on any thread and without an audio device.
+ *
+ * @see AudioStreamer
+ * @see AudioBuffer#openStream()
+ */
+public interface AudioStream extends Closeable {
+
+    /**
+     * Decodes samples into the remaining space of a buffer and advances its position.
+     *
+     * @param target the buffer to fill, has to be direct for some streams
+     * @return the amount of bytes read, or -1 if the end of the stream was reached before
+     */
+    int read(ByteBuffer target);
+
+    /**
+     * Continues reading at the first sample again.
+     */
+    void rewind();
+
+    int getChannels();
+
+    /**
+     * @return the size of a single sample in bits, 8 or 16
+     */
+    int getSampleSize();
+
+    int getSampleRate();
+
+    /**
+     * @return the size of all samples in bytes, or -1 if it is not known
+     */
+    long getLength();
+
+    /**
+     * @return the size of a sample of every channel in bytes
+     */
+    default int getFrameSize() {
+        return getChannels() * getSampleSize() / 8;
+    }
+
+    /**
+     * Releases the file or decoder behind this stream.
+     */
+    @Override
+    void close();
+
+}
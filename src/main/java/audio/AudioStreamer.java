@@ -0,0 +1,115 @@
+package audio;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Refills a small ring of direct buffers from an {@link AudioStream} whenever a new piece of audio is needed.
+ * The buffers are allocated once and reused for every stream, so playing a sound does not allocate at all
+ * and only a few buffers worth of samples are held in memory, regardless of how long the file is.
+ * <p>
+ * Used by {@link AudioSource} to feed its OpenAL queue, but it does not depend on OpenAL itself.
+ */
+public final class AudioStreamer {
+
+    private final ByteBuffer[] ring;
+    private int next;
+    private AudioStream stream;
+    private boolean looping;
+    private boolean atEnd = true;
+
+    /**
+     * @param bufferCount the amount of buffers in the ring
+     * @param bufferSize  the size of each buffer in bytes
+     */
+    public AudioStreamer(int bufferCount, int bufferSize) {
+        if (bufferCount <= 0) throw new IllegalArgumentException("an audio streamer requires at least one buffer");
+        if (bufferSize <= 0) throw new IllegalArgumentException("the buffers of an audio streamer require a positive size");
+        ring = new ByteBuffer[bufferCount];
+        for (int i = 0; i < bufferCount; i++)
+            ring[i] = BufferUtils.createByteBuffer(bufferSize);
+    }
+
+    /**
+     * Starts reading from a stream, closing the stream read before.
+     *
+     * @param stream the stream to read, owned by this streamer from now on
+     */
+    public void open(AudioStream stream) {
+        close();
+        this.stream = stream;
+        this.atEnd = stream == null;
+    }
+
+    /**
+     * Fills the next buffer of the ring. The buffer stays valid until the ring wraps around to it again.
+     * Buffers hold whole frames, if the stream loops, the start of the stream follows right after its end.
+     *
+     * @return the filled buffer ready to be read, or null if the stream has ended
+     */
+    public ByteBuffer next() {
+        if (atEnd) return null;
+        ByteBuffer buffer = ring[next];
+        next = (next + 1) % ring.length;
+        buffer.clear();
+        // only whole frames fit into a buffer
+        buffer.limit(buffer.capacity() - buffer.capacity() % Math.max(stream.getFrameSize(), 1));
+
+        boolean rewound = false;
+        while (buffer.hasRemaining()) {
+            int read = stream.read(buffer);
+            if (read > 0) {
+                rewound = false;
+                continue;
+            }
+            // no progress or the end of the stream, an empty stream is not looped forever
+            if (read == 0 || !looping || rewound) break;
+            stream.rewind();
+            rewound = true;
+        }
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+            atEnd = true;
+            return null;
+        }
+        return buffer;
+    }
+
+    public void setLooping(boolean looping) {
+        this.looping = looping;
+    }
+
+    public boolean isLooping() {
+        return looping;
+    }
+
+    /**
+     * @return true, if the stream has ended or no stream is open
+     */
+    public boolean isAtEnd() {
+        return atEnd;
+    }
+
+    public AudioStream getStream() {
+        return stream;
+    }
+
+    /**
+     * @return the amount of buffers in the ring
+     */
+    public int getBufferCount() {
+        return ring.length;
+    }
+
+    /**
+     * Closes the current stream, the buffers are kept for the next one.
+     */
+    public void close() {
+        if (stream != null) stream.close();
+        stream = null;
+        atEnd = true;
+        next = 0;
+    }
+
+}
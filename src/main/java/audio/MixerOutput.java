@@ -0,0 +1,70 @@
+package audio;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ShortBuffer;
+
+import static org.lwjgl.openal.AL10.*;
+
+/**
+ * Plays the stream of an {@link AudioMixer} through a single OpenAL source, which is fed a few small buffers in turn.
+ *
+ * @see AudioMaster#getMixer()
+ */
+final class MixerOutput {
+
+    static final int NUM_BUFFERS = 3, FRAMES = 1024;
+
+    private final AudioMixer mixer;
+    private final int sourceID;
+    private final int[] alBuffers = new int[NUM_BUFFERS];
+    private final short[] block = new short[FRAMES * 2];
+    private final ShortBuffer data = BufferUtils.createShortBuffer(FRAMES * 2);
+
+    MixerOutput(AudioMixer mixer) {
+        this.mixer = mixer;
+        sourceID = alGenSources();
+        // the mix is already panned, so it is played as is
+        alSourcei(sourceID, AL_SOURCE_RELATIVE, AL_TRUE);
+        alSource3f(sourceID, AL_POSITION, 0, 0, 0);
+        AudioMaster.alGetError();
+        for (int i = 0; i < NUM_BUFFERS; i++) {
+            alBuffers[i] = alGenBuffers();
+            fill(alBuffers[i]);
+            alSourceQueueBuffers(sourceID, alBuffers[i]);
+        }
+        AudioMaster.alGetError();
+        alSourcePlay(sourceID);
+        AudioMaster.alGetError();
+    }
+
+    /**
+     * Mixes the next blocks for all buffers which were played since the last update
+     */
+    void update() {
+        int processedBuffers = alGetSourcei(sourceID, AL_BUFFERS_PROCESSED);
+        while (processedBuffers-- > 0) {
+            int buffer = alSourceUnqueueBuffers(sourceID);
+            fill(buffer);
+            alSourceQueueBuffers(sourceID, buffer);
+        }
+        AudioMaster.alGetError();
+        // the source stops if it runs out of buffers, e.g. after a long frame
+        if (alGetSourcei(sourceID, AL_SOURCE_STATE) != AL_PLAYING) alSourcePlay(sourceID);
+        AudioMaster.alGetError();
+    }
+
+    private void fill(int buffer) {
+        mixer.mix(block, FRAMES);
+        data.clear();
+        data.put(block).flip();
+        alBufferData(buffer, AL_FORMAT_STEREO16, data, mixer.getSampleRate());
+    }
+
+    void delete() {
+        alSourceStop(sourceID);
+        alDeleteSources(sourceID);
+        alDeleteBuffers(alBuffers);
+    }
+
+}
@@ -0,0 +1,90 @@
+package audio;
+
+import org.lwjgl.stb.STBVorbisInfo;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import static org.lwjgl.stb.STBVorbis.*;
+
+/**
+ * Decodes an .ogg vorbis file with STB while it is read, into 16 bit samples.
+ * Only the decoder state is kept in memory, the file is read from disk as the stream advances.
+ */
+public final class VorbisStream implements AudioStream {
+
+    private long decoder;
+    private final int channels, sampleRate;
+    private final long length;
+
+    /**
+     * @param path the path to an .ogg file
+     * @throws IllegalArgumentException if the file cannot be opened or is not an ogg vorbis file
+     */
+    public VorbisStream(String path) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer error = stack.mallocInt(1);
+            decoder = stb_vorbis_open_filename(path, error, null);
+            if (decoder == 0)
+                throw new IllegalArgumentException("could not open " + path + ", stb_vorbis error " + error.get(0));
+            STBVorbisInfo info = STBVorbisInfo.malloc(stack);
+            stb_vorbis_get_info(decoder, info);
+            channels = info.channels();
+            sampleRate = info.sample_rate();
+            length = (long) stb_vorbis_stream_length_in_samples(decoder) * channels * 2;
+        }
+    }
+
+    /**
+     * @param target the buffer to fill, has to be direct
+     */
+    @Override
+    public int read(ByteBuffer target) {
+        if (decoder == 0) return -1;
+        int start = target.position();
+        while (target.remaining() >= channels * 2) {
+            ShortBuffer samples = target.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+            int frames = stb_vorbis_get_samples_short_interleaved(decoder, channels, samples);
+            if (frames == 0) break;
+            target.position(target.position() + frames * channels * 2);
+        }
+        int count = target.position() - start;
+        return count == 0 && target.remaining() >= channels * 2 ? -1 : count;
+    }
+
+    @Override
+    public void rewind() {
+        if (decoder != 0) stb_vorbis_seek_start(decoder);
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public int getSampleSize() {
+        return 16;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public void close() {
+        if (decoder == 0) return;
+        stb_vorbis_close(decoder);
+        decoder = 0;
+    }
+
+}
@@ -0,0 +1,117 @@
+package audio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the samples of an uncompressed .wav file straight out of a memory mapped file.
+ * Only the pages of the file which are actually played are loaded by the operating system,
+ * so neither opening nor playing the file copies it onto the heap.
+ */
+public final class WaveStream implements AudioStream {
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private final ByteBuffer data;
+    private final int channels, sampleSize, sampleRate;
+
+    /**
+     * @param path the path to a .wav file with 8 or 16 bit PCM samples
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a .wav file or its format is not supported
+     */
+    public WaveStream(String path) {
+        MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not open " + path, e);
+        }
+        file.order(ByteOrder.LITTLE_ENDIAN);
+        if (file.remaining() < 12 || file.getInt(0) != 0x46464952 || file.getInt(8) != 0x45564157)
+            throw new IllegalArgumentException(path + " is not a RIFF wave file");
+
+        int channels = -1, sampleSize = -1, sampleRate = -1;
+        ByteBuffer data = null;
+        int chunk = 12;
+        while (chunk + 8 <= file.limit() && data == null) {
+            int id = file.getInt(chunk);
+            long size = file.getInt(chunk + 4) & 0xFFFFFFFFL;
+            int start = chunk + 8;
+            if (id == 0x20746d66) { // "fmt "
+                int format = file.getShort(start) & 0xFFFF;
+                if (format != FORMAT_PCM && format != FORMAT_EXTENSIBLE)
+                    throw new IllegalArgumentException(path + " does not contain PCM samples");
+                channels = file.getShort(start + 2);
+                sampleRate = file.getInt(start + 4);
+                sampleSize = file.getShort(start + 14);
+            } else if (id == 0x61746164) { // "data"
+                int end = (int) Math.min(start + size, file.limit());
+                data = file.duplicate().position(start).limit(end).slice().order(ByteOrder.LITTLE_ENDIAN);
+            }
+            // chunks are aligned to two bytes
+            chunk = (int) Math.min(start + size + (size & 1), Integer.MAX_VALUE);
+        }
+        if (data == null || channels < 1) throw new IllegalArgumentException(path + " contains no samples");
+        if (sampleSize != 8 && sampleSize != 16)
+            throw new IllegalArgumentException(path + " has " + sampleSize + " bit samples, only 8 and 16 bit are supported");
+
+        this.data = data;
+        this.channels = channels;
+        this.sampleSize = sampleSize;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public int read(ByteBuffer target) {
+        if (!data.hasRemaining()) return -1;
+        int count = Math.min(target.remaining(), data.remaining());
+        // whole frames only, so channels do not swap between two reads
+        count -= count % getFrameSize();
+        int limit = data.limit();
+        data.limit(data.position() + count);
+        target.put(data);
+        data.limit(limit);
+        return count;
+    }
+
+    @Override
+    public void rewind() {
+        data.rewind();
+    }
+
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getLength() {
+        return data.limit();
+    }
+
+    @Override
+    public void close() {
+        // mapped files are unmapped by the garbage collector
+        data.position(data.limit());
+    }
+
+}
@@ -0,0 +1,38 @@
+package ecs;
+
+import physics.collision.BodyType;
+
+/**
+ * Moves the shapes of all {@link PolygonCollider}s to the position of their entity.
+ * Only colliders whose entity moved since the last update are touched,
+ * resting colliders neither move their shape nor update the broad phase.
+ * Static colliders are only placed once.
+ */
+class ColliderSystem implements EntitySystem {
+
+    @Override
+    public Component.ComponentOrder order() {
+        return Component.ComponentOrder.POST_TRANSFORM;
+    }
+
+    @Override
+    public void update(EntityStore store, float dt) {
+        int size = store.size();
+        PolygonCollider[] colliders = store.getColliders();
+        float[] x = store.getX();
+        float[] y = store.getY();
+        float[] colliderX = store.getColliderX();
+        float[] colliderY = store.getColliderY();
+        for (int i = 0; i < size; i++) {
+            PolygonCollider collider = colliders[i];
+            if (collider == null) continue;
+            if (collider.bodyType() == BodyType.STATIC && collider.isPlaced()) continue;
+            //NaN never equals, so newly attached colliders are always moved
+            if (x[i] == colliderX[i] && y[i] == colliderY[i]) continue;
+            colliderX[i] = x[i];
+            colliderY[i] = y[i];
+            collider.updateShape();
+        }
+    }
+
+}
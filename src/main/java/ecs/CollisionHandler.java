@@ -1,11 +1,30 @@
 package ecs;
 
+import physics.collision.BodyType;
 import physics.collision.Collider;
 import physics.collision.CollisionInformation;
+import physics.collision.ContactCache;
+import physics.collision.narrowphase.Contact;
+import scene.Scene;
+import tiles.TileLayer;
+import tiles.TileMap;
+import util.Profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A component to handle and react to collisions using a collider.
  * Can be attached to an object if it should react to collisions in any way.
+ * <p>
+ * The contacts with the colliders around are kept from frame to frame in a {@link ContactCache},
+ * which speeds up the detection of stable pairs and tells when a contact begins, persists and ends.
+ * While the collider is asleep, the handler does nothing and its contacts are kept as they are.
+ * A collider starting to touch a sleeping one wakes it up. Static colliders are only checked against the colliders which are not static.
+ * <p>
+ * Once the {@link CollisionPass} of the scene is enabled, the handler stops checking on its own
+ * and the pass dispatches every pair to the handlers of both colliders.
  *
  * @author Juyas
  * @version 07.12.2021
@@ -16,6 +35,38 @@ public abstract class CollisionHandler extends Component {
 
     private final Collider collider;
 
+    /**
+     * Reused buffer for the candidates found by the broad phase
+     */
+    private final List<Collider> candidates = new ArrayList<>();
+
+    /**
+     * Reused callback for the solid tiles found in the tile maps of the scene
+     */
+    private final TileMap.SolidTileVisitor tileCheck = this::checkTile;
+
+    /**
+     * The tile map queried by {@link #checkTiles(Scene)} right now
+     */
+    private TileMap tileMap;
+
+    private final ContactCache contacts = new ContactCache();
+
+    /**
+     * Reused callback for the pairs which stopped being tested while still colliding
+     */
+    private final Consumer<ContactCache.Pair> ended = pair -> endContact(pair.getOther(), pair.getContact());
+
+    /**
+     * The pass dispatching the pairs of this handler, null while the handler checks on its own
+     */
+    CollisionPass pass;
+
+    //the position in the order of the pass, whether the handler takes part in the current step
+    //and whether its pairs with other handlers are shared with them
+    int passIndex;
+    boolean stepping, mirrored;
+
     public CollisionHandler(Collider collider) {
         super(ComponentOrder.COLLISION);
         if (collider.passive()) throw new IllegalArgumentException("passive colliders dont detect collision");
@@ -31,31 +82,136 @@ public abstract class CollisionHandler extends Component {
         if (collider.canCollideWith(other)) {
             //test boundingsphere for quickly detecting no collision
             if (!collider.getShape().boundingSphere().intersection(other.getShape().boundingSphere())) return;
-            //do actual collision detection
-            CollisionInformation ci = collider.detectCollision(other);
-            if (ci.collision())
-                collision(other, ci);
+            //do actual collision detection, starting with the result of the last frame
+            ContactCache.Pair pair = contacts.get(other);
+            boolean wasColliding = pair.isColliding();
+            dispatch(other, pair, wasColliding, pair.detect(collider));
         }
     }
 
+    //all tiles share one collider, so each tile gets its own pair
+    private void checkTile(Collider tile, TileLayer layer, int x, int y) {
+        if (!collider.getShape().boundingSphere().intersection(tile.getShape().boundingSphere())) return;
+        ContactCache.Pair pair = contacts.get(tile, tileMap, layer, x, y);
+        boolean wasColliding = pair.isColliding();
+        dispatch(tile, pair, wasColliding, pair.detect(collider));
+    }
+
+    //calls the callbacks for the result of a pair
+    void dispatch(Collider other, ContactCache.Pair pair, boolean wasColliding, boolean colliding) {
+        if (colliding) {
+            if (wasColliding) persistContact(other, pair.getContact());
+            else {
+                //only a new contact wakes the other one, so resting neighbours let each other sleep
+                if (other.isSleeping()) other.wake();
+                beginContact(other, pair.getContact());
+            }
+            collision(other, pair.getContact());
+        } else if (wasColliding) endContact(other, pair.getContact());
+    }
+
     @Override
     public void update(float dt) {
         super.update(dt);
-        gameObject.getParentScene().getColliders()
-                .stream()
-                .forEach(this::checkCollision);
+        //the pass of the scene checks for this handler, resting bodies keep their contacts until they wake up
+        if (pass != null || collider.isSleeping()) return;
+        Profiler.begin("collision");
+        contacts.beginFrame();
+        Scene scene = gameObject.getParentScene();
+        queryCandidates(scene, candidates);
+        for (int i = 0; i < candidates.size(); i++)
+            checkCollision(candidates.get(i));
+        candidates.clear();
+        checkTiles(scene);
+        endFrame();
+        Profiler.end();
+    }
+
+    //only the colliders close enough to this one are checked
+    void queryCandidates(Scene scene, List<Collider> result) {
+        scene.getBroadPhase().query(collider, result);
+        //static colliders never touch each other
+        if (collider.bodyType() != BodyType.STATIC)
+            scene.getStaticBroadPhase().query(collider, result);
+    }
+
+    //static tiles are not part of the broad phase, their grid is queried directly
+    void checkTiles(Scene scene) {
+        if (collider.bodyType() == BodyType.STATIC) return;
+        for (TileMap tileMap : scene.getTileMaps()) {
+            this.tileMap = tileMap;
+            tileMap.query(collider, tileCheck);
+        }
+        tileMap = null;
+    }
+
+    //pairs which left the bounding spheres or the broad phase while colliding
+    void endFrame() {
+        contacts.endFrame(ended);
     }
 
     protected Collider getCollider() {
         return collider;
     }
 
+    /**
+     * @return the contacts with the colliders around, kept from frame to frame
+     */
+    protected ContactCache getContacts() {
+        return contacts;
+    }
+
+    /**
+     * Called when the collider starts to intersect with another one, before {@link #collision(Collider, Contact)}.
+     *
+     * @param environment the other collider in the environment
+     * @param contact     the normal and depth of the overlap
+     */
+    protected void beginContact(Collider environment, Contact contact) {
+    }
+
+    /**
+     * Called every frame the collider still intersects with another one, before {@link #collision(Collider, Contact)}.
+     *
+     * @param environment the other collider in the environment
+     * @param contact     the normal and depth of the overlap
+     */
+    protected void persistContact(Collider environment, Contact contact) {
+    }
+
+    /**
+     * Called when the collider stopped intersecting with another one, or the other one is not tested anymore.
+     *
+     * @param environment the other collider in the environment
+     * @param contact     the contact of the last detection
+     */
+    protected void endContact(Collider environment, Contact contact) {
+    }
+
+    /**
+     * Called every frame the collider intersects with another one, with the contact kept by the {@link ContactCache}.
+     * By default, the collision is detected again by {@link Collider#detectCollision(Collider)}
+     * and handed to {@link #collision(Collider, CollisionInformation)}.
+     * Override it to use the contact directly and save the second detection.
+     *
+     * @param environment the other collider in the environment
+     * @param contact     the normal and depth of the overlap, only valid during the call
+     */
+    public void collision(Collider environment, Contact contact) {
+        CollisionInformation collisionInformation = collider.detectCollision(environment);
+        //the detections may disagree about colliders just touching
+        if (collisionInformation.collision()) collision(environment, collisionInformation);
+    }
+
     /**
      * Will be called in the update loop if a collision happens {@link CollisionInformation#collision()}
      * with the given environment collider and the defined one of this handler {@link this#getCollider()}.
+     * The data is the result of {@link Collider#detectCollision(Collider)}, the GJK simplex as a {@code Vector2f[]}
+     * for a {@link PolygonCollider}, which {@link util.MathUtils#expandingPolytopeAlgorithm} turns into a repulse vector.
      *
      * @param environment          the other collider in the environment
      * @param collisionInformation the data about the collision
+     * @see #collision(Collider, Contact)
      */
     abstract public void collision(Collider environment, CollisionInformation collisionInformation);
 
@@ -3,6 +3,7 @@ package ecs;
 import org.joml.Vector2f;
 import physics.collision.Collider;
 import physics.collision.CollisionInformation;
+import physics.collision.narrowphase.Contact;
 import util.MathUtils;
 
 import java.util.Optional;
@@ -23,6 +24,15 @@ public class CollisionHandlers {
      */
     public static CollisionHandler unpassablePolygonCollider(PolygonCollider collider) {
         return new CollisionHandler(collider) {
+
+            private final Vector2f repulse = new Vector2f();
+
+            @Override
+            public void collision(Collider environment, Contact contact) {
+                //move out of the environment along the shortest way
+                collider.setPosition(collider.position().add(contact.getPenetration(repulse)));
+            }
+
             @Override
             public void collision(Collider environment, CollisionInformation collisionInformation) {
                 //calculate basic repulse vector
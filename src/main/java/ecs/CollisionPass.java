@@ -0,0 +1,154 @@
+package ecs;
+
+import physics.collision.Collider;
+import physics.collision.ContactCache;
+import scene.Scene;
+import util.Profiler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Detects the collisions of all {@link CollisionHandler}s of a scene in a single pass, instead of every handler on its own.
+ * A pair of two colliders with handlers is detected once per step and its result is dispatched to both handlers,
+ * the handler of the other collider gets the mirrored contact. The handlers are stepped in the order their gameObjects
+ * were created, so the order of the callbacks does not depend on the order the components are updated in.
+ * <p>
+ * The pass runs in the {@link Component.ComponentOrder#COLLISION} phase if the scene uses an {@link EntityStore},
+ * otherwise after all gameObjects were updated.
+ * The pairs of sleeping handlers and of handlers sharing a collider with another handler are not mirrored,
+ * they are detected from the side of the awake handler like before.
+ *
+ * @see Scene#enableCollisionPass()
+ */
+public class CollisionPass implements EntitySystem {
+
+    private static final Comparator<CollisionHandler> CREATION_ORDER =
+            Comparator.comparingLong(handler -> handler.gameObject.getUniqueId());
+
+    private final Scene scene;
+    private final List<CollisionHandler> handlers = new ArrayList<>();
+    private final IdentityHashMap<Collider, CollisionHandler> byCollider = new IdentityHashMap<>();
+    private boolean sorted = true;
+
+    /**
+     * Reused buffer for the candidates found by the broad phase
+     */
+    private final List<Collider> candidates = new ArrayList<>();
+
+    public CollisionPass(Scene scene) {
+        if (scene == null) throw new IllegalArgumentException("A collision pass requires a scene");
+        this.scene = scene;
+    }
+
+    /**
+     * Lets this pass dispatch the pairs of a handler, which stops checking on its own.
+     *
+     * @param handler the handler, attached to a gameObject
+     */
+    public void add(CollisionHandler handler) {
+        if (handler.pass == this) return;
+        if (handler.pass != null)
+            throw new IllegalArgumentException("The handler belongs to the collision pass of another scene");
+        handler.pass = this;
+        handlers.add(handler);
+        byCollider.putIfAbsent(handler.getCollider(), handler);
+        sorted = false;
+    }
+
+    /**
+     * @param handler the handler, which will check on its own again
+     * @return true, if the handler was part of this pass
+     */
+    public boolean remove(CollisionHandler handler) {
+        if (handler.pass != this) return false;
+        handler.pass = null;
+        handler.stepping = handler.mirrored = false;
+        handlers.remove(handler);
+        if (byCollider.get(handler.getCollider()) == handler) {
+            byCollider.remove(handler.getCollider());
+            //another handler of the same collider takes over
+            for (CollisionHandler other : handlers)
+                if (other.getCollider() == handler.getCollider()) {
+                    byCollider.put(other.getCollider(), other);
+                    break;
+                }
+        }
+        return true;
+    }
+
+    /**
+     * @return the amount of handlers dispatched by this pass
+     */
+    public int size() {
+        return handlers.size();
+    }
+
+    @Override
+    public Component.ComponentOrder order() {
+        return Component.ComponentOrder.COLLISION;
+    }
+
+    @Override
+    public void update(EntityStore store, float dt) {
+        step();
+    }
+
+    /**
+     * Detects all pairs once and dispatches them to the handlers.
+     */
+    public void step() {
+        if (handlers.isEmpty()) return;
+        Profiler.begin("collision");
+        if (!sorted) {
+            handlers.sort(CREATION_ORDER);
+            sorted = true;
+        }
+        //every handler has to begin its frame before the pairs of earlier handlers are mirrored into it
+        for (int i = 0; i < handlers.size(); i++) {
+            CollisionHandler handler = handlers.get(i);
+            handler.passIndex = i;
+            //resting bodies keep their contacts until they wake up
+            handler.stepping = !handler.getCollider().isSleeping();
+            handler.mirrored = handler.stepping && byCollider.get(handler.getCollider()) == handler;
+            if (handler.stepping) handler.getContacts().beginFrame();
+        }
+        for (int i = 0; i < handlers.size(); i++) {
+            CollisionHandler handler = handlers.get(i);
+            if (!handler.stepping) continue;
+            handler.queryCandidates(scene, candidates);
+            for (int j = 0; j < candidates.size(); j++)
+                check(handler, candidates.get(j));
+            candidates.clear();
+            handler.checkTiles(scene);
+        }
+        for (int i = 0; i < handlers.size(); i++) {
+            CollisionHandler handler = handlers.get(i);
+            if (handler.stepping) handler.endFrame();
+        }
+        Profiler.end();
+    }
+
+    private void check(CollisionHandler handler, Collider other) {
+        Collider collider = handler.getCollider();
+        //both tests are symmetric, so a pair is rejected from both sides alike
+        if (!collider.canCollideWith(other)) return;
+        CollisionHandler otherHandler = handler.mirrored ? byCollider.get(other) : null;
+        boolean mirrored = otherHandler != null && otherHandler.mirrored;
+        //the broad phase finds the pair from both sides, it is handled by the handler stepped first
+        if (mirrored && otherHandler.passIndex < handler.passIndex) return;
+        if (!collider.getShape().boundingSphere().intersection(other.getShape().boundingSphere())) return;
+        ContactCache.Pair pair = handler.getContacts().get(other);
+        boolean wasColliding = pair.isColliding();
+        boolean colliding = pair.detect(collider);
+        handler.dispatch(other, pair, wasColliding, colliding);
+        if (!mirrored) return;
+        ContactCache.Pair otherPair = otherHandler.getContacts().get(collider);
+        boolean otherWasColliding = otherPair.isColliding();
+        otherPair.mirror(pair);
+        otherHandler.dispatch(collider, otherPair, otherWasColliding, colliding);
+    }
+
+}
@@ -70,8 +70,14 @@ public abstract class Component implements Comparable<Component> {
      * @return the current position of the parent gameobject
      */
     protected void setPosition(Vector2f position) {
-        gameObject.getPositionData()[0] = position.x;
-        gameObject.getPositionData()[1] = position.y;
+        gameObject.setPosition(position.x, position.y);
+    }
+
+    /**
+     * @return the phase of the update cycle this component is updated in
+     */
+    ComponentOrder order() {
+        return order;
     }
 
     //this method is primarily used to keep all components in order to update them properly
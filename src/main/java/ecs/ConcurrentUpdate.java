@@ -0,0 +1,16 @@
+package ecs;
+
+/**
+ * Marks a {@link Component} whose update can run at the same time as the updates of other components
+ * of the same {@link Component.ComponentOrder}, on any thread.
+ * <p>
+ * A concurrent component may only change its own state and the state of its own gameObject
+ * and may only read other gameObjects. It must neither add nor remove gameObjects or components,
+ * nor touch the scene, its colliders or any renderer during its update.
+ * <p>
+ * Unmarked components are always updated one after another on the thread of the game loop.
+ *
+ * @see SystemScheduler#setParallelism(int)
+ */
+public interface ConcurrentUpdate {
+}
@@ -8,6 +8,10 @@ import java.util.Collection;
 
 /**
  * The {@link Dynamics} manage movement of a {@link GameObject}.
+ * <p>
+ * Once the velocity stayed below {@link #SLEEP_VELOCITY} for {@link #SLEEP_FRAMES} frames, the dynamics fall asleep:
+ * the gameObject is not moved anymore and its collider is neither moved nor checked, until the velocity grows again,
+ * a force is applied or another collider runs into it.
  *
  * @author Juyas
  * @version 06.12.2021
@@ -17,9 +21,23 @@ public class Dynamics extends Component {
 
     public static final int DEFAULT_FORCE_CAPACITY = 10;
 
+    /**
+     * The length of the velocity below which the dynamics count as resting
+     */
+    public static final float SLEEP_VELOCITY = 0.01f;
+
+    /**
+     * The amount of frames the dynamics have to rest before they fall asleep
+     */
+    public static final int SLEEP_FRAMES = 60;
+
     private final Collection<Force> forces;
     private final Vector2f velocity;
 
+    private boolean sleepingAllowed = true;
+    private boolean sleeping;
+    private int restingFrames;
+
     public Dynamics() {
         super(ComponentOrder.TRANSFORM);
         this.forces = new ArrayList<>(DEFAULT_FORCE_CAPACITY);
@@ -42,6 +60,7 @@ public class Dynamics extends Component {
      */
     public final void applyForce(Force force) {
         forces.add(force);
+        wake();
     }
 
     /**
@@ -55,10 +74,47 @@ public class Dynamics extends Component {
         return forces.removeIf(f -> f.identifier().equals(identifier));
     }
 
+    /**
+     * @return true, if the dynamics rest and the gameObject is not moved
+     */
+    public final boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * Wakes the dynamics up, they fall asleep again after resting for {@link #SLEEP_FRAMES} frames.
+     */
+    public final void wake() {
+        sleeping = false;
+        restingFrames = 0;
+    }
+
+    /**
+     * Allow or forbid the dynamics to fall asleep, forbidding it wakes them up.
+     *
+     * @param sleepingAllowed whether the dynamics may fall asleep
+     */
+    public final void setSleepingAllowed(boolean sleepingAllowed) {
+        this.sleepingAllowed = sleepingAllowed;
+        if (!sleepingAllowed) wake();
+    }
+
+    public final boolean isSleepingAllowed() {
+        return sleepingAllowed;
+    }
+
     @Override
     public void update(float dt) {
         super.update(dt);
 
+        updateForces(dt);
+
+        //apply dynamics
+        if (updateSleep()) setPosition(position().add(velocity()));
+    }
+
+    //update all forces and recalculate the velocity without moving the gameObject
+    void updateForces(float dt) {
         //reset velocity
         velocity.set(0, 0);
         //update dynamics & recalculate velocity
@@ -66,9 +122,16 @@ public class Dynamics extends Component {
             f.update(dt);
             velocity.add(f.direction());
         }
+    }
 
-        //apply dynamics
-        setPosition(position().add(velocity()));
+    //count the resting frames after the forces were updated, returns false while asleep
+    boolean updateSleep() {
+        if (velocity.lengthSquared() >= SLEEP_VELOCITY * SLEEP_VELOCITY) {
+            wake();
+            return true;
+        }
+        if (!sleeping && sleepingAllowed && ++restingFrames >= SLEEP_FRAMES) sleeping = true;
+        return !sleeping;
     }
 
 
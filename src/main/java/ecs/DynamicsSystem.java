@@ -0,0 +1,49 @@
+package ecs;
+
+import org.joml.Vector2f;
+
+/**
+ * Moves all entities with {@link Dynamics} by their velocity.
+ * The forces are still updated per entity, but the position is integrated in a single pass over the packed arrays.
+ * Since every entity has its own forces, ranges of entities can be updated in parallel.
+ * Sleeping dynamics are not moved, see {@link Dynamics#isSleeping()}.
+ */
+class DynamicsSystem extends RangeSystem {
+
+    @Override
+    public Component.ComponentOrder order() {
+        return Component.ComponentOrder.TRANSFORM;
+    }
+
+    @Override
+    public void update(EntityStore store, int from, int to, float dt) {
+        Dynamics[] dynamics = store.getDynamics();
+        float[] velocityX = store.getVelocityX();
+        float[] velocityY = store.getVelocityY();
+        for (int i = from; i < to; i++) {
+            Dynamics d = dynamics[i];
+            if (d == null) continue;
+            d.updateForces(dt);
+            if (!d.updateSleep()) {
+                velocityX[i] = 0;
+                velocityY[i] = 0;
+                continue;
+            }
+            Vector2f velocity = d.velocity();
+            velocityX[i] = velocity.x;
+            velocityY[i] = velocity.y;
+        }
+
+        float[] x = store.getX();
+        float[] y = store.getY();
+        for (int i = from; i < to; i++) {
+            float vx = velocityX[i];
+            float vy = velocityY[i];
+            if (vx == 0 && vy == 0) continue;
+            x[i] += vx;
+            y[i] += vy;
+            store.syncPosition(i);
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+package ecs;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the hot data of all gameObjects of a scene in packed primitive arrays, one array per field,
+ * so {@link EntitySystem}s can process all entities in tight loops instead of calling every component on its own.
+ * <p>
+ * Every gameObject in the store has an index, which is the same in all arrays.
+ * Indices are not stable: removing a gameObject moves the last one into its place.
+ * The arrays are replaced when the store grows, so they must not be kept beyond a single update.
+ * <p>
+ * The position of a gameObject is still available through {@link GameObject#getPositionData()},
+ * which mirrors the store. Systems that change the position arrays have to call {@link #syncPosition(int)} afterwards.
+ * Positions written to the array of a gameObject are taken over before the systems of the next phase run.
+ *
+ * @see SystemScheduler
+ */
+public final class EntityStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private GameObject[] objects;
+    private float[] x, y;
+    private float[] velocityX, velocityY;
+    private Dynamics[] dynamics;
+
+    private PolygonCollider[] colliders;
+    //the position the shape of the collider was last moved to
+    private float[] colliderX, colliderY;
+
+    private int size;
+
+    EntityStore() {
+        objects = new GameObject[INITIAL_CAPACITY];
+        x = new float[INITIAL_CAPACITY];
+        y = new float[INITIAL_CAPACITY];
+        velocityX = new float[INITIAL_CAPACITY];
+        velocityY = new float[INITIAL_CAPACITY];
+        dynamics = new Dynamics[INITIAL_CAPACITY];
+        colliders = new PolygonCollider[INITIAL_CAPACITY];
+        colliderX = new float[INITIAL_CAPACITY];
+        colliderY = new float[INITIAL_CAPACITY];
+    }
+
+    private void grow() {
+        int capacity = objects.length * 2;
+        objects = Arrays.copyOf(objects, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        dynamics = Arrays.copyOf(dynamics, capacity);
+        colliders = Arrays.copyOf(colliders, capacity);
+        colliderX = Arrays.copyOf(colliderX, capacity);
+        colliderY = Arrays.copyOf(colliderY, capacity);
+    }
+
+    void add(GameObject gameObject) {
+        if (gameObject.storeIndex >= 0) return;
+        if (size == objects.length) grow();
+        int index = size++;
+        float[] position = gameObject.getPositionData();
+        objects[index] = gameObject;
+        x[index] = position[0];
+        y[index] = position[1];
+        velocityX[index] = 0;
+        velocityY[index] = 0;
+        dynamics[index] = null;
+        colliders[index] = null;
+        gameObject.storeIndex = index;
+        gameObject.store = this;
+    }
+
+    void remove(GameObject gameObject) {
+        int index = gameObject.storeIndex;
+        if (index < 0 || objects[index] != gameObject) return;
+        int last = --size;
+        if (index != last) {
+            objects[index] = objects[last];
+            x[index] = x[last];
+            y[index] = y[last];
+            velocityX[index] = velocityX[last];
+            velocityY[index] = velocityY[last];
+            dynamics[index] = dynamics[last];
+            colliders[index] = colliders[last];
+            colliderX[index] = colliderX[last];
+            colliderY[index] = colliderY[last];
+            objects[index].storeIndex = index;
+        }
+        objects[last] = null;
+        dynamics[last] = null;
+        colliders[last] = null;
+        gameObject.storeIndex = -1;
+        gameObject.store = null;
+    }
+
+    /**
+     * Takes over the data of a component, if it is one of the components backed by the store.
+     * Only the exact classes are taken over, since subclasses might change their behaviour.
+     *
+     * @param component a component of a gameObject in the store
+     * @return true, if the component is updated by a system from now on
+     */
+    boolean attach(Component component) {
+        int index = component.gameObject.storeIndex;
+        if (index < 0) return false;
+        if (component.getClass() == Dynamics.class && dynamics[index] == null) {
+            dynamics[index] = (Dynamics) component;
+            return true;
+        }
+        if (component.getClass() == PolygonCollider.class && colliders[index] == null) {
+            colliders[index] = (PolygonCollider) component;
+            //the shape is moved by the next collider system update
+            colliderX[index] = Float.NaN;
+            colliderY[index] = Float.NaN;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Releases a component taken over by {@link #attach(Component)}
+     *
+     * @param component the component
+     * @return true, if the component was backed by the store
+     */
+    boolean detach(Component component) {
+        int index = component.gameObject.storeIndex;
+        if (index < 0) return false;
+        if (dynamics[index] == component) {
+            dynamics[index] = null;
+            velocityX[index] = 0;
+            velocityY[index] = 0;
+            return true;
+        }
+        if (colliders[index] == component) {
+            colliders[index] = null;
+            return true;
+        }
+        return false;
+    }
+
+    void setPosition(int index, float x, float y) {
+        this.x[index] = x;
+        this.y[index] = y;
+    }
+
+    /**
+     * Copies the position of an entity from the packed arrays to its gameObject.
+     *
+     * @param index the index of the entity
+     */
+    public void syncPosition(int index) {
+        float[] position = objects[index].getPositionData();
+        position[0] = x[index];
+        position[1] = y[index];
+    }
+
+    /**
+     * Takes over the positions written to the arrays of the gameObjects instead of {@link GameObject#setPosition(float, float)}.
+     * Unchanged positions are only compared, so this is cheap compared to any system.
+     */
+    void pullPositions() {
+        for (int i = 0; i < size; i++) {
+            float[] position = objects[i].getPositionData();
+            if (position[0] != x[i] || position[1] != y[i]) {
+                x[i] = position[0];
+                y[i] = position[1];
+            }
+        }
+    }
+
+    /**
+     * @return the amount of entities in the store
+     */
+    public int size() {
+        return size;
+    }
+
+    public GameObject getGameObject(int index) {
+        return objects[index];
+    }
+
+    public float[] getX() {
+        return x;
+    }
+
+    public float[] getY() {
+        return y;
+    }
+
+    /**
+     * @return the velocity of the last update on the x axis, 0 for all entities without {@link Dynamics}
+     */
+    public float[] getVelocityX() {
+        return velocityX;
+    }
+
+    /**
+     * @return the velocity of the last update on the y axis, 0 for all entities without {@link Dynamics}
+     */
+    public float[] getVelocityY() {
+        return velocityY;
+    }
+
+    /**
+     * @return the dynamics of all entities, null for entities without one
+     */
+    public Dynamics[] getDynamics() {
+        return dynamics;
+    }
+
+    /**
+     * @return the colliders of all entities, null for entities without one
+     */
+    public PolygonCollider[] getColliders() {
+        return colliders;
+    }
+
+    float[] getColliderX() {
+        return colliderX;
+    }
+
+    float[] getColliderY() {
+        return colliderY;
+    }
+
+}
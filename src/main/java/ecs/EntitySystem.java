@@ -0,0 +1,24 @@
+package ecs;
+
+/**
+ * Updates the data of all entities of an {@link EntityStore} at once, instead of one component after another.
+ * A system runs in the phase of its {@link Component.ComponentOrder}, before all regular components of that phase.
+ *
+ * @see SystemScheduler#addSystem(EntitySystem)
+ */
+public interface EntitySystem {
+
+    /**
+     * @return the phase in which this system runs
+     */
+    Component.ComponentOrder order();
+
+    /**
+     * Called once per update for all entities of the store.
+     *
+     * @param store the packed data of all entities
+     * @param dt    Engine.deltaTime
+     */
+    void update(EntityStore store, float dt);
+
+}
@@ -10,6 +10,8 @@ import util.OrderPreservingList;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A GameObject is the root of the Entity Component system used to store all
@@ -56,6 +58,12 @@ public class GameObject {
     private final OrderPreservingList<Component> components;
     private final float[] position = new float[2];
     private int zIndex;
+    //components already found by getComponent, cleared whenever a component is added or removed
+    private Map<Class<?>, Component> componentCache;
+
+    //the entity store of the scene, if it uses one, and the index of this gameObject in it
+    EntityStore store;
+    int storeIndex = -1;
 
     /**
      * Creates a new GameObject.
@@ -169,10 +177,29 @@ public class GameObject {
         return new Vector2f(position);
     }
 
+    /**
+     * The position of this gameObject as an array of x and y.
+     * If the scene uses an {@link EntityStore}, this array mirrors the store and changes to it are only taken over
+     * before the systems of the next phase run, so prefer {@link #setPosition(float, float)}.
+     *
+     * @return the position data
+     */
     public float[] getPositionData() {
         return position;
     }
 
+    /**
+     * Moves this gameObject to a new position.
+     *
+     * @param x the new x position
+     * @param y the new y position
+     */
+    public void setPosition(float x, float y) {
+        position[0] = x;
+        position[1] = y;
+        if (store != null) store.setPosition(storeIndex, x, y);
+    }
+
     public int zIndex() {
         return zIndex;
     }
@@ -197,10 +224,18 @@ public class GameObject {
      * @return Component of type passed as param is contained in GameObject
      */
     public <T> T getComponent(Class<T> componentClass) {
+        Map<Class<?>, Component> cache = componentCache;
+        if (cache != null) {
+            Component cached = cache.get(componentClass);
+            if (cached != null) return componentClass.cast(cached);
+        }
         for (Component c : components) {
             if (componentClass.isAssignableFrom(c.getClass())) {
                 try {
-                    return componentClass.cast(c);
+                    T component = componentClass.cast(c);
+                    if (cache == null) componentCache = cache = new ConcurrentHashMap<>();
+                    cache.put(componentClass, c);
+                    return component;
                 } catch (ClassCastException e) {
                     Log.fatal("failed to cast component to " + componentClass.getName());
                     e.printStackTrace();
@@ -243,11 +278,17 @@ public class GameObject {
         for (int i = 0; i < components.size(); i++) {
             Component c = components.get(i);
             if (componentClass.isAssignableFrom(c.getClass())) {
+                //unregister before removal, so the scene can still find the collider
+                if (c instanceof Collider)
+                    getParentScene().unregisterCollider(this);
+                if (c instanceof CollisionHandler && getParentScene().getCollisionPass() != null)
+                    getParentScene().getCollisionPass().remove((CollisionHandler) c);
+                if (store != null)
+                    getParentScene().getScheduler().removeComponent(c);
                 c.remove();
                 c.gameObject = null;
                 components.remove(i);
-                if (c instanceof Collider)
-                    getParentScene().unregisterCollider(this);
+                componentCache = null;
                 return;
             }
         }
@@ -262,6 +303,9 @@ public class GameObject {
     public GameObject addComponent(Component c) {
         this.components.add(c);
         c.gameObject = this;
+        componentCache = null;
+        if (store != null)
+            getParentScene().getScheduler().addComponent(c);
         // TODO check if this is necessary
         if (getParentScene() != null) {
             if (getParentScene().isActive()) {
@@ -271,6 +315,8 @@ public class GameObject {
         }
         if (c instanceof Collider)
             getParentScene().registerCollider(this);
+        if (c instanceof CollisionHandler && getParentScene().getCollisionPass() != null)
+            getParentScene().getCollisionPass().add((CollisionHandler) c);
         return this;
     }
 
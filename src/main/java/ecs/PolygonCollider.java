@@ -1,8 +1,12 @@
 package ecs;
 
+import physics.collision.BodyType;
 import physics.collision.Collider;
 import physics.collision.CollisionInformation;
+import physics.collision.narrowphase.Contact;
+import physics.collision.narrowphase.ShapePairs;
 import physics.collision.shape.PrimitiveShape;
+import scene.Scene;
 import util.MathUtils;
 
 import java.util.Collections;
@@ -11,8 +15,14 @@ import java.util.Set;
 
 /**
  * A polygon collider for a {@link GameObject}.
- * Collision detection uses GJK in {@link MathUtils#gjksmCollision(PrimitiveShape, PrimitiveShape)}.
+ * Collision detection into a {@link Contact} uses {@link ShapePairs#collide(PrimitiveShape, PrimitiveShape, Contact)},
+ * a closed form test for common pairs of shapes or GJK and EPA for all others.
+ * {@link #detectCollision(Collider)} still returns the simplex of GJK, see {@link MathUtils#gjksmCollision(PrimitiveShape, PrimitiveShape)}.
  * Must not be mixed with other colliders.
+ * <p>
+ * The shape only follows the gameObject while it moves: static colliders are placed once when they start,
+ * resting colliders are skipped and colliders of sleeping {@link Dynamics} are not checked by their {@link CollisionHandler}.
+ * A collider moving without a handler wakes the sleeping colliders it touches, see {@link Scene#wakeOverlapping(Collider)}.
  *
  * @author Juyas
  * @version 06.12.2021
@@ -50,10 +60,21 @@ public class PolygonCollider extends Component implements Collider {
      */
     private final boolean passive;
 
+    /**
+     * @see Collider#bodyType()
+     */
+    private BodyType bodyType;
+
+    /**
+     * The position the shape was moved to last, NaN if it was never placed
+     */
+    private float placedX = Float.NaN, placedY = Float.NaN;
+
     public PolygonCollider(PrimitiveShape shape, boolean passive) {
         super(ComponentOrder.POST_TRANSFORM);
         setShape(shape);
         this.passive = passive;
+        this.bodyType = passive ? BodyType.KINEMATIC : BodyType.DYNAMIC;
     }
 
     public PolygonCollider(PrimitiveShape shape) {
@@ -93,11 +114,61 @@ public class PolygonCollider extends Component implements Collider {
     public void setShape(PrimitiveShape shape) {
         if (shape == null) throw new IllegalArgumentException("The shape of a collider shall not be null");
         this.shape = shape;
+        placedX = placedY = Float.NaN;
+    }
+
+    /**
+     * Changes how the collider moves. Passive colliders are kinematic by default, all others dynamic.
+     * A collider only becomes {@link BodyType#STATIC} on request, as static colliders do not follow their gameObject anymore.
+     * Changing the type of a collider which is already part of a scene moves it between the static and the other colliders.
+     *
+     * @param bodyType the new body type
+     * @return the collider itself, to chain the call.
+     */
+    public PolygonCollider bodyType(BodyType bodyType) {
+        if (bodyType == null) throw new IllegalArgumentException("The body type of a collider shall not be null");
+        if (bodyType == this.bodyType) return this;
+        boolean registered = gameObject != null && gameObject.getComponent(Collider.class) == this;
+        if (registered) gameObject.getParentScene().unregisterCollider(gameObject);
+        this.bodyType = bodyType;
+        if (registered) {
+            gameObject.getParentScene().registerCollider(gameObject);
+            placedX = placedY = Float.NaN;
+        }
+        return this;
+    }
+
+    @Override
+    public BodyType bodyType() {
+        return bodyType;
+    }
+
+    @Override
+    public boolean isSleeping() {
+        Dynamics dynamics = dynamics();
+        return dynamics != null && dynamics.isSleeping();
+    }
+
+    @Override
+    public void wake() {
+        Dynamics dynamics = dynamics();
+        if (dynamics != null) dynamics.wake();
+    }
+
+    /**
+     * Looked up every time, as the dynamics may be added or removed after the collider was placed.
+     *
+     * @return the dynamics moving the gameObject, null if there are none or the collider is not dynamic
+     */
+    private Dynamics dynamics() {
+        if (bodyType != BodyType.DYNAMIC || gameObject == null) return null;
+        return gameObject.getComponent(Dynamics.class);
     }
 
     @Override
     public void start() {
-        shape.setPosition(position());
+        placedX = placedY = Float.NaN;
+        updateShape();
     }
 
     @Override
@@ -185,7 +256,33 @@ public class PolygonCollider extends Component implements Collider {
 
     @Override
     public void update(float dt) {
+        //static colliders stay where they were placed
+        if (bodyType == BodyType.STATIC && !Float.isNaN(placedX)) return;
+        float[] position = gameObject.getPositionData();
+        if (position[0] == placedX && position[1] == placedY) return;
+        updateShape();
+    }
+
+    //move the shape to the current position and let the scene know about it
+    void updateShape() {
+        float[] position = gameObject.getPositionData();
+        placedX = position[0];
+        placedY = position[1];
         shape.setPosition(position());
+        Scene scene = gameObject.getParentScene();
+        scene.updateCollider(this);
+        //moved by something else than its own dynamics
+        if (isSleeping()) wake();
+        //a handler wakes the colliders it runs into on its own
+        CollisionHandler handler = gameObject.getComponent(CollisionHandler.class);
+        if (handler == null || handler.getCollider() != this) scene.wakeOverlapping(this);
+    }
+
+    /**
+     * @return true, if the shape was moved to the gameObject at least once
+     */
+    boolean isPlaced() {
+        return !Float.isNaN(placedX);
     }
 
 
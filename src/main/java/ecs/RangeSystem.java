@@ -0,0 +1,26 @@
+package ecs;
+
+/**
+ * An {@link EntitySystem} whose entities are independent from each other,
+ * so any range of the store can be updated on its own and at the same time as other ranges.
+ *
+ * @see SystemScheduler#setParallelism(int)
+ */
+public abstract class RangeSystem implements EntitySystem {
+
+    /**
+     * Updates the entities from index from (inclusive) to index to (exclusive).
+     *
+     * @param store the packed data of all entities
+     * @param from  the first index
+     * @param to    the end of the range
+     * @param dt    Engine.deltaTime
+     */
+    public abstract void update(EntityStore store, int from, int to, float dt);
+
+    @Override
+    public void update(EntityStore store, float dt) {
+        update(store, 0, store.size(), dt);
+    }
+
+}
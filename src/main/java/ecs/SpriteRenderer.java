@@ -8,6 +8,8 @@ import org.joml.Vector4f;
 import util.Assets;
 import util.MathUtils;
 
+import java.util.function.Consumer;
+
 import static graphics.Color.WHITE;
 
 /**
@@ -26,9 +28,12 @@ public class SpriteRenderer extends Component {
     private Sprite sprite;
 
     private Vector2f lastLocation;
+    private final Vector2f previousLocation = new Vector2f();
     private Vector2f size;
     private float rotation;
     private boolean isDirty; // Dirty flag, tells renderer to redraw if object components have changed
+    // Notified whenever the sprite is marked dirty, e.g. because it moved, so the renderer does not have to poll every sprite
+    private Consumer<SpriteRenderer> dirtyListener;
 
     /**
      * Create the spriteRenderer using a color vector, no sprite.
@@ -90,7 +95,8 @@ public class SpriteRenderer extends Component {
     @Override
     public void start() {
         this.lastLocation = position();
-        isDirty = true;
+        this.previousLocation.set(lastLocation);
+        markDirty();
     }
 
     /**
@@ -100,8 +106,40 @@ public class SpriteRenderer extends Component {
      */
     @Override
     public void update(float dt) {
-        if (!position().equals(this.lastLocation)) markDirty();
-        this.lastLocation = position();
+        previousLocation.set(lastLocation);
+        float[] position = gameObject.getPositionData();
+        if (position[0] != lastLocation.x || position[1] != lastLocation.y) {
+            markDirty();
+            lastLocation.set(position[0], position[1]);
+        }
+    }
+
+    /**
+     * The position to draw the sprite at, between its position of the previous and the current update.
+     *
+     * @param alpha the interpolation alpha from 0 (previous update) to 1 (current update)
+     * @param dest  will hold the result
+     * @return dest
+     * @see util.Engine#interpolationAlpha()
+     */
+    public Vector2f getInterpolatedPosition(float alpha, Vector2f dest) {
+        float[] position = gameObject.getPositionData();
+        if (lastLocation == null || alpha >= 1) return dest.set(position[0], position[1]);
+        return dest.set(previousLocation.x + (position[0] - previousLocation.x) * alpha,
+                previousLocation.y + (position[1] - previousLocation.y) * alpha);
+    }
+
+    /**
+     * Whether the position to draw the sprite at still changes with the interpolation alpha,
+     * which is the case until an update finds the sprite resting at the same position as in the update before.
+     *
+     * @return true, if the sprite moved in its last update or since then
+     */
+    public boolean isMoving() {
+        if (lastLocation == null) return false;
+        float[] position = gameObject.getPositionData();
+        return previousLocation.x != lastLocation.x || previousLocation.y != lastLocation.y
+                || position[0] != lastLocation.x || position[1] != lastLocation.y;
     }
 
     /**
@@ -111,12 +149,18 @@ public class SpriteRenderer extends Component {
         return sprite.getTexture();
     }
 
+    /**
+     * Changing the returned vector directly requires to {@link #markDirty()} this sprite renderer afterwards.
+     *
+     * @return the size of the sprite
+     */
     public Vector2f getSize() {
         return size;
     }
 
     public void setSize(Vector2f size) {
         this.size = size;
+        markDirty();
     }
 
     /**
@@ -139,6 +183,8 @@ public class SpriteRenderer extends Component {
     }
 
     /**
+     * Changing the returned vector directly requires to {@link #markDirty()} this sprite renderer afterwards.
+     *
      * @return a Vector4f containing the normalized (0-1) color values (R, G, B, and A)
      */
     public Vector4f getColorVector() {
@@ -183,6 +229,7 @@ public class SpriteRenderer extends Component {
      */
     public void setAlpha(float a) {
         color.w = MathUtils.map(a, 0, 255, 0, 1);
+        isDirty = true;
     }
 
     /**
@@ -197,6 +244,7 @@ public class SpriteRenderer extends Component {
 
     /**
      * Used by the renderer to determine if this sprite should be sent back to the GPU to be redrawn.
+     * Movement is detected by the update of this sprite renderer, which marks it dirty.
      *
      * @return true or false if the sprite or color has changes since last draw.
      */
@@ -205,10 +253,24 @@ public class SpriteRenderer extends Component {
     }
 
     /**
-     * Mark this Sprite renderer as dirty
+     * Mark this Sprite renderer as dirty, also required after it was moved or resized without an update
      */
     public void markDirty() {
         isDirty = true;
+        if (dirtyListener != null) dirtyListener.accept(this);
+    }
+
+    /**
+     * Set by the renderer drawing this sprite, to be notified whenever it is marked dirty
+     *
+     * @param dirtyListener the listener, null to remove it
+     */
+    public void setDirtyListener(Consumer<SpriteRenderer> dirtyListener) {
+        this.dirtyListener = dirtyListener;
+    }
+
+    public Consumer<SpriteRenderer> getDirtyListener() {
+        return dirtyListener;
     }
 
     /**
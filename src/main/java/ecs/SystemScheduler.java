@@ -0,0 +1,210 @@
+package ecs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Updates all gameObjects of a scene phase by phase instead of object by object.
+ * For every {@link Component.ComponentOrder}, first all {@link EntitySystem}s of that phase run,
+ * afterwards the update of every regular component of that phase is called.
+ * <p>
+ * {@link Dynamics} and {@link PolygonCollider} are backed by the {@link EntityStore} and updated by built-in systems,
+ * all other components keep working as before.
+ * <p>
+ * By default, everything runs one after another on the calling thread, which is deterministic.
+ * With a {@link #setParallelism(int) parallelism} above one, the {@link RangeSystem}s and the {@link ConcurrentUpdate}
+ * components of a phase are spread across the threads of a fork-join pool. Each phase waits for all of its work
+ * to be done before the next phase starts. Within a phase, the concurrent components are updated first,
+ * afterwards all other components one after another on the calling thread.
+ *
+ * @see scene.Scene#enableEntityStore()
+ */
+public class SystemScheduler {
+
+    private static final Component.ComponentOrder[] PHASES = Component.ComponentOrder.values();
+    //the smallest amount of entities or components handed to a single task
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private final EntityStore store = new EntityStore();
+    private final List<List<EntitySystem>> systems = new ArrayList<>(PHASES.length);
+    private final List<List<Component>> components = new ArrayList<>(PHASES.length);
+    private final List<List<Component>> concurrentComponents = new ArrayList<>(PHASES.length);
+
+    //null, while everything runs on the calling thread
+    private ForkJoinPool pool;
+
+    public SystemScheduler() {
+        for (int i = 0; i < PHASES.length; i++) {
+            systems.add(new ArrayList<>());
+            components.add(new ArrayList<>());
+            concurrentComponents.add(new ArrayList<>());
+        }
+        addSystem(new DynamicsSystem());
+        addSystem(new ColliderSystem());
+    }
+
+    /**
+     * Adds a system, which runs in its phase after all systems added before.
+     *
+     * @param system the system
+     */
+    public void addSystem(EntitySystem system) {
+        if (system == null || system.order() == null)
+            throw new IllegalArgumentException("A system requires a phase to run in");
+        systems.get(system.order().ordinal()).add(system);
+    }
+
+    public boolean removeSystem(EntitySystem system) {
+        return system != null && systems.get(system.order().ordinal()).remove(system);
+    }
+
+    /**
+     * Adds a gameObject with all of its components
+     *
+     * @param gameObject the gameObject
+     */
+    public void add(GameObject gameObject) {
+        store.add(gameObject);
+        for (Component component : gameObject.getComponents())
+            addComponent(component);
+    }
+
+    /**
+     * Removes a gameObject with all of its components
+     *
+     * @param gameObject the gameObject
+     */
+    public void remove(GameObject gameObject) {
+        for (Component component : gameObject.getComponents())
+            removeComponent(component);
+        store.remove(gameObject);
+    }
+
+    /**
+     * Adds a component of a gameObject, that is already part of this scheduler
+     *
+     * @param component the component
+     */
+    public void addComponent(Component component) {
+        if (!store.attach(component))
+            componentsOf(component).add(component);
+    }
+
+    /**
+     * Removes a component, while it is still attached to its gameObject
+     *
+     * @param component the component
+     */
+    public void removeComponent(Component component) {
+        if (!store.detach(component))
+            componentsOf(component).remove(component);
+    }
+
+    private List<Component> componentsOf(Component component) {
+        int phase = component.order().ordinal();
+        return component instanceof ConcurrentUpdate ? concurrentComponents.get(phase) : components.get(phase);
+    }
+
+    /**
+     * Runs all phases once.
+     *
+     * @param dt Engine.deltaTime
+     */
+    public void update(float dt) {
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            List<EntitySystem> phaseSystems = systems.get(phase);
+            //components of the earlier phases might have written to the position arrays of their gameObjects
+            if (!phaseSystems.isEmpty()) store.pullPositions();
+            for (int i = 0; i < phaseSystems.size(); i++) {
+                EntitySystem system = phaseSystems.get(i);
+                if (system instanceof RangeSystem) {
+                    RangeSystem rangeSystem = (RangeSystem) system;
+                    forRange(store.size(), (from, to) -> rangeSystem.update(store, from, to, dt));
+                } else system.update(store, dt);
+            }
+            List<Component> phaseConcurrent = concurrentComponents.get(phase);
+            forRange(phaseConcurrent.size(), (from, to) -> {
+                for (int i = from; i < to; i++)
+                    phaseConcurrent.get(i).update(dt);
+            });
+            List<Component> phaseComponents = components.get(phase);
+            for (int i = 0; i < phaseComponents.size(); i++)
+                phaseComponents.get(i).update(dt);
+        }
+    }
+
+    //run the action for the whole range, split across the pool if there is one and the range is large enough
+    private void forRange(int size, RangeAction action) {
+        if (size == 0) return;
+        if (pool == null || size < 2 * MIN_CHUNK_SIZE) {
+            action.run(0, size);
+            return;
+        }
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4));
+        //returns after all chunks are done, which is the barrier between the phases
+        pool.invoke(new RangeTask(action, 0, size, chunkSize));
+    }
+
+    /**
+     * Sets the amount of threads used to update the systems and components.
+     * A parallelism of one runs everything on the calling thread.
+     * <p>
+     * Forces of {@link Dynamics} are updated in parallel as well, so a force shared by multiple dynamics
+     * has to be thread safe, like a {@link physics.force.ConstantForce}.
+     *
+     * @param parallelism the amount of threads, at least one
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism has to be at least one, but was " + parallelism);
+        if (pool != null) {
+            if (pool.getParallelism() == parallelism) return;
+            pool.shutdown();
+        }
+        pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * @return the amount of threads used to update the systems and components
+     */
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    public EntityStore getStore() {
+        return store;
+    }
+
+    private interface RangeAction {
+        void run(int from, int to);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeAction action;
+        private final int from, to, chunkSize;
+
+        RangeTask(RangeAction action, int from, int to, int chunkSize) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                action.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(action, from, middle, chunkSize), new RangeTask(action, middle, to, chunkSize));
+        }
+
+    }
+
+}
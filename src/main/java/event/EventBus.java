@@ -0,0 +1,131 @@
+package event;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dispatches events to the listeners of their exact type, either immediately or deferred to a phase of the game loop.
+ * <pre>
+ * Events.bus.subscribe(DamageEvent.class, e -&gt; health -= e.amount);
+ *
+ * // on any thread, the listeners are called by the game loop at the start of the next frame
+ * Events.bus.post(damagePool.obtain().set(target, 10));
+ * </pre>
+ * Posting is lock-free and may be done by several threads at once, while {@link #dispatch(Phase)} must only be called
+ * by a single thread, which is the game loop for {@link Events#bus}. Posted events are released to their
+ * {@link EventPool} once all listeners were notified, so together with pooled events nothing is allocated per event.
+ */
+public class EventBus {
+
+    /**
+     * The points of the game loop at which posted events are dispatched
+     */
+    public enum Phase {
+        /**
+         * After the input was polled and before the scene is updated
+         */
+        FRAME_START,
+        /**
+         * After the scene was updated and rendered
+         */
+        FRAME_END
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final ConcurrentHashMap<Class<?>, EventNode<?>> nodes = new ConcurrentHashMap<>();
+    private final EventQueue[] queues = new EventQueue[PHASES.length];
+
+    public EventBus() {
+        for (int i = 0; i < queues.length; i++)
+            queues[i] = new EventQueue();
+    }
+
+    /**
+     * Gets the node holding the listeners of a type of event, which can also be used to publish events directly.
+     *
+     * @param type the exact class of the events, listeners of super classes are not notified
+     * @return the node of that type
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends EventData> EventNode<T> node(Class<T> type) {
+        return (EventNode<T>) nodes.computeIfAbsent(type, t -> new EventNode<>());
+    }
+
+    /**
+     * @param type     the exact class of the events to listen to
+     * @param listener called for every event of that type
+     */
+    public <T extends EventData> void subscribe(Class<T> type, EventListener<T> listener) {
+        node(type).subscribe(listener);
+    }
+
+    /**
+     * @return false if the listener was not subscribed to that type
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends EventData> boolean unsubscribe(Class<T> type, EventListener<T> listener) {
+        EventNode<T> node = (EventNode<T>) nodes.get(type);
+        return node != null && node.unsubscribe(listener);
+    }
+
+    /**
+     * Notifies the listeners right away on the calling thread. The event stays owned by the caller and is not released.
+     *
+     * @param event the event
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends EventData> void publish(T event) {
+        EventNode<T> node = (EventNode<T>) nodes.get(event.getClass());
+        if (node != null) node.onEvent(event);
+    }
+
+    /**
+     * Queues an event to be dispatched at the start of the next frame, see {@link #post(EventData, Phase)}
+     */
+    public void post(EventData event) {
+        post(event, Phase.FRAME_START);
+    }
+
+    /**
+     * Queues an event to be dispatched at a phase of the game loop. May be called by any thread.
+     * The bus takes over the event, it must not be changed or posted again until it was dispatched.
+     *
+     * @param event the event, which is released to its pool after it was dispatched
+     * @param phase the phase at which the listeners are notified
+     */
+    public void post(EventData event, Phase phase) {
+        if (event == null) throw new IllegalArgumentException("cannot post a null event");
+        if (event.queued) throw new IllegalStateException("the event " + event + " was already posted and not dispatched yet");
+        event.queued = true;
+        queues[phase.ordinal()].offer(event);
+    }
+
+    /**
+     * Notifies the listeners of all events posted for a phase, in the order they were posted.
+     * Events posted by those listeners for the same phase are left for the next dispatch.
+     * Must only be called by one thread.
+     *
+     * @param phase the phase of the game loop which was reached
+     * @return the amount of dispatched events
+     */
+    public int dispatch(Phase phase) {
+        EventQueue queue = queues[phase.ordinal()];
+        EventData last = queue.last();
+        if (queue.isEmpty(last)) return 0;
+        int count = 0;
+        EventData event;
+        do {
+            event = queue.poll();
+            if (event == null) break;
+            count++;
+            try {
+                publish(event);
+            } finally {
+                event.queued = false;
+                event.release();
+            }
+        } while (event != last);
+        return count;
+    }
+
+}
@@ -2,18 +2,45 @@ package event;
 
 /**
  * A base class to be extended by classes that are going to function as Data for the Event System
+ * <p>
+ * Event data may be reused for later events, e.g. when it was taken from an {@link EventPool}
+ * or posted to the {@link EventBus}, so listeners must not keep a reference to it after they returned.
  */
 public class EventData {
+
+    // the next event of the queue this event was posted to, see EventQueue
+    volatile EventData next;
+    // set while the event waits in the queue of an EventBus, published by the queue and the pool
+    boolean queued;
+    // the pool this event returns to once it was dispatched, if any
+    EventPool<?> pool;
+
+    /**
+     * Returns this event to the pool it was obtained from. Does nothing if it does not belong to a pool.
+     * Events posted to an {@link EventBus} are released automatically once they were dispatched.
+     */
+    public void release() {
+        if (pool != null) pool.free(this);
+    }
+
     /**
      * Event Data for the Window Resized Event
      */
     public static class WindowResizeEventData extends EventData {
-        public final int x;
-        public final int y;
+        public int x;
+        public int y;
+
+        public WindowResizeEventData() {
+        }
 
         public WindowResizeEventData(int x, int y) {
+            set(x, y);
+        }
+
+        public WindowResizeEventData set(int x, int y) {
             this.x = x;
             this.y = y;
+            return this;
         }
     }
 
@@ -21,16 +48,24 @@ public class EventData {
      * Event Data for the Key Event
      */
     public static class KeyEventData extends EventData {
-        public final int keycode;
-        public final int scancode;
-        public final int action;
-        public final int modifiers;
+        public int keycode;
+        public int scancode;
+        public int action;
+        public int modifiers;
+
+        public KeyEventData() {
+        }
 
         public KeyEventData(int keycode, int scancode, int action, int modifiers) {
+            set(keycode, scancode, action, modifiers);
+        }
+
+        public KeyEventData set(int keycode, int scancode, int action, int modifiers) {
             this.keycode = keycode;
             this.scancode = scancode;
             this.action = action;
             this.modifiers = modifiers;
+            return this;
         }
     }
 
@@ -38,12 +73,20 @@ public class EventData {
      * Event Data for the Mouse Scroll Event
      */
     public static class MouseScrollEventData extends EventData {
-        public final double xScroll;
-        public final double yScroll;
+        public double xScroll;
+        public double yScroll;
+
+        public MouseScrollEventData() {
+        }
 
         public MouseScrollEventData(double xScroll, double yScroll) {
+            set(xScroll, yScroll);
+        }
+
+        public MouseScrollEventData set(double xScroll, double yScroll) {
             this.xScroll = xScroll;
             this.yScroll = yScroll;
+            return this;
         }
     }
 
@@ -51,14 +94,22 @@ public class EventData {
      * Event Data for the Mouse Button Event
      */
     public static class MouseButtonEventData extends EventData {
-        public final int button;
-        public final int action;
-        public final int modifiers;
+        public int button;
+        public int action;
+        public int modifiers;
+
+        public MouseButtonEventData() {
+        }
 
         public MouseButtonEventData(int button, int action, int modifiers) {
+            set(button, action, modifiers);
+        }
+
+        public MouseButtonEventData set(int button, int action, int modifiers) {
             this.button = button;
             this.action = action;
             this.modifiers = modifiers;
+            return this;
         }
     }
 
@@ -1,24 +1,29 @@
 package event;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * A class which can handle Event listeners. Automatically calls all listeners when event occurs
+ * <p>
+ * The listeners are kept in an array which is copied whenever a listener is added or removed,
+ * so notifying them neither allocates nor locks, and listeners may subscribe or unsubscribe while an event is dispatched.
  *
  * @param <T> Type of Event Data this event is for
  */
 public class EventNode<T extends EventData> {
+
+    private static final EventListener<?>[] EMPTY = new EventListener<?>[0];
+
     /**
      * The listeners that are subscribed to this event
      */
-    private List<EventListener<T>> listeners;
+    @SuppressWarnings("unchecked")
+    private volatile EventListener<T>[] listeners = (EventListener<T>[]) EMPTY;
 
     /**
      * A default constructor
      */
     public EventNode() {
-        listeners = new LinkedList<>();
     }
 
     /**
@@ -26,8 +31,38 @@ public class EventNode<T extends EventData> {
      *
      * @param listener The function that is to be called when the event occurs
      */
-    public void subscribe(EventListener<T> listener) {
-        listeners.add(listener);
+    public synchronized void subscribe(EventListener<T> listener) {
+        if (listener == null) throw new IllegalArgumentException("cannot subscribe a null listener");
+        EventListener<T>[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[copy.length - 1] = listener;
+        listeners = copy;
+    }
+
+    /**
+     * Removes a function from the listeners list
+     *
+     * @param listener The function that was subscribed before
+     * @return false if the listener was not subscribed
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized boolean unsubscribe(EventListener<T> listener) {
+        EventListener<T>[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != listener) continue;
+            EventListener<T>[] copy = (EventListener<T>[]) new EventListener<?>[current.length - 1];
+            System.arraycopy(current, 0, copy, 0, i);
+            System.arraycopy(current, i + 1, copy, i, copy.length - i);
+            listeners = copy;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the amount of subscribed listeners
+     */
+    public int getListenerCount() {
+        return listeners.length;
     }
 
     /**
@@ -36,6 +71,7 @@ public class EventNode<T extends EventData> {
      * @param t the data that is to be given to all the listeners.
      */
     public void onEvent(T t) {
-        listeners.forEach(listener -> listener.onEvent(t));
+        for (EventListener<T> listener : listeners)
+            listener.onEvent(t);
     }
 }
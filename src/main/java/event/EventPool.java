@@ -0,0 +1,104 @@
+package event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Keeps released events of a single type to hand them out again, so events can be posted without allocating.
+ * <pre>
+ * EventPool&lt;DamageEvent&gt; damagePool = new EventPool&lt;&gt;(DamageEvent::new, 64);
+ * Events.bus.post(damagePool.obtain().set(target, 10));
+ * </pre>
+ * A pool may be used by several threads without locking, the released events are kept in a bounded ring
+ * in which every slot has a sequence number telling whether it can be written or read, as described by Dmitry Vyukov.
+ *
+ * @param <T> the type of the pooled events
+ */
+public class EventPool<T extends EventData> {
+
+    private final Supplier<T> factory;
+    private final int mask;
+    private final AtomicReferenceArray<EventData> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong readPosition = new AtomicLong();
+
+    /**
+     * @param factory  creates a new event whenever the pool is empty
+     * @param capacity the maximum amount of released events kept, rounded up to a power of two.
+     *                 Further ones are left to the garbage collector
+     */
+    public EventPool(Supplier<T> factory, int capacity) {
+        if (factory == null) throw new IllegalArgumentException("an event pool requires a factory");
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("the capacity of an event pool has to be between 1 and 2^30");
+        this.factory = factory;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+            sequences.set(i, i);
+    }
+
+    /**
+     * @return a released event, or a new one if none is left. Its fields still hold the values of its last use
+     */
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        long position = readPosition.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long difference = sequences.getAcquire(slot) - (position + 1);
+            if (difference == 0) {
+                if (readPosition.compareAndSet(position, position + 1)) {
+                    EventData event = slots.getPlain(slot);
+                    slots.setPlain(slot, null);
+                    sequences.setRelease(slot, position + mask + 1);
+                    return (T) event;
+                }
+                position = readPosition.get();
+            } else if (difference < 0) {
+                T event = factory.get();
+                event.pool = this;
+                return event;
+            } else position = readPosition.get();
+        }
+    }
+
+    void free(EventData event) {
+        if (event.queued) throw new IllegalStateException("cannot release an event which is still queued");
+        long position = writePosition.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long difference = sequences.getAcquire(slot) - position;
+            if (difference == 0) {
+                if (writePosition.compareAndSet(position, position + 1)) {
+                    slots.setPlain(slot, event);
+                    sequences.setRelease(slot, position + 1);
+                    return;
+                }
+                position = writePosition.get();
+            } else if (difference < 0) return;
+            else position = writePosition.get();
+        }
+    }
+
+    /**
+     * @return the amount of released events kept by this pool, only exact while no other thread uses it
+     */
+    public int getFreeCount() {
+        return (int) Math.max(0, writePosition.get() - readPosition.get());
+    }
+
+    /**
+     * @return the maximum amount of released events kept by this pool
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+}
@@ -0,0 +1,79 @@
+package event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An unbounded, lock-free queue of events for several producer threads and a single consumer.
+ * The events are linked through their own next field, so enqueueing does not allocate.
+ * Based on the intrusive multi producer single consumer queue by Dmitry Vyukov.
+ */
+final class EventQueue {
+
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            NEXT = MethodHandles.lookup().findVarHandle(EventData.class, "next", EventData.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final EventData stub = new EventData();
+    // the last event, swapped by the producers
+    private final AtomicReference<EventData> tail = new AtomicReference<>(stub);
+    // the first event, only touched by the consumer
+    private EventData head = stub;
+
+    /**
+     * May be called by any thread
+     */
+    void offer(EventData event) {
+        // published by the swap below
+        NEXT.set(event, null);
+        EventData previous = tail.getAndSet(event);
+        NEXT.setRelease(previous, event);
+    }
+
+    /**
+     * May only be called by the consumer thread
+     *
+     * @return the first event, or null if the queue is empty or the first event is not completely linked yet
+     */
+    EventData poll() {
+        EventData first = head;
+        EventData next = first.next;
+        if (first == stub) {
+            if (next == null) return null;
+            head = next;
+            first = next;
+            next = next.next;
+        }
+        if (next != null) {
+            head = next;
+            return first;
+        }
+        if (first != tail.get()) return null;
+        offer(stub);
+        next = first.next;
+        if (next != null) {
+            head = next;
+            return first;
+        }
+        return null;
+    }
+
+    /**
+     * @return the event offered last, the stub if the queue is empty
+     */
+    EventData last() {
+        return tail.get();
+    }
+
+    boolean isEmpty(EventData last) {
+        return last == stub;
+    }
+
+}
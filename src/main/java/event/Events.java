@@ -1,7 +1,7 @@
 package event;
 
 /**
- * Collection of Event Nodes for various Events
+ * Collection of Event Nodes for various Events, and the {@link EventBus} of the game loop
  *
  * @author VoxelRifts
  */
@@ -10,6 +10,10 @@ public class Events {
     public static EventNode<EventData.KeyEventData> keyEvent;
     public static EventNode<EventData.MouseScrollEventData> mouseScrollEvent;
     public static EventNode<EventData.MouseButtonEventData> mouseButtonEvent;
+    /**
+     * Dispatched by the game loop at the phases of {@link EventBus.Phase}
+     */
+    public static final EventBus bus = new EventBus();
 
     static {
         windowResizeEvent = new EventNode<>();
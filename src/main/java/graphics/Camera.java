@@ -198,6 +198,20 @@ public class Camera {
         return worldSize;
     }
 
+    /**
+     * Get the width of the area visible through this camera in world units
+     */
+    public float getProjectionWidth() {
+        return mode == Mode.ASPECT_RATIO ? worldSize.x : aspectWidth;
+    }
+
+    /**
+     * Get the height of the area visible through this camera in world units
+     */
+    public float getProjectionHeight() {
+        return mode == Mode.ASPECT_RATIO ? worldSize.y : aspectHeight;
+    }
+
     public float getViewportSizeX() {
         return aspectWidth;
     }
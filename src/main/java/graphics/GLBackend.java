@@ -0,0 +1,46 @@
+package graphics;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * The OpenGL calls which go through the {@link GLState} tracker and the uniforms of a {@link Shader}.
+ * The engine uses the LWJGL bindings, another backend can be installed with {@link GLState#setBackend(GLBackend)},
+ * e.g. to record the calls in tests which run without an OpenGL context.
+ */
+public interface GLBackend {
+
+    void useProgram(int program);
+
+    /**
+     * @param unit the index of the texture unit, not GL_TEXTURE0 + index
+     */
+    void activeTexture(int unit);
+
+    void bindTexture(int target, int texture);
+
+    void bindVertexArray(int vertexArray);
+
+    int getUniformLocation(int program, String name);
+
+    void uniform1i(int location, int value);
+
+    void uniform1f(int location, float value);
+
+    void uniform2f(int location, float x, float y);
+
+    void uniform4f(int location, float x, float y, float z, float w);
+
+    void uniform1iv(int location, IntBuffer values);
+
+    void uniform1fv(int location, FloatBuffer values);
+
+    void uniform2fv(int location, FloatBuffer values);
+
+    void uniform3fv(int location, FloatBuffer values);
+
+    void uniformMatrix3fv(int location, FloatBuffer values);
+
+    void uniformMatrix4fv(int location, FloatBuffer values);
+
+}
@@ -0,0 +1,194 @@
+package graphics;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+
+/**
+ * Remembers which program, textures and vertex array are bound, so binding them again is skipped.
+ * Renderers bind their shader, vertex arrays and textures through this class and do not unbind them afterwards,
+ * so consecutive renderers and batches using the same objects do not issue the same bind again.
+ * <p>
+ * The tracked state is only correct while every bind goes through this class. Code calling OpenGL directly has to
+ * call {@link #invalidate()} afterwards, and deleted objects have to be reported, since OpenGL unbinds them
+ * and may hand out their names again.
+ * Like OpenGL itself, this class may only be used by the thread owning the context.
+ */
+public final class GLState {
+
+    /**
+     * The amount of texture units whose 2D textures are tracked, binds to higher units are always issued
+     */
+    public static final int TEXTURE_UNITS = 16;
+
+    // the bound object is unknown, e.g. after the context was touched by code not using this class
+    private static final int UNKNOWN = -1;
+
+    private static GLBackend gl = new LwjglBackend();
+
+    private static int program = UNKNOWN;
+    private static int activeUnit = UNKNOWN;
+    private static final int[] textures = new int[TEXTURE_UNITS];
+    private static int vertexArray = UNKNOWN;
+
+    private static long issuedBinds, skippedBinds;
+
+    static {
+        Arrays.fill(textures, UNKNOWN);
+    }
+
+    private GLState() {
+    }
+
+    /**
+     * @return the backend all tracked calls and uniform uploads are passed to
+     */
+    public static GLBackend gl() {
+        return gl;
+    }
+
+    /**
+     * Replaces the backend and forgets the tracked state.
+     *
+     * @param backend the new backend
+     * @return the former backend, to restore it later
+     */
+    public static GLBackend setBackend(GLBackend backend) {
+        if (backend == null) throw new IllegalArgumentException("the GL backend cannot be null");
+        GLBackend former = gl;
+        gl = backend;
+        invalidate();
+        return former;
+    }
+
+    /**
+     * Forgets which objects are bound, so the next bind of each kind is issued
+     */
+    public static void invalidate() {
+        program = UNKNOWN;
+        activeUnit = UNKNOWN;
+        vertexArray = UNKNOWN;
+        Arrays.fill(textures, UNKNOWN);
+    }
+
+    public static void useProgram(int id) {
+        if (program == id) {
+            skippedBinds++;
+            return;
+        }
+        program = id;
+        issuedBinds++;
+        gl.useProgram(id);
+    }
+
+    public static int getProgram() {
+        return program;
+    }
+
+    /**
+     * @param unit the index of the texture unit, starting at 0
+     */
+    public static void activeTexture(int unit) {
+        if (activeUnit == unit) return;
+        activeUnit = unit;
+        gl.activeTexture(unit);
+    }
+
+    /**
+     * Binds a 2D texture to a texture unit, which is made the active one if the bind is issued
+     *
+     * @param unit the index of the texture unit, starting at 0
+     * @param id   the texture, 0 to unbind
+     */
+    public static void bindTexture(int unit, int id) {
+        if (unit >= 0 && unit < TEXTURE_UNITS) {
+            if (textures[unit] == id) {
+                skippedBinds++;
+                return;
+            }
+            textures[unit] = id;
+        }
+        activeTexture(unit);
+        issuedBinds++;
+        gl.bindTexture(GL_TEXTURE_2D, id);
+    }
+
+    /**
+     * Binds a 2D texture to the active texture unit, e.g. to upload pixels to it
+     *
+     * @param id the texture, 0 to unbind
+     */
+    public static void bindTexture(int id) {
+        if (activeUnit == UNKNOWN) activeTexture(0);
+        bindTexture(activeUnit, id);
+    }
+
+    /**
+     * Binds a texture of another target than GL_TEXTURE_2D to a unit. Only the active unit is tracked for those.
+     *
+     * @param unit   the index of the texture unit, starting at 0
+     * @param target the texture target, e.g. GL_TEXTURE_BUFFER
+     * @param id     the texture, 0 to unbind
+     */
+    public static void bindTexture(int unit, int target, int id) {
+        if (target == GL_TEXTURE_2D) {
+            bindTexture(unit, id);
+            return;
+        }
+        activeTexture(unit);
+        issuedBinds++;
+        gl.bindTexture(target, id);
+    }
+
+    /**
+     * @param unit the index of the texture unit
+     * @return the 2D texture bound to it, -1 if unknown
+     */
+    public static int getTexture(int unit) {
+        return unit >= 0 && unit < TEXTURE_UNITS ? textures[unit] : UNKNOWN;
+    }
+
+    public static void bindVertexArray(int id) {
+        if (vertexArray == id) {
+            skippedBinds++;
+            return;
+        }
+        vertexArray = id;
+        issuedBinds++;
+        gl.bindVertexArray(id);
+    }
+
+    public static int getVertexArray() {
+        return vertexArray;
+    }
+
+    /**
+     * Has to be called when a 2D texture is deleted, OpenGL unbinds it from all units
+     */
+    public static void textureDeleted(int id) {
+        for (int i = 0; i < TEXTURE_UNITS; i++)
+            if (textures[i] == id) textures[i] = 0;
+    }
+
+    /**
+     * Has to be called when a vertex array is deleted, OpenGL unbinds it if it was bound
+     */
+    public static void vertexArrayDeleted(int id) {
+        if (vertexArray == id) vertexArray = 0;
+    }
+
+    /**
+     * @return the amount of binds passed on to OpenGL
+     */
+    public static long getIssuedBinds() {
+        return issuedBinds;
+    }
+
+    /**
+     * @return the amount of binds skipped, since the object was bound already
+     */
+    public static long getSkippedBinds() {
+        return skippedBinds;
+    }
+
+}
@@ -0,0 +1,92 @@
+package graphics;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.glBindTexture;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+
+/**
+ * Passes the calls on to the OpenGL context of the current thread
+ */
+final class LwjglBackend implements GLBackend {
+
+    @Override
+    public void useProgram(int program) {
+        glUseProgram(program);
+    }
+
+    @Override
+    public void activeTexture(int unit) {
+        glActiveTexture(GL_TEXTURE0 + unit);
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        glBindTexture(target, texture);
+    }
+
+    @Override
+    public void bindVertexArray(int vertexArray) {
+        glBindVertexArray(vertexArray);
+    }
+
+    @Override
+    public int getUniformLocation(int program, String name) {
+        return glGetUniformLocation(program, name);
+    }
+
+    @Override
+    public void uniform1i(int location, int value) {
+        glUniform1i(location, value);
+    }
+
+    @Override
+    public void uniform1f(int location, float value) {
+        glUniform1f(location, value);
+    }
+
+    @Override
+    public void uniform2f(int location, float x, float y) {
+        glUniform2f(location, x, y);
+    }
+
+    @Override
+    public void uniform4f(int location, float x, float y, float z, float w) {
+        glUniform4f(location, x, y, z, w);
+    }
+
+    @Override
+    public void uniform1iv(int location, IntBuffer values) {
+        glUniform1iv(location, values);
+    }
+
+    @Override
+    public void uniform1fv(int location, FloatBuffer values) {
+        glUniform1fv(location, values);
+    }
+
+    @Override
+    public void uniform2fv(int location, FloatBuffer values) {
+        glUniform2fv(location, values);
+    }
+
+    @Override
+    public void uniform3fv(int location, FloatBuffer values) {
+        glUniform3fv(location, values);
+    }
+
+    @Override
+    public void uniformMatrix3fv(int location, FloatBuffer values) {
+        glUniformMatrix3fv(location, false, values);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, FloatBuffer values) {
+        glUniformMatrix4fv(location, false, values);
+    }
+
+}
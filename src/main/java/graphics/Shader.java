@@ -6,8 +6,10 @@ import util.Log;
 
 import java.io.IOException;
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import static org.lwjgl.opengl.GL11.GL_FALSE;
@@ -28,10 +30,6 @@ public class Shader {
      * The Shader Program's ID
      */
     private int shaderProgramID;
-    /**
-     * Is this shader currently bound
-     */
-    private boolean beingUsed = false;
     /**
      * Vertex Shader code
      */
@@ -45,7 +43,17 @@ public class Shader {
      */
     private String filepath;
 
-    private HashMap<String, Integer> uniformLocations;
+    private final HashMap<String, Uniform> uniforms = new HashMap<>();
+
+    /**
+     * Off-heap storage the values of vector, matrix and array uniforms are passed through, shared by all shaders
+     */
+    private static FloatBuffer floatScratch = BufferUtils.createFloatBuffer(64);
+    private static IntBuffer intScratch = BufferUtils.createIntBuffer(16);
+    /**
+     * Holds the values of a matrix or an array to compare them with the last upload
+     */
+    private static float[] valueScratch = new float[64];
 
     /**
      * Loads the shader file at filepath. The shader file should have both shaders.
@@ -53,7 +61,6 @@ public class Shader {
      */
     public Shader(String filePath) {
         this.filepath = filePath;
-        this.uniformLocations = new HashMap<>();
         try {
             String source = new String(Files.readAllBytes(Paths.get(filepath)));
             String[] splitString = source.split("(#type)( )+([a-zA-Z]+)");
@@ -90,6 +97,16 @@ public class Shader {
         }
     }
 
+    /**
+     * Wraps a program which was linked already
+     *
+     * @param programID the id of the program
+     */
+    Shader(int programID) {
+        this.filepath = "==== Wrapped ====";
+        this.shaderProgramID = programID;
+    }
+
     /**
      * Creates vertex and fragment shader objects and compiles them.
      * Also links them with the shader program
@@ -141,31 +158,42 @@ public class Shader {
     }
 
     /**
-     * Bind the shader program
+     * Bind the shader program. Nothing is issued if it is bound already.
      */
     public void attach() {
-        if (!beingUsed) {
-            // bind shader program
-            glUseProgram(shaderProgramID);
-            beingUsed = true;
-        }
+        GLState.useProgram(shaderProgramID);
     }
 
     /**
      * Unbind the shader program
      */
     public void detach() {
-        glUseProgram(0);
-        beingUsed = false;
+        GLState.useProgram(0);
     }
 
-    private int getLocation(String name) {
-        int location = uniformLocations.getOrDefault(name, -1);
-        if (location == -1) {
-            location = glGetUniformLocation(shaderProgramID, name);
-            uniformLocations.put(name, location);
+    /**
+     * Gets the handle of a uniform, to upload values without looking it up by name every time.
+     * The location is looked up on the first upload, so handles can be created before the shader is compiled.
+     *
+     * @param name name of the uniform
+     * @return the handle, the same one for every call with that name
+     */
+    public Uniform uniform(String name) {
+        Uniform uniform = uniforms.get(name);
+        if (uniform == null) {
+            uniform = new Uniform(this, name);
+            uniforms.put(name, uniform);
         }
-        return location;
+        return uniform;
+    }
+
+    /**
+     * Forgets the last uploaded values of all uniforms, so the next upload of each is issued.
+     * Only required if the uniforms were changed without going through this class.
+     */
+    public void invalidateUniforms() {
+        for (Uniform uniform : uniforms.values())
+            uniform.invalidate();
     }
 
     /**
@@ -175,11 +203,7 @@ public class Shader {
      * @param mat4    the matrix to be uploaded
      */
     public void uploadMat4f(String varName, Matrix4f mat4) {
-        int varLocation = getLocation(varName);
-        attach(); // make sure the shader is being used
-        FloatBuffer matBuffer = BufferUtils.createFloatBuffer(16);
-        mat4.get(matBuffer);
-        glUniformMatrix4fv(varLocation, false, matBuffer);
+        uniform(varName).set(mat4);
     }
 
     /**
@@ -189,11 +213,7 @@ public class Shader {
      * @param mat3    the matrix to be uploaded
      */
     public void uploadMat3f(String varName, Matrix3f mat3) {
-        int varLocation = getLocation(varName);
-        attach();
-        FloatBuffer matBuffer = BufferUtils.createFloatBuffer(9);
-        mat3.get(matBuffer);
-        glUniformMatrix3fv(varLocation, false, matBuffer);
+        uniform(varName).set(mat3);
     }
 
     /**
@@ -203,9 +223,7 @@ public class Shader {
      * @param vec     the vector to be uploaded
      */
     public void uploadVec4f(String varName, Vector4f vec) {
-        int varLocation = getLocation(varName);
-        attach(); // make sure the shader is being used
-        glUniform4f(varLocation, vec.x, vec.y, vec.z, vec.w);
+        uniform(varName).set(vec);
     }
 
     /**
@@ -215,15 +233,7 @@ public class Shader {
      * @param vec     the array to be uploaded
      */
     public void uploadVec3fArray(String varName, Vector3f[] vec) {
-        int varLocation = getLocation(varName);
-        attach();
-        float[] vals = new float[vec.length * 3];
-        for (int i = 0; i < vec.length; i++) {
-            vals[i * 3] = vec[i].x;
-            vals[i * 3 + 1] = vec[i].y;
-            vals[i * 3 + 2] = vec[i].z;
-        }
-        glUniform3fv(varLocation, vals);
+        uniform(varName).set(vec);
     }
 
     /**
@@ -233,9 +243,7 @@ public class Shader {
      * @param vec     the vector to be uploaded
      */
     public void uploadVec2f(String varName, Vector2f vec) {
-        int varLocation = getLocation(varName);
-        attach();
-        glUniform2f(varLocation, vec.x, vec.y);
+        uniform(varName).set(vec);
     }
 
     /**
@@ -245,14 +253,7 @@ public class Shader {
      * @param vec     the array to be uploaded
      */
     public void uploadVec2fArray(String varName, Vector2f[] vec) {
-        int varLocation = getLocation(varName);
-        attach();
-        float[] vals = new float[vec.length * 2];
-        for (int i = 0; i < vec.length; i++) {
-            vals[i * 2] = vec[i].x;
-            vals[i * 2 + 1] = vec[i].y;
-        }
-        glUniform2fv(varLocation, vals);
+        uniform(varName).set(vec);
     }
 
     /**
@@ -262,9 +263,7 @@ public class Shader {
      * @param val     the float value to be uploaded
      */
     public void uploadFloat(String varName, float val) {
-        int varLocation = getLocation(varName);
-        attach(); // make sure the shader is being used
-        glUniform1f(varLocation, val);
+        uniform(varName).set(val);
     }
 
     /**
@@ -274,9 +273,7 @@ public class Shader {
      * @param array   the array to be uploaded
      */
     public void uploadFloatArray(String varName, float[] array) {
-        int varLocation = getLocation(varName);
-        attach(); // make sure the shader is being used
-        glUniform1fv(varLocation, array);
+        uniform(varName).set(array);
     }
 
     /**
@@ -286,9 +283,7 @@ public class Shader {
      * @param val     the int value to be uploaded
      */
     public void uploadInt(String varName, int val) {
-        int varLocation = getLocation(varName);
-        attach(); // make sure the shader is being used
-        glUniform1i(varLocation, val);
+        uniform(varName).set(val);
     }
 
     /**
@@ -298,10 +293,7 @@ public class Shader {
      * @param slot    the texture slot to which the texture is bound
      */
     public void uploadTexture(String varName, int slot) {
-        int varLocation = getLocation(varName);
-        attach(); // make sure the shader is being used
-        glActiveTexture(varLocation);
-        glUniform1i(varLocation, slot);
+        uniform(varName).set(slot);
     }
 
     /**
@@ -311,8 +303,191 @@ public class Shader {
      * @param array   the array to be uploaded
      */
     public void uploadIntArray(String varName, int[] array) {
-        int varLocation = getLocation(varName);
-        attach();
-        glUniform1iv(varLocation, array);
+        uniform(varName).set(array);
+    }
+
+    private static FloatBuffer floatScratch(int length) {
+        if (floatScratch.capacity() < length) floatScratch = BufferUtils.createFloatBuffer(length);
+        floatScratch.clear().limit(length);
+        return floatScratch;
+    }
+
+    private static IntBuffer intScratch(int length) {
+        if (intScratch.capacity() < length) intScratch = BufferUtils.createIntBuffer(length);
+        intScratch.clear().limit(length);
+        return intScratch;
+    }
+
+    private static float[] valueScratch(int length) {
+        if (valueScratch.length < length) valueScratch = new float[length];
+        return valueScratch;
+    }
+
+    /**
+     * A uniform of a shader, which remembers the last uploaded value and skips uploading the same value again.
+     * Since the values of uniforms are stored per program, this stays correct while other shaders are used in between.
+     * <pre>
+     * projection = shader.uniform("uProjection");
+     * ...
+     * projection.set(camera.getProjectionMatrix());
+     * </pre>
+     */
+    public static final class Uniform {
+
+        // the location was not looked up yet
+        private static final int UNRESOLVED = -2;
+
+        private final Shader shader;
+        private final String name;
+        private int location = UNRESOLVED;
+
+        // the bits of the last uploaded values, floats as their raw int bits
+        private int[] values = new int[0];
+        private int length = -1;
+
+        private Uniform(Shader shader, String name) {
+            this.shader = shader;
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the location in the program, -1 if the uniform does not exist or was optimized away
+         */
+        public int getLocation() {
+            if (location == UNRESOLVED) location = GLState.gl().getUniformLocation(shader.shaderProgramID, name);
+            return location;
+        }
+
+        /**
+         * Forgets the last uploaded value, so the next one is uploaded in any case
+         */
+        public void invalidate() {
+            length = -1;
+        }
+
+        /**
+         * Compares the values with the last upload and remembers them
+         *
+         * @return true if they have to be uploaded
+         */
+        private boolean changed(int a, int b, int c, int d, int count) {
+            if (getLocation() == -1) return false;
+            if (length == count) {
+                boolean same = values[0] == a;
+                if (count > 1) same &= values[1] == b;
+                if (count > 2) same &= values[2] == c;
+                if (count > 3) same &= values[3] == d;
+                if (same) return false;
+            }
+            if (values.length < 4) values = new int[4];
+            values[0] = a;
+            values[1] = b;
+            values[2] = c;
+            values[3] = d;
+            length = count;
+            shader.attach();
+            return true;
+        }
+
+        private boolean changed(float[] floats, int count) {
+            if (getLocation() == -1) return false;
+            boolean same = length == count;
+            for (int i = 0; same && i < count; i++)
+                same = values[i] == Float.floatToRawIntBits(floats[i]);
+            if (same) return false;
+            store(count);
+            for (int i = 0; i < count; i++)
+                values[i] = Float.floatToRawIntBits(floats[i]);
+            shader.attach();
+            return true;
+        }
+
+        private boolean changed(int[] ints, int count) {
+            if (getLocation() == -1) return false;
+            if (length == count && Arrays.equals(values, 0, count, ints, 0, count)) return false;
+            store(count);
+            System.arraycopy(ints, 0, values, 0, count);
+            shader.attach();
+            return true;
+        }
+
+        private void store(int count) {
+            if (values.length < count) values = new int[count];
+            length = count;
+        }
+
+        public void set(int value) {
+            if (changed(value, 0, 0, 0, 1)) GLState.gl().uniform1i(location, value);
+        }
+
+        public void set(float value) {
+            if (changed(Float.floatToRawIntBits(value), 0, 0, 0, 1)) GLState.gl().uniform1f(location, value);
+        }
+
+        public void set(float x, float y) {
+            if (changed(Float.floatToRawIntBits(x), Float.floatToRawIntBits(y), 0, 0, 2))
+                GLState.gl().uniform2f(location, x, y);
+        }
+
+        public void set(Vector2f vec) {
+            set(vec.x, vec.y);
+        }
+
+        public void set(float x, float y, float z, float w) {
+            if (changed(Float.floatToRawIntBits(x), Float.floatToRawIntBits(y), Float.floatToRawIntBits(z), Float.floatToRawIntBits(w), 4))
+                GLState.gl().uniform4f(location, x, y, z, w);
+        }
+
+        public void set(Vector4f vec) {
+            set(vec.x, vec.y, vec.z, vec.w);
+        }
+
+        public void set(Matrix3f mat3) {
+            float[] floats = valueScratch(9);
+            mat3.get(floats);
+            if (changed(floats, 9)) GLState.gl().uniformMatrix3fv(location, floatScratch(9).put(floats, 0, 9).flip());
+        }
+
+        public void set(Matrix4f mat4) {
+            float[] floats = valueScratch(16);
+            mat4.get(floats);
+            if (changed(floats, 16)) GLState.gl().uniformMatrix4fv(location, floatScratch(16).put(floats, 0, 16).flip());
+        }
+
+        public void set(float[] array) {
+            if (changed(array, array.length))
+                GLState.gl().uniform1fv(location, floatScratch(array.length).put(array).flip());
+        }
+
+        public void set(int[] array) {
+            if (changed(array, array.length))
+                GLState.gl().uniform1iv(location, intScratch(array.length).put(array).flip());
+        }
+
+        public void set(Vector2f[] vec) {
+            float[] floats = valueScratch(vec.length * 2);
+            for (int i = 0; i < vec.length; i++) {
+                floats[i * 2] = vec[i].x;
+                floats[i * 2 + 1] = vec[i].y;
+            }
+            if (changed(floats, vec.length * 2))
+                GLState.gl().uniform2fv(location, floatScratch(vec.length * 2).put(floats, 0, vec.length * 2).flip());
+        }
+
+        public void set(Vector3f[] vec) {
+            float[] floats = valueScratch(vec.length * 3);
+            for (int i = 0; i < vec.length; i++) {
+                floats[i * 3] = vec[i].x;
+                floats[i * 3 + 1] = vec[i].y;
+                floats[i * 3 + 2] = vec[i].z;
+            }
+            if (changed(floats, vec.length * 3))
+                GLState.gl().uniform3fv(location, floatScratch(vec.length * 3).put(floats, 0, vec.length * 3).flip());
+        }
+
     }
 }
@@ -14,8 +14,6 @@ import java.nio.IntBuffer;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL12.GL_TEXTURE_WRAP_R;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 import static org.lwjgl.stb.STBImage.*;
 
 /**
@@ -65,11 +63,23 @@ public class Texture {
      * @param filepath filepath of the texture
      */
     public Texture(String filepath) {
+        this(filepath, decode(filepath));
+    }
+
+    /**
+     * Upload an image, which was decoded before, e.g. on another thread.
+     * The pixels of the image are freed afterwards.
+     *
+     * @param filepath filepath of the texture
+     * @param image    the decoded image, or null if it could not be decoded
+     * @see #decode(String)
+     */
+    public Texture(String filepath, ImageData image) {
         this.filepath = filepath;
 
         // generate texture on GPU
         textureID = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureID);
+        GLState.bindTexture(textureID);
 
         // Set texture parameters
         // tile image in both directions
@@ -83,39 +93,82 @@ public class Texture {
         // Also pixelate image when shrinking image
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
 
-        // Load image using STB
-        IntBuffer width = BufferUtils.createIntBuffer(1);
-        IntBuffer height = BufferUtils.createIntBuffer(1);
-        IntBuffer channels = BufferUtils.createIntBuffer(1);
-        stbi_set_flip_vertically_on_load(true);
-        ByteBuffer image = stbi_load(filepath, width, height, channels, 0);
-
         if (image != null) {
-            this.width = width.get(0);
-            this.height = height.get(0);
+            this.width = image.width;
+            this.height = image.height;
 
-            if (channels.get(0) == 3) {
+            if (image.channels == 3) {
                 // RGB
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, width.get(0), height.get(0), 0, GL_RGB, GL_UNSIGNED_BYTE, image);
-            } else if (channels.get(0) == 4) {
+                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGB, image.width, image.height, 0, GL_RGB, GL_UNSIGNED_BYTE, image.pixels);
+            } else if (image.channels == 4) {
                 // RGBA
-                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width.get(0), height.get(0), 0, GL_RGBA, GL_UNSIGNED_BYTE, image);
+                glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, image.width, image.height, 0, GL_RGBA, GL_UNSIGNED_BYTE, image.pixels);
             } else {
-                Log.fatal("Graphics.Texture - Unknown number of channels \"" + channels.get(0) + "\".");
-                assert false : "[ERROR] Graphics.Texture - Unknown number of channels \"" + channels.get(0) + "\".";
+                Log.fatal("Graphics.Texture - Unknown number of channels \"" + image.channels + "\".");
+                assert false : "[ERROR] Graphics.Texture - Unknown number of channels \"" + image.channels + "\".";
             }
+            image.free();
         } else {
             Log.fatal("Graphics.Texture - Could not load image \"" + filepath + "\".");
             assert false : "[ERROR] Graphics.Texture - Could not load image \"" + filepath + "\".";
         }
+    }
+
+    /**
+     * Decode an image file with STB, flipped vertically like OpenGL expects it.
+     * This does not touch OpenGL, so it can be called from any thread.
+     *
+     * @param filepath filepath of the image
+     * @return the decoded image, or null if it could not be decoded
+     */
+    public static ImageData decode(String filepath) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer width = stack.mallocInt(1);
+            IntBuffer height = stack.mallocInt(1);
+            IntBuffer channels = stack.mallocInt(1);
+            //the flag of this thread only, so decoding on other threads is not affected
+            stbi_set_flip_vertically_on_load_thread(1);
+            ByteBuffer image = stbi_load(filepath, width, height, channels, 0);
+            if (image == null) return null;
+            return new ImageData(width.get(0), height.get(0), channels.get(0), image);
+        }
+    }
+
+    /**
+     * The pixels of a decoded image, which are not uploaded to the GPU yet.
+     * The pixels are allocated by STB and have to be freed after the upload.
+     */
+    public static final class ImageData {
+
+        public final int width, height, channels;
+        private ByteBuffer pixels;
+
+        private ImageData(int width, int height, int channels, ByteBuffer pixels) {
+            this.width = width;
+            this.height = height;
+            this.channels = channels;
+            this.pixels = pixels;
+        }
+
+        public ByteBuffer getPixels() {
+            return pixels;
+        }
+
+        /**
+         * Free the pixels, they cannot be used afterwards
+         */
+        public void free() {
+            if (pixels == null) return;
+            stbi_image_free(pixels);
+            pixels = null;
+        }
 
-        stbi_image_free(image);
     }
 
     public Texture(int width, int height, TextureSpec spec) {
         filepath = "==== Created ====";
         textureID = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureID);
+        GLState.bindTexture(textureID);
         glTexImage2D(GL_TEXTURE_2D, 0, spec.format.internalFormat, width, height, 0, spec.format.format, spec.format.datatype, 0);
 
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, spec.minificationFilter.glType);
@@ -134,7 +187,7 @@ public class Texture {
      * @param height height of the texture
      */
     public static void toFile(String file, int id, int width, int height) {
-        glBindTexture(GL_TEXTURE_2D, id);
+        GLState.bindTexture(id);
         ByteBuffer buffer = BufferUtils.createByteBuffer(width * height * 4);
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 
@@ -241,7 +294,7 @@ public class Texture {
      * Bind this texture to the currently active texture slot
      */
     public void bind() {
-        glBindTexture(GL_TEXTURE_2D, textureID);
+        GLState.bindTexture(textureID);
     }
 
     /**
@@ -250,15 +303,14 @@ public class Texture {
      * @param unit the texture unit to bind this texture to
      */
     public void bindToSlot(int unit) {
-        glActiveTexture(GL_TEXTURE0 + unit);
-        glBindTexture(GL_TEXTURE_2D, textureID);
+        GLState.bindTexture(unit, textureID);
     }
 
     /**
      * Unbind the texture
      */
     public void unbind() {
-        glBindTexture(GL_TEXTURE_2D, 0);
+        GLState.bindTexture(0);
     }
 
     /**
@@ -312,6 +364,7 @@ public class Texture {
 
     public void delete() {
         glDeleteTextures(textureID);
+        GLState.textureDeleted(textureID);
     }
 
     /**
@@ -327,7 +380,7 @@ public class Texture {
             IntBuffer width = stack.mallocInt(1);
             IntBuffer height = stack.mallocInt(1);
 
-            stbi_set_flip_vertically_on_load(false);
+            stbi_set_flip_vertically_on_load_thread(0);
             image = stbi_load(path, width, height, comp, 4);
             if (image == null) {
                 Log.fatal("failed to load image from \"" + path + "\"");
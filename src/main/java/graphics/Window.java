@@ -1,6 +1,7 @@
 package graphics;
 
 import audio.AudioMaster;
+import event.EventBus;
 import event.EventData;
 import event.Events;
 import graphics.postprocess.PostProcessing;
@@ -11,8 +12,11 @@ import org.lwjgl.glfw.GLFWVidMode;
 import org.lwjgl.opengl.GL;
 import scene.Scene;
 import scene.SceneManager;
+import util.Assets;
 import util.Engine;
+import util.FixedTimestep;
 import util.Log;
+import util.Profiler;
 
 import java.nio.ByteBuffer;
 
@@ -37,6 +41,12 @@ public class Window {
     private long frameCount = 0;
     private String title;
     private boolean sleeping = false;
+    private float frameTime = 0;
+    // seconds between two updates of the frame rate in the title
+    private static final double TITLE_INTERVAL = 0.5;
+    private double titleTime = -TITLE_INTERVAL;
+    // reused for every resize
+    private final EventData.WindowResizeEventData resizeEvent = new EventData.WindowResizeEventData();
 
     public static Window instance = null;
 
@@ -212,7 +222,7 @@ public class Window {
 
             if (recalculateProjectionOnResize && currentScene().camera() != null)
                 currentScene().camera().adjustProjection();
-            Events.windowResizeEvent.onEvent(new EventData.WindowResizeEventData(newWidth, newHeight));
+            Events.windowResizeEvent.onEvent(resizeEvent.set(newWidth, newHeight));
 
         });
 
@@ -223,9 +233,17 @@ public class Window {
     }
 
     public float getFPS() {
-        float fps = 1 / Engine.deltaTime();
-        glfwSetWindowTitle(glfwWindow, title + " @ " + (int) fps + " FPS");
-        return fps;
+        return 1 / frameTime;
+    }
+
+    /**
+     * Shows the frame rate in the title, a few times per second instead of every frame,
+     * since changing the title is slow on some platforms.
+     */
+    private void updateTitle(double time) {
+        if (time - titleTime < TITLE_INTERVAL) return;
+        titleTime = time;
+        glfwSetWindowTitle(glfwWindow, title + " @ " + (int) getFPS() + " FPS");
     }
 
     /**
@@ -282,27 +300,50 @@ public class Window {
 
         Log.info("starting game loop");
         while (!glfwWindowShouldClose(glfwWindow)) {
+            Profiler.beginFrame();
             frameEndTime = glfwGetTime();
-            Engine.updateDeltaTime((float) (frameEndTime - frameBeginTime));
+            frameTime = (float) (frameEndTime - frameBeginTime);
+            Engine.updateDeltaTime(frameTime);
             frameBeginTime = frameEndTime;
 
+            Profiler.begin("events");
             glfwPollEvents();
+            Assets.processUploads();
+            Events.bus.dispatch(EventBus.Phase.FRAME_START);
+            Profiler.end();
 
             if (!sleeping && currentScene().isActive()) {
                 Mouse.update();
+                Profiler.begin("audio");
                 AudioMaster.get().update(getFPS());
-                sceneManager.update();
-                sceneManager.updateGameObjects();
+                Profiler.end();
+                Profiler.begin("update");
+                simulate();
+                Profiler.end();
+                Profiler.begin("render");
                 sceneManager.render();
+                Profiler.end();
+                Profiler.begin("postProcess");
                 PostProcessing.prepare();
                 sceneManager.postProcess(currentScene().renderer.fetchColorAttachment(0));
                 PostProcessing.finish();
+                Profiler.end();
+                Profiler.begin("ui");
                 sceneManager.updateUI();
+                Profiler.end();
+                Profiler.begin("debug");
                 sceneManager.debugRender();
+                Profiler.end();
             }
+            Profiler.begin("events");
+            Events.bus.dispatch(EventBus.Phase.FRAME_END);
+            Profiler.end();
+            Profiler.begin("swap");
             glfwSwapBuffers(glfwWindow);
-            getFPS();
+            Profiler.end();
+            updateTitle(frameEndTime);
             frameEndTime = glfwGetTime();
+            Profiler.endFrame();
         }
 
         Log.debug("shutting down");
@@ -322,6 +363,28 @@ public class Window {
 
     }
 
+    /**
+     * Update the current scene once per frame or, with a fixed timestep, as many ticks as fit into the last frame.
+     *
+     * @see Engine#setFixedTimestep(float, int)
+     */
+    private void simulate() {
+        FixedTimestep timestep = Engine.fixedTimestep();
+        if (timestep == null) {
+            sceneManager.update();
+            sceneManager.updateGameObjects();
+            return;
+        }
+        int steps = timestep.advance(frameTime);
+        Engine.updateDeltaTime(timestep.getStepTime());
+        for (int i = 0; i < steps; i++) {
+            sceneManager.update();
+            sceneManager.updateGameObjects();
+        }
+        //anything running once per frame still sees the frame time
+        Engine.updateDeltaTime(frameTime);
+    }
+
     /*
      * Get the current scene.
      */
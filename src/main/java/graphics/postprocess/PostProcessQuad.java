@@ -1,9 +1,10 @@
 package graphics.postprocess;
 
+import graphics.GLState;
+
 import static org.lwjgl.opengl.GL11.GL_FLOAT;
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL30.glGenVertexArrays;
 
 public class PostProcessQuad {
@@ -21,7 +22,7 @@ public class PostProcessQuad {
      */
     public PostProcessQuad() {
         quadVao = glGenVertexArrays();
-        glBindVertexArray(quadVao);
+        GLState.bindVertexArray(quadVao);
         int buffer = glGenBuffers();
         glBindBuffer(GL_ARRAY_BUFFER, buffer);
         glBufferData(GL_ARRAY_BUFFER, new float[]{
@@ -52,7 +53,7 @@ public class PostProcessQuad {
      * Binds the quad and enables attributes
      */
     public void _bindQuad() {
-        glBindVertexArray(quadVao);
+        GLState.bindVertexArray(quadVao);
         glEnableVertexAttribArray(0);
         glEnableVertexAttribArray(1);
     }
@@ -63,6 +64,6 @@ public class PostProcessQuad {
     public void _unbindQuad() {
         glDisableVertexAttribArray(0);
         glDisableVertexAttribArray(1);
-        glBindVertexArray(0);
+        GLState.bindVertexArray(0);
     }
 }
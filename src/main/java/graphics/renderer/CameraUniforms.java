@@ -0,0 +1,33 @@
+package graphics.renderer;
+
+import graphics.Camera;
+import graphics.Shader;
+
+/**
+ * The uniforms shared by the shaders of the batch renderers: the texture slots and the matrices of the camera.
+ * The handles are looked up once, and since they skip values which were uploaded already,
+ * the matrices are only uploaded again once the camera moved.
+ */
+class CameraUniforms {
+
+    private final Shader.Uniform textures;
+    private final Shader.Uniform projection;
+    private final Shader.Uniform view;
+
+    CameraUniforms(Shader shader) {
+        textures = shader.uniform("uTextures");
+        projection = shader.uniform("uProjection");
+        view = shader.uniform("uView");
+    }
+
+    void upload(Camera camera) {
+        projection.set(camera.getProjectionMatrix());
+        view.set(camera.getViewMatrix());
+    }
+
+    void upload(Camera camera, int[] textureSlots) {
+        textures.set(textureSlots);
+        upload(camera);
+    }
+
+}
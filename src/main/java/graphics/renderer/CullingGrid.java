@@ -0,0 +1,184 @@
+package graphics.renderer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A spatial index over renderables, which divides the world into an unbounded grid of equally sized square cells.
+ * Every entry is stored in all cells its bounds overlap, so finding the renderables visible through a camera
+ * only has to look at the cells inside the view instead of at every renderable of the scene.
+ * <p>
+ * Renderables extend {@link Entry}, so the grid does not need any lookup to move them.
+ * Entries are only moved between cells, if the range of cells they overlap actually changes.
+ *
+ * @param <E> the type of the entries
+ * @see Renderer#isCulling()
+ */
+public final class CullingGrid<E extends CullingGrid.Entry> {
+
+    public static final float DEFAULT_CELL_SIZE = 256;
+
+    private final float cellSize;
+    private final Map<Long, List<E>> cells;
+    private int size;
+    private int queryStamp;
+
+    /**
+     * Creates a grid with the {@link #DEFAULT_CELL_SIZE}.
+     */
+    public CullingGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a grid.
+     *
+     * @param cellSize the width and height of a single cell, has to be positive
+     */
+    public CullingGrid(float cellSize) {
+        if (!(cellSize > 0)) throw new IllegalArgumentException("the cell size of a grid has to be positive");
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+    }
+
+    /**
+     * @return the width and height of a single cell
+     */
+    public float cellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Adds an entry with its bounds or moves it to its new bounds, if it is already in the grid.
+     *
+     * @param entry the entry
+     */
+    public void update(E entry, float minX, float minY, float maxX, float maxY) {
+        entry.minX = Math.min(minX, maxX);
+        entry.minY = Math.min(minY, maxY);
+        entry.maxX = Math.max(minX, maxX);
+        entry.maxY = Math.max(minY, maxY);
+        if (!Float.isFinite(entry.minX) || !Float.isFinite(entry.minY) || !Float.isFinite(entry.maxX) || !Float.isFinite(entry.maxY)) {
+            remove(entry);
+            return;
+        }
+        int cellMinX = cell(entry.minX), cellMinY = cell(entry.minY);
+        int cellMaxX = cell(entry.maxX), cellMaxY = cell(entry.maxY);
+        if (entry.placed) {
+            //most updates do not leave the current cells at all
+            if (cellMinX == entry.cellMinX && cellMinY == entry.cellMinY && cellMaxX == entry.cellMaxX && cellMaxY == entry.cellMaxY)
+                return;
+            unlink(entry);
+        } else size++;
+        entry.placed = true;
+        entry.cellMinX = cellMinX;
+        entry.cellMinY = cellMinY;
+        entry.cellMaxX = cellMaxX;
+        entry.cellMaxY = cellMaxY;
+        for (int x = cellMinX; x <= cellMaxX; x++)
+            for (int y = cellMinY; y <= cellMaxY; y++)
+                cells.computeIfAbsent(key(x, y), k -> new ArrayList<>(8)).add(entry);
+    }
+
+    /**
+     * Removes an entry from the grid
+     *
+     * @param entry the entry
+     * @return true, if the entry was in the grid
+     */
+    public boolean remove(E entry) {
+        if (!entry.placed) return false;
+        unlink(entry);
+        entry.placed = false;
+        size--;
+        return true;
+    }
+
+    //remove the entry from all cells it was placed in before
+    private void unlink(E entry) {
+        for (int x = entry.cellMinX; x <= entry.cellMaxX; x++)
+            for (int y = entry.cellMinY; y <= entry.cellMaxY; y++) {
+                Long key = key(x, y);
+                List<E> list = cells.get(key);
+                if (list == null) continue;
+                //swap remove, the order inside of a cell does not matter
+                int index = list.lastIndexOf(entry);
+                if (index < 0) continue;
+                E last = list.remove(list.size() - 1);
+                if (index < list.size()) list.set(index, last);
+                if (list.isEmpty()) cells.remove(key);
+            }
+    }
+
+    /**
+     * Reports every entry whose bounds overlap an area exactly once.
+     *
+     * @param consumer receives the entries
+     */
+    public void query(float minX, float minY, float maxX, float maxY, Consumer<? super E> consumer) {
+        int stamp = ++queryStamp;
+        int cellMinX = cell(minX), cellMinY = cell(minY);
+        int cellMaxX = cell(maxX), cellMaxY = cell(maxY);
+        //a view far larger than the populated area, e.g. when zoomed out, visits the occupied cells instead
+        if (((long) cellMaxX - cellMinX + 1) * ((long) cellMaxY - cellMinY + 1) > cells.size()) {
+            for (List<E> list : cells.values())
+                collect(list, stamp, minX, minY, maxX, maxY, consumer);
+            return;
+        }
+        for (int x = cellMinX; x <= cellMaxX; x++)
+            for (int y = cellMinY; y <= cellMaxY; y++) {
+                List<E> list = cells.get(key(x, y));
+                if (list != null) collect(list, stamp, minX, minY, maxX, maxY, consumer);
+            }
+    }
+
+    private void collect(List<E> list, int stamp, float minX, float minY, float maxX, float maxY, Consumer<? super E> consumer) {
+        for (int i = 0; i < list.size(); i++) {
+            E entry = list.get(i);
+            //entries spanning multiple cells are only reported once
+            if (entry.stamp == stamp) continue;
+            entry.stamp = stamp;
+            if (entry.minX <= maxX && entry.maxX >= minX && entry.minY <= maxY && entry.maxY >= minY)
+                consumer.accept(entry);
+        }
+    }
+
+    /**
+     * @return the amount of entries in the grid
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (List<E> list : cells.values())
+            for (E entry : list)
+                entry.placed = false;
+        cells.clear();
+        size = 0;
+    }
+
+    private int cell(float coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    /**
+     * A renderable in a grid, remembering its bounds and the range of cells it is placed in
+     */
+    public static class Entry {
+
+        float minX, minY, maxX, maxY;
+        int cellMinX, cellMinY, cellMaxX, cellMaxY;
+        boolean placed;
+        int stamp;
+
+    }
+
+}
@@ -25,6 +25,7 @@ import static org.lwjgl.opengl.GL11.glLineWidth;
  */
 public class DebugRenderer extends Renderer {
     private final List<DebugLine> lines;
+    private CameraUniforms cameraUniforms;
 
     public DebugRenderer() {
         this.lines = new ArrayList<>();
@@ -37,7 +38,9 @@ public class DebugRenderer extends Renderer {
      */
     @Override
     protected Shader createShader() {
-        return Assets.getShader("src/assets/shaders/default.glsl");
+        Shader shader = Assets.getShader("src/assets/shaders/default.glsl");
+        cameraUniforms = new CameraUniforms(shader);
+        return shader;
     }
 
     /**
@@ -67,8 +70,7 @@ public class DebugRenderer extends Renderer {
      */
     @Override
     protected void uploadUniforms(Shader shader) {
-        shader.uploadMat4f("uProjection", Engine.window().currentScene().camera().getProjectionMatrix());
-        shader.uploadMat4f("uView", Engine.window().currentScene().camera().getViewMatrix());
+        cameraUniforms.upload(Engine.window().currentScene().camera());
     }
 
     /**
@@ -76,7 +78,15 @@ public class DebugRenderer extends Renderer {
      */
     @Override
     protected void rebuffer() {
+        // The lines follow their colliders every frame, so they are checked one by one instead of being kept in a grid
+        boolean cull = beginCulling();
         for (DebugLine line : lines) {
+            if (cull && !isVisible(Math.min(line.start.x, line.end.x), Math.min(line.start.y, line.end.y),
+                    Math.max(line.start.x, line.end.x), Math.max(line.start.y, line.end.y))) {
+                culled++;
+                continue;
+            }
+            submitted++;
             RenderBatch batch = getAvailableBatch(null, 0);
 
             batch.pushVec2(line.start);
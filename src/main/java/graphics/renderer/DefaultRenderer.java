@@ -4,26 +4,71 @@ import ecs.GameObject;
 import ecs.SpriteRenderer;
 import graphics.*;
 import org.joml.Vector2f;
+import org.joml.Vector4f;
+import tiles.TileLayer;
+import tiles.TileMap;
 import util.Assets;
 import util.Engine;
 import util.Transform;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 
  * Used to render sprites, which are rendered as {@code Primitive.QUAD}s
  * with textures. This should be used to render any renderable {@code gameObject}.
+ * <p>
+ * Every sprite owns a slot in a persistent batch, which is only rewritten and uploaded again
+ * if the sprite has moved, was resized or is marked as dirty. Sprites tell the renderer when they are marked dirty,
+ * so only the bounds of those sprites are refreshed, until they stop moving.
+ * <p>
+ * The tiles of a tile map are cached in one persistent batch per chunk of {@link TileLayer#CHUNK_SIZE} tiles,
+ * holding all layers of the chunk in their order. A chunk is only written and uploaded again once one of its tiles
+ * or the map itself changed. Chunks are kept as long as they are near the view, so a moving camera
+ * only writes the chunks it uncovers.
+ * <p>
+ * Sprites are kept in a {@link CullingGrid}, so only the sprites inside the view of the camera are looked up
+ * and written. Sprites leaving the view give up their slot until they become visible again.
  */
 public class DefaultRenderer extends Renderer {
     private static final int MAX_BATCH_SIZE = 1000;
 
-    private final List<SpriteRenderer> sprites;
+    private static final Vector4f WHITE = Color.WHITE.toNormalizedVec4f();
+
+    private final List<SpriteSlot> sprites;
+    private final Map<SpriteRenderer, SpriteSlot> slots;
+    private final List<SpriteBatch> spriteBatches;
+    private final Map<TileMap, TileChunks> tileMaps;
+    private final Vector2f position = new Vector2f();
+    private final CullingGrid<SpriteSlot> grid;
+    // The sprites marked dirty or still moving, whose bounds have to be refreshed
+    private final List<SpriteSlot> changed;
+    private final Consumer<SpriteRenderer> markChanged = this::markChanged;
+    // The sprites submitted in the last frame, which have to give up their slots once they leave the view
+    private List<SpriteSlot> visible;
+    private List<SpriteSlot> nextVisible;
+    private final Consumer<SpriteSlot> submit = this::submit;
+    private int frame;
+    // The batch the last sprite was placed in, which is most likely to have room for the next one
+    private SpriteBatch lastPlaced;
+
+    private CameraUniforms cameraUniforms;
+    private Shader.Uniform lightmap;
 
     public DefaultRenderer() {
         sprites = new ArrayList<>();
+        slots = new IdentityHashMap<>();
+        spriteBatches = new ArrayList<>();
+        tileMaps = new IdentityHashMap<>();
+        grid = new CullingGrid<>();
+        changed = new ArrayList<>();
+        visible = new ArrayList<>();
+        nextVisible = new ArrayList<>();
     }
 
     /**
@@ -33,7 +78,10 @@ public class DefaultRenderer extends Renderer {
      */
     @Override
     protected Shader createShader() {
-        return Assets.getShader("src/assets/shaders/default.glsl");
+        Shader shader = Assets.getShader("src/assets/shaders/default.glsl");
+        cameraUniforms = new CameraUniforms(shader);
+        lightmap = shader.uniform("uLightmap");
+        return shader;
     }
 
     /**
@@ -58,6 +106,39 @@ public class DefaultRenderer extends Renderer {
                 ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT4, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT);
     }
 
+    /**
+     * Create a new persistent batch for sprites and its GPU resources
+     *
+     * @param zIndex
+     * @return a new batch
+     */
+    SpriteBatch createSpriteBatch(int zIndex) {
+        return createSpriteBatch(MAX_BATCH_SIZE, zIndex);
+    }
+
+    /**
+     * Create a new persistent batch of a given size and its GPU resources
+     *
+     * @param size   the amount of quads the batch can hold
+     * @param zIndex
+     * @return a new batch
+     */
+    SpriteBatch createSpriteBatch(int size, int zIndex) {
+        SpriteBatch batch = new SpriteBatch(size, zIndex,
+                ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT4, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT);
+        batch.init();
+        return batch;
+    }
+
+    /**
+     * Delete a persistent batch, which is not drawn anymore, and its GPU resources
+     *
+     * @param batch the batch
+     */
+    void deleteSpriteBatch(SpriteBatch batch) {
+        batch.delete();
+    }
+
     /**
      * Upload uniforms to the shader
      *
@@ -65,12 +146,9 @@ public class DefaultRenderer extends Renderer {
      */
     @Override
     protected void uploadUniforms(Shader shader) {
-        shader.uploadIntArray("uTextures", textureSlots);
-
         // This is here so that all renderers can have different cameras OR no cameras at all
-        shader.uploadMat4f("uProjection", Engine.window().currentScene().camera().getProjectionMatrix());
-        shader.uploadMat4f("uView", Engine.window().currentScene().camera().getViewMatrix());
-        shader.uploadInt("uLightmap", 8);
+        cameraUniforms.upload(Engine.window().currentScene().camera(), textureSlots);
+        lightmap.set(8);
     }
 
     /**
@@ -78,36 +156,273 @@ public class DefaultRenderer extends Renderer {
      */
     @Override
     protected void rebuffer() {
-        for (SpriteRenderer sprite : sprites) {
-            RenderBatch batch = getAvailableBatch(sprite.getTexture(), sprite.gameObject.zIndex());
-
-            Vector2f pos = sprite.gameObject.getReadOnlyPosition();
-            Vector2f scale = sprite.getSize();
-            Vector2f[] textureCoordinates = sprite.getTexCoords();
-
-            int textureID;
-            if (sprite.getTexture() != null) textureID = batch.addTexture(sprite.getTexture());
-            else textureID = 0;
-
-            // Push verts to the batch
-            float xAdd = 1.0f;
-            float yAdd = 1.0f;
-            for (int i = 0; i < 4; i++) {
-                switch (i) {
-                    case 1: yAdd = 0.0f; break;
-                    case 2: xAdd = 0.0f; break;
-                    case 3: yAdd = 1.0f; break;
+        boolean cull = beginCulling();
+        frame++;
+        if (!tileMaps.isEmpty()) {
+            for (TileChunks chunks : tileMaps.values())
+                rebufferTiles(chunks, cull);
+        }
+
+        float alpha = Engine.interpolationAlpha();
+        for (int i = changed.size() - 1; i >= 0; i--) {
+            SpriteSlot slot = changed.get(i);
+            refresh(slot, alpha);
+            // Moving sprites are interpolated every frame, resting ones are done
+            if (!slot.sprite.isMoving()) {
+                slot.changed = false;
+                changed.set(i, changed.get(changed.size() - 1));
+                changed.remove(changed.size() - 1);
+            }
+        }
+
+        if (cull) {
+            grid.query(viewMinX, viewMinY, viewMaxX, viewMaxY, submit);
+        } else {
+            for (int i = 0; i < sprites.size(); i++)
+                submit(sprites.get(i));
+        }
+
+        // Free the slots of sprites, which have left the view since the last frame
+        for (int i = 0; i < visible.size(); i++) {
+            SpriteSlot slot = visible.get(i);
+            if (slot.frame != frame && slot.batch != null) {
+                slot.batch.release(slot.index);
+                slot.batch = null;
+            }
+        }
+        List<SpriteSlot> swap = visible;
+        visible = nextVisible;
+        nextVisible = swap;
+        nextVisible.clear();
+
+        culled = sprites.size() - submitted;
+    }
+
+    /**
+     * Track the bounds of a sprite, it is only moved in the grid if it has moved or was resized
+     */
+    private void refresh(SpriteSlot slot, float alpha) {
+        Vector2f pos = slot.sprite.getInterpolatedPosition(alpha, position);
+        Vector2f scale = slot.sprite.getSize();
+        if (pos.x != slot.x || pos.y != slot.y || scale.x != slot.width || scale.y != slot.height) {
+            slot.x = pos.x;
+            slot.y = pos.y;
+            slot.width = scale.x;
+            slot.height = scale.y;
+            slot.written = false;
+            grid.update(slot, pos.x, pos.y, pos.x + scale.x, pos.y + scale.y);
+        }
+    }
+
+    /**
+     * Remember a sprite, which was marked dirty, to refresh its bounds with the next frame
+     */
+    private void markChanged(SpriteRenderer sprite) {
+        SpriteSlot slot = slots.get(sprite);
+        if (slot != null && !slot.changed) {
+            slot.changed = true;
+            changed.add(slot);
+        }
+    }
+
+    /**
+     * Make sure a visible sprite has an up to date slot
+     */
+    private void submit(SpriteSlot slot) {
+        SpriteRenderer sprite = slot.sprite;
+        Texture texture = sprite.getTexture();
+        int zIndex = sprite.gameObject.zIndex();
+
+        // Sprites with a new texture or zIndex might need to move to another batch
+        if (slot.batch == null || texture != slot.texture || zIndex != slot.zIndex) {
+            place(slot, texture, zIndex);
+        }
+        if (!slot.written || sprite.isDirty()) {
+            write(slot);
+        }
+
+        slot.frame = frame;
+        nextVisible.add(slot);
+        submitted++;
+    }
+
+    /**
+     * Give a sprite a slot in a batch matching its texture and zIndex
+     */
+    private void place(SpriteSlot slot, Texture texture, int zIndex) {
+        if (slot.batch != null) slot.batch.release(slot.index);
+
+        SpriteBatch batch = null;
+        if (lastPlaced != null && lastPlaced.zIndex() == zIndex && lastPlaced.canHold(texture)) {
+            batch = lastPlaced;
+        } else {
+            for (SpriteBatch b : spriteBatches) {
+                if (b.zIndex() == zIndex && b.canHold(texture)) {
+                    batch = b;
+                    break;
+                }
+            }
+        }
+        if (batch == null) {
+            batch = createSpriteBatch(zIndex);
+            spriteBatches.add(batch);
+            batches.add(batch);
+        }
+
+        lastPlaced = batch;
+        slot.batch = batch;
+        slot.index = batch.allocate();
+        slot.texture = texture;
+        slot.zIndex = zIndex;
+        slot.written = false;
+    }
+
+    /**
+     * Rewrite the quad of a sprite in its slot
+     */
+    private void write(SpriteSlot slot) {
+        SpriteRenderer sprite = slot.sprite;
+        SpriteBatch batch = slot.batch;
+        int textureID = slot.texture != null ? batch.addTexture(slot.texture) : 0;
+
+        batch.beginWrite(slot.index);
+        pushQuad(batch, slot.x, slot.y, slot.width, slot.height, sprite.getColorVector(), sprite.getTexCoords(), textureID);
+        batch.endWrite(slot.index);
+
+        slot.written = true;
+        sprite.setClean();
+    }
+
+    /**
+     * Make sure the chunks of a tile map near the view are cached and up to date, and drop the ones far away.
+     * Only the chunks that changed since the last frame are written.
+     *
+     * @param chunks the cached chunks of the tile map
+     * @param cull   whether to only keep the chunks near the view
+     */
+    private void rebufferTiles(TileChunks chunks, boolean cull) {
+        TileMap tileMap = chunks.tileMap;
+        // The whole map changed, e.g. a new layer was added
+        if (chunks.version != tileMap.getVersion()) {
+            deleteChunks(chunks);
+            chunks.reset();
+        }
+        int fromX = 0, fromY = 0, toX = chunks.chunksX - 1, toY = chunks.chunksY - 1;
+        if (cull) {
+            // Keep one more chunk around the view, so small camera movements do not rewrite chunks at the border
+            float chunkWidth = tileMap.getTileWidth() * TileLayer.CHUNK_SIZE;
+            float chunkHeight = tileMap.getTileHeight() * TileLayer.CHUNK_SIZE;
+            fromX = Math.max(fromX, (int) Math.floor(viewMinX / chunkWidth) - 1);
+            fromY = Math.max(fromY, (int) Math.floor(viewMinY / chunkHeight) - 1);
+            toX = Math.min(toX, (int) Math.floor(viewMaxX / chunkWidth) + 1);
+            toY = Math.min(toY, (int) Math.floor(viewMaxY / chunkHeight) + 1);
+        }
+        for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                int index = chunkY * chunks.chunksX + chunkX;
+                TileChunk chunk = chunks.chunks[index];
+                if (chunk == null) {
+                    if (isChunkEmpty(tileMap, chunkX, chunkY)) continue;
+                    chunk = chunks.chunks[index] = new TileChunk(chunkX, chunkY, tileMap.getLayers().size());
+                    chunks.live.add(chunk);
                 }
+                if (!chunk.isUpToDate(tileMap)) writeChunk(tileMap, chunk);
+                chunk.frame = frame;
+            }
+        }
+        // Drop the chunks, which are not near the view anymore
+        List<TileChunk> live = chunks.live;
+        for (int i = live.size() - 1; i >= 0; i--) {
+            TileChunk chunk = live.get(i);
+            if (chunk.frame == frame) continue;
+            deleteChunk(chunk);
+            chunks.chunks[chunk.chunkY * chunks.chunksX + chunk.chunkX] = null;
+            live.set(i, live.get(live.size() - 1));
+            live.remove(live.size() - 1);
+        }
+    }
 
-                float scaledX = (xAdd * scale.x);
-                float scaledY = (yAdd * scale.y);
+    private static boolean isChunkEmpty(TileMap tileMap, int chunkX, int chunkY) {
+        for (TileLayer layer : tileMap.getLayers())
+            if (!layer.isChunkEmpty(chunkX, chunkY)) return false;
+        return true;
+    }
 
-                batch.pushVec2(pos.x + scaledX, pos.y + scaledY);
-                batch.pushColor(sprite.getColor());
-                batch.pushVec2(textureCoordinates[i]);
-                batch.pushInt(textureID);
+    /**
+     * Rewrite all tiles of a chunk, layer by layer
+     */
+    private void writeChunk(TileMap tileMap, TileChunk chunk) {
+        for (SpriteBatch batch : chunk.batches)
+            batch.clear();
+        float tileWidth = tileMap.getTileWidth();
+        float tileHeight = tileMap.getTileHeight();
+        int size = TileLayer.CHUNK_SIZE * TileLayer.CHUNK_SIZE * Math.max(1, chunk.versions.length);
+        List<TileLayer> layers = tileMap.getLayers();
+        for (int i = 0; i < layers.size(); i++) {
+            TileLayer layer = layers.get(i);
+            chunk.versions[i] = layer.getChunkVersion(chunk.chunkX, chunk.chunkY);
+            if (layer.isChunkEmpty(chunk.chunkX, chunk.chunkY)) continue;
+            int x0 = chunk.chunkX * TileLayer.CHUNK_SIZE, y0 = chunk.chunkY * TileLayer.CHUNK_SIZE;
+            for (int y = y0; y < y0 + TileLayer.CHUNK_SIZE; y++) {
+                for (int x = x0; x < x0 + TileLayer.CHUNK_SIZE; x++) {
+                    Sprite sprite = tileMap.getSprite(layer.get(x, y));
+                    if (sprite == null) continue;
+                    Texture texture = sprite.getTexture();
+                    // A chunk only needs another batch, if its tiles use more textures than a batch can hold
+                    SpriteBatch batch = null;
+                    for (SpriteBatch b : chunk.batches) {
+                        if (b.canHold(texture)) {
+                            batch = b;
+                            break;
+                        }
+                    }
+                    if (batch == null) {
+                        batch = createSpriteBatch(size, tileMap.zIndex());
+                        chunk.batches.add(batch);
+                        batches.add(batch);
+                    }
+                    int textureID = texture != null ? batch.addTexture(texture) : 0;
+                    int slot = batch.allocate();
+                    batch.beginWrite(slot);
+                    pushQuad(batch, x * tileWidth, y * tileHeight, tileWidth, tileHeight, WHITE, sprite.getTextureCoordinates(), textureID);
+                    batch.endWrite(slot);
+                }
             }
         }
+        chunk.written = true;
+    }
+
+    private void deleteChunk(TileChunk chunk) {
+        for (SpriteBatch batch : chunk.batches) {
+            batches.remove(batch);
+            deleteSpriteBatch(batch);
+        }
+        chunk.batches.clear();
+    }
+
+    private void deleteChunks(TileChunks chunks) {
+        for (TileChunk chunk : chunks.live)
+            deleteChunk(chunk);
+    }
+
+    /**
+     * Push the four vertices of a textured quad to a batch
+     */
+    private static void pushQuad(RenderBatch batch, float x, float y, float width, float height, Vector4f color, Vector2f[] textureCoordinates, int textureID) {
+        float xAdd = 1.0f;
+        float yAdd = 1.0f;
+        for (int i = 0; i < 4; i++) {
+            switch (i) {
+                case 1: yAdd = 0.0f; break;
+                case 2: xAdd = 0.0f; break;
+                case 3: yAdd = 1.0f; break;
+            }
+
+            batch.pushVec2(x + xAdd * width, y + yAdd * height);
+            batch.pushVec4(color);
+            batch.pushVec2(textureCoordinates[i]);
+            batch.pushInt(textureID);
+        }
     }
 
     /**
@@ -118,8 +433,12 @@ public class DefaultRenderer extends Renderer {
     @Override
     public void add(GameObject gameObject) {
         SpriteRenderer spr = gameObject.getComponent(SpriteRenderer.class);
-        if (spr != null) {
-            sprites.add(spr);
+        if (spr != null && !slots.containsKey(spr)) {
+            SpriteSlot slot = new SpriteSlot(spr, sprites.size());
+            sprites.add(slot);
+            slots.put(spr, slot);
+            spr.setDirtyListener(markChanged);
+            markChanged(spr);
         }
     }
 
@@ -131,11 +450,41 @@ public class DefaultRenderer extends Renderer {
     @Override
     public void remove(GameObject gameObject) {
         SpriteRenderer spr = gameObject.getComponent(SpriteRenderer.class);
-        if (spr != null) {
-            sprites.remove(spr);
+        SpriteSlot slot = spr == null ? null : slots.remove(spr);
+        if (slot == null) return;
+        if (slot.batch != null) slot.batch.release(slot.index);
+        slot.batch = null;
+        grid.remove(slot);
+        if (spr.getDirtyListener() == markChanged) spr.setDirtyListener(null);
+        if (slot.changed) changed.remove(slot);
+
+        // Fill the gap with the last sprite, the order of the list does not matter
+        SpriteSlot last = sprites.remove(sprites.size() - 1);
+        if (last != slot) {
+            sprites.set(slot.listIndex, last);
+            last.listIndex = slot.listIndex;
         }
     }
 
+    /**
+     * Add a tile map to this renderer
+     *
+     * @param tileMap the tile map to be drawn
+     */
+    public void add(TileMap tileMap) {
+        tileMaps.computeIfAbsent(tileMap, TileChunks::new);
+    }
+
+    /**
+     * Remove a tile map from this renderer
+     *
+     * @param tileMap the tile map
+     */
+    public void remove(TileMap tileMap) {
+        TileChunks chunks = tileMaps.remove(tileMap);
+        if (chunks != null) deleteChunks(chunks);
+    }
+
     /**
      * Prepare for rendering. Do anything like setting background here.
      */
@@ -143,4 +492,84 @@ public class DefaultRenderer extends Renderer {
     protected void prepare() {
         Graphics.background(Graphics.defaultBackground);
     }
+
+    /**
+     * The slot of a sprite in a batch and the bounds it was last seen with
+     */
+    private static final class SpriteSlot extends CullingGrid.Entry {
+        final SpriteRenderer sprite;
+        int listIndex;
+
+        SpriteBatch batch;
+        int index;
+        Texture texture;
+        int zIndex;
+
+        boolean written;
+        // Whether the sprite is in the list of changed sprites
+        boolean changed;
+        float x = Float.NaN, y, width, height;
+        // The last frame, in which the sprite was visible
+        int frame;
+
+        SpriteSlot(SpriteRenderer sprite, int listIndex) {
+            this.sprite = sprite;
+            this.listIndex = listIndex;
+        }
+    }
+
+    /**
+     * The cached chunks of a tile map, indexed by their position
+     */
+    private static final class TileChunks {
+        final TileMap tileMap;
+        final List<TileChunk> live = new ArrayList<>();
+        TileChunk[] chunks;
+        int chunksX, chunksY;
+        // The version of the map the chunks were created for
+        int version;
+
+        TileChunks(TileMap tileMap) {
+            this.tileMap = tileMap;
+            reset();
+        }
+
+        // Forget all chunks, their batches have to be deleted before
+        void reset() {
+            live.clear();
+            chunksX = chunksY = 0;
+            for (TileLayer layer : tileMap.getLayers()) {
+                chunksX = Math.max(chunksX, layer.getChunksX());
+                chunksY = Math.max(chunksY, layer.getChunksY());
+            }
+            chunks = new TileChunk[chunksX * chunksY];
+            version = tileMap.getVersion();
+        }
+    }
+
+    /**
+     * The batches holding the tiles of all layers of a chunk, and the versions of the layers they were written with
+     */
+    private static final class TileChunk {
+        final int chunkX, chunkY;
+        final int[] versions;
+        final List<SpriteBatch> batches = new ArrayList<>(1);
+        // The last frame, in which the chunk was near the view
+        int frame;
+        boolean written;
+
+        TileChunk(int chunkX, int chunkY, int layers) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.versions = new int[layers];
+        }
+
+        boolean isUpToDate(TileMap tileMap) {
+            if (!written) return false;
+            List<TileLayer> layers = tileMap.getLayers();
+            for (int i = 0; i < versions.length; i++)
+                if (layers.get(i).getChunkVersion(chunkX, chunkY) != versions[i]) return false;
+            return true;
+        }
+    }
 }
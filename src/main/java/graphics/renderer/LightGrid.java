@@ -0,0 +1,169 @@
+package graphics.renderer;
+
+import java.util.Arrays;
+
+/**
+ * Bins point lights into square screen tiles, so every pixel of the lightmap only has to look at the lights
+ * which actually reach its tile instead of at every light of the scene.
+ * Lights whose radius does not reach the view at all are skipped.
+ * <p>
+ * The result is a compact list for each tile: the lights of tile {@code t} are
+ * {@code getIndices()[getOffsets()[t]]} up to {@code getIndices()[getOffsets()[t + 1] - 1]},
+ * where tiles are numbered row by row. Binning does not allocate once the arrays are large enough.
+ *
+ * @see LightmapRenderer
+ */
+public final class LightGrid {
+
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private final float tileSize;
+    private int tilesX, tilesY;
+
+    //one entry more than there are tiles, the last one is the total amount of indices
+    private int[] offsets = new int[1];
+    private int[] indices = new int[64];
+    private int indexCount;
+    private int visibleLights;
+
+    //the tile range of each light, kept between both passes
+    private int[] ranges = new int[64];
+
+    public LightGrid() {
+        this(DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * @param tileSize the width and height of a tile in world units, has to be positive
+     */
+    public LightGrid(float tileSize) {
+        if (!(tileSize > 0)) throw new IllegalArgumentException("the tile size of a light grid has to be positive");
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Sorts the lights into the tiles of a view.
+     *
+     * @param viewX      the left edge of the view
+     * @param viewY      the top edge of the view
+     * @param viewWidth  the width of the view
+     * @param viewHeight the height of the view
+     * @param x          the x position of each light
+     * @param y          the y position of each light
+     * @param radius     the distance up to which each light is visible
+     * @param count      the amount of lights
+     */
+    public void bin(float viewX, float viewY, float viewWidth, float viewHeight, float[] x, float[] y, float[] radius, int count) {
+        tilesX = Math.max(1, (int) Math.ceil(viewWidth / tileSize));
+        tilesY = Math.max(1, (int) Math.ceil(viewHeight / tileSize));
+        int tiles = tilesX * tilesY;
+        if (offsets.length < tiles + 1) offsets = new int[tiles + 1];
+        Arrays.fill(offsets, 0, tiles + 1, 0);
+        if (ranges.length < count * 4) ranges = new int[Math.max(count * 4, ranges.length * 2)];
+
+        //count the lights of each tile, offset by one for the prefix sum
+        int total = 0;
+        visibleLights = 0;
+        for (int i = 0; i < count; i++) {
+            float r = radius[i];
+            float localX = x[i] - viewX, localY = y[i] - viewY;
+            int minX = tile(localX - r), maxX = tile(localX + r);
+            int minY = tile(localY - r), maxY = tile(localY + r);
+            if (maxX < 0 || maxY < 0 || minX >= tilesX || minY >= tilesY || !(r >= 0)) {
+                ranges[i * 4] = -1;
+                continue;
+            }
+            minX = Math.max(minX, 0);
+            minY = Math.max(minY, 0);
+            maxX = Math.min(maxX, tilesX - 1);
+            maxY = Math.min(maxY, tilesY - 1);
+            ranges[i * 4] = minX;
+            ranges[i * 4 + 1] = minY;
+            ranges[i * 4 + 2] = maxX;
+            ranges[i * 4 + 3] = maxY;
+            for (int ty = minY; ty <= maxY; ty++)
+                for (int tx = minX; tx <= maxX; tx++)
+                    offsets[ty * tilesX + tx + 1]++;
+            total += (maxX - minX + 1) * (maxY - minY + 1);
+            visibleLights++;
+        }
+
+        for (int t = 0; t < tiles; t++)
+            offsets[t + 1] += offsets[t];
+        if (indices.length < total) indices = new int[Math.max(total, indices.length * 2)];
+        indexCount = total;
+
+        //fill the lists, using the start of the next tile as cursor, which ends up at the start of this tile again
+        for (int i = count - 1; i >= 0; i--) {
+            int minX = ranges[i * 4];
+            if (minX < 0) continue;
+            int minY = ranges[i * 4 + 1], maxX = ranges[i * 4 + 2], maxY = ranges[i * 4 + 3];
+            for (int ty = minY; ty <= maxY; ty++)
+                for (int tx = minX; tx <= maxX; tx++)
+                    indices[--offsets[ty * tilesX + tx + 1]] = i;
+        }
+        //offsets[t + 1] now holds the start of tile t, so move every offset to its own tile
+        System.arraycopy(offsets, 1, offsets, 0, tiles);
+        offsets[0] = 0;
+        offsets[tiles] = total;
+    }
+
+    private int tile(float coord) {
+        float t = (float) Math.floor(coord / tileSize);
+        //clamp before converting, so far away lights do not overflow
+        if (t < -1) return -1;
+        if (t > Math.max(tilesX, tilesY)) return Math.max(tilesX, tilesY);
+        return (int) t;
+    }
+
+    /**
+     * The distance at which the lightmap attenuation of a light falls below the given brightness.
+     *
+     * @param intensity the intensity of the light
+     * @param cutoff    the lowest brightness, which is still visible
+     * @return the radius of the light
+     */
+    public static float radius(float intensity, float cutoff) {
+        if (!(intensity > 0)) return 0;
+        //solves 1 / (1 + (0.001 / intensity) * d^2) = cutoff for d
+        return (float) Math.sqrt((1 / cutoff - 1) * intensity / 0.001);
+    }
+
+    public float tileSize() {
+        return tileSize;
+    }
+
+    public int getTilesX() {
+        return tilesX;
+    }
+
+    public int getTilesY() {
+        return tilesY;
+    }
+
+    /**
+     * @return the start of the list of each tile, only valid up to {@code getTilesX() * getTilesY() + 1}
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return the light indices of all tiles, only valid up to {@link #getIndexCount()}
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public int getIndexCount() {
+        return indexCount;
+    }
+
+    /**
+     * @return the amount of lights reaching at least one tile
+     */
+    public int getVisibleLights() {
+        return visibleLights;
+    }
+
+}
@@ -5,19 +5,61 @@ import ecs.PointLight;
 import graphics.*;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
 import util.Assets;
 import util.Engine;
 
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.GL_R32I;
+import static org.lwjgl.opengl.GL30.GL_RGBA32F;
+import static org.lwjgl.opengl.GL31.GL_TEXTURE_BUFFER;
+import static org.lwjgl.opengl.GL31.glTexBuffer;
+
+/**
+ * Renders the light of all {@link PointLight}s into a lightmap.
+ * <p>
+ * The view is divided into square tiles and every light is sorted into the tiles it reaches by a {@link LightGrid},
+ * lights outside of the view are skipped. The shader only looks at the lights of the tile of a pixel, so the amount
+ * of lights in a scene is not limited. The light data is kept in a buffer texture, which is only uploaded if a light
+ * was added, removed or changed, the tile lists are only uploaded again if the lights or the view have changed.
+ */
 public class LightmapRenderer extends Renderer {
+    // Lights darker than this are not visible in an 8 bit lightmap
+    private static final float CUTOFF = 1 / 256f;
+    // Two texels per light: position, intensity and radius, followed by the color
+    static final int FLOATS_PER_LIGHT = 8;
+
     // The light data
     private final List<PointLight> lights;
+    private final LightGrid grid;
+    private float[] lightData;
+    private float[] lightX, lightY, lightRadius;
+    // Whether the light data or the tile lists have to be uploaded again
+    boolean lightsChanged = true;
+    boolean tilesChanged = true;
+    private float viewX = Float.NaN, viewY, viewWidth, viewHeight;
+
     private RenderBatch batch;
+    private int lightBuffer, lightTexture, tileBuffer, tileTexture;
+    private FloatBuffer lightUpload;
+    private IntBuffer tileUpload;
+
+    private Shader.Uniform projection, cameraOffset, lightsSampler, tileLightsSampler, tileSize, tilesX, tilesY, minLighting;
 
     public LightmapRenderer() {
         lights = new ArrayList<>();
+        grid = new LightGrid();
+        lightData = new float[16 * FLOATS_PER_LIGHT];
+        lightX = new float[16];
+        lightY = new float[16];
+        lightRadius = new float[16];
         noRebuffer = true;
     }
 
@@ -35,6 +77,22 @@ public class LightmapRenderer extends Renderer {
         batch.finish();
         batches.add(batch);
         // TODO: Add resize method to re-upload projection matrix @asher or @voxelrifts
+
+        lightBuffer = glGenBuffers();
+        lightTexture = createBufferTexture(lightBuffer, GL_RGBA32F);
+        tileBuffer = glGenBuffers();
+        tileTexture = createBufferTexture(tileBuffer, GL_R32I);
+    }
+
+    private static int createBufferTexture(int buffer, int format) {
+        glBindBuffer(GL_TEXTURE_BUFFER, buffer);
+        glBufferData(GL_TEXTURE_BUFFER, 16, GL_DYNAMIC_DRAW);
+        int texture = glGenTextures();
+        glBindTexture(GL_TEXTURE_BUFFER, texture);
+        glTexBuffer(GL_TEXTURE_BUFFER, format, buffer);
+        glBindTexture(GL_TEXTURE_BUFFER, 0);
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+        return texture;
     }
 
     /**
@@ -44,7 +102,16 @@ public class LightmapRenderer extends Renderer {
      */
     @Override
     protected Shader createShader() {
-        return Assets.getShader("src/assets/shaders/lightmap.glsl");
+        Shader shader = Assets.getShader("src/assets/shaders/lightmap.glsl");
+        projection = shader.uniform("uProjection");
+        cameraOffset = shader.uniform("uCameraOffset");
+        lightsSampler = shader.uniform("uLights");
+        tileLightsSampler = shader.uniform("uTileLights");
+        tileSize = shader.uniform("uTileSize");
+        tilesX = shader.uniform("uTilesX");
+        tilesY = shader.uniform("uTilesY");
+        minLighting = shader.uniform("uMinLighting");
+        return shader;
     }
 
     /**
@@ -76,26 +143,100 @@ public class LightmapRenderer extends Renderer {
     @Override
     protected void uploadUniforms(Shader shader) {
         // This is here so that all renderers can have different cameras OR no cameras at all
-        shader.uploadMat4f("uProjection", Engine.window().currentScene().camera().getProjectionMatrix());
-        shader.uploadVec2f("uCameraOffset", Engine.window().currentScene().camera().getPosition());
+        Camera camera = Engine.window().currentScene().camera();
+        projection.set(camera.getProjectionMatrix());
+        cameraOffset.set(camera.getPosition());
 
-        // Set lighting uniforms
-        Vector2f[] lightPositions = new Vector2f[lights.size()];
-        Vector3f[] lightColors = new Vector3f[lights.size()];
-        float[] lightIntensities = new float[lights.size()];
+        Vector2f position = camera.getPosition();
+        updateLights(position.x, position.y, camera.getProjectionWidth(), camera.getProjectionHeight());
+        if (lightsChanged) {
+            lightUpload = upload(lightBuffer, lightData, lights.size() * FLOATS_PER_LIGHT, lightUpload);
+            lightsChanged = false;
+        }
+        if (tilesChanged) {
+            uploadTiles();
+            tilesChanged = false;
+        }
+
+        GLState.bindTexture(0, GL_TEXTURE_BUFFER, lightTexture);
+        GLState.bindTexture(1, GL_TEXTURE_BUFFER, tileTexture);
+        lightsSampler.set(0);
+        tileLightsSampler.set(1);
+        tileSize.set(grid.tileSize());
+        tilesX.set(grid.getTilesX());
+        tilesY.set(grid.getTilesY());
+        minLighting.set(Engine.scenes().getMinSceneLight());
+    }
 
-        for (int i = 0; i < lights.size(); i++) {
+    /**
+     * Pack the data of all lights and sort them into the tiles of the view.
+     * Only marks the data, which has actually changed, for upload.
+     */
+    void updateLights(float x, float y, float width, float height) {
+        int count = lights.size();
+        for (int i = 0; i < count; i++) {
             PointLight light = lights.get(i);
-            lightPositions[i] = new Vector2f(light.gameObject.getPositionData()[0], light.gameObject.getPositionData()[1]);
-            lightColors[i] = light.color;
-            lightIntensities[i] = light.intensity;
+            float[] position = light.gameObject.getPositionData();
+            Vector3f color = light.color;
+            int offset = i * FLOATS_PER_LIGHT;
+            if (lightData[offset] != position[0] || lightData[offset + 1] != position[1] || lightData[offset + 2] != light.intensity
+                    || lightData[offset + 4] != color.x || lightData[offset + 5] != color.y || lightData[offset + 6] != color.z) {
+                float radius = LightGrid.radius(light.intensity, CUTOFF);
+                lightData[offset] = position[0];
+                lightData[offset + 1] = position[1];
+                lightData[offset + 2] = light.intensity;
+                lightData[offset + 3] = radius;
+                lightData[offset + 4] = color.x;
+                lightData[offset + 5] = color.y;
+                lightData[offset + 6] = color.z;
+                lightX[i] = position[0];
+                lightY[i] = position[1];
+                lightRadius[i] = radius;
+                lightsChanged = true;
+            }
         }
 
-        shader.uploadVec2fArray("uLightPosition", lightPositions);
-        shader.uploadVec3fArray("uLightColor", lightColors);
-        shader.uploadFloatArray("uIntensity", lightIntensities);
-        shader.uploadFloat("uMinLighting", Engine.scenes().getMinSceneLight());
-        shader.uploadInt("uNumLights", lights.size());
+        if (lightsChanged || x != viewX || y != viewY || width != viewWidth || height != viewHeight) {
+            viewX = x;
+            viewY = y;
+            viewWidth = width;
+            viewHeight = height;
+            grid.bin(x, y, width, height, lightX, lightY, lightRadius, count);
+            tilesChanged = true;
+        }
+        submitted = grid.getVisibleLights();
+        culled = count - submitted;
+    }
+
+    /**
+     * Upload the offsets of all tiles followed by the light indices of all tiles
+     */
+    private void uploadTiles() {
+        int tiles = grid.getTilesX() * grid.getTilesY() + 1;
+        int length = tiles + grid.getIndexCount();
+        if (tileUpload == null || tileUpload.capacity() < length)
+            tileUpload = BufferUtils.createIntBuffer(Math.max(length, tileUpload == null ? 0 : tileUpload.capacity() * 2));
+        tileUpload.clear();
+        tileUpload.put(grid.getOffsets(), 0, tiles);
+        tileUpload.put(grid.getIndices(), 0, grid.getIndexCount());
+        tileUpload.flip();
+        glBindBuffer(GL_TEXTURE_BUFFER, tileBuffer);
+        glBufferData(GL_TEXTURE_BUFFER, tileUpload, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+    }
+
+    private static FloatBuffer upload(int buffer, float[] data, int length, FloatBuffer upload) {
+        if (upload == null || upload.capacity() < length)
+            upload = BufferUtils.createFloatBuffer(Math.max(Math.max(length, 4), upload == null ? 0 : upload.capacity() * 2));
+        upload.clear();
+        upload.put(data, 0, length);
+        // An empty buffer texture can not be bound
+        if (length == 0) upload.put(0).put(0).put(0).put(0);
+        upload.flip();
+        glBindBuffer(GL_TEXTURE_BUFFER, buffer);
+        glBufferData(GL_TEXTURE_BUFFER, upload, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+        return upload;
     }
 
     /**
@@ -107,8 +248,6 @@ public class LightmapRenderer extends Renderer {
 
     }
 
-
-
     /**
      * Add a gameObject to this renderer
      *
@@ -119,8 +258,18 @@ public class LightmapRenderer extends Renderer {
         PointLight l = gameObject.getComponent(PointLight.class);
         if (l != null) {
             if (lights.contains(l)) return;
+            int index = lights.size();
             lights.add(l);
-            assert lights.size() <= 10 : "NO MORE THAN 10 LIGHTS";
+            if (lightX.length == index) {
+                int capacity = index * 2;
+                lightData = Arrays.copyOf(lightData, capacity * FLOATS_PER_LIGHT);
+                lightX = Arrays.copyOf(lightX, capacity);
+                lightY = Arrays.copyOf(lightY, capacity);
+                lightRadius = Arrays.copyOf(lightRadius, capacity);
+            }
+            // Forces the light to be packed with the next update
+            lightData[index * FLOATS_PER_LIGHT] = Float.NaN;
+            lightsChanged = true;
         }
     }
 
@@ -132,9 +281,22 @@ public class LightmapRenderer extends Renderer {
     @Override
     public void remove(GameObject gameObject) {
         PointLight l = gameObject.getComponent(PointLight.class);
-        if (l != null) {
-            lights.remove(l);
-        }
+        if (l == null) return;
+        int index = lights.indexOf(l);
+        if (index < 0) return;
+        // Fill the gap with the last light, the order of the lights does not matter
+        int last = lights.size() - 1;
+        lights.set(index, lights.get(last));
+        lights.remove(last);
+        System.arraycopy(lightData, last * FLOATS_PER_LIGHT, lightData, index * FLOATS_PER_LIGHT, FLOATS_PER_LIGHT);
+        lightX[index] = lightX[last];
+        lightY[index] = lightY[last];
+        lightRadius[index] = lightRadius[last];
+        lightsChanged = true;
+    }
+
+    LightGrid getLightGrid() {
+        return grid;
     }
 
     /**
@@ -148,4 +310,13 @@ public class LightmapRenderer extends Renderer {
     public void bindLightmap() {
         framebuffer.getColorAttachment(0).bindToSlot(8);
     }
+
+    @Override
+    public void clean() {
+        super.clean();
+        glDeleteTextures(lightTexture);
+        glDeleteTextures(tileTexture);
+        glDeleteBuffers(lightBuffer);
+        glDeleteBuffers(tileBuffer);
+    }
 }
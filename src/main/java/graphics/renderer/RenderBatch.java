@@ -1,6 +1,7 @@
 package graphics.renderer;
 
 import graphics.Color;
+import graphics.GLState;
 import graphics.Primitive;
 import graphics.ShaderDatatype;
 import graphics.Texture;
@@ -10,6 +11,7 @@ import org.joml.Vector4f;
 import org.lwjgl.BufferUtils;
 import util.Log;
 
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
@@ -123,6 +125,10 @@ public class RenderBatch implements Comparable<RenderBatch> {
      * Index Buffer (Element Buffer) id
      */
     private int ebo;
+    /**
+     * Staging buffer to upload parts of the data array, created on the first upload
+     */
+    private FloatBuffer uploadBuffer;
 
     /**
      * @param maxBatchSize the maximum number of primitives in a batch
@@ -156,7 +162,7 @@ public class RenderBatch implements Comparable<RenderBatch> {
      */
     public void init() {
         vao = glGenVertexArrays();
-        glBindVertexArray(vao);
+        GLState.bindVertexArray(vao);
         vbo = glGenBuffers();
         glBindBuffer(GL_ARRAY_BUFFER, vbo);
         glBufferData(GL_ARRAY_BUFFER, maxBatchSize * primitive.vertexCount * vertexSize, GL_DYNAMIC_DRAW);
@@ -189,8 +195,33 @@ public class RenderBatch implements Comparable<RenderBatch> {
      * Finish setting batch data. upload to gpu
      */
     public void finish() {
+        // Only the data pushed since start() is drawn, so there is no need to upload the rest
+        upload(0, dataOffset);
+    }
+
+    /**
+     * Upload a range of the data array to the vertex buffer
+     *
+     * @param from the index of the first float to upload
+     * @param to   the index after the last float to upload
+     */
+    protected void upload(int from, int to) {
+        if (to <= from) return;
+        if (uploadBuffer == null) uploadBuffer = BufferUtils.createFloatBuffer(data.length);
+        uploadBuffer.clear();
+        uploadBuffer.put(data, from, to - from).flip();
         glBindBuffer(GL_ARRAY_BUFFER, vbo);
-        glBufferSubData(GL_ARRAY_BUFFER, 0, data);
+        glBufferSubData(GL_ARRAY_BUFFER, (long) from * Float.BYTES, uploadBuffer);
+    }
+
+    /**
+     * A persistent batch keeps its data between frames and is not reset by {@link #start()}.
+     * Its primitives are placed by the renderer owning it, therefore it is never handed out by {@link Renderer#getAvailableBatch(Texture, int)}.
+     *
+     * @return true, if this batch keeps its data between frames
+     */
+    public boolean isPersistent() {
+        return false;
     }
 
     /**
@@ -220,7 +251,7 @@ public class RenderBatch implements Comparable<RenderBatch> {
      * Binds the vertex array and all the textures to the required slots
      */
     public void bind() {
-        glBindVertexArray(vao);
+        GLState.bindVertexArray(vao);
         for (int i = 0; i < textures.size(); i++)
             textures.get(i).bindToSlot(i + 1);
     }
@@ -231,7 +262,7 @@ public class RenderBatch implements Comparable<RenderBatch> {
     public void unbind() {
         for (Texture texture : textures)
             texture.unbind();
-        glBindVertexArray(0);
+        GLState.bindVertexArray(0);
     }
 
     /**
@@ -241,6 +272,7 @@ public class RenderBatch implements Comparable<RenderBatch> {
         glDeleteBuffers(vbo);
         glDeleteBuffers(ebo);
         glDeleteVertexArrays(vao);
+        GLState.vertexArrayDeleted(vao);
     }
 
     /**
@@ -1,10 +1,16 @@
 package graphics.renderer;
 
 import ecs.GameObject;
+import graphics.Camera;
 import graphics.Framebuffer;
 import graphics.Shader;
 import graphics.Texture;
+import graphics.Window;
+import org.joml.Vector2f;
+import scene.Scene;
+import util.Engine;
 import util.OrderPreservingList;
+import util.Profiler;
 
 import java.util.List;
 
@@ -41,6 +47,10 @@ import static org.lwjgl.opengl.GL11.glDrawElements;
  *     A renderer also specifies a {@code framebuffer}, which acts as, well, a
  *     buffer which GPU pixel data is stored in to be drawn all at once on the monitor.
  * </p>
+ * <p>
+ * Renderers skip everything outside of the view of the camera while rebuffering, see {@link #setCulling(boolean)}.
+ * The amount of submitted and culled renderables of the last frame is available for profiling.
+ * </p>
  *
  * @see RenderBatch
  * @see Shader
@@ -61,10 +71,23 @@ public abstract class Renderer {
 	 */
 	public Framebuffer framebuffer;
 	protected boolean noRebuffer = false;
+	/**
+	 * The area visible through the camera in world units, valid while rebuffering if {@link #beginCulling()} returned true
+	 */
+	protected float viewMinX, viewMinY, viewMaxX, viewMaxY;
+	/**
+	 * The amount of renderables pushed to batches and skipped during the last rebuffer
+	 */
+	protected int submitted, culled;
+	private boolean culling = true;
 	/**
 	 * Shader to be used for rendering
 	 */
 	private Shader shader;
+	/**
+	 * Name of the profiler scope around rendering, looked up once
+	 */
+	private final String profilerName = getClass().getSimpleName().isEmpty() ? getClass().getName() : getClass().getSimpleName();
 
 	public Renderer() {
 		this.batches = new OrderPreservingList<>();
@@ -129,6 +152,9 @@ public abstract class Renderer {
 	 */
 	public RenderBatch getAvailableBatch(Texture texture, int reqdZ) {
 		for (RenderBatch batch : batches) {
+			if (batch.isPersistent())
+				continue;
+
 			if (!batch.isFull && batch.zIndex() == reqdZ)
 				return batch;
 
@@ -145,6 +171,82 @@ public abstract class Renderer {
 		return batch;
 	}
 
+	/**
+	 * Reset the counters and update the visible area, has to be called at the start of every rebuffer
+	 *
+	 * @return true, if renderables outside of the view should be skipped
+	 */
+	protected final boolean beginCulling() {
+		submitted = 0;
+		culled = 0;
+		return culling && updateView();
+	}
+
+	/**
+	 * Update the visible area from the camera of the current scene.
+	 * Override this to cull against another area, e.g. when rendering into a texture.
+	 *
+	 * @return false, if there is no view to cull against
+	 */
+	protected boolean updateView() {
+		Window window = Engine.window();
+		Scene scene = window == null ? null : window.currentScene();
+		Camera camera = scene == null ? null : scene.camera();
+		if (camera == null) return false;
+		Vector2f position = camera.getPosition();
+		setView(position.x, position.y, position.x + camera.getProjectionWidth(), position.y + camera.getProjectionHeight());
+		return true;
+	}
+
+	/**
+	 * Set the visible area in world units
+	 */
+	protected void setView(float minX, float minY, float maxX, float maxY) {
+		viewMinX = minX;
+		viewMinY = minY;
+		viewMaxX = maxX;
+		viewMaxY = maxY;
+	}
+
+	/**
+	 * Check whether an area in world space overlaps the visible area
+	 */
+	protected boolean isVisible(float minX, float minY, float maxX, float maxY) {
+		return minX <= viewMaxX && maxX >= viewMinX && minY <= viewMaxY && maxY >= viewMinY;
+	}
+
+	/**
+	 * Check whether an area in screen space, which does not move with the camera, overlaps the visible area
+	 */
+	protected boolean isVisibleOnScreen(float minX, float minY, float maxX, float maxY) {
+		return minX <= viewMaxX - viewMinX && maxX >= 0 && minY <= viewMaxY - viewMinY && maxY >= 0;
+	}
+
+	/**
+	 * Enable or disable skipping renderables outside of the view of the camera
+	 */
+	public void setCulling(boolean culling) {
+		this.culling = culling;
+	}
+
+	public boolean isCulling() {
+		return culling;
+	}
+
+	/**
+	 * @return the amount of renderables pushed to batches during the last rebuffer
+	 */
+	public int getSubmittedCount() {
+		return submitted;
+	}
+
+	/**
+	 * @return the amount of renderables skipped during the last rebuffer, since they were outside of the view
+	 */
+	public int getCulledCount() {
+		return culled;
+	}
+
 	/**
 	 * Add a gameObject to the renderer, and if it contains a component that affects rendering, like a sprite or light, those are added to a batch.
 	 *
@@ -183,24 +285,27 @@ public abstract class Renderer {
 	 * Loop through all render batches and render them
 	 */
 	public void render() {
+		Profiler.begin(profilerName);
 		framebuffer.bind();
 		prepare();
 		shader.attach();
 		uploadUniforms(shader);
 
 		if (!noRebuffer) {
+			Profiler.begin("rebuffer");
 			start();
 			rebuffer();
 			finish();
+			Profiler.end();
 		}
 
+		// the shader, vertex arrays and textures stay bound, so the next renderer can skip binding the same ones
 		for (RenderBatch batch : batches) {
 			batch.bind();
 			glDrawElements(batch.primitive.openglPrimitive, batch.getVertexCount(), GL_UNSIGNED_INT, 0);
-			batch.unbind();
 		}
-		shader.detach();
 		Framebuffer.unbind();
+		Profiler.end();
 	}
 
 	/**
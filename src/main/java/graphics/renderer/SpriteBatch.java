@@ -0,0 +1,153 @@
+package graphics.renderer;
+
+import graphics.Primitive;
+import graphics.ShaderDatatype;
+import graphics.Texture;
+
+import java.util.Arrays;
+
+/**
+ * A persistent batch of quads, where every quad owns a fixed slot until it is released.
+ * The data of the batch is kept between frames, so only the slots that were rewritten
+ * since the last frame are uploaded again. Released slots are cleared to degenerate quads and reused later.
+ *
+ * @see DefaultRenderer
+ */
+class SpriteBatch extends RenderBatch {
+
+    private final int floatsPerQuad;
+
+    //released slots below the high water mark
+    private final int[] freeSlots;
+    private int freeCount;
+    //the amount of slots ever handed out since the batch was empty
+    private int used;
+
+    //range of floats changed since the last upload
+    private int dirtyFrom = Integer.MAX_VALUE;
+    private int dirtyTo = 0;
+
+    SpriteBatch(int maxBatchSize, int zIndex, ShaderDatatype... attributes) {
+        super(maxBatchSize, zIndex, Primitive.QUAD, attributes);
+        this.floatsPerQuad = vertexCount * Primitive.QUAD.vertexCount;
+        this.freeSlots = new int[maxBatchSize];
+    }
+
+    /**
+     * Whether a quad with the given texture can be placed in this batch
+     *
+     * @param texture the texture of the quad, may be null
+     * @return true, if there is a free slot and the texture is either present or there is room for it
+     */
+    boolean canHold(Texture texture) {
+        if (freeCount == 0 && used == maxBatchSize) return false;
+        return texture == null || hasTexture(texture) || textures.size() < 8;
+    }
+
+    /**
+     * Reserve a slot. {@link #canHold(Texture)} has to be checked before.
+     *
+     * @return the reserved slot
+     */
+    int allocate() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        dataOffset = ++used * floatsPerQuad;
+        return used - 1;
+    }
+
+    /**
+     * Release a slot, its quad will not be drawn anymore.
+     *
+     * @param slot the slot
+     */
+    void release(int slot) {
+        int from = slot * floatsPerQuad;
+        Arrays.fill(data, from, from + floatsPerQuad, 0);
+        markDirty(from, from + floatsPerQuad);
+        freeSlots[freeCount++] = slot;
+        if (freeCount == used) {
+            //the batch is empty, start over, which also frees all texture slots
+            freeCount = 0;
+            used = 0;
+            super.start();
+        }
+    }
+
+    /**
+     * Release all slots at once, including all texture slots
+     */
+    void clear() {
+        freeCount = 0;
+        used = 0;
+        super.start();
+    }
+
+    /**
+     * Move the write position to a slot, the next pushed quad will overwrite it.
+     *
+     * @param slot the slot
+     */
+    void beginWrite(int slot) {
+        dataOffset = slot * floatsPerQuad;
+    }
+
+    /**
+     * Finish writing the quad of a slot
+     *
+     * @param slot the slot
+     */
+    void endWrite(int slot) {
+        markDirty(slot * floatsPerQuad, (slot + 1) * floatsPerQuad);
+        dataOffset = used * floatsPerQuad;
+        isFull = false;
+    }
+
+    private void markDirty(int from, int to) {
+        dirtyFrom = Math.min(dirtyFrom, from);
+        dirtyTo = Math.max(dirtyTo, to);
+    }
+
+    /**
+     * @return the amount of floats changed since the last upload
+     */
+    int dirtyLength() {
+        return Math.max(0, dirtyTo - dirtyFrom);
+    }
+
+    /**
+     * @return the amount of slots in use
+     */
+    int size() {
+        return used - freeCount;
+    }
+
+    /**
+     * The data is kept between frames
+     */
+    @Override
+    public void start() {
+    }
+
+    /**
+     * Only upload the range of slots that changed since the last frame
+     */
+    @Override
+    public void finish() {
+        upload(dirtyFrom, dirtyTo);
+        clearDirty();
+    }
+
+    /**
+     * Forget about all changes, as if they were uploaded
+     */
+    void clearDirty() {
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = 0;
+    }
+
+    @Override
+    public boolean isPersistent() {
+        return true;
+    }
+
+}
@@ -22,6 +22,7 @@ public class TextRenderer extends Renderer {
     private static final int MAX_BATCH_SIZE = 1000;
 
     private final List<Text> texts;
+    private CameraUniforms cameraUniforms;
 
     public TextRenderer() {
         texts = new ArrayList<>();
@@ -33,7 +34,9 @@ public class TextRenderer extends Renderer {
      */
     @Override
     protected Shader createShader() {
-        return Assets.getShader("src/assets/shaders/text.glsl");
+        Shader shader = Assets.getShader("src/assets/shaders/text.glsl");
+        cameraUniforms = new CameraUniforms(shader);
+        return shader;
     }
 
     /**
@@ -63,9 +66,7 @@ public class TextRenderer extends Renderer {
      */
     @Override
     protected void uploadUniforms(Shader shader) {
-        shader.uploadIntArray("uTextures", textureSlots);
-        shader.uploadMat4f("uProjection", Engine.scenes().currentScene().camera().getProjectionMatrix());
-        shader.uploadMat4f("uView", Engine.scenes().currentScene().camera().getViewMatrix());
+        cameraUniforms.upload(Engine.scenes().currentScene().camera(), textureSlots);
     }
 
     /**
@@ -73,15 +74,33 @@ public class TextRenderer extends Renderer {
      */
     @Override
     protected void rebuffer() {
+        boolean cull = beginCulling();
         for (Text text : texts) {
             ArrayList<GlyphRenderer> glyphs = text.getGlyphRenderers();
             for (GlyphRenderer glyph : glyphs) {
+                if (cull && !isVisible(glyph)) {
+                    culled++;
+                    continue;
+                }
                 RenderBatch batch = getAvailableBatch(glyph.getTexture(), text.zIndex());
                 pushGlyph(batch, glyph);
+                submitted++;
             }
         }
     }
 
+    /**
+     * Check whether a glyph is inside the view, sticky glyphs are placed on the screen instead of in the world
+     * @param glyph the glyph
+     */
+    private boolean isVisible(GlyphRenderer glyph) {
+        Transform t = glyph.getLocalTransform();
+        float x = t.getX(), y = t.getY();
+        float maxX = x + t.scale.x, maxY = y + t.scale.y;
+        if (glyph.isSticky()) return isVisibleOnScreen(Math.min(x, maxX), Math.min(y, maxY), Math.max(x, maxX), Math.max(y, maxY));
+        return isVisible(Math.min(x, maxX), Math.min(y, maxY), Math.max(x, maxX), Math.max(y, maxY));
+    }
+
     /**
      * Push a glyph to the batch
      * @param batch the batch to which to push the glyph
@@ -105,7 +124,7 @@ public class TextRenderer extends Renderer {
                 case 3: yAdd = 1.0f; break;
             }
             batch.pushVec2(spr.getPosition().x + (xAdd * spr.scale.x), spr.getPosition().y + (yAdd * spr.scale.y));
-            batch.pushColor(glyph.getColor());
+            batch.pushVec4(glyph.getColorVector());
             batch.pushVec2(textureCoordinates[i]);
             batch.pushInt(textureID);
             batch.pushFloat(glyph.isSticky() ? 1.f : 0.f);
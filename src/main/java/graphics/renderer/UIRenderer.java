@@ -23,6 +23,7 @@ public class UIRenderer extends Renderer {
     private static final int MAX_BATCH_SIZE = 1000;
 
     private final List<RenderableElement> renderableElements;
+    private CameraUniforms cameraUniforms;
 
     public UIRenderer () {
         renderableElements = new ArrayList<>();
@@ -35,7 +36,9 @@ public class UIRenderer extends Renderer {
      */
     @Override
     protected Shader createShader() {
-        return Assets.getShader("src/assets/shaders/ui.glsl");
+        Shader shader = Assets.getShader("src/assets/shaders/ui.glsl");
+        cameraUniforms = new CameraUniforms(shader);
+        return shader;
     }
 
     /**
@@ -60,11 +63,8 @@ public class UIRenderer extends Renderer {
      */
     @Override
     protected void uploadUniforms(Shader shader) {
-        shader.uploadIntArray("uTextures", textureSlots);
-
         // This is here so that all renderers can have different cameras OR no cameras at all
-        shader.uploadMat4f("uProjection", Engine.window().currentScene().camera().getProjectionMatrix());
-        shader.uploadMat4f("uView", Engine.window().currentScene().camera().getViewMatrix());
+        cameraUniforms.upload(Engine.window().currentScene().camera(), textureSlots);
     }
 
     @Override
@@ -20,6 +20,11 @@ public class Keyboard {
      */
     public static byte[] keystateBitfields;
 
+    /**
+     * The data of the key event, reused for every key
+     */
+    private static final EventData.KeyEventData keyEvent = new EventData.KeyEventData();
+
     static {
         keystateBitfields = new byte[400];
     }
@@ -52,7 +57,7 @@ public class Keyboard {
                 }
             }
 
-            Events.keyEvent.onEvent(new EventData.KeyEventData(keycode, scancode, action, mods));
+            Events.keyEvent.onEvent(keyEvent.set(keycode, scancode, action, mods));
         });
     }
 
@@ -81,6 +81,12 @@ public class Mouse {
      */
     private static boolean moved = false;
 
+    /**
+     * The data of the mouse events, reused for every event
+     */
+    private static final EventData.MouseScrollEventData scrollEvent = new EventData.MouseScrollEventData();
+    private static final EventData.MouseButtonEventData buttonEvent = new EventData.MouseButtonEventData();
+
     /**
      * Apply the latest changes to the mouseButton array
      */
@@ -105,13 +111,13 @@ public class Mouse {
             scrollY = (float) yOffset;
             mouseScroll = new Vector2f(scrollX, scrollY);
 
-            Events.mouseScrollEvent.onEvent(new EventData.MouseScrollEventData(xOffset, yOffset));
+            Events.mouseScrollEvent.onEvent(scrollEvent.set(xOffset, yOffset));
         });
 
         glfwSetMouseButtonCallback(Window.glfwWindow(), (w, button, action, mods) -> {
             _button = button;
             _action = action;
-            Events.mouseButtonEvent.onEvent(new EventData.MouseButtonEventData(button, action, mods));
+            Events.mouseButtonEvent.onEvent(buttonEvent.set(button, action, mods));
         });
 
         glfwSetCursorPosCallback(Window.glfwWindow(), (w, xpos, ypos) -> {
@@ -0,0 +1,617 @@
+package io.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts objects to JSON and back by their fields.
+ * All fields of a class and its superclasses are bound, except static, transient and final ones.
+ * Null values are not written and missing properties keep the value the no-args constructor assigned,
+ * so every class read by the binder needs a no-args constructor, which may be private.
+ * <p>
+ * The fields of a class are looked up only once and kept as method handles, so binding many objects of the same class
+ * does not use reflection again. Fields are bound by their declared type, subclasses are not restored.
+ * Supported are primitives and their wrappers, strings, enums, arrays, collections, maps with string keys
+ * and any other object, as long as the object graph contains no cycles.
+ * <pre>
+ * JSONBinder binder = new JSONBinder();
+ * binder.write(saveGame, new FileOutputStream("save.json"));
+ * SaveGame loaded = binder.read(new FileInputStream("save.json"), SaveGame.class);
+ * </pre>
+ * A binder is thread safe and should be reused.
+ *
+ * @see JSONReader
+ * @see JSONWriter
+ */
+public class JSONBinder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Map<Class<?>, ClassBinding> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * The declared fields of each class in the layout of {@link JSONObject}, made accessible once
+     */
+    private static final ClassValue<Field[]> DECLARED_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            Field[] fields = type.getDeclaredFields();
+            //fields which cannot be made accessible fail when they are read, like before
+            for (Field field : fields)
+                field.trySetAccessible();
+            return fields;
+        }
+    };
+
+    /**
+     * @param value  the value to convert
+     * @param pretty whether to put every value in its own line
+     * @return the value as JSON
+     */
+    public String toJSON(Object value, boolean pretty) {
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out, pretty);
+        write(value, writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    public String toJSON(Object value) {
+        return toJSON(value, false);
+    }
+
+    /**
+     * Writes a value as a whole document and closes the output
+     *
+     * @param value  the value to write
+     * @param output the output
+     */
+    public void write(Object value, OutputStream output) {
+        try (JSONWriter writer = new JSONWriter(output)) {
+            write(value, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a value as a whole document and closes the output
+     *
+     * @param value  the value to write
+     * @param output the output
+     */
+    public void write(Object value, Writer output) {
+        try (JSONWriter writer = new JSONWriter(output)) {
+            write(value, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a value at the current position of a writer
+     *
+     * @param value  the value to write
+     * @param writer the writer
+     */
+    public void write(Object value, JSONWriter writer) {
+        writeValue(writer, value, value == null ? Object.class : value.getClass());
+    }
+
+    public <T> T fromJSON(String json, Class<T> type) {
+        return readDocument(new JSONReader(json), type);
+    }
+
+    /**
+     * Reads a whole document and closes the input
+     *
+     * @param input the input
+     * @param type  the type of the value of the document
+     * @return the value
+     */
+    public <T> T read(InputStream input, Class<T> type) {
+        return read(new InputStreamReader(input, StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * Reads a whole document and closes the input
+     *
+     * @param input the input
+     * @param type  the type of the value of the document
+     * @return the value
+     */
+    public <T> T read(Reader input, Class<T> type) {
+        try (JSONReader reader = new JSONReader(input)) {
+            return readDocument(reader, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T readDocument(JSONReader reader, Class<T> type) {
+        T value = read(reader, type);
+        //fails on anything after the value
+        reader.next();
+        return value;
+    }
+
+    /**
+     * Reads the next value of a reader
+     *
+     * @param reader the reader
+     * @param type   the type of the value
+     * @return the value
+     * @throws JSONSyntaxException if the value does not match the type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(JSONReader reader, Class<T> type) {
+        reader.next();
+        return (T) readValue(reader, type);
+    }
+
+    /**
+     * The fields declared by a class itself, including static ones, in declaration order.
+     * The array is shared and must not be modified.
+     *
+     * @param type the class
+     * @return the accessible fields of the class
+     */
+    static Field[] declaredFields(Class<?> type) {
+        return DECLARED_FIELDS.get(type);
+    }
+
+    private ClassBinding binding(Class<?> type) {
+        ClassBinding binding = bindings.get(type);
+        if (binding == null) {
+            //created outside of computeIfAbsent, since it must not be called recursively
+            binding = new ClassBinding(type);
+            ClassBinding present = bindings.putIfAbsent(type, binding);
+            if (present != null) binding = present;
+        }
+        return binding;
+    }
+
+    // ----- writing -----
+
+    private void writeValue(JSONWriter writer, Object value, Type type) {
+        if (value == null) {
+            writer.nullValue();
+        } else if (value instanceof String) {
+            writer.value((String) value);
+        } else if (value instanceof Boolean) {
+            writer.value((boolean) (Boolean) value);
+        } else if (value instanceof Float) {
+            writer.value((float) (Float) value);
+        } else if (value instanceof Double) {
+            writer.value((double) (Double) value);
+        } else if (value instanceof Number) {
+            writer.value(((Number) value).longValue());
+        } else if (value instanceof Character) {
+            writer.value(value.toString());
+        } else if (value instanceof Enum) {
+            writer.value(((Enum<?>) value).name());
+        } else if (value.getClass().isArray()) {
+            writeArray(writer, value);
+        } else if (value instanceof Collection) {
+            Type elementType = typeArgument(type, 0);
+            writer.beginArray();
+            for (Object element : (Collection<?>) value)
+                writeValue(writer, element, elementType);
+            writer.endArray();
+        } else if (value instanceof Map) {
+            Type valueType = typeArgument(type, 1);
+            writer.beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.name(String.valueOf(entry.getKey()));
+                writeValue(writer, entry.getValue(), valueType);
+            }
+            writer.endObject();
+        } else {
+            binding(value.getClass()).write(writer, value);
+        }
+    }
+
+    private void writeArray(JSONWriter writer, Object array) {
+        writer.beginArray();
+        Class<?> component = array.getClass().getComponentType();
+        if (component == int.class) {
+            for (int value : (int[]) array) writer.value(value);
+        } else if (component == float.class) {
+            for (float value : (float[]) array) writer.value(value);
+        } else if (component == double.class) {
+            for (double value : (double[]) array) writer.value(value);
+        } else if (component == long.class) {
+            for (long value : (long[]) array) writer.value(value);
+        } else if (component == boolean.class) {
+            for (boolean value : (boolean[]) array) writer.value(value);
+        } else if (component == char.class) {
+            for (char value : (char[]) array) writer.value(String.valueOf(value));
+        } else if (component == short.class) {
+            for (short value : (short[]) array) writer.value(value);
+        } else if (component == byte.class) {
+            for (byte value : (byte[]) array) writer.value(value);
+        } else {
+            for (Object value : (Object[]) array) writeValue(writer, value, component);
+        }
+        writer.endArray();
+    }
+
+    // ----- reading -----
+
+    //reads the value starting at the current event of the reader
+    private Object readValue(JSONReader reader, Type type) {
+        JSONReader.Event event = reader.event();
+        Class<?> raw = rawType(type);
+        if (event == JSONReader.Event.NULL) {
+            if (raw.isPrimitive()) throw new JSONSyntaxException("Expected a " + raw.getName() + ", but was null");
+            return null;
+        }
+        if (raw == String.class) {
+            expect(reader, JSONReader.Event.STRING, raw);
+            return reader.getString();
+        }
+        if (raw == int.class || raw == Integer.class) return expectNumber(reader, raw).getInt();
+        if (raw == float.class || raw == Float.class) return expectNumber(reader, raw).getFloat();
+        if (raw == double.class || raw == Double.class) return expectNumber(reader, raw).getDouble();
+        if (raw == long.class || raw == Long.class) return expectNumber(reader, raw).getLong();
+        if (raw == short.class || raw == Short.class) return (short) expectNumber(reader, raw).getInt();
+        if (raw == byte.class || raw == Byte.class) return (byte) expectNumber(reader, raw).getInt();
+        if (raw == boolean.class || raw == Boolean.class) {
+            expect(reader, JSONReader.Event.BOOLEAN, raw);
+            return reader.getBoolean();
+        }
+        if (raw == char.class || raw == Character.class) return readChar(reader);
+        if (raw.isEnum()) {
+            expect(reader, JSONReader.Event.STRING, raw);
+            return readEnum(raw, reader.getString());
+        }
+        if (raw.isArray()) return readArray(reader, raw);
+        if (Collection.class.isAssignableFrom(raw)) return readCollection(reader, raw, typeArgument(type, 0));
+        if (Map.class.isAssignableFrom(raw)) return readMap(reader, raw, typeArgument(type, 1));
+        if (raw == Object.class) return readUntyped(reader);
+        return binding(raw).read(reader);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readEnum(Class<?> type, String name) {
+        try {
+            return Enum.valueOf((Class<? extends Enum>) type, name);
+        } catch (IllegalArgumentException e) {
+            throw new JSONSyntaxException("Unknown constant " + name + " of " + type.getName());
+        }
+    }
+
+    private static char readChar(JSONReader reader) {
+        expect(reader, JSONReader.Event.STRING, char.class);
+        String value = reader.getString();
+        if (value.length() != 1) throw new JSONSyntaxException("Expected a single character, but was \"" + value + "\"");
+        return value.charAt(0);
+    }
+
+    private Object readArray(JSONReader reader, Class<?> arrayType) {
+        expect(reader, JSONReader.Event.BEGIN_ARRAY, arrayType);
+        Class<?> component = arrayType.getComponentType();
+        if (component == int.class) {
+            int[] values = new int[16];
+            int size = 0;
+            while (reader.next() != JSONReader.Event.END_ARRAY) {
+                if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                values[size++] = expectNumber(reader, component).getInt();
+            }
+            return Arrays.copyOf(values, size);
+        }
+        if (component == float.class) {
+            float[] values = new float[16];
+            int size = 0;
+            while (reader.next() != JSONReader.Event.END_ARRAY) {
+                if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                values[size++] = expectNumber(reader, component).getFloat();
+            }
+            return Arrays.copyOf(values, size);
+        }
+        List<Object> values = new ArrayList<>();
+        while (reader.next() != JSONReader.Event.END_ARRAY)
+            values.add(readValue(reader, component));
+        Object array = Array.newInstance(component, values.size());
+        for (int i = 0; i < values.size(); i++)
+            Array.set(array, i, values.get(i));
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readCollection(JSONReader reader, Class<?> raw, Type elementType) {
+        expect(reader, JSONReader.Event.BEGIN_ARRAY, raw);
+        Collection<Object> collection;
+        if (raw.isInterface() || Modifier.isAbstract(raw.getModifiers()))
+            collection = Set.class.isAssignableFrom(raw) ? new LinkedHashSet<>() : new ArrayList<>();
+        else collection = (Collection<Object>) binding(raw).newInstance();
+        while (reader.next() != JSONReader.Event.END_ARRAY)
+            collection.add(readValue(reader, elementType));
+        return collection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readMap(JSONReader reader, Class<?> raw, Type valueType) {
+        expect(reader, JSONReader.Event.BEGIN_OBJECT, raw);
+        Map<String, Object> map;
+        if (raw.isInterface() || Modifier.isAbstract(raw.getModifiers())) map = new LinkedHashMap<>();
+        else map = (Map<String, Object>) binding(raw).newInstance();
+        while (reader.next() == JSONReader.Event.NAME) {
+            String name = reader.getName();
+            reader.next();
+            map.put(name, readValue(reader, valueType));
+        }
+        return map;
+    }
+
+    //values without a type are read as their natural java representation
+    private Object readUntyped(JSONReader reader) {
+        switch (reader.event()) {
+            case STRING:
+                return reader.getString();
+            case NUMBER:
+                return reader.getDouble();
+            case BOOLEAN:
+                return reader.getBoolean();
+            case BEGIN_ARRAY:
+                return readCollection(reader, List.class, Object.class);
+            case BEGIN_OBJECT:
+                return readMap(reader, Map.class, Object.class);
+            default:
+                throw new JSONSyntaxException("Expected a value, but was " + reader.event());
+        }
+    }
+
+    private static void expect(JSONReader reader, JSONReader.Event event, Class<?> type) {
+        if (reader.event() != event)
+            throw new JSONSyntaxException("Expected " + event + " for " + type.getName() + ", but was " + reader.event());
+    }
+
+    private static JSONReader expectNumber(JSONReader reader, Class<?> type) {
+        expect(reader, JSONReader.Event.NUMBER, type);
+        return reader;
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) return (Class<?>) type;
+        if (type instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) type).getRawType();
+        //wildcards and type variables
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) return arguments[index];
+        }
+        return Object.class;
+    }
+
+    private static RuntimeException bindingError(Class<?> type, Throwable cause) {
+        if (cause instanceof RuntimeException) return (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        return new IllegalStateException("Failed to bind " + type.getName(), cause);
+    }
+
+    // ----- bindings -----
+
+    private static final int INT = 0, LONG = 1, FLOAT = 2, DOUBLE = 3, BOOLEAN = 4, SHORT = 5, BYTE = 6, CHAR = 7, OBJECT = 8;
+
+    /**
+     * The field of a class with its handles, which are adapted to take the instance as Object.
+     */
+    private static final class FieldBinding {
+
+        final String name;
+        final Type type;
+        final int kind;
+        final MethodHandle getter;
+        final MethodHandle setter;
+
+        FieldBinding(Field field) throws IllegalAccessException {
+            this.name = field.getName();
+            this.type = field.getGenericType();
+            Class<?> raw = field.getType();
+            if (raw == int.class) kind = INT;
+            else if (raw == long.class) kind = LONG;
+            else if (raw == float.class) kind = FLOAT;
+            else if (raw == double.class) kind = DOUBLE;
+            else if (raw == boolean.class) kind = BOOLEAN;
+            else if (raw == short.class) kind = SHORT;
+            else if (raw == byte.class) kind = BYTE;
+            else if (raw == char.class) kind = CHAR;
+            else kind = OBJECT;
+            Class<?> erased = raw.isPrimitive() ? raw : Object.class;
+            this.getter = LOOKUP.unreflectGetter(field).asType(MethodType.methodType(erased, Object.class));
+            this.setter = LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, erased));
+        }
+
+    }
+
+    /**
+     * Everything needed to bind the objects of a class, looked up once per class
+     */
+    private final class ClassBinding {
+
+        private final Class<?> type;
+        private final FieldBinding[] fields;
+        //null, if the class has no no-args constructor
+        private final MethodHandle constructor;
+
+        ClassBinding(Class<?> type) {
+            this.type = type;
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass())
+                hierarchy.add(0, c);
+            List<FieldBinding> fields = new ArrayList<>();
+            try {
+                for (Class<?> c : hierarchy) {
+                    for (Field field : c.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic())
+                            continue;
+                        field.setAccessible(true);
+                        fields.add(new FieldBinding(field));
+                    }
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("The fields of " + type.getName() + " cannot be bound", e);
+            }
+            this.fields = fields.toArray(new FieldBinding[0]);
+            this.constructor = findConstructor(type);
+        }
+
+        private MethodHandle findConstructor(Class<?> type) {
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) return null;
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        Object newInstance() {
+            if (constructor == null)
+                throw new IllegalArgumentException(type.getName() + " cannot be read, since it has no no-args constructor");
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (Throwable t) {
+                throw bindingError(type, t);
+            }
+        }
+
+        void write(JSONWriter writer, Object instance) {
+            writer.beginObject();
+            try {
+                for (FieldBinding field : fields) {
+                    MethodHandle getter = field.getter;
+                    switch (field.kind) {
+                        case INT:
+                            writer.name(field.name).value((int) getter.invokeExact(instance));
+                            break;
+                        case LONG:
+                            writer.name(field.name).value((long) getter.invokeExact(instance));
+                            break;
+                        case FLOAT:
+                            writer.name(field.name).value((float) getter.invokeExact(instance));
+                            break;
+                        case DOUBLE:
+                            writer.name(field.name).value((double) getter.invokeExact(instance));
+                            break;
+                        case BOOLEAN:
+                            writer.name(field.name).value((boolean) getter.invokeExact(instance));
+                            break;
+                        case SHORT:
+                            writer.name(field.name).value((short) getter.invokeExact(instance));
+                            break;
+                        case BYTE:
+                            writer.name(field.name).value((byte) getter.invokeExact(instance));
+                            break;
+                        case CHAR:
+                            writer.name(field.name).value(String.valueOf((char) getter.invokeExact(instance)));
+                            break;
+                        default:
+                            Object value = (Object) getter.invokeExact(instance);
+                            if (value == null) continue;
+                            writer.name(field.name);
+                            writeValue(writer, value, field.type);
+                    }
+                }
+            } catch (Throwable t) {
+                throw bindingError(type, t);
+            }
+            writer.endObject();
+        }
+
+        Object read(JSONReader reader) {
+            expect(reader, JSONReader.Event.BEGIN_OBJECT, type);
+            Object instance = newInstance();
+            //properties are usually in the order of the fields, so the search starts after the last one
+            int hint = 0;
+            try {
+                while (reader.next() == JSONReader.Event.NAME) {
+                    int index = find(reader, hint);
+                    if (index < 0) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    hint = index + 1;
+                    FieldBinding field = fields[index];
+                    MethodHandle setter = field.setter;
+                    reader.next();
+                    if (reader.event() == JSONReader.Event.NULL && field.kind != OBJECT) continue;
+                    switch (field.kind) {
+                        case INT:
+                            setter.invokeExact(instance, expectNumber(reader, int.class).getInt());
+                            break;
+                        case LONG:
+                            setter.invokeExact(instance, expectNumber(reader, long.class).getLong());
+                            break;
+                        case FLOAT:
+                            setter.invokeExact(instance, expectNumber(reader, float.class).getFloat());
+                            break;
+                        case DOUBLE:
+                            setter.invokeExact(instance, expectNumber(reader, double.class).getDouble());
+                            break;
+                        case BOOLEAN:
+                            expect(reader, JSONReader.Event.BOOLEAN, boolean.class);
+                            setter.invokeExact(instance, reader.getBoolean());
+                            break;
+                        case SHORT:
+                            setter.invokeExact(instance, (short) expectNumber(reader, short.class).getInt());
+                            break;
+                        case BYTE:
+                            setter.invokeExact(instance, (byte) expectNumber(reader, byte.class).getInt());
+                            break;
+                        case CHAR:
+                            setter.invokeExact(instance, readChar(reader));
+                            break;
+                        default:
+                            setter.invokeExact(instance, readValue(reader, field.type));
+                    }
+                }
+            } catch (Throwable t) {
+                throw bindingError(type, t);
+            }
+            return instance;
+        }
+
+        private int find(JSONReader reader, int hint) {
+            int length = fields.length;
+            for (int i = 0; i < length; i++) {
+                int index = (hint + i) % length;
+                if (reader.nameEquals(fields[index].name)) return index;
+            }
+            return -1;
+        }
+
+    }
+
+}
@@ -2,7 +2,6 @@ package io.json;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
 import java.util.List;
 
 public class JSONObject {
@@ -12,22 +11,21 @@ public class JSONObject {
         return stringBuilder.toString();
     }
 
-    private StringBuilder tabs(int num) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < num; i++) {
-            sb.append("\t");
-        }
+    //the indentations of the usual depths, so they are not built again for every line
+    private static final String[] TABS = new String[16];
 
-        return sb;
+    static {
+        for (int i = 0; i < TABS.length; i++)
+            TABS[i] = "\t".repeat(i);
     }
 
-    private String lineEnding(boolean newLine, boolean comma) {
-        String s = "";
-
-        if (comma) s += ",";
-        if (newLine) s += "\n";
+    private String tabs(int num) {
+        return num < TABS.length ? TABS[num] : "\t".repeat(num);
+    }
 
-        return s;
+    private String lineEnding(boolean newLine, boolean comma) {
+        if (comma) return newLine ? ",\n" : ",";
+        return newLine ? "\n" : "";
     }
 
     public void startJSON() {
@@ -40,140 +38,72 @@ public class JSONObject {
 
     public void addObject(String propertyName, Object obj, int numTabs, boolean newLine, boolean comma) {
         stringBuilder.append(tabs(numTabs)).append("\"").append(propertyName).append("\"").append(":").append(" {").append(lineEnding(true, false));
-        List<Field> fields = Arrays.asList(obj.getClass().getDeclaredFields());
-        Field field;
-
-        try {
-            boolean isNotLastField = true;
-            for (int i = 0; i < fields.size(); i++) {
-                field = fields.get(i);
-
-                boolean isFieldAccessible = field.isAccessible();
-                if (!isFieldAccessible) {
-                    field.setAccessible(true);
-                }
-
-                if (!field.getName().equals("$assertionsDisabled") && (Modifier.isTransient(field.getModifiers()) || Modifier.isFinal(field.getModifiers()) || field.get(obj) == null)) {
-                    continue;
-                }
-
-                if (i == fields.size() - 1) {
-                    isNotLastField = false;
-                }
-
-                if (field.getType() == int.class) {
-                    addVar(field.getName(), field.getInt(obj), numTabs + 1, true, isNotLastField);
-                } else if (field.getType() == float.class) {
-                    addVar(field.getName(), field.getFloat(obj), numTabs + 1, true, isNotLastField);
-                } else if (field.getType() == double.class) {
-                    addVar(field.getName(), field.getDouble(obj), numTabs + 1, true, isNotLastField);
-                } else if (field.getType() == char.class) {
-                    addVar(field.getName(), field.getChar(obj), numTabs + 1, true, isNotLastField);
-                } else if (field.getType() == String.class) {
-                    addVar(field.getName(), (String) field.get(obj), numTabs + 1, true, isNotLastField);
-                } else if (field.getType() == boolean.class) {
-                    addVar(field.getName(), field.getBoolean(obj), numTabs + 1, true, isNotLastField);
-                } else if (field.getType().isArray()) {
-                    if (field.getType().getComponentType() == int.class) {
-                        addArray(field.getName(), (int[]) field.get(obj), numTabs + 1, true, isNotLastField);
-                    } else if (field.getType().getComponentType() == float.class) {
-                        addArray(field.getName(), (float[]) field.get(obj), numTabs + 1, true, isNotLastField);
-                    } else if (field.getType().getComponentType() == double.class) {
-                        addArray(field.getName(), (double[]) field.get(obj), numTabs + 1, true, isNotLastField);
-                    } else if (field.getType().getComponentType() == char.class) {
-                        addArray(field.getName(), (char[]) field.get(obj), numTabs + 1, true, isNotLastField);
-                    } else if (field.getType().getComponentType() == String.class) {
-                        addArray(field.getName(), (String[]) field.get(obj), numTabs + 1, true, isNotLastField);
-                    } else if (field.getType().getComponentType() == boolean.class) {
-                        addArray(field.getName(), (boolean[]) field.get(obj), numTabs + 1, true, isNotLastField);
-                    } else if (!field.getType().isPrimitive()) {
-                        addArray(field.getName(), (Object[]) field.get(obj), numTabs + 1, true, isNotLastField);
-                    }
-                } else if (field.getType().isAssignableFrom(List.class)) {
-                    addList(field.getName(), (List<?>) field.get(obj), numTabs + 1, true, isNotLastField);
-                } else if (!field.getType().isPrimitive()) {
-                    addObject(field.getName(), field.get(obj), numTabs + 1, true, isNotLastField);
-                }
-
-                if (!isFieldAccessible) {
-                    field.setAccessible(false);
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
+        addFields(obj, numTabs + 1);
         stringBuilder.append(tabs(numTabs)).append("}").append(lineEnding(newLine, comma));
     }
 
     private void addObject(Object obj, int numTabs, boolean newLine, boolean comma) {
         stringBuilder.append(tabs(numTabs)).append("{").append(lineEnding(true, false));
-        List<Field> fields = Arrays.asList(obj.getClass().getDeclaredFields());
-        Field field;
-
         addVar("type", obj.getClass().getTypeName(), numTabs + 1, true, true);
+        addFields(obj, numTabs + 1);
+        stringBuilder.append(tabs(numTabs)).append("}").append(lineEnding(newLine, comma));
+    }
+
+    //the fields of each class are looked up and made accessible only once, see JSONBinder#declaredFields
+    void addFields(Object obj, int numTabs) {
+        Field[] fields = JSONBinder.declaredFields(obj.getClass());
+        Field field;
 
         try {
             boolean isNotLastField = true;
-            for (int i = 0; i < fields.size(); i++) {
-                field = fields.get(i);
-
-                boolean isFieldAccessible = field.isAccessible();
-                if (!isFieldAccessible) {
-                    field.setAccessible(true);
-                }
+            for (int i = 0; i < fields.length; i++) {
+                field = fields[i];
 
                 if (!field.getName().equals("$assertionsDisabled") && (Modifier.isTransient(field.getModifiers()) || Modifier.isFinal(field.getModifiers()) || field.get(obj) == null)) {
                     continue;
                 }
 
-                if (i == fields.size() - 1) {
+                if (i == fields.length - 1) {
                     isNotLastField = false;
                 }
 
                 if (field.getType() == int.class) {
-                    addVar(field.getName(), field.getInt(obj), numTabs + 1, true, isNotLastField);
+                    addVar(field.getName(), field.getInt(obj), numTabs, true, isNotLastField);
                 } else if (field.getType() == float.class) {
-                    addVar(field.getName(), field.getFloat(obj), numTabs + 1, true, isNotLastField);
+                    addVar(field.getName(), field.getFloat(obj), numTabs, true, isNotLastField);
                 } else if (field.getType() == double.class) {
-                    addVar(field.getName(), field.getDouble(obj), numTabs + 1, true, isNotLastField);
+                    addVar(field.getName(), field.getDouble(obj), numTabs, true, isNotLastField);
                 } else if (field.getType() == char.class) {
-                    addVar(field.getName(), field.getChar(obj), numTabs + 1, true, isNotLastField);
+                    addVar(field.getName(), field.getChar(obj), numTabs, true, isNotLastField);
                 } else if (field.getType() == String.class) {
-                    addVar(field.getName(), (String) field.get(obj), numTabs + 1, true, isNotLastField);
+                    addVar(field.getName(), (String) field.get(obj), numTabs, true, isNotLastField);
                 } else if (field.getType() == boolean.class) {
-                    addVar(field.getName(), field.getBoolean(obj), numTabs + 1, true, isNotLastField);
+                    addVar(field.getName(), field.getBoolean(obj), numTabs, true, isNotLastField);
                 } else if (field.getType().isArray()) {
                     if (field.getType().getComponentType() == int.class) {
-                        addArray(field.getName(), (int[]) field.get(obj), numTabs + 1, true, isNotLastField);
+                        addArray(field.getName(), (int[]) field.get(obj), numTabs, true, isNotLastField);
                     } else if (field.getType().getComponentType() == float.class) {
-                        addArray(field.getName(), (float[]) field.get(obj), numTabs + 1, true, isNotLastField);
+                        addArray(field.getName(), (float[]) field.get(obj), numTabs, true, isNotLastField);
                     } else if (field.getType().getComponentType() == double.class) {
-                        addArray(field.getName(), (double[]) field.get(obj), numTabs + 1, true, isNotLastField);
+                        addArray(field.getName(), (double[]) field.get(obj), numTabs, true, isNotLastField);
                     } else if (field.getType().getComponentType() == char.class) {
-                        addArray(field.getName(), (char[]) field.get(obj), numTabs + 1, true, isNotLastField);
+                        addArray(field.getName(), (char[]) field.get(obj), numTabs, true, isNotLastField);
                     } else if (field.getType().getComponentType() == String.class) {
-                        addArray(field.getName(), (String[]) field.get(obj), numTabs + 1, true, isNotLastField);
+                        addArray(field.getName(), (String[]) field.get(obj), numTabs, true, isNotLastField);
                     } else if (field.getType().getComponentType() == boolean.class) {
-                        addArray(field.getName(), (boolean[]) field.get(obj), numTabs + 1, true, isNotLastField);
+                        addArray(field.getName(), (boolean[]) field.get(obj), numTabs, true, isNotLastField);
                     } else if (!field.getType().isPrimitive()) {
-                        addArray(field.getName(), (Object[]) field.get(obj), numTabs + 1, true, isNotLastField);
+                        addArray(field.getName(), (Object[]) field.get(obj), numTabs, true, isNotLastField);
                     }
                 } else if (field.getType().isAssignableFrom(List.class)) {
-                    addList(field.getName(), (List<?>) field.get(obj), numTabs + 1, true, isNotLastField);
+                    addList(field.getName(), (List<?>) field.get(obj), numTabs, true, isNotLastField);
                 } else if (!field.getType().isPrimitive()) {
-                    addObject(field.getName(), field.get(obj), numTabs + 1, true, isNotLastField);
-                }
-
-                if (!isFieldAccessible) {
-                    field.setAccessible(false);
+                    addObject(field.getName(), field.get(obj), numTabs, true, isNotLastField);
                 }
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-
-        stringBuilder.append(tabs(numTabs)).append("}").append(lineEnding(newLine, comma));
     }
 
     public void addVar(String propertyName, int value, int numTabs, boolean newLine, boolean comma) {
@@ -0,0 +1,452 @@
+package io.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A pull parser reading a JSON document from a stream in a single pass.
+ * Each call of {@link #next()} reads until the next {@link Event} and the data of that event can be read from the reader afterwards.
+ * Only a small buffer of the input is kept in memory, so even huge save files can be read without loading them as a whole.
+ * <pre>
+ * JSONReader reader = new JSONReader(input);
+ * while (reader.next() != JSONReader.Event.END_DOCUMENT) {
+ *     if (reader.event() == JSONReader.Event.NAME &amp;&amp; reader.getName().equals("level")) ...
+ * }
+ * </pre>
+ * For compatibility with files written by {@link JSONObject}, numbers may end with a float suffix like {@code 1.5f}.
+ *
+ * @see JSONBinder
+ * @see JSONWriter
+ */
+public class JSONReader implements Closeable {
+
+    public enum Event {
+        /**
+         * An object was opened.
+         */
+        BEGIN_OBJECT,
+        /**
+         * An object was closed.
+         */
+        END_OBJECT,
+        /**
+         * An array was opened.
+         */
+        BEGIN_ARRAY,
+        /**
+         * An array was closed.
+         */
+        END_ARRAY,
+        /**
+         * The name of a property, {@link #getName()} is available, the value follows with the next event.
+         */
+        NAME,
+        /**
+         * A string value, {@link #getString()} is available.
+         */
+        STRING,
+        /**
+         * A number value, {@link #getDouble()}, {@link #getLong()} and similar are available.
+         */
+        NUMBER,
+        /**
+         * A boolean value, {@link #getBoolean()} is available.
+         */
+        BOOLEAN,
+        /**
+         * A null value.
+         */
+        NULL,
+        /**
+         * The whole document was read.
+         */
+        END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    //the states of the document and the open containers
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int OBJECT_VALUE = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    //amount of characters before the buffer, only used for error messages
+    private long consumed;
+
+    private int[] stack = new int[32];
+    private int stackSize = 1;
+
+    //the characters of the current name, string or number
+    private char[] text = new char[64];
+    private int textLength;
+    private boolean integral;
+    private boolean bool;
+
+    private Event event;
+
+    public JSONReader(Reader reader) {
+        if (reader == null) throw new IllegalArgumentException("A JSON reader requires an input");
+        this.reader = reader;
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    public JSONReader(String input) {
+        this(new StringReader(input));
+    }
+
+    /**
+     * Moves to the next event of the document.
+     *
+     * @return the new current event
+     * @throws JSONSyntaxException if the document is malformed
+     */
+    public Event next() {
+        int state = stack[stackSize - 1];
+        switch (state) {
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                return event = readValue(nextNonWhitespace());
+            case NONEMPTY_DOCUMENT: {
+                int c = nextNonWhitespace();
+                if (c != -1) throw syntaxError("Unexpected content after the end of the document");
+                return event = Event.END_DOCUMENT;
+            }
+            case EMPTY_OBJECT: {
+                int c = nextNonWhitespace();
+                if (c == '}') return endContainer(Event.END_OBJECT);
+                return readName(c);
+            }
+            case OBJECT_VALUE:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                return event = readValue(nextNonWhitespace());
+            case NONEMPTY_OBJECT: {
+                int c = nextNonWhitespace();
+                if (c == '}') return endContainer(Event.END_OBJECT);
+                if (c != ',') throw syntaxError("Expected ',' or '}'");
+                return readName(nextNonWhitespace());
+            }
+            case EMPTY_ARRAY: {
+                int c = nextNonWhitespace();
+                if (c == ']') return endContainer(Event.END_ARRAY);
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                return event = readValue(c);
+            }
+            case NONEMPTY_ARRAY: {
+                int c = nextNonWhitespace();
+                if (c == ']') return endContainer(Event.END_ARRAY);
+                if (c != ',') throw syntaxError("Expected ',' or ']'");
+                return event = readValue(nextNonWhitespace());
+            }
+            default:
+                throw new IllegalStateException("Unknown reader state " + state);
+        }
+    }
+
+    /**
+     * Skips the next value including all of its content, e.g. the value of an unknown property.
+     *
+     * @throws JSONSyntaxException if the next event is not the start of a value
+     */
+    public void skipValue() {
+        int depth = stackSize;
+        Event e = next();
+        switch (e) {
+            case BEGIN_OBJECT:
+            case BEGIN_ARRAY:
+                while (stackSize > depth)
+                    next();
+                return;
+            case STRING:
+            case NUMBER:
+            case BOOLEAN:
+            case NULL:
+                return;
+            default:
+                throw syntaxError("Expected a value, but was " + e);
+        }
+    }
+
+    private Event endContainer(Event end) {
+        stackSize--;
+        return event = end;
+    }
+
+    private Event readName(int c) {
+        if (c != '"') throw syntaxError("Expected a property name");
+        readString();
+        if (nextNonWhitespace() != ':') throw syntaxError("Expected ':' after a property name");
+        stack[stackSize - 1] = OBJECT_VALUE;
+        return event = Event.NAME;
+    }
+
+    private Event readValue(int c) {
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return Event.BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return Event.BEGIN_ARRAY;
+            case '"':
+                readString();
+                return Event.STRING;
+            case 't':
+                expectLiteral("rue");
+                bool = true;
+                return Event.BOOLEAN;
+            case 'f':
+                expectLiteral("alse");
+                bool = false;
+                return Event.BOOLEAN;
+            case 'n':
+                expectLiteral("ull");
+                return Event.NULL;
+            case -1:
+                throw syntaxError("Unexpected end of the document");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    return Event.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void push(int state) {
+        if (stackSize == stack.length) stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = state;
+    }
+
+    private void readString() {
+        textLength = 0;
+        while (true) {
+            int c = read();
+            if (c == '"') return;
+            if (c == -1) throw syntaxError("Unterminated string");
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        break;
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        c = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(read(), 16);
+                            if (digit < 0) throw syntaxError("Invalid unicode escape");
+                            c = (c << 4) | digit;
+                        }
+                        break;
+                    default:
+                        throw syntaxError("Invalid escape sequence");
+                }
+            }
+            appendText((char) c);
+        }
+    }
+
+    private void readNumber(char first) {
+        textLength = 0;
+        integral = true;
+        appendText(first);
+        while (true) {
+            int c = peek();
+            if (c >= '0' && c <= '9' || c == '-' || c == '+') {
+                appendText((char) c);
+            } else if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                appendText((char) c);
+            } else if (c == 'f' || c == 'F') {
+                //float suffix of the legacy writer
+                pos++;
+                return;
+            } else return;
+            pos++;
+        }
+    }
+
+    private void expectLiteral(String rest) {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) throw syntaxError("Invalid literal");
+        }
+    }
+
+    private void appendText(char c) {
+        if (textLength == text.length) text = Arrays.copyOf(text, textLength * 2);
+        text[textLength++] = c;
+    }
+
+    private int nextNonWhitespace() {
+        while (true) {
+            int c = read();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return c;
+        }
+    }
+
+    private int read() {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos++];
+    }
+
+    private int peek() {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos];
+    }
+
+    private boolean fill() {
+        try {
+            consumed += limit;
+            pos = 0;
+            limit = 0;
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read <= 0) return false;
+            limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JSONSyntaxException syntaxError(String message) {
+        return new JSONSyntaxException(message + " at position " + (consumed + pos));
+    }
+
+    /**
+     * @return the current event
+     */
+    public Event event() {
+        return event;
+    }
+
+    /**
+     * @return the name of the current property, only valid for {@link Event#NAME}
+     */
+    public String getName() {
+        return new String(text, 0, textLength);
+    }
+
+    /**
+     * Compares the current name or string without creating a string for it
+     *
+     * @param name the name to compare with
+     * @return true, if the current name equals the given name
+     */
+    public boolean nameEquals(String name) {
+        if (name.length() != textLength) return false;
+        for (int i = 0; i < textLength; i++)
+            if (text[i] != name.charAt(i)) return false;
+        return true;
+    }
+
+    /**
+     * @return the current string, only valid for {@link Event#STRING} and {@link Event#NUMBER}
+     */
+    public String getString() {
+        return new String(text, 0, textLength);
+    }
+
+    /**
+     * @return the current number, only valid for {@link Event#NUMBER}
+     */
+    public double getDouble() {
+        if (integral && textLength < 16) return getLong();
+        try {
+            return Double.parseDouble(getString());
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number " + getString());
+        }
+    }
+
+    /**
+     * @return the current number, only valid for {@link Event#NUMBER}
+     */
+    public float getFloat() {
+        return (float) getDouble();
+    }
+
+    /**
+     * @return the current number, only valid for an integral {@link Event#NUMBER}
+     */
+    public long getLong() {
+        if (!integral) {
+            double value = getDouble();
+            if (value != (long) value) throw syntaxError("Expected an integral number, but was " + getString());
+            return (long) value;
+        }
+        boolean negative = text[0] == '-';
+        int i = negative ? 1 : 0;
+        if (i == textLength) throw syntaxError("Invalid number " + getString());
+        long value = 0;
+        for (; i < textLength; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9') throw syntaxError("Invalid number " + getString());
+            if (value < Long.MIN_VALUE / 10) throw syntaxError("Number out of range " + getString());
+            //accumulated negative, since the negative range is larger
+            long next = value * 10 - (c - '0');
+            if (next > value) throw syntaxError("Number out of range " + getString());
+            value = next;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) throw syntaxError("Number out of range " + getString());
+            value = -value;
+        }
+        return value;
+    }
+
+    /**
+     * @return the current number, only valid for an integral {@link Event#NUMBER}
+     */
+    public int getInt() {
+        long value = getLong();
+        if (value != (int) value) throw syntaxError("Number out of range " + getString());
+        return (int) value;
+    }
+
+    /**
+     * @return the current boolean, only valid for {@link Event#BOOLEAN}
+     */
+    public boolean getBoolean() {
+        return bool;
+    }
+
+    /**
+     * @return the amount of currently open objects and arrays
+     */
+    public int depth() {
+        return stackSize - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.json;
+
+/**
+ * @version 18.10.2026
+ * @since 18.10.2026
+ */
+public class JSONSyntaxException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JSONSyntaxException() {
+    }
+
+    public JSONSyntaxException(String message) {
+        super(message);
+    }
+
+    public JSONSyntaxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public JSONSyntaxException(Throwable cause) {
+        super(cause);
+    }
+
+    public JSONSyntaxException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+
+}
\ No newline at end of file
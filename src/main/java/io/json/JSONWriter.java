@@ -0,0 +1,280 @@
+package io.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a JSON document directly to a stream, without building the document in memory first.
+ * <pre>
+ * try (JSONWriter writer = new JSONWriter(output)) {
+ *     writer.beginObject().name("level").value(3).name("player").beginArray().value(1.5f).value(2f).endArray().endObject();
+ * }
+ * </pre>
+ * Misplaced names or values are rejected with an {@link IllegalStateException}, so the output is always valid JSON.
+ *
+ * @see JSONReader
+ * @see JSONBinder
+ */
+public class JSONWriter implements Closeable, Flushable {
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int OBJECT_VALUE = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private final boolean pretty;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int length;
+
+    private int[] stack = new int[32];
+    private int stackSize = 1;
+
+    /**
+     * @param writer the output
+     * @param pretty whether to put every value in its own line and indent them with tabs
+     */
+    public JSONWriter(Writer writer, boolean pretty) {
+        if (writer == null) throw new IllegalArgumentException("A JSON writer requires an output");
+        this.writer = writer;
+        this.pretty = pretty;
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    public JSONWriter(Writer writer) {
+        this(writer, false);
+    }
+
+    /**
+     * @param output the output, which is written as UTF-8
+     * @param pretty whether to put every value in its own line and indent them with tabs
+     */
+    public JSONWriter(OutputStream output, boolean pretty) {
+        this(new OutputStreamWriter(output, StandardCharsets.UTF_8), pretty);
+    }
+
+    public JSONWriter(OutputStream output) {
+        this(output, false);
+    }
+
+    public JSONWriter beginObject() {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        write('{');
+        return this;
+    }
+
+    public JSONWriter endObject() {
+        return end(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    public JSONWriter beginArray() {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        write('[');
+        return this;
+    }
+
+    public JSONWriter endArray() {
+        return end(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    /**
+     * Writes the name of the next property of the current object
+     *
+     * @param name the name
+     * @return this writer
+     */
+    public JSONWriter name(String name) {
+        if (name == null) throw new IllegalArgumentException("The name of a property shall not be null");
+        int state = stack[stackSize - 1];
+        if (state == NONEMPTY_OBJECT) write(',');
+        else if (state != EMPTY_OBJECT) throw new IllegalStateException("A name can only be written inside of an object");
+        newLine();
+        writeString(name);
+        write(':');
+        if (pretty) write(' ');
+        stack[stackSize - 1] = OBJECT_VALUE;
+        return this;
+    }
+
+    public JSONWriter value(String value) {
+        if (value == null) return nullValue();
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JSONWriter value(long value) {
+        beforeValue();
+        write(Long.toString(value));
+        return this;
+    }
+
+    public JSONWriter value(double value) {
+        if (!Double.isFinite(value)) throw new IllegalArgumentException("JSON does not support the number " + value);
+        beforeValue();
+        write(Double.toString(value));
+        return this;
+    }
+
+    public JSONWriter value(float value) {
+        if (!Float.isFinite(value)) throw new IllegalArgumentException("JSON does not support the number " + value);
+        beforeValue();
+        write(Float.toString(value));
+        return this;
+    }
+
+    public JSONWriter value(boolean value) {
+        beforeValue();
+        write(value ? "true" : "false");
+        return this;
+    }
+
+    public JSONWriter nullValue() {
+        beforeValue();
+        write("null");
+        return this;
+    }
+
+    private void beforeValue() {
+        int state = stack[stackSize - 1];
+        switch (state) {
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case OBJECT_VALUE:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                break;
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                newLine();
+                break;
+            case NONEMPTY_ARRAY:
+                write(',');
+                newLine();
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw new IllegalStateException("A JSON document has only a single root value");
+            default:
+                throw new IllegalStateException("A value inside of an object requires a name");
+        }
+    }
+
+    private JSONWriter end(int empty, int nonEmpty, char bracket) {
+        int state = stack[stackSize - 1];
+        if (state != empty && state != nonEmpty)
+            throw new IllegalStateException("Nothing to close with " + bracket);
+        stackSize--;
+        if (state == nonEmpty) newLine();
+        write(bracket);
+        return this;
+    }
+
+    private void push(int state) {
+        if (stackSize == stack.length) stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = state;
+    }
+
+    private void newLine() {
+        if (!pretty) return;
+        write('\n');
+        for (int i = 1; i < stackSize; i++)
+            write('\t');
+    }
+
+    private void writeString(String value) {
+        write('"');
+        int size = value.length();
+        for (int i = 0; i < size; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                write(c);
+                continue;
+            }
+            write('\\');
+            switch (c) {
+                case '"':
+                case '\\':
+                    write(c);
+                    break;
+                case '\n':
+                    write('n');
+                    break;
+                case '\r':
+                    write('r');
+                    break;
+                case '\t':
+                    write('t');
+                    break;
+                default:
+                    write(String.format("u%04x", (int) c));
+            }
+        }
+        write('"');
+    }
+
+    private void write(char c) {
+        if (length == buffer.length) flushBuffer();
+        buffer[length++] = c;
+    }
+
+    private void write(String s) {
+        int size = s.length();
+        if (length + size > buffer.length) {
+            flushBuffer();
+            if (size > buffer.length) {
+                writeOut(s);
+                return;
+            }
+        }
+        s.getChars(0, size, buffer, length);
+        length += size;
+    }
+
+    private void flushBuffer() {
+        try {
+            writer.write(buffer, 0, length);
+            length = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeOut(String s) {
+        try {
+            writer.write(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        flushBuffer();
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        writer.close();
+    }
+
+}
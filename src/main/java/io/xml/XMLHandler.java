@@ -0,0 +1,47 @@
+package io.xml;
+
+import java.util.Map;
+
+/**
+ * A callback based way to read an XML document without building the whole tree of {@link XMLElement}s.
+ * All methods do nothing by default, so only the relevant ones need to be implemented.
+ *
+ * @see XML#read(String, XMLHandler)
+ * @see XMLReader
+ */
+public interface XMLHandler {
+
+    /**
+     * Called for every opened element.
+     *
+     * @param tag        the tag of the element
+     * @param attributes the attributes of the element
+     */
+    default void startElement(String tag, Map<String, String> attributes) {
+    }
+
+    /**
+     * Called for every closed element, including self closing ones.
+     *
+     * @param tag the tag of the element
+     */
+    default void endElement(String tag) {
+    }
+
+    /**
+     * Called for the text inside of an element.
+     *
+     * @param value the text, already unescaped
+     */
+    default void value(String value) {
+    }
+
+    /**
+     * Called for every comment.
+     *
+     * @param comment the content of the comment
+     */
+    default void comment(String comment) {
+    }
+
+}
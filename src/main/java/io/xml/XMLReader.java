@@ -0,0 +1,253 @@
+package io.xml;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pull parser reading an XML document in a single pass.
+ * Each call of {@link #next()} moves a cursor through the characters of the document until the next {@link Event}
+ * and the data of that event can be read from the reader afterwards.
+ * Since no tree is built, even huge documents like big tile layers can be processed with a constant amount of memory
+ * besides the values of the elements themselves.
+ * <pre>
+ * XMLReader reader = new XMLReader(input);
+ * while (reader.next() != XMLReader.Event.END_DOCUMENT) {
+ *     if (reader.event() == XMLReader.Event.START_ELEMENT &amp;&amp; reader.getTag().equals("layer")) ...
+ * }
+ * </pre>
+ * Headers, processing instructions and doctype declarations are skipped.
+ * Whitespace between elements is ignored, any other text is reported as {@link Event#VALUE}.
+ *
+ * @see XML#parse(String)
+ * @see XMLHandler
+ */
+public class XMLReader {
+
+    public enum Event {
+        /**
+         * An element was opened, {@link #getTag()} and {@link #getAttributes()} are available.
+         */
+        START_ELEMENT,
+        /**
+         * An element was closed, {@link #getTag()} is available.
+         * Self closing elements are reported as start and end element as well.
+         */
+        END_ELEMENT,
+        /**
+         * Text inside an element, {@link #getValue()} is available.
+         */
+        VALUE,
+        /**
+         * A comment, {@link #getValue()} is available.
+         */
+        COMMENT,
+        /**
+         * The whole document was read.
+         */
+        END_DOCUMENT
+    }
+
+    private final char[] chars;
+    private final int end;
+    private int pos;
+
+    //all currently open elements to validate the closing tags
+    private final List<String> openTags = new ArrayList<>();
+
+    private Event event;
+    private String tag;
+    private Map<String, String> attributes;
+    private String value;
+    private boolean selfClosed;
+
+    public XMLReader(char[] chars) {
+        this.chars = chars;
+        this.end = chars.length;
+        this.pos = 0;
+    }
+
+    public XMLReader(String input) {
+        this(input.toCharArray());
+    }
+
+    /**
+     * Moves the cursor to the next event of the document.
+     *
+     * @return the new current event
+     * @throws XMLSyntaxException if the document is malformed
+     */
+    public Event next() {
+        tag = null;
+        attributes = null;
+        value = null;
+        if (selfClosed) {
+            selfClosed = false;
+            tag = openTags.remove(openTags.size() - 1);
+            return event = Event.END_ELEMENT;
+        }
+        while (pos < end) {
+            if (chars[pos] != '<') {
+                int start = pos;
+                boolean blank = true;
+                while (pos < end && chars[pos] != '<') {
+                    if (blank && !Character.isWhitespace(chars[pos])) blank = false;
+                    pos++;
+                }
+                //whitespace between elements and text outside of the root is ignored
+                if (blank || openTags.isEmpty()) continue;
+                value = XML.transformValue(new String(chars, start, pos - start), true);
+                return event = Event.VALUE;
+            }
+            if (startsWith("<!--")) {
+                int start = pos + 4;
+                pos = indexOf("-->", start);
+                value = new String(chars, start, pos - start);
+                pos += 3;
+                return event = Event.COMMENT;
+            }
+            if (startsWith("<![CDATA[")) {
+                int start = pos + 9;
+                pos = indexOf("]]>", start);
+                value = new String(chars, start, pos - start);
+                pos += 3;
+                return event = Event.VALUE;
+            }
+            if (startsWith("<?")) {
+                pos = indexOf("?>", pos + 2) + 2;
+                continue;
+            }
+            if (startsWith("<!")) {
+                pos = indexOf(">", pos + 2) + 1;
+                continue;
+            }
+            if (startsWith("</")) {
+                pos += 2;
+                tag = readName();
+                skipWhitespace();
+                expect('>');
+                if (openTags.isEmpty() || !openTags.get(openTags.size() - 1).equals(tag))
+                    throw new XMLSyntaxException("Unexpected closing tag </" + tag + "> at " + pos);
+                openTags.remove(openTags.size() - 1);
+                return event = Event.END_ELEMENT;
+            }
+            pos++;
+            readStartTag();
+            return event = Event.START_ELEMENT;
+        }
+        if (!openTags.isEmpty())
+            throw new XMLSyntaxException("End of file reached without closing tag");
+        return event = Event.END_DOCUMENT;
+    }
+
+    //reads everything of an element after the opening '<'
+    private void readStartTag() {
+        tag = readName();
+        attributes = new LinkedHashMap<>();
+        openTags.add(tag);
+        while (true) {
+            skipWhitespace();
+            if (pos >= end) throw new XMLSyntaxException("End of file reached inside of <" + tag + ">");
+            char c = chars[pos];
+            if (c == '>') {
+                pos++;
+                return;
+            }
+            if (c == '/') {
+                pos++;
+                expect('>');
+                selfClosed = true;
+                return;
+            }
+            String name = readName();
+            skipWhitespace();
+            expect('=');
+            skipWhitespace();
+            if (pos >= end || (chars[pos] != '"' && chars[pos] != '\''))
+                throw new XMLSyntaxException("Missing quotation for attribute " + name + " at " + pos);
+            char quote = chars[pos++];
+            int start = pos;
+            while (pos < end && chars[pos] != quote) pos++;
+            if (pos >= end) throw new XMLSyntaxException("End of file reached inside of attribute " + name);
+            attributes.put(name, XML.transformValue(new String(chars, start, pos - start), true));
+            pos++;
+        }
+    }
+
+    private String readName() {
+        int start = pos;
+        while (pos < end) {
+            char c = chars[pos];
+            if (c == '>' || c == '/' || c == '=' || Character.isWhitespace(c)) break;
+            pos++;
+        }
+        if (start == pos) throw new XMLSyntaxException("Missing name at " + pos);
+        return new String(chars, start, pos - start);
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && Character.isWhitespace(chars[pos])) pos++;
+    }
+
+    private void expect(char c) {
+        if (pos >= end || chars[pos] != c)
+            throw new XMLSyntaxException("Expected '" + c + "' at " + pos);
+        pos++;
+    }
+
+    private boolean startsWith(String sequence) {
+        if (pos + sequence.length() > end) return false;
+        for (int i = 0; i < sequence.length(); i++)
+            if (chars[pos + i] != sequence.charAt(i)) return false;
+        return true;
+    }
+
+    //the index of the next occurrence of the sequence starting from a given index
+    private int indexOf(String sequence, int from) {
+        char first = sequence.charAt(0);
+        for (int i = from; i <= end - sequence.length(); i++) {
+            if (chars[i] != first) continue;
+            int j = 1;
+            while (j < sequence.length() && chars[i + j] == sequence.charAt(j)) j++;
+            if (j == sequence.length()) return i;
+        }
+        throw new XMLSyntaxException("End of file reached without finding " + sequence);
+    }
+
+    /**
+     * @return the current event, null if {@link #next()} was not called yet
+     */
+    public Event event() {
+        return event;
+    }
+
+    /**
+     * @return the tag of the current element, if the current event is {@link Event#START_ELEMENT} or {@link Event#END_ELEMENT}
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return a new map of the attributes of the current element, if the current event is {@link Event#START_ELEMENT}
+     */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return the text of the current event, if the current event is {@link Event#VALUE} or {@link Event#COMMENT}
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the amount of currently open elements
+     */
+    public int depth() {
+        return openTags.size();
+    }
+
+}
@@ -1,19 +0,0 @@
-package io.xml;
-
-/**
- * @version 24.07.2022
- * @since 24.07.2022
- */
-public enum XMLTokenType {
-
-    OPEN_TAG,
-    SLASH,
-    CLOSE_TAG,
-    ATTR_EQUALS,
-    QUOTATION,
-    OPEN_COMMENT,
-    COMMENT_TAG,
-    IDENTIFIER,
-    SPACING,
-
-}
\ No newline at end of file
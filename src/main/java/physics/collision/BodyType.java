@@ -0,0 +1,26 @@
+package physics.collision;
+
+/**
+ * Describes how a {@link Collider} moves, which decides how much work the scene spends on it every frame.
+ *
+ * @see Collider#bodyType()
+ */
+public enum BodyType {
+
+    /**
+     * Never moves once it was placed, like walls and floors.
+     * Static colliders are kept apart from all others, so they are neither moved nor checked against each other every frame.
+     */
+    STATIC,
+
+    /**
+     * Moved by code, like platforms or a player controlled by input. It never falls asleep.
+     */
+    KINEMATIC,
+
+    /**
+     * Moved by its {@link ecs.Dynamics}. It falls asleep while resting and wakes up once it moves or is touched.
+     */
+    DYNAMIC
+
+}
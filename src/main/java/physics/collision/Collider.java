@@ -1,5 +1,7 @@
 package physics.collision;
 
+import physics.collision.narrowphase.Contact;
+import physics.collision.narrowphase.ShapePairs;
 import physics.collision.shape.PrimitiveShape;
 
 import java.util.Set;
@@ -28,6 +30,19 @@ public interface Collider {
      */
     CollisionInformation detectCollision(Collider collider);
 
+    /**
+     * Determines whether a collider intersects with another collider IGNORING the collision layers.
+     * The result is written into a contact, which is kept for the pair from frame to frame by a {@link ContactCache}
+     * and warm starts the detection. By default, both shapes are tested by {@link ShapePairs#collide(PrimitiveShape, PrimitiveShape, Contact)}.
+     *
+     * @param collider the other collider
+     * @param contact  receives the normal and depth of the overlap
+     * @return true, if both colliders intersect
+     */
+    default boolean detectCollision(Collider collider, Contact contact) {
+        return ShapePairs.collide(getShape(), collider.getShape(), contact);
+    }
+
     /**
      * Determines whether a collider could potentially intersect with another collider ONLY by their collision layers.
      * This method can be considered part of the broad phase of collision detection.
@@ -97,6 +112,33 @@ public interface Collider {
      */
     boolean passive();
 
+    /**
+     * Defines how this collider moves.
+     * Static colliders are kept apart from all others by the scene and only positioned once,
+     * so a collider is never static unless it asks for it.
+     *
+     * @return the body type of this collider
+     */
+    default BodyType bodyType() {
+        return passive() ? BodyType.KINEMATIC : BodyType.DYNAMIC;
+    }
+
+    /**
+     * A sleeping collider rests in place and is not checked against others until it wakes up.
+     *
+     * @return true, if this collider is asleep
+     * @see #wake()
+     */
+    default boolean isSleeping() {
+        return false;
+    }
+
+    /**
+     * Wakes this collider up, e.g. because another one ran into it.
+     */
+    default void wake() {
+    }
+
     /**
      * Adds a tag to this collider, making it a tagged collider if it isnt already one.
      *
@@ -9,6 +9,11 @@ package physics.collision;
  */
 public class CollisionInformation {
 
+    /**
+     * Shared by all checks without a collision, since there is nothing to pass down
+     */
+    public static final CollisionInformation NO_COLLISION = new CollisionInformation(null, false);
+
     private Object data;
     private boolean collision;
 
@@ -17,6 +22,9 @@ public class CollisionInformation {
         this.collision = collision;
     }
 
+    /**
+     * @return the data of the detection, e.g. the GJK simplex as a {@code Vector2f[]} of {@link util.MathUtils#gjksmCollision}
+     */
     public final Object get() {
         return data;
     }
@@ -0,0 +1,238 @@
+package physics.collision;
+
+import physics.collision.narrowphase.Contact;
+import physics.collision.shape.PrimitiveShape;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The contacts of one collider with the colliders around it, kept from frame to frame.
+ * Most pairs are stable, e.g. a body resting on the floor or standing by a wall.
+ * The result of a pair is reused as long as neither shape moved, see {@link PrimitiveShape#version()},
+ * otherwise the contact of the last frame warm starts the detection,
+ * so a pair still separated along the same axis is rejected with a single support query.
+ * <p>
+ * The pairs are keyed by the identity of the other collider. Cells of a grid sharing a single collider,
+ * like the tiles of a {@link tiles.TileMap}, are keyed by their grid and position instead, see {@link #get(Collider, Object, Object, int, int)}.
+ * A pair is kept as long as it is tested every frame, pairs not tested anymore are removed at the end of the frame.
+ * <pre>
+ * cache.beginFrame();
+ * for (Collider other : candidates) {
+ *     ContactCache.Pair pair = cache.get(other);
+ *     boolean began = !pair.isColliding();
+ *     if (pair.detect(collider)) ...
+ * }
+ * cache.endFrame(ended);
+ * </pre>
+ */
+public class ContactCache {
+
+    private final IdentityHashMap<Collider, Pair> pairs = new IdentityHashMap<>();
+    private final Map<CellKey, Pair> cellPairs = new HashMap<>();
+    private final List<Pair> list = new ArrayList<>();
+    private int frame;
+
+    //reused to look up the pairs with cells, a key is only created for a new pair
+    private final CellKey probe = new CellKey(null, null, 0, 0);
+
+    /**
+     * Starts a new frame, every pair has to be fetched with {@link #get(Collider)} again to be kept.
+     */
+    public void beginFrame() {
+        frame++;
+    }
+
+    /**
+     * Gets the pair with another collider and marks it as tested in this frame.
+     * A new pair is not colliding and has no axis to start with.
+     *
+     * @param other the other collider
+     * @return the pair
+     */
+    public Pair get(Collider other) {
+        Pair pair = pairs.get(other);
+        if (pair == null) {
+            pair = new Pair(other, null);
+            pairs.put(other, pair);
+            list.add(pair);
+        }
+        pair.frame = frame;
+        return pair;
+    }
+
+    /**
+     * Gets the pair with a cell of a grid, whose cells share a single collider moved from cell to cell.
+     * Each cell has its own pair, so the result and the warm start of one cell do not leak into another one.
+     *
+     * @param other the collider shared by all cells, currently moved to the cell
+     * @param grid  the grid, e.g. a tile map
+     * @param layer the layer of the grid holding the cell
+     * @param x     the x coordinate of the cell
+     * @param y     the y coordinate of the cell
+     * @return the pair
+     */
+    public Pair get(Collider other, Object grid, Object layer, int x, int y) {
+        probe.set(grid, layer, x, y);
+        Pair pair = cellPairs.get(probe);
+        if (pair == null) {
+            CellKey key = new CellKey(grid, layer, x, y);
+            pair = new Pair(other, key);
+            cellPairs.put(key, pair);
+            list.add(pair);
+        }
+        pair.frame = frame;
+        return pair;
+    }
+
+    /**
+     * Removes all pairs not tested in this frame.
+     *
+     * @param ended receives the removed pairs which were still colliding, so their contact ended
+     */
+    public void endFrame(Consumer<Pair> ended) {
+        for (int i = list.size() - 1; i >= 0; i--) {
+            Pair pair = list.get(i);
+            if (pair.frame == frame) continue;
+            //swap with the last one, the order does not matter
+            Pair last = list.remove(list.size() - 1);
+            if (last != pair) list.set(i, last);
+            if (pair.cell != null) cellPairs.remove(pair.cell);
+            else pairs.remove(pair.other);
+            if (pair.colliding) {
+                pair.colliding = false;
+                ended.accept(pair);
+            }
+        }
+    }
+
+    /**
+     * Removes all pairs without any callbacks
+     */
+    public void clear() {
+        pairs.clear();
+        cellPairs.clear();
+        list.clear();
+    }
+
+    /**
+     * @return the amount of pairs kept
+     */
+    public int size() {
+        return list.size();
+    }
+
+    /**
+     * The state of a collider with another one
+     */
+    public static class Pair {
+
+        private final Collider other;
+        //the cell of a grid this pair belongs to, null for a pair with a collider
+        private final CellKey cell;
+        private final Contact contact = new Contact();
+        private boolean colliding;
+        private int frame;
+
+        // the shapes and their versions at the last detection
+        private PrimitiveShape shape, otherShape;
+        private int version, otherVersion;
+
+        private Pair(Collider other, CellKey cell) {
+            this.other = other;
+            this.cell = cell;
+        }
+
+        /**
+         * Detects whether the colliders intersect, unless neither of their shapes changed since the last detection.
+         *
+         * @param collider the collider the cache belongs to
+         * @return true, if both colliders intersect
+         */
+        public boolean detect(Collider collider) {
+            PrimitiveShape shape = collider.getShape(), otherShape = other.getShape();
+            if (shape == this.shape && otherShape == this.otherShape
+                    && shape.version() == version && otherShape.version() == otherVersion)
+                return colliding;
+            colliding = collider.detectCollision(other, contact);
+            this.shape = shape;
+            this.otherShape = otherShape;
+            version = shape.version();
+            otherVersion = otherShape.version();
+            return colliding;
+        }
+
+        /**
+         * Takes over the result of the same pair kept by the cache of the other collider,
+         * instead of detecting it a second time.
+         *
+         * @param pair the pair of the other collider with the collider this cache belongs to
+         */
+        public void mirror(Pair pair) {
+            colliding = pair.colliding;
+            contact.mirror(pair.contact);
+            shape = pair.otherShape;
+            otherShape = pair.shape;
+            version = pair.otherVersion;
+            otherVersion = pair.version;
+        }
+
+        public Collider getOther() {
+            return other;
+        }
+
+        /**
+         * @return the contact of the last detection, which is also used to warm start the next one
+         */
+        public Contact getContact() {
+            return contact;
+        }
+
+        /**
+         * @return whether the colliders intersected at the last detection
+         */
+        public boolean isColliding() {
+            return colliding;
+        }
+
+    }
+
+    //the position of a cell in a layer of a grid, compared by the identity of the grid and the layer
+    private static final class CellKey {
+
+        private Object grid, layer;
+        private int x, y;
+
+        private CellKey(Object grid, Object layer, int x, int y) {
+            set(grid, layer, x, y);
+        }
+
+        private void set(Object grid, Object layer, int x, int y) {
+            this.grid = grid;
+            this.layer = layer;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CellKey)) return false;
+            CellKey key = (CellKey) o;
+            return grid == key.grid && layer == key.layer && x == key.x && y == key.y;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(grid);
+            hash = 31 * hash + System.identityHashCode(layer);
+            hash = 31 * hash + x;
+            return 31 * hash + y;
+        }
+
+    }
+
+}
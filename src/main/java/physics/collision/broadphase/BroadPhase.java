@@ -0,0 +1,78 @@
+package physics.collision.broadphase;
+
+import physics.collision.Collider;
+
+import java.util.Collection;
+
+/**
+ * The broad phase of collision detection.
+ * It keeps track of the bounds of all colliders of a scene and is used to quickly find the colliders,
+ * that could potentially collide with a given one, so that the expensive narrow phase
+ * (e.g. {@link util.MathUtils#gjksmCollision(physics.collision.shape.PrimitiveShape, physics.collision.shape.PrimitiveShape)})
+ * only has to run for a small set of candidates instead of every collider in the scene.
+ * <p>
+ * The bounds used by all implementations are derived from the bounding sphere of the collider shape,
+ * since that is the same test the narrow phase does first anyway.
+ * A collider, whose shape was never positioned, is tracked, but will not be found until {@link #update(Collider)} was called.
+ * <p>
+ * Implementations are not thread safe.
+ *
+ * @see UniformGrid
+ * @see SweepAndPrune
+ */
+public interface BroadPhase {
+
+    /**
+     * Start tracking a collider.
+     *
+     * @param collider the new collider
+     */
+    void add(Collider collider);
+
+    /**
+     * Stop tracking a collider.
+     *
+     * @param collider the collider to remove
+     * @return true, if the collider was tracked before
+     */
+    boolean remove(Collider collider);
+
+    /**
+     * Refresh the bounds of a tracked collider.
+     * Has to be called every time the shape of a collider has moved or changed.
+     *
+     * @param collider the collider that has moved
+     */
+    void update(Collider collider);
+
+    /**
+     * Find all tracked colliders, whose bounds overlap the current bounds of the given collider.
+     * The collider itself is never part of the result, even if it is tracked.
+     *
+     * @param collider the collider to find candidates for
+     * @param result   the collection to add all candidates to, it will not be cleared beforehand
+     */
+    void query(Collider collider, Collection<Collider> result);
+
+    /**
+     * Find all tracked colliders, whose bounds overlap the given axis aligned rectangle.
+     *
+     * @param minX   the min x coord of the rectangle
+     * @param minY   the min y coord of the rectangle
+     * @param maxX   the max x coord of the rectangle
+     * @param maxY   the max y coord of the rectangle
+     * @param result the collection to add all candidates to, it will not be cleared beforehand
+     */
+    void query(float minX, float minY, float maxX, float maxY, Collection<Collider> result);
+
+    /**
+     * @return the amount of tracked colliders
+     */
+    int size();
+
+    /**
+     * Stop tracking all colliders.
+     */
+    void clear();
+
+}
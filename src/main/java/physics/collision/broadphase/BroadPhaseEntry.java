@@ -0,0 +1,51 @@
+package physics.collision.broadphase;
+
+import org.joml.Vector2f;
+import physics.collision.Collider;
+import physics.collision.shape.Circle;
+
+/**
+ * A tracked collider inside a {@link BroadPhase} together with its last known bounds.
+ */
+class BroadPhaseEntry {
+
+    final Collider collider;
+
+    float minX, minY, maxX, maxY;
+
+    /**
+     * Whether the bounds are known, which requires the shape of the collider to be positioned at least once.
+     */
+    boolean placed;
+
+    /**
+     * Used to avoid reporting an entry twice within a single query.
+     */
+    int stamp;
+
+    BroadPhaseEntry(Collider collider) {
+        this.collider = collider;
+    }
+
+    /**
+     * Recalculates the bounds by the current bounding sphere of the colliders shape.
+     *
+     * @return true, if the bounds could be calculated
+     */
+    boolean refresh() {
+        Circle sphere = collider.getShape().boundingSphere();
+        Vector2f center = sphere.centroid();
+        if (center == null) return placed = false;
+        float radius = sphere.radius();
+        minX = center.x - radius;
+        minY = center.y - radius;
+        maxX = center.x + radius;
+        maxY = center.y + radius;
+        return placed = true;
+    }
+
+    boolean overlaps(float minX, float minY, float maxX, float maxY) {
+        return this.minX <= maxX && this.maxX >= minX && this.minY <= maxY && this.maxY >= minY;
+    }
+
+}
@@ -0,0 +1,169 @@
+package physics.collision.broadphase;
+
+import org.joml.Vector2f;
+import physics.collision.Collider;
+import physics.collision.shape.Circle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link BroadPhase} keeping all colliders sorted along the x-axis by the min x coord of their bounds.
+ * A query only visits the colliders within the x-range of the queried area (widened by the widest collider),
+ * so it does not need any tuning like {@link UniformGrid}, but performs worse if colliders vary a lot in size.
+ * Since colliders usually move only a little between two frames, an updated collider is shifted to its new place
+ * on the axis right away, which only passes the few colliders it overtook. Updates and queries can therefore be
+ * interleaved, like every object of a scene moving and then looking up its candidates, without any re-sorting.
+ */
+public class SweepAndPrune implements BroadPhase {
+
+    private final Map<Collider, AxisEntry> entries;
+    private final List<AxisEntry> axis;
+    private float maxWidth;
+    //set once the widest entry shrank or was removed, the width is recalculated by the next query
+    private boolean widthDirty;
+
+    public SweepAndPrune() {
+        this.entries = new IdentityHashMap<>();
+        this.axis = new ArrayList<>();
+    }
+
+    @Override
+    public void add(Collider collider) {
+        if (collider == null || entries.containsKey(collider)) return;
+        AxisEntry entry = new AxisEntry(collider);
+        entries.put(collider, entry);
+        update(entry);
+    }
+
+    @Override
+    public boolean remove(Collider collider) {
+        AxisEntry entry = entries.remove(collider);
+        if (entry == null) return false;
+        if (entry.placed) unlink(entry);
+        return true;
+    }
+
+    @Override
+    public void update(Collider collider) {
+        AxisEntry entry = entries.get(collider);
+        if (entry != null) update(entry);
+    }
+
+    private void update(AxisEntry entry) {
+        boolean wasPlaced = entry.placed;
+        float oldWidth = entry.maxX - entry.minX;
+        if (!entry.refresh()) {
+            if (wasPlaced) unlink(entry);
+            return;
+        }
+        float width = entry.maxX - entry.minX;
+        if (!wasPlaced) {
+            entry.index = axis.size();
+            axis.add(entry);
+        } else if (width < oldWidth && oldWidth >= maxWidth) widthDirty = true;
+        maxWidth = Math.max(maxWidth, width);
+        shift(entry);
+    }
+
+    //move the entry to its place on the axis, passing only the entries it overtook since its last update
+    private void shift(AxisEntry entry) {
+        int i = entry.index;
+        while (i > 0 && axis.get(i - 1).minX > entry.minX) {
+            AxisEntry previous = axis.get(i - 1);
+            previous.index = i;
+            axis.set(i--, previous);
+        }
+        while (i < axis.size() - 1 && axis.get(i + 1).minX < entry.minX) {
+            AxisEntry next = axis.get(i + 1);
+            next.index = i;
+            axis.set(i++, next);
+        }
+        entry.index = i;
+        axis.set(i, entry);
+    }
+
+    //remove the entry from the axis, which is rare enough to just renumber all entries behind it
+    private void unlink(AxisEntry entry) {
+        axis.remove(entry.index);
+        for (int i = entry.index; i < axis.size(); i++)
+            axis.get(i).index = i;
+        if (entry.maxX - entry.minX >= maxWidth) widthDirty = true;
+    }
+
+    private void refreshWidth() {
+        if (!widthDirty) return;
+        float width = 0;
+        for (int i = 0; i < axis.size(); i++) {
+            AxisEntry entry = axis.get(i);
+            width = Math.max(width, entry.maxX - entry.minX);
+        }
+        maxWidth = width;
+        widthDirty = false;
+    }
+
+    @Override
+    public void query(Collider collider, Collection<Collider> result) {
+        Circle sphere = collider.getShape().boundingSphere();
+        Vector2f center = sphere.centroid();
+        if (center == null) return;
+        float radius = sphere.radius();
+        collect(collider, center.x - radius, center.y - radius, center.x + radius, center.y + radius, result);
+    }
+
+    @Override
+    public void query(float minX, float minY, float maxX, float maxY, Collection<Collider> result) {
+        collect(null, minX, minY, maxX, maxY, result);
+    }
+
+    private void collect(Collider self, float minX, float minY, float maxX, float maxY, Collection<Collider> result) {
+        refreshWidth();
+        //no entry starting left of this can reach into the queried area
+        for (int i = firstIndex(minX - maxWidth); i < axis.size(); i++) {
+            AxisEntry entry = axis.get(i);
+            if (entry.minX > maxX) break;
+            if (entry.collider != self && entry.overlaps(minX, minY, maxX, maxY))
+                result.add(entry.collider);
+        }
+    }
+
+    //binary search for the first entry with a min x greater or equal to the given one
+    private int firstIndex(float minX) {
+        int low = 0;
+        int high = axis.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (axis.get(mid).minX < minX) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        axis.clear();
+        widthDirty = false;
+        maxWidth = 0;
+    }
+
+    //an entry remembering its index on the axis
+    private static final class AxisEntry extends BroadPhaseEntry {
+
+        int index;
+
+        AxisEntry(Collider collider) {
+            super(collider);
+        }
+
+    }
+
+}
@@ -0,0 +1,236 @@
+package physics.collision.broadphase;
+
+import org.joml.Vector2f;
+import physics.collision.Collider;
+import physics.collision.shape.Circle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link BroadPhase} dividing the world into an unbounded grid of equally sized square cells.
+ * Every collider is stored in all cells its bounds overlap, so a query only has to look at the colliders
+ * sharing at least one cell with the queried area.
+ * Works best if the cell size is about the size of the common collider, e.g. the tile size of a map.
+ * Colliders are only moved between cells, if the range of cells they overlap actually changes.
+ * <p>
+ * The cells are kept in an open addressing hash table keyed by their coordinates, so looking up a cell does not allocate.
+ * A cell is kept once it was used, even if all colliders left it again, so colliders moving back and forth
+ * between cells do not create new ones. {@link #clear()} releases all of them.
+ */
+public class UniformGrid implements BroadPhase {
+
+    public static final float DEFAULT_CELL_SIZE = 128;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final float cellSize;
+    private final Map<Collider, GridEntry> entries;
+    private int queryStamp;
+
+    //open addressing hash table of all cells used so far, with linear probing, at most half full
+    private GridCell[] cells;
+    private int cellCount;
+
+    /**
+     * Creates a grid with the {@link #DEFAULT_CELL_SIZE}.
+     */
+    public UniformGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a grid.
+     *
+     * @param cellSize the width and height of a single cell, has to be positive
+     */
+    public UniformGrid(float cellSize) {
+        if (!(cellSize > 0)) throw new IllegalArgumentException("the cell size of a grid has to be positive");
+        this.cellSize = cellSize;
+        this.entries = new IdentityHashMap<>();
+        this.cells = new GridCell[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @return the width and height of a single cell
+     */
+    public float cellSize() {
+        return cellSize;
+    }
+
+    @Override
+    public void add(Collider collider) {
+        if (collider == null || entries.containsKey(collider)) return;
+        GridEntry entry = new GridEntry(collider);
+        entries.put(collider, entry);
+        update(entry);
+    }
+
+    @Override
+    public boolean remove(Collider collider) {
+        GridEntry entry = entries.remove(collider);
+        if (entry == null) return false;
+        if (entry.placed) unlink(entry);
+        return true;
+    }
+
+    @Override
+    public void update(Collider collider) {
+        GridEntry entry = entries.get(collider);
+        if (entry != null) update(entry);
+    }
+
+    private void update(GridEntry entry) {
+        boolean wasPlaced = entry.placed;
+        if (!entry.refresh()) {
+            if (wasPlaced) unlink(entry);
+            return;
+        }
+        int minX = cell(entry.minX), minY = cell(entry.minY);
+        int maxX = cell(entry.maxX), maxY = cell(entry.maxY);
+        //most updates do not leave the current cells at all
+        if (wasPlaced && minX == entry.cellMinX && minY == entry.cellMinY && maxX == entry.cellMaxX && maxY == entry.cellMaxY)
+            return;
+        if (wasPlaced) unlink(entry);
+        entry.cellMinX = minX;
+        entry.cellMinY = minY;
+        entry.cellMaxX = maxX;
+        entry.cellMaxY = maxY;
+        for (int x = minX; x <= maxX; x++)
+            for (int y = minY; y <= maxY; y++)
+                findOrCreate(key(x, y)).entries.add(entry);
+    }
+
+    //remove the entry from all cells it was placed in before
+    private void unlink(GridEntry entry) {
+        for (int x = entry.cellMinX; x <= entry.cellMaxX; x++)
+            for (int y = entry.cellMinY; y <= entry.cellMaxY; y++) {
+                GridCell cell = find(key(x, y));
+                //empty cells are kept for the colliders entering them next
+                if (cell != null) cell.entries.remove(entry);
+            }
+    }
+
+    @Override
+    public void query(Collider collider, Collection<Collider> result) {
+        Circle sphere = collider.getShape().boundingSphere();
+        Vector2f center = sphere.centroid();
+        if (center == null) return;
+        float radius = sphere.radius();
+        collect(collider, center.x - radius, center.y - radius, center.x + radius, center.y + radius, result);
+    }
+
+    @Override
+    public void query(float minX, float minY, float maxX, float maxY, Collection<Collider> result) {
+        collect(null, minX, minY, maxX, maxY, result);
+    }
+
+    private void collect(Collider self, float minX, float minY, float maxX, float maxY, Collection<Collider> result) {
+        int stamp = ++queryStamp;
+        int cellMaxX = cell(maxX), cellMaxY = cell(maxY);
+        for (int x = cell(minX); x <= cellMaxX; x++)
+            for (int y = cell(minY); y <= cellMaxY; y++) {
+                GridCell cell = find(key(x, y));
+                if (cell == null) continue;
+                List<GridEntry> list = cell.entries;
+                for (int i = 0; i < list.size(); i++) {
+                    GridEntry entry = list.get(i);
+                    //entries spanning multiple cells are only reported once
+                    if (entry.stamp == stamp) continue;
+                    entry.stamp = stamp;
+                    if (entry.collider != self && entry.overlaps(minX, minY, maxX, maxY))
+                        result.add(entry.collider);
+                }
+            }
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        cells = new GridCell[INITIAL_CAPACITY];
+        cellCount = 0;
+    }
+
+    //the cell of a key, null if it was never used
+    private GridCell find(long key) {
+        int mask = cells.length - 1;
+        for (int i = mix(key) & mask; cells[i] != null; i = (i + 1) & mask)
+            if (cells[i].key == key) return cells[i];
+        return null;
+    }
+
+    private GridCell findOrCreate(long key) {
+        int mask = cells.length - 1;
+        int i = mix(key) & mask;
+        while (cells[i] != null) {
+            if (cells[i].key == key) return cells[i];
+            i = (i + 1) & mask;
+        }
+        GridCell cell = new GridCell(key);
+        if (++cellCount * 2 > cells.length) {
+            grow();
+            insert(cell);
+        } else cells[i] = cell;
+        return cell;
+    }
+
+    //double the capacity of the table, which rehashes all cells
+    private void grow() {
+        GridCell[] old = cells;
+        cells = new GridCell[old.length * 2];
+        for (GridCell cell : old)
+            if (cell != null) insert(cell);
+    }
+
+    private void insert(GridCell cell) {
+        int mask = cells.length - 1;
+        int i = mix(cell.key) & mask;
+        while (cells[i] != null) i = (i + 1) & mask;
+        cells[i] = cell;
+    }
+
+    private static int mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    private int cell(float coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    //a cell of the grid with all entries overlapping it
+    private static final class GridCell {
+
+        final long key;
+        final List<GridEntry> entries = new ArrayList<>(4);
+
+        GridCell(long key) {
+            this.key = key;
+        }
+
+    }
+
+    //an entry remembering the range of cells it is placed in
+    private static final class GridEntry extends BroadPhaseEntry {
+
+        int cellMinX, cellMinY, cellMaxX, cellMaxY;
+
+        GridEntry(Collider collider) {
+            super(collider);
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package physics.collision.narrowphase;
+
+import org.joml.Vector2f;
+
+/**
+ * The result of the narrow phase for a pair of shapes, owned and reused by the caller.
+ * The normal points from the first shape towards the second one,
+ * so moving the first shape by {@link #getPenetration(Vector2f)} separates both shapes.
+ * <p>
+ * A contact kept for the same pair of shapes from frame to frame, e.g. by a {@link physics.collision.ContactCache},
+ * also warm starts GJK with the axis of the last test.
+ *
+ * @see NarrowPhase#collide(physics.collision.shape.PrimitiveShape, physics.collision.shape.PrimitiveShape, Contact)
+ */
+public class Contact {
+
+    private boolean colliding;
+    private float normalX, normalY;
+    private float depth;
+
+    // the normal of the last collision or the separating axis of the last miss, from the first shape towards the second one
+    float axisX, axisY;
+
+    /**
+     * Marks the contact as not colliding, the axis of the last test is kept
+     */
+    public void reset() {
+        colliding = false;
+        normalX = normalY = depth = 0;
+    }
+
+    /**
+     * Forgets the axis of the last test, e.g. when the contact is used for another pair of shapes
+     */
+    public void clearWarmStart() {
+        axisX = axisY = 0;
+    }
+
+    boolean hasAxis() {
+        return axisX != 0 || axisY != 0;
+    }
+
+    void set(float normalX, float normalY, float depth) {
+        this.colliding = true;
+        this.normalX = this.axisX = normalX;
+        this.normalY = this.axisY = normalY;
+        this.depth = depth;
+    }
+
+    //no collision, but the axis the shapes were found separated on
+    void separate(float axisX, float axisY) {
+        this.axisX = axisX;
+        this.axisY = axisY;
+    }
+
+    /**
+     * Copies the contact of the same pair of shapes, which was tested the other way around.
+     *
+     * @param contact the contact with the roles of both shapes swapped
+     */
+    public void mirror(Contact contact) {
+        colliding = contact.colliding;
+        normalX = -contact.normalX;
+        normalY = -contact.normalY;
+        depth = contact.depth;
+        axisX = -contact.axisX;
+        axisY = -contact.axisY;
+    }
+
+    //swaps the roles of both shapes, the axis is flipped as well, so it still warm starts the test in the new order
+    void flip() {
+        normalX = -normalX;
+        normalY = -normalY;
+        axisX = -axisX;
+        axisY = -axisY;
+    }
+
+    public boolean isColliding() {
+        return colliding;
+    }
+
+    /**
+     * @return the x coord of the unit normal, pointing from the first shape towards the second one
+     */
+    public float getNormalX() {
+        return normalX;
+    }
+
+    /**
+     * @return the y coord of the unit normal, pointing from the first shape towards the second one
+     */
+    public float getNormalY() {
+        return normalY;
+    }
+
+    /**
+     * @return how far the shapes overlap along the normal
+     */
+    public float getDepth() {
+        return depth;
+    }
+
+    /**
+     * @param dest will hold the unit normal
+     * @return dest
+     */
+    public Vector2f getNormal(Vector2f dest) {
+        return dest.set(normalX, normalY);
+    }
+
+    /**
+     * @param dest will hold the vector the first shape has to be moved by to not overlap the second one anymore
+     * @return dest
+     */
+    public Vector2f getPenetration(Vector2f dest) {
+        return dest.set(-normalX * depth, -normalY * depth);
+    }
+
+    @Override
+    public String toString() {
+        return colliding ? "Contact{normal=(" + normalX + ", " + normalY + "), depth=" + depth + "}" : "Contact{none}";
+    }
+
+}
@@ -0,0 +1,507 @@
+package physics.collision.narrowphase;
+
+import org.joml.Vector2f;
+import physics.collision.shape.Circle;
+import physics.collision.shape.PrimitiveShape;
+import physics.collision.shape.ShapeType;
+
+/**
+ * The narrow phase of collision detection: GJK to find out whether two convex shapes intersect,
+ * and EPA to find the normal and depth of their overlap.
+ * <p>
+ * Both work on plain floats, the packed absolute vertices of the shapes ({@link PrimitiveShape#packedVertices()})
+ * and a scratch context per thread, which holds the simplex and the polytope.
+ * The results are written into a {@link Contact} owned by the caller, so nothing is allocated per test.
+ * The context only grows when shapes with more vertices than before are tested.
+ * Circles are curved, EPA approximates their overlap with a polygon refined until the iteration limit.
+ * <pre>
+ * Contact contact = new Contact();
+ * ...
+ * if (NarrowPhase.collide(shapeA, shapeB, contact))
+ *     position.add(contact.getPenetration(penetration));
+ * </pre>
+ *
+ * @see util.MathUtils#gjksmCollision(PrimitiveShape, PrimitiveShape)
+ */
+public final class NarrowPhase {
+
+    // the relative gap between a face of the polytope and the support point in its direction, at which EPA stops
+    private static final float TOLERANCE = 1e-4f;
+    // squared lengths below this are treated as zero
+    private static final float TINY = 1e-12f;
+    // iterations on top of the vertices of both shapes, curved shapes need a few more to converge
+    private static final int EXTRA_ITERATIONS = 32;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private NarrowPhase() {
+    }
+
+    /**
+     * Checks whether two convex shapes intersect. Touching shapes intersect.
+     *
+     * @param a the first shape
+     * @param b the second shape
+     * @return true if they intersect
+     */
+    public static boolean intersects(PrimitiveShape a, PrimitiveShape b) {
+        return gjk(a, b, SCRATCH.get(), null);
+    }
+
+    /**
+     * Checks whether two convex shapes intersect and finds the normal and depth of their overlap.
+     *
+     * @param a       the first shape
+     * @param b       the second shape
+     * @param contact receives the result, it is reset if the shapes do not intersect.
+     *                It also keeps the axis GJK ended with, to start with it the next time the contact is used:
+     *                a pair still separated along the same axis is rejected with a single support query
+     * @return true if they intersect
+     */
+    public static boolean collide(PrimitiveShape a, PrimitiveShape b, Contact contact) {
+        Scratch scratch = SCRATCH.get();
+        contact.reset();
+        if (!gjk(a, b, scratch, contact)) {
+            contact.separate(scratch.dx, scratch.dy);
+            return false;
+        }
+        scratch.loadPolytope(scratch.simplex, scratch.simplexSize, iterations(a, b));
+        epa(a, b, scratch, contact);
+        return true;
+    }
+
+    /**
+     * Runs GJK and copies the simplex enclosing the origin, which can be expanded later.
+     *
+     * @param a    the first shape
+     * @param b    the second shape
+     * @param dest receives up to 3 points of the minkowski difference a - b as x0, y0, x1, y1, x2, y2
+     * @return the amount of points, 0 if the shapes do not intersect.
+     * Less than 3 if they only touch, since the origin is on an edge or a corner of the minkowski difference
+     */
+    public static int simplex(PrimitiveShape a, PrimitiveShape b, float[] dest) {
+        Scratch scratch = SCRATCH.get();
+        if (!gjk(a, b, scratch, null)) return 0;
+        System.arraycopy(scratch.simplex, 0, dest, 0, scratch.simplexSize * 2);
+        return scratch.simplexSize;
+    }
+
+    /**
+     * Runs EPA starting with a simplex of intersecting shapes.
+     *
+     * @param a       the first shape
+     * @param b       the second shape
+     * @param simplex the points of the simplex as x0, y0, x1, y1...
+     * @param points  the amount of points in the simplex
+     * @param contact receives the result
+     */
+    public static void expand(PrimitiveShape a, PrimitiveShape b, float[] simplex, int points, Contact contact) {
+        Scratch scratch = SCRATCH.get();
+        contact.reset();
+        scratch.loadPolytope(simplex, points, iterations(a, b));
+        epa(a, b, scratch, contact);
+    }
+
+    /**
+     * Finds the point of the minkowski difference a - b furthest in a direction
+     *
+     * @param dest receives the point
+     * @return dest
+     */
+    public static Vector2f support(PrimitiveShape a, PrimitiveShape b, float directionX, float directionY, Vector2f dest) {
+        Scratch scratch = SCRATCH.get();
+        supportDifference(a, b, directionX, directionY, scratch);
+        return dest.set(scratch.x, scratch.y);
+    }
+
+    /**
+     * Finds the point of a shape furthest in a direction
+     *
+     * @param dest receives the point
+     * @return dest
+     */
+    public static Vector2f support(PrimitiveShape shape, float directionX, float directionY, Vector2f dest) {
+        Scratch scratch = SCRATCH.get();
+        support(shape, directionX, directionY, scratch);
+        return dest.set(scratch.x, scratch.y);
+    }
+
+    private static int iterations(PrimitiveShape a, PrimitiveShape b) {
+        return a.vertices() + b.vertices() + EXTRA_ITERATIONS;
+    }
+
+    //the support point of a single shape, written to scratch.x/y
+    private static void support(PrimitiveShape shape, float dx, float dy, Scratch scratch) {
+        if (shape.type() == ShapeType.CIRCLE) {
+            Vector2f center = shape.centroid();
+            float lengthSquared = dx * dx + dy * dy;
+            if (lengthSquared < TINY) {
+                scratch.x = center.x;
+                scratch.y = center.y;
+                return;
+            }
+            float scale = ((Circle) shape).radius() / (float) Math.sqrt(lengthSquared);
+            scratch.x = center.x + dx * scale;
+            scratch.y = center.y + dy * scale;
+            return;
+        }
+        float[] vertices = shape.packedVertices();
+        int count = shape.vertices() * 2;
+        int best = 0;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i += 2) {
+            float dot = vertices[i] * dx + vertices[i + 1] * dy;
+            if (dot > max) {
+                max = dot;
+                best = i;
+            }
+        }
+        scratch.x = vertices[best];
+        scratch.y = vertices[best + 1];
+    }
+
+    //the support point of the minkowski difference a - b, written to scratch.x/y
+    private static void supportDifference(PrimitiveShape a, PrimitiveShape b, float dx, float dy, Scratch scratch) {
+        support(b, -dx, -dy, scratch);
+        float bx = scratch.x, by = scratch.y;
+        support(a, dx, dy, scratch);
+        scratch.x -= bx;
+        scratch.y -= by;
+    }
+
+    /**
+     * GJK in 2d: the simplex grows to a triangle around the origin, or the search direction proves that there is none.
+     * The newest point of the simplex is always the last one.
+     */
+    private static boolean gjk(PrimitiveShape a, PrimitiveShape b, Scratch scratch, Contact warmStart) {
+        float dx, dy;
+        if (warmStart != null && warmStart.hasAxis()) {
+            //the axis of the last test of the pair, likely still separating it
+            dx = warmStart.axisX;
+            dy = warmStart.axisY;
+        } else {
+            //from a towards b, where the origin is as seen from the center of the minkowski difference
+            Vector2f centroidA = a.centroid(), centroidB = b.centroid();
+            dx = centroidB.x - centroidA.x;
+            dy = centroidB.y - centroidA.y;
+            if (dx * dx + dy * dy < TINY) {
+                dx = 1;
+                dy = 0;
+            }
+        }
+        float[] simplex = scratch.simplex;
+        supportDifference(a, b, dx, dy, scratch);
+        scratch.dx = dx;
+        scratch.dy = dy;
+        //separated along the first axis already
+        if (scratch.x * dx + scratch.y * dy < 0) return false;
+        simplex[0] = scratch.x;
+        simplex[1] = scratch.y;
+        scratch.simplexSize = 1;
+        scratch.dx = -scratch.x;
+        scratch.dy = -scratch.y;
+
+        int iterations = iterations(a, b);
+        for (int i = 0; i < iterations; i++) {
+            dx = scratch.dx;
+            dy = scratch.dy;
+            //the origin is on the simplex, the shapes touch
+            if (dx * dx + dy * dy < TINY) return true;
+            supportDifference(a, b, dx, dy, scratch);
+            //the furthest point does not reach the origin, so it cannot be enclosed
+            if (scratch.x * dx + scratch.y * dy < 0) return false;
+            int size = scratch.simplexSize++;
+            simplex[size * 2] = scratch.x;
+            simplex[size * 2 + 1] = scratch.y;
+            if (updateSimplex(scratch)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the points of the simplex not required to enclose the origin and sets the next search direction.
+     *
+     * @return true if the simplex encloses the origin
+     */
+    private static boolean updateSimplex(Scratch scratch) {
+        float[] simplex = scratch.simplex;
+        if (scratch.simplexSize == 2) {
+            float ax = simplex[2], ay = simplex[3];
+            float abx = simplex[0] - ax, aby = simplex[1] - ay;
+            if (abx * -ax + aby * -ay > 0) {
+                float cross = abx * -ay - aby * -ax;
+                //the origin is on the segment
+                if (cross == 0) return true;
+                //the perpendicular of ab on the side of the origin
+                scratch.dx = cross > 0 ? -aby : aby;
+                scratch.dy = cross > 0 ? abx : -abx;
+            } else {
+                simplex[0] = ax;
+                simplex[1] = ay;
+                scratch.simplexSize = 1;
+                scratch.dx = -ax;
+                scratch.dy = -ay;
+            }
+            return false;
+        }
+        float ax = simplex[4], ay = simplex[5];
+        float bx = simplex[2], by = simplex[3];
+        float cx = simplex[0], cy = simplex[1];
+        float abx = bx - ax, aby = by - ay;
+        float acx = cx - ax, acy = cy - ay;
+        //the perpendicular of ab pointing away from c
+        float abPerpX = -aby, abPerpY = abx;
+        if (abPerpX * acx + abPerpY * acy > 0) {
+            abPerpX = -abPerpX;
+            abPerpY = -abPerpY;
+        }
+        if (abPerpX * -ax + abPerpY * -ay > 0) {
+            //the origin is outside of ab, c is not needed anymore
+            simplex[0] = bx;
+            simplex[1] = by;
+            simplex[2] = ax;
+            simplex[3] = ay;
+            scratch.simplexSize = 2;
+            scratch.dx = abPerpX;
+            scratch.dy = abPerpY;
+            return false;
+        }
+        //the perpendicular of ac pointing away from b
+        float acPerpX = -acy, acPerpY = acx;
+        if (acPerpX * abx + acPerpY * aby > 0) {
+            acPerpX = -acPerpX;
+            acPerpY = -acPerpY;
+        }
+        if (acPerpX * -ax + acPerpY * -ay > 0) {
+            //the origin is outside of ac, b is not needed anymore
+            simplex[2] = ax;
+            simplex[3] = ay;
+            scratch.simplexSize = 2;
+            scratch.dx = acPerpX;
+            scratch.dy = acPerpY;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * EPA: expands the polytope towards the face of the minkowski difference closest to the origin.
+     * If it did not converge within the iteration limit, the closest face found so far is used.
+     */
+    private static void epa(PrimitiveShape a, PrimitiveShape b, Scratch scratch, Contact contact) {
+        //touching shapes do not enclose any area
+        if (scratch.polygonSize < 2 || orientPolytope(scratch) == 0 && !inflatePolytope(a, b, scratch)) {
+            touching(a, b, scratch, contact);
+            return;
+        }
+        for (int edge = 0; edge < scratch.polygonSize; edge++)
+            updateEdge(scratch, edge);
+        expandPolytope(a, b, scratch, contact);
+    }
+
+    /**
+     * EPA on a counter clockwise polytope enclosing the origin, with the normals and distances of all edges known
+     */
+    private static void expandPolytope(PrimitiveShape a, PrimitiveShape b, Scratch scratch, Contact contact) {
+        float[] normals = scratch.normals, distances = scratch.distances;
+        int iterations = iterations(a, b);
+        float normalX = 0, normalY = 0, distance = 0;
+        for (int i = 0; i < iterations; i++) {
+            int closest = -1;
+            distance = Float.POSITIVE_INFINITY;
+            for (int edge = 0; edge < scratch.polygonSize; edge++) {
+                if (distances[edge] < distance) {
+                    distance = distances[edge];
+                    closest = edge;
+                }
+            }
+            if (closest == -1) {
+                touching(a, b, scratch, contact);
+                return;
+            }
+            normalX = normals[closest * 2];
+            normalY = normals[closest * 2 + 1];
+            supportDifference(a, b, normalX, normalY, scratch);
+            float reach = scratch.x * normalX + scratch.y * normalY;
+            if (reach - distance <= TOLERANCE * Math.max(1, Math.abs(reach))) break;
+            if (scratch.polygonSize == scratch.polygonCapacity()) break;
+            //the closest edge is split into two by the new point
+            scratch.insert(closest + 1, scratch.x, scratch.y);
+            updateEdge(scratch, closest);
+            updateEdge(scratch, closest + 1);
+        }
+        //the closest face found, even if it did not converge
+        contact.set(normalX, normalY, Math.max(0, distance));
+    }
+
+    //calculates the outward normal of an edge of the polytope and its distance to the origin
+    private static void updateEdge(Scratch scratch, int edge) {
+        float[] polygon = scratch.polygon;
+        int next = edge + 1 == scratch.polygonSize ? 0 : edge + 1;
+        float x = polygon[edge * 2], y = polygon[edge * 2 + 1];
+        float ex = polygon[next * 2] - x, ey = polygon[next * 2 + 1] - y;
+        float lengthSquared = ex * ex + ey * ey;
+        //edges without length are never the closest one
+        if (lengthSquared < TINY) {
+            scratch.distances[edge] = Float.POSITIVE_INFINITY;
+            return;
+        }
+        float length = (float) Math.sqrt(lengthSquared);
+        //outward normal of a counter clockwise polygon
+        float nx = ey / length, ny = -ex / length;
+        scratch.normals[edge * 2] = nx;
+        scratch.normals[edge * 2 + 1] = ny;
+        scratch.distances[edge] = nx * x + ny * y;
+    }
+
+    /**
+     * Makes the polytope counter clockwise
+     *
+     * @return the signed double area before, 0 if the polytope is degenerate
+     */
+    private static float orientPolytope(Scratch scratch) {
+        float[] polygon = scratch.polygon;
+        int size = scratch.polygonSize;
+        float area = 0;
+        for (int i = 0; i < size; i++) {
+            int next = i + 1 == size ? 0 : i + 1;
+            area += polygon[i * 2] * polygon[next * 2 + 1] - polygon[next * 2] * polygon[i * 2 + 1];
+        }
+        if (Math.abs(area) < TINY) return 0;
+        if (area < 0) {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                float x = polygon[i * 2], y = polygon[i * 2 + 1];
+                polygon[i * 2] = polygon[j * 2];
+                polygon[i * 2 + 1] = polygon[j * 2 + 1];
+                polygon[j * 2] = x;
+                polygon[j * 2 + 1] = y;
+            }
+        }
+        return area;
+    }
+
+    /**
+     * Turns a polytope without area, a segment through the origin, into a triangle by adding the support point
+     * furthest away from the segment. GJK ends with such a segment, e.g. for two circles on the same horizontal line.
+     *
+     * @return false, if the minkowski difference has no area in the direction of the segment, the shapes only touch
+     */
+    private static boolean inflatePolytope(PrimitiveShape a, PrimitiveShape b, Scratch scratch) {
+        float[] polygon = scratch.polygon;
+        int size = scratch.polygonSize;
+        //the points furthest apart span the segment
+        int first = 0, second = 0;
+        float longest = 0;
+        for (int i = 0; i < size; i++)
+            for (int j = i + 1; j < size; j++) {
+                float ex = polygon[j * 2] - polygon[i * 2], ey = polygon[j * 2 + 1] - polygon[i * 2 + 1];
+                float lengthSquared = ex * ex + ey * ey;
+                if (lengthSquared > longest) {
+                    longest = lengthSquared;
+                    first = i;
+                    second = j;
+                }
+            }
+        if (longest < TINY) return false;
+        float px = polygon[first * 2], py = polygon[first * 2 + 1];
+        float qx = polygon[second * 2], qy = polygon[second * 2 + 1];
+        float nx = -(qy - py), ny = qx - px;
+        supportDifference(a, b, nx, ny, scratch);
+        float leftX = scratch.x, leftY = scratch.y;
+        float left = (leftX - px) * nx + (leftY - py) * ny;
+        supportDifference(a, b, -nx, -ny, scratch);
+        float right = (px - scratch.x) * nx + (py - scratch.y) * ny;
+        //both distances are scaled by the length of the segment
+        float threshold = longest * 1e-6f;
+        if (left <= threshold && right <= threshold) return false;
+        polygon[0] = px;
+        polygon[1] = py;
+        polygon[2] = qx;
+        polygon[3] = qy;
+        if (left >= right) {
+            polygon[4] = leftX;
+            polygon[5] = leftY;
+        } else {
+            polygon[4] = scratch.x;
+            polygon[5] = scratch.y;
+        }
+        scratch.polygonSize = 3;
+        return orientPolytope(scratch) != 0;
+    }
+
+    //shapes touching without overlap, the normal is perpendicular to the touching edge or between both centroids
+    private static void touching(PrimitiveShape a, PrimitiveShape b, Scratch scratch, Contact contact) {
+        Vector2f centroidA = a.centroid(), centroidB = b.centroid();
+        float towardsX = centroidB.x - centroidA.x, towardsY = centroidB.y - centroidA.y;
+        float nx = towardsX, ny = towardsY;
+        float[] polygon = scratch.polygon;
+        if (scratch.polygonSize >= 2) {
+            float ex = polygon[2] - polygon[0], ey = polygon[3] - polygon[1];
+            if (ex * ex + ey * ey >= TINY) {
+                nx = ey;
+                ny = -ex;
+                if (nx * towardsX + ny * towardsY < 0) {
+                    nx = -nx;
+                    ny = -ny;
+                }
+            }
+        }
+        float lengthSquared = nx * nx + ny * ny;
+        if (lengthSquared < TINY) {
+            nx = 1;
+            ny = 0;
+        } else {
+            float length = (float) Math.sqrt(lengthSquared);
+            nx /= length;
+            ny /= length;
+        }
+        contact.set(nx, ny, 0);
+    }
+
+    /**
+     * The state of GJK and EPA, one per thread
+     */
+    private static final class Scratch {
+
+        // the simplex of GJK as x0, y0, x1, y1, x2, y2, the newest point last
+        final float[] simplex = new float[6];
+        int simplexSize;
+        // the next search direction of GJK
+        float dx, dy;
+        // the last support point
+        float x, y;
+
+        // the polytope of EPA as x0, y0, x1, y1...
+        float[] polygon = new float[2 * 64];
+        int polygonSize;
+        // the outward normal and the distance to the origin of the edge starting at each point of the polytope
+        float[] normals = new float[2 * 64];
+        float[] distances = new float[64];
+
+        void loadPolytope(float[] points, int count, int iterations) {
+            int capacity = count + iterations;
+            if (polygon.length < capacity * 2) {
+                polygon = new float[capacity * 2];
+                normals = new float[capacity * 2];
+                distances = new float[capacity];
+            }
+            System.arraycopy(points, 0, polygon, 0, count * 2);
+            polygonSize = count;
+        }
+
+        int polygonCapacity() {
+            return polygon.length / 2;
+        }
+
+        void insert(int index, float x, float y) {
+            System.arraycopy(polygon, index * 2, polygon, index * 2 + 2, (polygonSize - index) * 2);
+            System.arraycopy(normals, index * 2, normals, index * 2 + 2, (polygonSize - index) * 2);
+            System.arraycopy(distances, index, distances, index + 1, polygonSize - index);
+            polygon[index * 2] = x;
+            polygon[index * 2 + 1] = y;
+            polygonSize++;
+        }
+
+    }
+
+}
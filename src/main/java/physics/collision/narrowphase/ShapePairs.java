@@ -0,0 +1,260 @@
+package physics.collision.narrowphase;
+
+import org.joml.Vector2f;
+import physics.collision.shape.Circle;
+import physics.collision.shape.PrimitiveShape;
+
+import java.util.Arrays;
+
+/**
+ * Closed form collision tests for the most common pairs of shapes, looked up in a table by the kinds of both shapes:
+ * <ul>
+ *     <li>axis aligned rectangle with axis aligned rectangle, e.g. a body on a tile</li>
+ *     <li>circle with circle</li>
+ *     <li>circle with axis aligned rectangle</li>
+ *     <li>circle with any other convex polygon, by the separating axis theorem</li>
+ * </ul>
+ * All other pairs go through GJK and EPA in {@link NarrowPhase#collide(PrimitiveShape, PrimitiveShape, Contact)}.
+ * The results are the same as the ones of GJK and EPA, which only approximate curved shapes, and touching shapes collide.
+ * Like the narrow phase, nothing is allocated.
+ */
+public final class ShapePairs {
+
+    /**
+     * A collision test for a pair of shapes
+     */
+    @FunctionalInterface
+    public interface PairTest {
+
+        /**
+         * @param a       the first shape
+         * @param b       the second shape
+         * @param contact receives the result, it is reset if the shapes do not intersect
+         * @return true if they intersect
+         */
+        boolean collide(PrimitiveShape a, PrimitiveShape b, Contact contact);
+
+    }
+
+    // the kinds of shapes the table is indexed with
+    static final int AABB = 0;
+    static final int CIRCLE = 1;
+    static final int POLYGON = 2;
+    static final int OTHER = 3;
+
+    // squared lengths below this are treated as zero
+    private static final float TINY = 1e-12f;
+
+    private static final PairTest[][] TABLE = new PairTest[4][4];
+
+    static {
+        for (PairTest[] row : TABLE)
+            Arrays.fill(row, (PairTest) NarrowPhase::collide);
+        TABLE[AABB][AABB] = ShapePairs::boxBox;
+        TABLE[CIRCLE][CIRCLE] = ShapePairs::circleCircle;
+        TABLE[CIRCLE][AABB] = ShapePairs::circleBox;
+        TABLE[AABB][CIRCLE] = (a, b, contact) -> flipped(circleBox(b, a, contact), contact);
+        TABLE[CIRCLE][POLYGON] = ShapePairs::circlePolygon;
+        TABLE[POLYGON][CIRCLE] = (a, b, contact) -> flipped(circlePolygon(b, a, contact), contact);
+    }
+
+    private ShapePairs() {
+    }
+
+    /**
+     * Checks whether two convex shapes intersect and finds the normal and depth of their overlap,
+     * with a closed form test if there is one for the pair.
+     *
+     * @param a       the first shape
+     * @param b       the second shape
+     * @param contact receives the result, it is reset if the shapes do not intersect
+     * @return true if they intersect
+     * @see NarrowPhase#collide(PrimitiveShape, PrimitiveShape, Contact)
+     */
+    public static boolean collide(PrimitiveShape a, PrimitiveShape b, Contact contact) {
+        return test(a, b).collide(a, b, contact);
+    }
+
+    /**
+     * @return the test used for a pair of shapes
+     */
+    public static PairTest test(PrimitiveShape a, PrimitiveShape b) {
+        return TABLE[kind(a)][kind(b)];
+    }
+
+    static int kind(PrimitiveShape shape) {
+        switch (shape.type()) {
+            case CIRCLE:
+                return CIRCLE;
+            case POINT:
+            case LINE:
+                return OTHER;
+            default:
+                return shape.isAxisAligned() ? AABB : POLYGON;
+        }
+    }
+
+    private static boolean flipped(boolean collides, Contact contact) {
+        if (collides) contact.flip();
+        return collides;
+    }
+
+    //the smallest or largest x (offset 0) or y (offset 1) of packed vertices
+    private static float min(float[] packed, int vertices, int offset) {
+        float min = packed[offset];
+        for (int i = 1; i < vertices; i++)
+            min = Math.min(min, packed[i * 2 + offset]);
+        return min;
+    }
+
+    private static float max(float[] packed, int vertices, int offset) {
+        float max = packed[offset];
+        for (int i = 1; i < vertices; i++)
+            max = Math.max(max, packed[i * 2 + offset]);
+        return max;
+    }
+
+    /**
+     * Both rectangles overlap, if their intervals on both axes overlap.
+     * The normal is the axis with the smaller overlap.
+     */
+    static boolean boxBox(PrimitiveShape a, PrimitiveShape b, Contact contact) {
+        contact.reset();
+        float[] packedA = a.packedVertices(), packedB = b.packedVertices();
+        int verticesA = a.vertices(), verticesB = b.vertices();
+        float minAX = min(packedA, verticesA, 0), maxAX = max(packedA, verticesA, 0);
+        float minBX = min(packedB, verticesB, 0), maxBX = max(packedB, verticesB, 0);
+        //how far a has to move against or along the axis to leave b
+        float forwardX = maxAX - minBX, backwardX = maxBX - minAX;
+        if (forwardX < 0 || backwardX < 0) return false;
+        float minAY = min(packedA, verticesA, 1), maxAY = max(packedA, verticesA, 1);
+        float minBY = min(packedB, verticesB, 1), maxBY = max(packedB, verticesB, 1);
+        float forwardY = maxAY - minBY, backwardY = maxBY - minAY;
+        if (forwardY < 0 || backwardY < 0) return false;
+        float overlapX = Math.min(forwardX, backwardX), overlapY = Math.min(forwardY, backwardY);
+        if (overlapX <= overlapY) contact.set(forwardX <= backwardX ? 1 : -1, 0, overlapX);
+        else contact.set(0, forwardY <= backwardY ? 1 : -1, overlapY);
+        return true;
+    }
+
+    /**
+     * Both circles overlap, if their centers are closer than the sum of their radii.
+     */
+    static boolean circleCircle(PrimitiveShape a, PrimitiveShape b, Contact contact) {
+        contact.reset();
+        Vector2f centerA = a.centroid(), centerB = b.centroid();
+        float radii = ((Circle) a).radius() + ((Circle) b).radius();
+        float dx = centerB.x - centerA.x, dy = centerB.y - centerA.y;
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared > radii * radii) return false;
+        //circles at the same position can be separated in any direction
+        if (distanceSquared < TINY) {
+            contact.set(1, 0, radii);
+            return true;
+        }
+        float distance = (float) Math.sqrt(distanceSquared);
+        contact.set(dx / distance, dy / distance, radii - distance);
+        return true;
+    }
+
+    /**
+     * The circle overlaps the rectangle, if the point of the rectangle closest to its center is inside of the circle.
+     * If the center itself is inside of the rectangle, the circle is pushed out through the closest edge.
+     */
+    static boolean circleBox(PrimitiveShape circle, PrimitiveShape box, Contact contact) {
+        contact.reset();
+        float[] packed = box.packedVertices();
+        int vertices = box.vertices();
+        float minX = min(packed, vertices, 0), maxX = max(packed, vertices, 0);
+        float minY = min(packed, vertices, 1), maxY = max(packed, vertices, 1);
+        Vector2f center = circle.centroid();
+        float radius = ((Circle) circle).radius();
+        float closestX = Math.max(minX, Math.min(center.x, maxX));
+        float closestY = Math.max(minY, Math.min(center.y, maxY));
+        float dx = closestX - center.x, dy = closestY - center.y;
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared > radius * radius) return false;
+        if (distanceSquared >= TINY) {
+            float distance = (float) Math.sqrt(distanceSquared);
+            contact.set(dx / distance, dy / distance, radius - distance);
+            return true;
+        }
+        //the center is inside of the rectangle
+        float left = center.x - minX, right = maxX - center.x;
+        float bottom = center.y - minY, top = maxY - center.y;
+        float closest = Math.min(Math.min(left, right), Math.min(bottom, top));
+        if (closest == left) contact.set(1, 0, left + radius);
+        else if (closest == right) contact.set(-1, 0, right + radius);
+        else if (closest == bottom) contact.set(0, 1, bottom + radius);
+        else contact.set(0, -1, top + radius);
+        return true;
+    }
+
+    /**
+     * The separating axis theorem: the circle and the polygon overlap, if their projections overlap
+     * on every normal of the polygon and on the axis from the closest vertex to the center of the circle.
+     * The normal is the axis with the smallest overlap.
+     */
+    static boolean circlePolygon(PrimitiveShape circle, PrimitiveShape polygon, Contact contact) {
+        contact.reset();
+        float[] packed = polygon.packedVertices();
+        int vertices = polygon.vertices();
+        Vector2f center = circle.centroid();
+        float radius = ((Circle) circle).radius();
+        int closestVertex = 0;
+        float closestDistance = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < vertices; i++) {
+            int next = i + 1 == vertices ? 0 : i + 1;
+            float ex = packed[next * 2] - packed[i * 2], ey = packed[next * 2 + 1] - packed[i * 2 + 1];
+            float lengthSquared = ex * ex + ey * ey;
+            if (lengthSquared >= TINY) {
+                float length = (float) Math.sqrt(lengthSquared);
+                if (!separatingAxis(ey / length, -ex / length, packed, vertices, center, radius, contact)) {
+                    contact.reset();
+                    return false;
+                }
+            }
+            float vx = packed[i * 2] - center.x, vy = packed[i * 2 + 1] - center.y;
+            float distance = vx * vx + vy * vy;
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closestVertex = i;
+            }
+        }
+        if (closestDistance >= TINY) {
+            float length = (float) Math.sqrt(closestDistance);
+            float axisX = (packed[closestVertex * 2] - center.x) / length;
+            float axisY = (packed[closestVertex * 2 + 1] - center.y) / length;
+            if (!separatingAxis(axisX, axisY, packed, vertices, center, radius, contact)) {
+                contact.reset();
+                return false;
+            }
+        }
+        return contact.isColliding();
+    }
+
+    /**
+     * Projects the circle and the polygon onto an axis and keeps the axis in the contact, if they overlap less than before
+     *
+     * @return false, if the projections do not overlap
+     */
+    private static boolean separatingAxis(float axisX, float axisY, float[] packed, int vertices, Vector2f center, float radius, Contact contact) {
+        float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertices; i++) {
+            float projection = packed[i * 2] * axisX + packed[i * 2 + 1] * axisY;
+            min = Math.min(min, projection);
+            max = Math.max(max, projection);
+        }
+        float projectedCenter = center.x * axisX + center.y * axisY;
+        //how far the circle has to move against or along the axis to leave the polygon
+        float forward = projectedCenter + radius - min, backward = max - (projectedCenter - radius);
+        if (forward < 0 || backward < 0) return false;
+        float overlap = Math.min(forward, backward);
+        if (!contact.isColliding() || overlap < contact.getDepth()) {
+            if (forward <= backward) contact.set(axisX, axisY, overlap);
+            else contact.set(-axisX, -axisY, overlap);
+        }
+        return true;
+    }
+
+}
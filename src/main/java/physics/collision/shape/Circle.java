@@ -23,15 +23,24 @@ public class Circle extends PrimitiveShape {
         this.boundingSphere = this;
     }
 
+    /**
+     * @return the radius of the circle
+     */
+    public float radius() {
+        return radius;
+    }
+
     @Override
     public void adjust() {
-        this.absoluteCentroid = position().add(this.relativeCentroid, new Vector2f());
+        if (this.absoluteCentroid == null) this.absoluteCentroid = new Vector2f(Float.NaN);
+        float x = absoluteCentroid.x, y = absoluteCentroid.y;
+        position().add(this.relativeCentroid, this.absoluteCentroid);
+        if (x != absoluteCentroid.x || y != absoluteCentroid.y) version++;
     }
 
     @Override
     public Vector2f supportPoint(Vector2f v) {
-        Vector2f normalized = v.normalize(radius, new Vector2f());
-        return absoluteCentroid.add(normalized, new Vector2f());
+        return v.normalize(radius, new Vector2f()).add(absoluteCentroid);
     }
 
     /**
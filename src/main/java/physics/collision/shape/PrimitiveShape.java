@@ -26,6 +26,13 @@ public abstract class PrimitiveShape {
      */
     protected final Vector2f[] absolutes;
 
+    /**
+     * The absolute coordinates as x0, y0, x1, y1... updated along with {@link #absolutes}
+     *
+     * @see #packedVertices()
+     */
+    protected final float[] packed;
+
     /**
      * All faces of the shape
      *
@@ -67,6 +74,20 @@ public abstract class PrimitiveShape {
      */
     protected Circle boundingSphere;
 
+    /**
+     * Whether the shape is a rectangle with edges parallel to the axes, updated on {@link #adjust()}
+     *
+     * @see #isAxisAligned()
+     */
+    private boolean axisAligned;
+
+    /**
+     * Counts the changes of the absolute coordinates
+     *
+     * @see #version()
+     */
+    protected int version;
+
     /**
      * The current position of the shape in the global grid
      *
@@ -97,12 +118,16 @@ public abstract class PrimitiveShape {
             this.vertices = 0;
             this.relatives = new Vector2f[0];
             this.absolutes = new Vector2f[0];
+            this.packed = new float[0];
             this.faces = new Face[0];
         } else {
             //ensures that all relative coords are sorted and dereferenced from the original ones
             this.relatives = MathUtils.copy(MathUtils.convexHull(relatives));
             this.vertices = this.relatives.length;
             this.absolutes = new Vector2f[this.vertices];
+            for (int i = 0; i < this.vertices; i++)
+                this.absolutes[i] = new Vector2f();
+            this.packed = new float[this.vertices * 2];
             this.faces = new Face[this.vertices];
         }
     }
@@ -140,6 +165,39 @@ public abstract class PrimitiveShape {
         return absolutes;
     }
 
+    /**
+     * The absolute coordinates packed into a single array, which is read by the narrow phase without touching any vector.
+     * The array is updated in place and must not be modified.
+     *
+     * @return the absolute coordinates as x0, y0, x1, y1...
+     * @see this#packed
+     */
+    public final float[] packedVertices() {
+        return packed;
+    }
+
+    /**
+     * An axis aligned rectangle, e.g. created by {@link physics.collision.Shapes#axisAlignedRectangle(float, float, float, float)}
+     * and not rotated since, can be tested for collision without GJK.
+     *
+     * @return true, if the shape is a rectangle with edges parallel to the axes
+     * @see this#axisAligned
+     */
+    public final boolean isAxisAligned() {
+        return axisAligned;
+    }
+
+    /**
+     * Changes whenever the absolute coordinates of the shape change,
+     * e.g. to reuse the result of a collision test while neither shape moved.
+     *
+     * @return the amount of changes so far
+     * @see this#version
+     */
+    public final int version() {
+        return version;
+    }
+
     /**
      * @see this#faces
      */
@@ -177,14 +235,26 @@ public abstract class PrimitiveShape {
 
     /**
      * Will be called by {@link PrimitiveShape#setPosition(Vector2f)} after the new position was set.
-     * Used to recalculate the absolute coordinates.
+     * Used to recalculate the absolute coordinates, which are updated in place.
      */
     public void adjust() {
+        Vector2f position = position();
+        boolean changed = false;
         for (int i = 0; i < this.vertices; i++) {
-            absolutes[i] = position().add(relatives[i], new Vector2f());
+            Vector2f absolute = position.add(relatives[i], absolutes[i]);
+            changed |= packed[i * 2] != absolute.x || packed[i * 2 + 1] != absolute.y;
+            packed[i * 2] = absolute.x;
+            packed[i * 2 + 1] = absolute.y;
+        }
+        if (changed) version++;
+        axisAligned = vertices == 4;
+        for (int i = 0; i < this.vertices && axisAligned; i++) {
+            Vector2f next = relatives[(i + 1) % this.vertices];
+            axisAligned = relatives[i].x == next.x || relatives[i].y == next.y;
         }
-        absoluteCentroid = position().add(relativeCentroid, new Vector2f());
-        this.boundingSphere.setPosition(position());
+        if (absoluteCentroid == null) absoluteCentroid = new Vector2f();
+        position.add(relativeCentroid, absoluteCentroid);
+        this.boundingSphere.setPosition(position);
     }
 
     /**
@@ -0,0 +1,107 @@
+package scene;
+
+import event.EventBus;
+import event.Events;
+import util.Engine;
+import util.FixedTimestep;
+import util.Profiler;
+
+/**
+ * Drives a {@link SceneManager} without a window, GLFW or OpenGL.
+ * It runs the same updates as the game loop of the window does, in ticks of a fixed length, but never renders anything.
+ * This allows to simulate scenes as fast as possible, e.g. to test or benchmark them on machines without a display.
+ * <p>
+ * Scenes simulated by this loop must not create any graphical resources, like a {@link graphics.Camera}
+ * or textures, and their gameObjects have to be created with an explicit scene, since there is no window to find the current scene.
+ * <pre>
+ * HeadlessLoop loop = new HeadlessLoop(60);
+ * loop.getSceneManager().switchScene(new MyScene());
+ * loop.start();
+ * loop.runFor(10);
+ * </pre>
+ */
+public class HeadlessLoop {
+
+    private final SceneManager sceneManager;
+    private final FixedTimestep timestep;
+
+    /**
+     * @param sceneManager the sceneManager to drive
+     * @param timestep     defines the length of a tick and how many ticks a single frame may run
+     */
+    public HeadlessLoop(SceneManager sceneManager, FixedTimestep timestep) {
+        if (sceneManager == null || timestep == null)
+            throw new IllegalArgumentException("A headless loop requires a sceneManager and a timestep");
+        this.sceneManager = sceneManager;
+        this.timestep = timestep;
+    }
+
+    /**
+     * @param tickRate the amount of ticks per second
+     */
+    public HeadlessLoop(float tickRate) {
+        this(new SceneManager(), new FixedTimestep(tickRate));
+    }
+
+    /**
+     * Enables the sceneManager, which awakes the current scene.
+     * Has to be called once after the first scene has been set and before any tick.
+     */
+    public void start() {
+        if (sceneManager.currentScene() == null)
+            throw new IllegalStateException("A headless loop cannot be started without a current scene");
+        sceneManager.enableHeadless();
+    }
+
+    /**
+     * Simulates a single tick of the current scene.
+     */
+    public void tick() {
+        Scene scene = sceneManager.currentScene();
+        if (scene == null || !scene.isActive()) return;
+        Engine.updateDeltaTime(timestep.getStepTime());
+        sceneManager.update();
+        sceneManager.updateGameObjects();
+    }
+
+    /**
+     * Simulates as many ticks as fit into a frame of the given length, like the window would.
+     * Events posted to {@link Events#bus} are dispatched before and after the ticks.
+     *
+     * @param frameTime the length of the frame in seconds
+     * @return the amount of simulated ticks
+     * @see FixedTimestep#advance(double)
+     */
+    public int frame(double frameTime) {
+        Profiler.beginFrame();
+        Events.bus.dispatch(EventBus.Phase.FRAME_START);
+        int steps = timestep.advance(frameTime);
+        for (int i = 0; i < steps; i++)
+            tick();
+        Events.bus.dispatch(EventBus.Phase.FRAME_END);
+        Profiler.endFrame();
+        return steps;
+    }
+
+    /**
+     * Simulates the ticks of the given amount of time without any catch up limit and as fast as possible.
+     *
+     * @param seconds the simulated time in seconds
+     * @return the amount of simulated ticks
+     */
+    public long runFor(double seconds) {
+        long ticks = Math.round(seconds * timestep.getTickRate());
+        for (long i = 0; i < ticks; i++)
+            tick();
+        return ticks;
+    }
+
+    public SceneManager getSceneManager() {
+        return sceneManager;
+    }
+
+    public FixedTimestep getTimestep() {
+        return timestep;
+    }
+
+}
@@ -1,6 +1,10 @@
 package scene;
 
+import ecs.CollisionHandler;
+import ecs.CollisionPass;
+import ecs.Component;
 import ecs.GameObject;
+import ecs.SystemScheduler;
 import graphics.Camera;
 import graphics.Texture;
 import graphics.postprocess.ForwardToTexture;
@@ -8,12 +12,17 @@ import graphics.postprocess.PostProcessStep;
 import graphics.renderer.*;
 import input.Keyboard;
 import org.lwjgl.glfw.GLFW;
+import physics.collision.BodyType;
 import physics.collision.Collider;
+import physics.collision.broadphase.BroadPhase;
+import physics.collision.broadphase.UniformGrid;
+import tiles.TileMap;
 import ui.Element;
 import ui.RenderableElement;
 import ui.Text;
 import util.Engine;
 import util.Log;
+import util.Profiler;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -82,8 +91,19 @@ public abstract class Scene {
 
     private final List<GameObject> gameObjects = new LinkedList<>();
     private final List<Collider> colliders = new LinkedList<>();
+    private final List<Collider> staticColliders = new ArrayList<>();
     private final List<Text> texts = new ArrayList<>();
     private final List<Element> uiElements = new ArrayList<>();
+    private final List<TileMap> tileMaps = new ArrayList<>();
+    private BroadPhase broadPhase = new UniformGrid();
+    private final BroadPhase staticBroadPhase = new UniformGrid();
+    private SystemScheduler scheduler;
+    private CollisionPass collisionPass;
+
+    /**
+     * Reused buffer for the colliders found by {@link #wakeOverlapping(Collider)}
+     */
+    private final List<Collider> overlapping = new ArrayList<>();
 
     private List<Renderer> rendererRegistry = new LinkedList<>();
 
@@ -162,16 +182,126 @@ public abstract class Scene {
         }
     }
 
+    /**
+     * @return all registered colliders, which are not {@link BodyType#STATIC}
+     */
     public List<Collider> getColliders() {
         return colliders;
     }
 
+    /**
+     * @return all registered {@link BodyType#STATIC} colliders
+     */
+    public List<Collider> getStaticColliders() {
+        return staticColliders;
+    }
+
     public final void registerCollider(GameObject gameObject) {
-        colliders.add(gameObject.getComponent(Collider.class));
+        Collider collider = gameObject.getComponent(Collider.class);
+        if (collider.bodyType() == BodyType.STATIC) {
+            staticColliders.add(collider);
+            staticBroadPhase.add(collider);
+        } else {
+            colliders.add(collider);
+            broadPhase.add(collider);
+        }
     }
 
     public final void unregisterCollider(GameObject gameObject) {
-        colliders.remove(gameObject.getComponent(Collider.class));
+        Collider collider = gameObject.getComponent(Collider.class);
+        if (collider.bodyType() == BodyType.STATIC) {
+            staticColliders.remove(collider);
+            staticBroadPhase.remove(collider);
+        } else {
+            colliders.remove(collider);
+            broadPhase.remove(collider);
+        }
+    }
+
+    /**
+     * Refresh the position of a collider in the broad phase of this scene.
+     * Has to be called every time the shape of a registered collider has moved.
+     *
+     * @param collider the collider that has moved
+     */
+    public final void updateCollider(Collider collider) {
+        if (collider.bodyType() == BodyType.STATIC) staticBroadPhase.update(collider);
+        else broadPhase.update(collider);
+    }
+
+    /**
+     * Wakes all sleeping colliders touched by a collider, which was moved by something that does not wake them itself,
+     * e.g. a gameObject without a collision handler moved by its dynamics, a tween or {@link GameObject#setPosition(float, float)}.
+     * Only the bounding spheres are tested, a woken collider falls asleep again if nothing actually touches it.
+     *
+     * @param collider the collider that has moved
+     */
+    public final void wakeOverlapping(Collider collider) {
+        broadPhase.query(collider, overlapping);
+        for (int i = 0; i < overlapping.size(); i++) {
+            Collider other = overlapping.get(i);
+            if (other != collider && other.isSleeping() && collider.canCollideWith(other)
+                    && collider.getShape().boundingSphere().intersection(other.getShape().boundingSphere()))
+                other.wake();
+        }
+        overlapping.clear();
+    }
+
+    /**
+     * @return the broad phase keeping track of all registered colliders of this scene, which are not static
+     */
+    public BroadPhase getBroadPhase() {
+        return broadPhase;
+    }
+
+    /**
+     * The static colliders are kept in a broad phase of their own, which only changes when a static collider
+     * is added, removed or placed, instead of being updated along with the moving colliders every frame.
+     *
+     * @return the broad phase keeping track of all registered {@link BodyType#STATIC} colliders of this scene
+     */
+    public BroadPhase getStaticBroadPhase() {
+        return staticBroadPhase;
+    }
+
+    /**
+     * Replace the broad phase of this scene, e.g. to use one that fits the layout of the scene better.
+     * All registered colliders, which are not static, are moved to the new broad phase.
+     *
+     * @param broadPhase the new broad phase
+     */
+    public void setBroadPhase(BroadPhase broadPhase) {
+        if (broadPhase == null) throw new IllegalArgumentException("The broad phase of a scene shall not be null");
+        this.broadPhase.clear();
+        this.broadPhase = broadPhase;
+        broadPhase.clear();
+        colliders.forEach(broadPhase::add);
+    }
+
+    /**
+     * Add a tile map to this scene. Its tiles are drawn by the default renderer
+     * and its collidable layers block the colliders of all collision handlers.
+     *
+     * @param tileMap the tile map to be added
+     */
+    public void addTileMap(TileMap tileMap) {
+        tileMaps.add(tileMap);
+        renderer.add(tileMap);
+    }
+
+    /**
+     * @param tileMap the tile map to be removed
+     */
+    public void removeTileMap(TileMap tileMap) {
+        tileMaps.remove(tileMap);
+        renderer.remove(tileMap);
+    }
+
+    /**
+     * @return the List of tile maps contained in the scene.
+     */
+    public List<TileMap> getTileMaps() {
+        return tileMaps;
     }
 
     /**
@@ -187,6 +317,12 @@ public abstract class Scene {
      */
     public void addGameObjectToScene(GameObject gameObject) {
         gameObjects.add(gameObject);
+        if (scheduler != null) scheduler.add(gameObject);
+        //a gameObject added again after its removal brings its collider and handlers back
+        if (gameObject.getComponent(Collider.class) != null) registerCollider(gameObject);
+        if (collisionPass != null)
+            for (Component component : gameObject.getComponents())
+                if (component instanceof CollisionHandler) collisionPass.add((CollisionHandler) component);
         if (active) {
             gameObject.start();
             addToRenderers(gameObject);
@@ -194,10 +330,17 @@ public abstract class Scene {
     }
 
     /**
-     * @param gameObject GameObject to be added.
+     * Removes a gameObject with its collider and collision handlers, so it is neither found nor dispatched anymore.
+     *
+     * @param gameObject GameObject to be removed.
      */
     public void removeGameObjectFromScene(GameObject gameObject) {
         gameObjects.remove(gameObject);
+        if (scheduler != null) scheduler.remove(gameObject);
+        if (gameObject.getComponent(Collider.class) != null) unregisterCollider(gameObject);
+        if (collisionPass != null)
+            for (Component component : gameObject.getComponents())
+                if (component instanceof CollisionHandler) collisionPass.remove((CollisionHandler) component);
         removeFromRenderers(gameObject);
     }
 
@@ -212,19 +355,76 @@ public abstract class Scene {
      * Loops through all the gameObjects in the scene and calls their update methods.
      */
     public void updateGameObjects () {
-        for (GameObject go : gameObjects) {
-            go.update(Engine.deltaTime());
+        Profiler.begin("gameObjects");
+        if (scheduler != null) {
+            scheduler.update(Engine.deltaTime());
+        } else {
+            for (GameObject go : gameObjects) {
+                go.update(Engine.deltaTime());
+            }
+            if (collisionPass != null) collisionPass.step();
         }
+        Profiler.end();
+    }
+
+    /**
+     * Lets a {@link SystemScheduler} update the gameObjects of this scene.
+     * The positions and velocities are kept in the packed arrays of an {@link ecs.EntityStore}
+     * and {@link ecs.Dynamics} and {@link ecs.PolygonCollider} are updated by systems over all entities at once.
+     * <p>
+     * Components are updated phase by phase of their {@link ecs.Component.ComponentOrder} for all gameObjects,
+     * instead of gameObject by gameObject. Positions should be changed with {@link GameObject#setPosition(float, float)},
+     * writes to {@link GameObject#getPositionData()} are only picked up by the store before the next phase with systems.
+     * <p>
+     * Has to be called before the first gameObject is added, e.g. at the start of {@link #awake()}.
+     */
+    public void enableEntityStore() {
+        if (scheduler != null) return;
+        if (!gameObjects.isEmpty())
+            throw new IllegalStateException("The entity store has to be enabled before any gameObject is added");
+        scheduler = new SystemScheduler();
+        if (collisionPass != null) scheduler.addSystem(collisionPass);
+    }
+
+    /**
+     * Lets a {@link CollisionPass} detect the collisions of all {@link CollisionHandler}s of this scene,
+     * so each pair of colliders is detected once and dispatched to the handlers of both colliders.
+     * The pass runs in the collision phase of the {@link SystemScheduler}, if the entity store is enabled,
+     * otherwise after all gameObjects were updated.
+     */
+    public void enableCollisionPass() {
+        if (collisionPass != null) return;
+        collisionPass = new CollisionPass(this);
+        for (GameObject gameObject : gameObjects)
+            for (Component component : gameObject.getComponents())
+                if (component instanceof CollisionHandler) collisionPass.add((CollisionHandler) component);
+        if (scheduler != null) scheduler.addSystem(collisionPass);
+    }
+
+    /**
+     * @return the pass detecting the collisions of all handlers, or null if every handler checks on its own
+     */
+    public CollisionPass getCollisionPass() {
+        return collisionPass;
+    }
+
+    /**
+     * @return the scheduler updating the gameObjects, or null if the entity store is not enabled
+     */
+    public SystemScheduler getScheduler() {
+        return scheduler;
     }
 
     public void updateUI () {
         // Logger.logInfo("There are " + texts.size() + " text elements.");
+        Profiler.begin("uiElements");
         for (Element e : uiElements) {
             e.update();
         }
         for (Text t : texts) {
             t.update();
         }
+        Profiler.end();
     }
 
     // ----- Rendering -----
@@ -296,6 +496,7 @@ public abstract class Scene {
         this.textRenderer.clean();
         this.uiRenderer.clean();
         rendererRegistry.forEach(Renderer::clean);
+        if (scheduler != null) scheduler.setParallelism(1);
     }
 
     public void addText (Text t) {
@@ -21,6 +21,7 @@ public class SceneManager {
     private Set<Scene> scenePool;
     private Scene currentScene;
     private boolean enabled;
+    private boolean headless;
 
     private float minSceneLight;
 
@@ -41,6 +42,22 @@ public class SceneManager {
         Log.info("enabled");
     }
 
+    /**
+     * Enables the sceneManager without any graphics, which skips the initialization of all renderers and the ui.
+     * Used to simulate scenes without a window, see {@link HeadlessLoop}.
+     */
+    public void enableHeadless() {
+        this.headless = true;
+        enable();
+    }
+
+    /**
+     * @return true, if the sceneManager was enabled without any graphics
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
     /**
      * The currently active scene.
      */
@@ -146,8 +163,10 @@ public class SceneManager {
 
     private void awaken(Scene scene) {
         if (enabled) {
-            scene.initRenderers();
-            scene.startUi();
+            if (!headless) {
+                scene.initRenderers();
+                scene.startUi();
+            }
             scene.awake();
         } else Log.warn("scene awaken called without being enabled", 1);
     }
@@ -0,0 +1,185 @@
+package tiles;
+
+/**
+ * A single layer of a {@link TileMap}, storing one tile id per cell.
+ * The cells are grouped into square chunks of {@link #CHUNK_SIZE} tiles, which are only allocated
+ * once a tile is placed in them. Empty parts of a map therefore cost no memory and can be skipped as a whole
+ * when drawing or testing for collisions.
+ * <p>
+ * Tile ids are stored as unsigned shorts, 0 always means there is no tile.
+ */
+public class TileLayer {
+
+    /**
+     * The width and height of a chunk in tiles
+     */
+    public static final int CHUNK_SIZE = 16;
+
+    /**
+     * The largest tile id a layer is able to store
+     */
+    public static final int MAX_TILE_ID = 0xFFFF;
+
+    private final String name;
+    private final int width, height;
+    private final int chunksX, chunksY;
+    private boolean collidable;
+
+    //row major chunks, null chunks are empty
+    private final short[][] chunks;
+    //the amount of tiles in each chunk, to release chunks once they are empty
+    private final int[] tileCounts;
+    //counts the changes of each chunk, so cached data of a chunk can tell whether it is out of date
+    private final int[] chunkVersions;
+
+    /**
+     * @param name       the name of the layer
+     * @param width      the width of the layer in tiles
+     * @param height     the height of the layer in tiles
+     * @param collidable whether the tiles of this layer block other colliders
+     */
+    public TileLayer(String name, int width, int height, boolean collidable) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("A tile layer needs a positive size, but was " + width + "x" + height);
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.collidable = collidable;
+        this.chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new short[chunksX * chunksY][];
+        this.tileCounts = new int[chunksX * chunksY];
+        this.chunkVersions = new int[chunksX * chunksY];
+    }
+
+    /**
+     * Creates a layer from row major tile ids, like the csv data of a Tiled map.
+     *
+     * @param name       the name of the layer
+     * @param width      the width of the layer in tiles
+     * @param height     the height of the layer in tiles
+     * @param collidable whether the tiles of this layer block other colliders
+     * @param ids        width * height tile ids, row by row
+     * @return the new layer
+     */
+    public static TileLayer of(String name, int width, int height, boolean collidable, int[] ids) {
+        if (ids.length < width * height)
+            throw new IllegalArgumentException("Expected " + width * height + " tile ids, but got " + ids.length);
+        TileLayer layer = new TileLayer(name, width, height, collidable);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                layer.set(x, y, ids[y * width + x]);
+        return layer;
+    }
+
+    /**
+     * Get the tile id at a position
+     *
+     * @param x the x coordinate in tiles
+     * @param y the y coordinate in tiles
+     * @return the tile id, 0 if there is no tile or the position is outside of the layer
+     */
+    public int get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return 0;
+        short[] chunk = chunks[(y / CHUNK_SIZE) * chunksX + x / CHUNK_SIZE];
+        if (chunk == null) return 0;
+        return chunk[(y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE] & 0xFFFF;
+    }
+
+    /**
+     * Place a tile at a position
+     *
+     * @param x  the x coordinate in tiles
+     * @param y  the y coordinate in tiles
+     * @param id the tile id, 0 removes the tile
+     */
+    public void set(int x, int y, int id) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            throw new IllegalArgumentException("Tile " + x + "," + y + " is outside of the layer " + name);
+        if (id < 0 || id > MAX_TILE_ID)
+            throw new IllegalArgumentException("Tile id " + id + " is out of range");
+        int chunkIndex = (y / CHUNK_SIZE) * chunksX + x / CHUNK_SIZE;
+        short[] chunk = chunks[chunkIndex];
+        if (chunk == null) {
+            //nothing to remove
+            if (id == 0) return;
+            chunk = chunks[chunkIndex] = new short[CHUNK_SIZE * CHUNK_SIZE];
+        }
+        int index = (y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE;
+        if ((chunk[index] & 0xFFFF) == id) return;
+        boolean wasEmpty = chunk[index] == 0;
+        chunk[index] = (short) id;
+        chunkVersions[chunkIndex]++;
+        if (wasEmpty && id != 0) tileCounts[chunkIndex]++;
+        else if (!wasEmpty && id == 0 && --tileCounts[chunkIndex] == 0) chunks[chunkIndex] = null;
+    }
+
+    /**
+     * Whether a chunk does not contain any tile
+     *
+     * @param chunkX the x coordinate in chunks
+     * @param chunkY the y coordinate in chunks
+     * @return true, if there is no tile in the chunk or the chunk is outside of the layer
+     */
+    public boolean isChunkEmpty(int chunkX, int chunkY) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY) return true;
+        return chunks[chunkY * chunksX + chunkX] == null;
+    }
+
+    /**
+     * The version of a chunk changes whenever one of its tiles is changed
+     *
+     * @param chunkX the x coordinate in chunks
+     * @param chunkY the y coordinate in chunks
+     * @return the version of the chunk, always 0 outside of the layer
+     */
+    public int getChunkVersion(int chunkX, int chunkY) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY) return 0;
+        return chunkVersions[chunkY * chunksX + chunkX];
+    }
+
+    /**
+     * @return the amount of chunks that contain at least one tile
+     */
+    public int allocatedChunks() {
+        int count = 0;
+        for (short[] chunk : chunks)
+            if (chunk != null) count++;
+        return count;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the width of the layer in chunks
+     */
+    public int getChunksX() {
+        return chunksX;
+    }
+
+    /**
+     * @return the height of the layer in chunks
+     */
+    public int getChunksY() {
+        return chunksY;
+    }
+
+    public boolean isCollidable() {
+        return collidable;
+    }
+
+    public void setCollidable(boolean collidable) {
+        this.collidable = collidable;
+    }
+
+}
@@ -0,0 +1,262 @@
+package tiles;
+
+import ecs.PolygonCollider;
+import graphics.Sprite;
+import graphics.Spritesheet;
+import org.joml.Vector2f;
+import physics.collision.Collider;
+import physics.collision.Shapes;
+import physics.collision.shape.Circle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A grid of tiles made of several {@link TileLayer}s, which are drawn on top of each other.
+ * Unlike regular {@link ecs.GameObject}s, tiles are not updated at all. They are drawn by the
+ * {@link graphics.renderer.DefaultRenderer} and tested for collisions by the {@link ecs.CollisionHandler}s of a scene,
+ * in both cases only the tiles near the visible area or the tested collider are touched.
+ * A map has to be added to a scene by {@link scene.Scene#addTileMap(TileMap)}.
+ */
+public class TileMap {
+
+    private final float tileWidth, tileHeight;
+    private final List<TileLayer> layers = new ArrayList<>();
+    private int zIndex;
+    //counts the changes affecting every tile, like new layers or sprites
+    private int version;
+
+    //the sprite of each tile id, index 0 is always empty
+    private Sprite[] sprites = new Sprite[1];
+
+    //a single collider moved to every tile that is tested for a collision
+    private final PolygonCollider tileCollider;
+
+    /**
+     * @param tileWidth  the width of a tile in world units
+     * @param tileHeight the height of a tile in world units
+     */
+    public TileMap(float tileWidth, float tileHeight) {
+        if (tileWidth <= 0 || tileHeight <= 0)
+            throw new IllegalArgumentException("A tile map needs a positive tile size, but was " + tileWidth + "x" + tileHeight);
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.tileCollider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, tileWidth, tileHeight), true);
+    }
+
+    /**
+     * Adds a layer on top of all previously added layers
+     *
+     * @param layer the new layer
+     * @return the map itself, to chain the call.
+     */
+    public TileMap addLayer(TileLayer layer) {
+        layers.add(layer);
+        version++;
+        return this;
+    }
+
+    /**
+     * @return all layers from the bottom to the top
+     */
+    public List<TileLayer> getLayers() {
+        return Collections.unmodifiableList(layers);
+    }
+
+    /**
+     * Assign all sprites of a spritesheet to consecutive tile ids.
+     *
+     * @param firstId     the tile id of the first sprite of the sheet
+     * @param spritesheet the spritesheet
+     * @return the map itself, to chain the call.
+     */
+    public TileMap addSprites(int firstId, Spritesheet spritesheet) {
+        for (int i = 0; i < spritesheet.getSize(); i++)
+            setSprite(firstId + i, spritesheet.getSprite(i));
+        return this;
+    }
+
+    /**
+     * Assign a sprite to a tile id
+     *
+     * @param id     the tile id, which has to be at least 1
+     * @param sprite the sprite to draw for this id
+     */
+    public void setSprite(int id, Sprite sprite) {
+        if (id <= 0 || id > TileLayer.MAX_TILE_ID)
+            throw new IllegalArgumentException("Tile id " + id + " is out of range");
+        if (id >= sprites.length) sprites = Arrays.copyOf(sprites, Math.max(id + 1, sprites.length * 2));
+        sprites[id] = sprite;
+        version++;
+    }
+
+    /**
+     * @param id the tile id
+     * @return the sprite drawn for the tile id or null, if there is none
+     */
+    public Sprite getSprite(int id) {
+        return id < sprites.length ? sprites[id] : null;
+    }
+
+    /**
+     * Visits all tiles intersecting an area, layer by layer.
+     * Chunks without any tiles are skipped entirely.
+     *
+     * @param minX           the left border of the area in world units
+     * @param minY           the top border of the area in world units
+     * @param maxX           the right border of the area in world units
+     * @param maxY           the bottom border of the area in world units
+     * @param collidableOnly whether to skip all layers which are not collidable
+     * @param visitor        called for every non-empty tile
+     */
+    public void forEachTile(float minX, float minY, float maxX, float maxY, boolean collidableOnly, TileVisitor visitor) {
+        int fromX = tileX(minX), fromY = tileY(minY);
+        int toX = tileX(maxX), toY = tileY(maxY);
+        for (TileLayer layer : layers) {
+            if (collidableOnly && !layer.isCollidable()) continue;
+            int startX = Math.max(fromX, 0), startY = Math.max(fromY, 0);
+            int endX = Math.min(toX, layer.getWidth() - 1), endY = Math.min(toY, layer.getHeight() - 1);
+            if (startX > endX || startY > endY) continue;
+            for (int chunkY = startY / TileLayer.CHUNK_SIZE; chunkY <= endY / TileLayer.CHUNK_SIZE; chunkY++) {
+                for (int chunkX = startX / TileLayer.CHUNK_SIZE; chunkX <= endX / TileLayer.CHUNK_SIZE; chunkX++) {
+                    if (layer.isChunkEmpty(chunkX, chunkY)) continue;
+                    //clip the chunk to the area
+                    int x0 = Math.max(startX, chunkX * TileLayer.CHUNK_SIZE);
+                    int y0 = Math.max(startY, chunkY * TileLayer.CHUNK_SIZE);
+                    int x1 = Math.min(endX, chunkX * TileLayer.CHUNK_SIZE + TileLayer.CHUNK_SIZE - 1);
+                    int y1 = Math.min(endY, chunkY * TileLayer.CHUNK_SIZE + TileLayer.CHUNK_SIZE - 1);
+                    for (int y = y0; y <= y1; y++) {
+                        for (int x = x0; x <= x1; x++) {
+                            int id = layer.get(x, y);
+                            if (id != 0) visitor.visit(layer, x, y, id);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds all solid tiles that might collide with a collider.
+     * The tiles are handed to the action as the same collider instance, which is moved to the position
+     * of the current tile before each call, so it must not be kept beyond the call.
+     *
+     * @param collider the collider to test
+     * @param action   called for every solid tile near the collider
+     */
+    public void query(Collider collider, Consumer<Collider> action) {
+        query(collider, (tile, layer, x, y) -> action.accept(tile));
+    }
+
+    /**
+     * Finds all solid tiles that might collide with a collider, like {@link #query(Collider, Consumer)},
+     * but also tells which tile the shared collider was moved to.
+     *
+     * @param collider the collider to test
+     * @param visitor  called for every solid tile near the collider
+     */
+    public void query(Collider collider, SolidTileVisitor visitor) {
+        if (!collider.canCollideWith(tileCollider)) return;
+        Circle sphere = collider.getShape().boundingSphere();
+        Vector2f center = sphere.centroid();
+        //the collider was never positioned
+        if (center == null) return;
+        float radius = sphere.radius();
+        forEachTile(center.x - radius, center.y - radius, center.x + radius, center.y + radius, true, (layer, x, y, id) -> {
+            tileCollider.getShape().setPosition(x * tileWidth, y * tileHeight);
+            visitor.visit(tileCollider, layer, x, y);
+        });
+    }
+
+    /**
+     * The collider representing every solid tile of this map.
+     * Use it to change the collision layers, masks or tags of the tiles.
+     *
+     * @return the collider of the tiles
+     */
+    public PolygonCollider getTileCollider() {
+        return tileCollider;
+    }
+
+    /**
+     * @param worldX a x coordinate in world units
+     * @return the x coordinate of the tile containing it
+     */
+    public int tileX(float worldX) {
+        return (int) Math.floor(worldX / tileWidth);
+    }
+
+    /**
+     * @param worldY a y coordinate in world units
+     * @return the y coordinate of the tile containing it
+     */
+    public int tileY(float worldY) {
+        return (int) Math.floor(worldY / tileHeight);
+    }
+
+    public float getTileWidth() {
+        return tileWidth;
+    }
+
+    public float getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * @return the zIndex used to draw all layers of the map
+     */
+    public int zIndex() {
+        return zIndex;
+    }
+
+    public void setZIndex(int zIndex) {
+        if (this.zIndex != zIndex) version++;
+        this.zIndex = zIndex;
+    }
+
+    /**
+     * The version of a map changes whenever a layer or sprite is added or the zIndex is changed.
+     * Changes of single tiles only change the version of their chunk, see {@link TileLayer#getChunkVersion(int, int)}.
+     *
+     * @return the version of the map
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Called for every tile found by {@link #forEachTile(float, float, float, float, boolean, TileVisitor)}
+     */
+    @FunctionalInterface
+    public interface TileVisitor {
+
+        /**
+         * @param layer the layer of the tile
+         * @param x     the x coordinate of the tile in tiles
+         * @param y     the y coordinate of the tile in tiles
+         * @param id    the id of the tile, never 0
+         */
+        void visit(TileLayer layer, int x, int y, int id);
+
+    }
+
+    /**
+     * Called for every tile found by {@link #query(Collider, SolidTileVisitor)}
+     */
+    @FunctionalInterface
+    public interface SolidTileVisitor {
+
+        /**
+         * @param tile  the collider of the tiles, moved to this tile
+         * @param layer the layer of the tile
+         * @param x     the x coordinate of the tile in tiles
+         * @param y     the y coordinate of the tile in tiles
+         */
+        void visit(Collider tile, TileLayer layer, int x, int y);
+
+    }
+
+}
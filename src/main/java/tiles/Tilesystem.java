@@ -1,19 +1,12 @@
 package tiles;
 
-import ecs.CollisionHandlers;
-import ecs.GameObject;
-import ecs.PolygonCollider;
-import ecs.SpriteRenderer;
 import graphics.Spritesheet;
 import graphics.Texture;
 import io.xml.XML;
 import io.xml.XMLElement;
-import physics.collision.Shapes;
-
-import org.joml.Vector2f;
 import util.Assets;
+import util.Engine;
 import util.Log;
-import util.MathUtils;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -21,15 +14,18 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 
 /**
- * The Tilesystem class loads a .tmx file (XML file format for the Tiled map editor) and generates a 2D array of GameObjects with SpriteRenderers corresponding to the texture determined by the .tmx file.
+ * The Tilesystem class loads a .tmx file (XML file format for the Tiled map editor) into a {@link TileMap} and adds it to the current scene.
+ * All layers with "collidable" in their name block other colliders.
  * Currently only Axis-aligned maps are supported (no isometric or hexagonal maps right now).
  */
 public class Tilesystem {
 
+    //tiled stores flipping and rotation of a tile in the highest bits of its id
+    private static final long TILE_ID_MASK = 0x0FFFFFFFL;
+
     ArrayList<Tileset> tilesets = new ArrayList<>();
-    ArrayList<Layer> layers = new ArrayList<>();
 
-    GameObject[][] gameObjects;
+    TileMap tileMap;
     int tileWidth, tileHeight;
 
     public Tilesystem(String tmxFile, int width, int height) {
@@ -40,101 +36,82 @@ public class Tilesystem {
 
         this.tileWidth = width;
         this.tileHeight = height;
+        this.tileMap = new TileMap(width, height);
+        // Same collision layer the player colliders of the demos use
+        tileMap.getTileCollider().layer(2).mask(2);
 
         // Extract XML data
         XMLElement root = XML.parse(Assets.getDataFile(tmxFile).array());
 
-        // Determine number of tiles on X and Y axis'
-        int xTiles = Integer.parseInt(root.getAttributes().get("width"));
-        int yTiles = Integer.parseInt(root.getAttributes().get("height"));
-
         for (XMLElement i : root.getChildren()) {
-            // Determine number of tilesets and save their data
+            // Determine number of tilesets and register their sprites
             if (i.getTag().equals("tileset")) {
-                tilesets.add(new Tileset(
+                Tileset tileset = new Tileset(
                         Integer.parseInt(i.getAttributes().get("firstgid")),
                         new File(directory, i.getAttributes().get("source")).toPath()
-                ));
+                );
+                tilesets.add(tileset);
+                tileMap.addSprites(tileset.firstgid, tileset.spritesheet);
             }
 
             // Determine number of layers and save their data
             if (i.getTag().equals("layer")) {
+                int layerWidth = Integer.parseInt(i.getAttributes().get("width"));
+                int layerHeight = Integer.parseInt(i.getAttributes().get("height"));
+                int[] map = parseCsv(i.getChildren().get(0).getValue(), layerWidth * layerHeight);
 
-                String[] mapString = i.getChildren().get(0).getValue().split(",");
-
-                double[] map = new double[mapString.length];
-                for (int j = 0; j < mapString.length; j++) {
-                    try {
-                        map[j] = Double.parseDouble(mapString[j].trim());
-                    } catch (Exception e) {
-                        System.out.println(i);
-                        e.printStackTrace();
-                    }
-                }
-
-                layers.add(new Layer(
-                        Integer.parseInt(i.getAttributes().get("id")),
+                tileMap.addLayer(TileLayer.of(
                         i.getAttributes().get("name"),
-                        Integer.parseInt(i.getAttributes().get("width")),
-                        Integer.parseInt(i.getAttributes().get("height")),
+                        layerWidth,
+                        layerHeight,
                         i.getAttributes().get("name").contains("collidable"),
                         map
                 ));
             }
         }
 
-        gameObjects = new GameObject[xTiles][yTiles];
-
-        for (int y = 0; y < yTiles; y++) {
-            for (int x = 0; x < xTiles; x++) {
-                for (Layer layer : layers) {
-
-                    // Get the raw ID from the tmx layer
-                    int tileID = (int) getAt(x, y, layer.width, layer.map);
-
-
-                    // Determine which tileset to pull sprites from
-                    Tileset ts = getTileSet(tileID);
-
-                    // Normalize the index according to range defined by tileset tags
-                    int index = getNormalizedIndex(tileID, ts);
-
-                    if (index == 0) continue;
-
-                    gameObjects[x][y] = new GameObject(new Vector2f(x * tileWidth, y * tileHeight), 0).addComponent(
-                            new SpriteRenderer(ts.spritesheet.getSprite(index), new Vector2f(width, height))
-                    );
-
-                    if (layer.collidable) {
-                        
-                        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, width, height)).layer(2).mask(2);
-                        gameObjects[x][y].addComponent(collider);
-                        gameObjects[x][y].addComponent(CollisionHandlers.unpassablePolygonCollider(collider));
-                    }
-                }
-            }
-        }
+        Engine.window().currentScene().addTileMap(tileMap);
     }
 
-    private Tileset getTileSet(int id) {
-        int currentFirstGID = 1;
-        for (int i = 0; i < tilesets.size(); i++) {
-            Tileset t = tilesets.get(i);
-            if (currentFirstGID < id && id < t.firstgid + t.spritesheet.getSize()) {
-                return t;
+    /**
+     * Reads the tile ids of csv encoded layer data without splitting it into strings first
+     *
+     * @param csv   the csv data
+     * @param count the expected amount of tile ids
+     * @return the tile ids with all flipping flags removed
+     */
+    static int[] parseCsv(String csv, int count) {
+        int[] ids = new int[count];
+        int index = 0;
+        long value = 0;
+        boolean hasDigits = false;
+        for (int i = 0, length = csv.length(); i <= length; i++) {
+            char c = i < length ? csv.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                hasDigits = true;
+            } else if (c == ',') {
+                if (!hasDigits) continue;
+                if (index == count) {
+                    Log.warn("Layer data contains more than " + count + " tiles");
+                    break;
+                }
+                ids[index++] = (int) (value & TILE_ID_MASK);
+                value = 0;
+                hasDigits = false;
+            } else if (!Character.isWhitespace(c)) {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' in layer data");
             }
-            currentFirstGID = t.firstgid;
         }
-
-        return tilesets.get(0);
-    }
-
-    public double getAt(int x, int y, int dimensionWidth, double[] map) {
-        return map[(dimensionWidth * y) + x];
+        if (index < count) Log.warn("Layer data contains only " + index + " of " + count + " tiles");
+        return ids;
     }
 
-    private int getNormalizedIndex(int id, Tileset t) {
-        return (int) MathUtils.constrain(MathUtils.map(id, t.firstgid, t.firstgid + t.spritesheet.getSize(), 0, t.spritesheet.getSize()), 0, t.spritesheet.getSize() - 1);
+    /**
+     * @return the tile map containing all layers of the loaded file
+     */
+    public TileMap getTileMap() {
+        return tileMap;
     }
 
     public int[] getIndex(int worldX, int worldY) {
@@ -177,20 +154,3 @@ class Tileset {
         this.spritesheet = new Spritesheet(new Texture(spriteSheetPath), tileWidth, tileHeight, tileCount, spacing);
     }
 }
-
-class Layer {
-    protected int id;
-    protected String name;
-    protected int width, height;
-    protected boolean collidable;
-    protected double map[] = {};
-
-    public Layer(int id, String name, int width, int height, boolean collidable, double[] map) {
-        this.id = id;
-        this.name = name;
-        this.width = width;
-        this.height = height;
-        this.collidable = collidable;
-        this.map = map;
-    }
-}
\ No newline at end of file
@@ -3,6 +3,7 @@ package ui;
 import input.Mouse;
 import org.lwjgl.glfw.GLFW;
 import ui.fonts.Font;
+import util.Assets;
 import util.MathUtils;
 import util.Observable;
 
@@ -57,7 +58,7 @@ public abstract class Element {
         this.enabled = new Observable<>(true);
         this.visible = new Observable<>(true);
         this.parent = null;
-        this.font = new Font();
+        this.font = Assets.getFont(16, true);
         this.layoutInfo = null;
         this.zIndex = 1;
         this.mouseOverThis = false;
@@ -7,12 +7,15 @@ import graphics.Color;
 import graphics.HSLColor;
 import graphics.renderer.TextRenderer;
 import org.joml.Vector2f;
+import org.joml.Vector4f;
+import scene.Scene;
+import util.Assets;
 import util.Engine;
 import util.MathUtils;
 import util.Transform;
 
 import java.util.ArrayList;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 /**
  * 
@@ -30,6 +33,8 @@ import java.util.regex.Pattern;
  * logic or user input. 
  * Additionally, it supports effects such as rainbow text:
  * text.rainbowify(); // Need I say more?
+ * <p>
+ * Changing the string reuses the existing glyphs, so only the glyphs which actually changed are redrawn.
  * 
  * <pre>
  * import ui.Text;
@@ -43,7 +48,7 @@ import java.util.regex.Pattern;
  * 
  *     public void awake() {
  *         // ...
- *         font = new Font("src/assets/fonts/OpenSans-Regular.ttf", 24, true);
+ *         font = Assets.getFont("src/assets/fonts/OpenSans-Regular.ttf", 24, true);
  *         text = new Text("Hello, World!", font, Color.BLACK, 100, 100);
  *     }
  * 
@@ -87,6 +92,26 @@ public class Text {
      */
     public Text(String string, Font font, Color color, float x, float y, int zIndex, boolean isSticky,
             boolean isCentered) {
+        this(Engine.scenes().currentScene(), string, font, color, x, y, zIndex, isSticky, isCentered);
+    }
+
+    /**
+     * @param scene      the scene which renders the text.
+     * @param string     the text to be rendered.
+     * @param font       the {@link ui.fonts.Font} object that contains your
+     *                   preferred .ttf font file.
+     * @param color      the {@link graphics.Color} object that contains your
+     *                   prefered RGBA color.
+     * @param x          the X position of the Text object.
+     * @param y          the Y position of the Text object.
+     * @param zIndex     the Z-Index of the Text Object.
+     * @param isSticky   boolean determining whether the text sticks in one position
+     *                   regardless of the camera position.
+     * @param isCentered boolean determining whether the text is left aligned or
+     *                   center aligned.
+     */
+    public Text(Scene scene, String string, Font font, Color color, float x, float y, int zIndex, boolean isSticky,
+            boolean isCentered) {
         this.text = string;
         this.font = font;
         this.color = color;
@@ -101,8 +126,8 @@ public class Text {
         glyphRenderers = new ArrayList<>();
 
         generateGlyphs();
-        Engine.scenes().currentScene().textRenderer.add(this);
-        Engine.scenes().currentScene().addText(this);
+        scene.textRenderer.add(this);
+        scene.addText(this);
     }
 
     /**
@@ -126,7 +151,7 @@ public class Text {
      * @param y      the Y position of the Text object.
      */
     public Text(String string, Color color, float x, float y) {
-        this(string, new Font(), color, x, y, 1, true, false);
+        this(string, Assets.getFont(16, true), color, x, y, 1, true, false);
     }
 
     /**
@@ -135,7 +160,7 @@ public class Text {
      * @param y      the Y position of the Text object.
      */
     public Text(String string, float x, float y) {
-        this(string, new Font(), Color.BLUE, x, y, 1, false, false);
+        this(string, Assets.getFont(16, true), Color.BLUE, x, y, 1, false, false);
     }
 
     /**
@@ -145,11 +170,12 @@ public class Text {
      */
     public void update() {
         if (!lastTransform.equals(this.transform)) {
-            Vector2f movementDelta = new Vector2f(transform.getX() - lastTransform.getX(),
-                    transform.getY() - lastTransform.getY());
+            float dx = transform.getX() - lastTransform.getX();
+            float dy = transform.getY() - lastTransform.getY();
 
             for (GlyphRenderer i : glyphRenderers) {
-                i.updatePosition(movementDelta);
+                i.addX(dx);
+                i.addY(dy);
             }
             for (GlyphRenderer i : glyphRenderers) {
                 i.update(Engine.deltaTime());
@@ -163,11 +189,15 @@ public class Text {
      * This method is called when the user wants to modify the string in the Text
      * object.
      * This can be called anytime after object creation.
+     * The glyphs of the previous string are reused, so texts changing every frame, like counters, stay cheap.
      * 
      * @param string the text to change the current string to.
      */
     public void change(String string) {
-        glyphRenderers.clear();
+        // Compare without building the new string first
+        if (text.length() == string.length() + 1 && text.charAt(string.length()) == ' '
+                && ((String) text).startsWith(string))
+            return;
         this.text = string + " ";
         generateGlyphs();
     }
@@ -176,88 +206,77 @@ public class Text {
         return (String) this.text;
     }
 
-    private char ch;
-    private float lineWidth = 0;
-
     /**
-     * Calculates the width of a single line of text based on the Glyph size for
+     * Calculates the width of each line of text based on the Glyph size for
      * each character contained in the CharSequence (a lower level representation of
      * String).
      * 
-     * @return the width in pixels of the line.
+     * @return the amount of lines.
      */
-    private float calculateLineWidth(CharSequence line) {
-        float drawX = 0;
+    private int calculateLineWidths(CharSequence text, int length) {
+        int lines = 0;
+        float lineWidth = 0;
+        maxTextWidth = 0;
 
-        for (int i = 0; i < line.length(); i++) {
-            ch = line.charAt(i);
+        for (int i = 0; i <= length; i++) {
+            char ch = i < length ? charAt(text, i) : '\n';
 
-            if (ch == '\r')
+            if (ch == '\n') {
+                if (lines == lineLengths.length) lineLengths = Arrays.copyOf(lineLengths, lines * 2);
+                lineLengths[lines++] = lineWidth;
+                maxTextWidth = Math.max(maxTextWidth, lineWidth);
+                lineWidth = 0;
                 continue;
+            }
 
-            drawX += font.getGlyphs().get(ch).width;
-            lineWidth = drawX;
+            Glyph g = font.getGlyph(ch);
+            if (g != null) lineWidth += g.width;
         }
 
-        return lineWidth;
+        return lines;
+    }
+
+    /**
+     * Gets the char at an index, strings are cut off at a certain length due to
+     * rendering speed and memory limitations, the last three characters are replaced with "...".
+     */
+    private static char charAt(CharSequence text, int i) {
+        return i >= TextRenderer.getMaxBatchSize() - 3 ? '.' : text.charAt(i);
     }
 
     /**
      * Creates the glyphs (essentially sprites) for each character in the string at
      * the appropriate position relative to the anchor point and text alignment.
+     * Existing glyph renderers are reused and only marked dirty if their char or position changes.
      */
     int textHeight;
     float maxTextWidth;
+    private float[] lineLengths = new float[4];
+    private Vector4f colorVector;
 
     private void generateGlyphs() {
-
-        float[] lineLengths = new float[1];
-        if (isCentered) {
-            // Split the CharSequence/string at each line break "\n"
-            Pattern pattern = Pattern.compile("\n");
-            CharSequence[] lines = pattern.split(text);
-
-            // Create and fill and array of line lengths, in pixels for each line of text.
-            lineLengths = new float[lines.length];
-            for (int i = 0; i < lines.length; i++) {
-                lineLengths[i] = calculateLineWidth(lines[i]);
-            }
-
-            // Determine which line is the longest
-            for (float i : lineLengths) {
-                if (i > maxTextWidth) {
-                    maxTextWidth = i;
-                }
-            }
-        }
+        int length = Math.min(text.length(), TextRenderer.getMaxBatchSize());
+        if (isCentered) calculateLineWidths(text, length);
 
         textHeight = font.getHeight(text);
+        if (colorVector == null) colorVector = color.toNormalizedVec4f();
         int lineIncreases = 0;
+        int used = 0;
 
         // Get the anchor point of the Text object
-        Transform t = transform.copy();
-        float drawX = t.getX();
-        float drawY = t.getY();
-
-        for (int i = 0; i < text.length(); i++) {
-            // String sizes are automatically chopped off at a certain length due to
-            // rendering speed and memory limitations.
-            if (i >= TextRenderer.getMaxBatchSize() - 3) {
-                // Replace the last three characters of the string with "..."
-                if (i < TextRenderer.getMaxBatchSize()) {
-                    ch = '.';
-                } else
-                    break;
-            } else
-                ch = text.charAt(i);
+        float drawX = transform.getX();
+        float drawY = transform.getY();
+
+        for (int i = 0; i < length; i++) {
+            char ch = charAt(text, i);
 
             if (ch == '\n') {
                 // Line break, set x and y to draw at the next line and continue since there is
                 // nothing to draw.
                 lineIncreases++;
 
-                drawY = t.getY() + (font.getFontHeight() * lineIncreases);
-                drawX = t.getX();
+                drawY = transform.getY() + (font.getFontHeight() * lineIncreases);
+                drawX = transform.getX();
 
                 continue;
             }
@@ -266,25 +285,26 @@ public class Text {
             if (ch == '\r')
                 continue;
 
-            // Add the Glyph that corresponds to the current character to the arrayList of
-            // glyphRenders.
-            Glyph g = font.getGlyphs().get(ch);
+            // Chars missing in the font are skipped
+            Glyph g = font.getGlyph(ch);
+            if (g == null)
+                continue;
 
-            if (!isCentered) {
-                glyphRenderers.add(new GlyphRenderer(new Transform(drawX, drawY, g.width, g.height), g, this, ch,
-                        isSticky, this.color));
+            float x = isCentered ? MathUtils.round(drawX - lineLengths[lineIncreases] / 2) : drawX;
+            if (used < glyphRenderers.size()) {
+                glyphRenderers.get(used).set(x, drawY, g, ch, colorVector);
             } else {
-                glyphRenderers
-                        .add(new GlyphRenderer(new Transform(MathUtils.round(drawX - lineLengths[lineIncreases] / 2),
-                                drawY, g.width, g.height), g, this, ch, isSticky, this.color));
+                glyphRenderers.add(new GlyphRenderer(new Transform(x, drawY, g.width, g.height), g, this, ch,
+                        isSticky, this.color));
             }
+            used++;
 
             drawX += g.width;
-            lineWidth = 0;
-        }
-        if (textHeight > font.getFontHeight()) {
-            drawY += textHeight - font.getFontHeight();
         }
+
+        // Drop the glyphs the new string does not need anymore
+        while (glyphRenderers.size() > used)
+            glyphRenderers.remove(glyphRenderers.size() - 1);
     }
 
     public ArrayList<GlyphRenderer> getGlyphRenderers() {
@@ -298,6 +318,7 @@ public class Text {
      */
     public void setColor(Color color) {
         this.color = color;
+        this.colorVector = color.toNormalizedVec4f();
         for (GlyphRenderer g : this.glyphRenderers) {
             g.setColor(this.color);
         }
@@ -4,7 +4,7 @@ import graphics.Color;
 import graphics.Sprite;
 import org.lwjgl.glfw.GLFW;
 import ui.*;
-import ui.fonts.Font;
+import util.Assets;
 import util.Engine;
 import util.Observable;
 
@@ -40,7 +40,7 @@ public class CheckBox extends RenderableElement implements TextHolder {
         this.group = group;
         this.optionIndex = optionIndex;
         float fontSize = this.frame.getHeight() / 2;
-        this.label = new Text(label, new Font((int) fontSize), Color.BLACK, this.frame.getX() + unchecked.getWidth(), this.frame.getY() - 3 + fontSize / 2);
+        this.label = new Text(label, Assets.getFont((int) fontSize, true), Color.BLACK, this.frame.getX() + unchecked.getWidth(), this.frame.getY() - 3 + fontSize / 2);
         this.checked = new Observable<>(false);
         this.cursor = GLFW.GLFW_POINTING_HAND_CURSOR;
         this.uncheckedSprite = unchecked;
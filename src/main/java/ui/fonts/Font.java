@@ -24,6 +24,8 @@ import static java.awt.Font.*;
 
 /**
  * This class contains a font texture for drawing text.
+ * The glyphs are rasterized into an atlas image on creation, which is only uploaded to the GPU once the texture is first used.
+ * Fonts are expensive to create, so prefer the shared instances of {@link util.Assets#getFont(String, float, boolean)}.
  * A lot of credit for the base of this file goes to @SilverTiger on GitHub, his base has been heavily modified to work in Azurite.
  *
  * @author Heiko Brumme (SilverTiger) {@link <a href="https://github.com/SilverTiger/lwjgl3-tutorial">...</a>}
@@ -36,9 +38,15 @@ public class Font {
      */
     private final Map<Character, Glyph> glyphs;
     /**
-     * Contains the font texture.
+     * Contains the glyphs indexed by their char, null for chars the font does not contain.
      */
-    private final Texture texture;
+    private final Glyph[] glyphTable = new Glyph[256];
+    /**
+     * Contains the font texture, created from the atlas pixels on first use.
+     */
+    private Texture texture;
+    private ByteBuffer atlasPixels;
+    private int atlasWidth, atlasHeight;
 
     /**
      * Height of the font.
@@ -127,7 +135,18 @@ public class Font {
         }
 
         glyphs = new HashMap<>();
-        texture = createFontTexture(f, antiAlias);
+        createAtlas(f, antiAlias);
+    }
+
+    /**
+     * Creates a font without baked glyphs, for fonts which create their glyphs on demand.
+     *
+     * @param glyphs     The glyphs returned by {@link #getGlyphs()}
+     * @param fontHeight Height of the font
+     */
+    protected Font(Map<Character, Glyph> glyphs, int fontHeight) {
+        this.glyphs = glyphs;
+        this.fontHeight = fontHeight;
     }
 
     /**
@@ -147,20 +166,21 @@ public class Font {
      */
     public Font(java.awt.Font font, boolean antiAlias) {
         glyphs = new HashMap<>();
-        texture = createFontTexture(font, antiAlias);
+        createAtlas(font, antiAlias);
     }
 
     /**
-     * Creates a font texture from specified AWT font.
+     * Creates the atlas image and the glyphs from specified AWT font.
      *
      * @param font      The AWT font
      * @param antiAlias Whether the font should be anti-aliased or not
-     * @return Font texture
      */
-    private Texture createFontTexture(java.awt.Font font, boolean antiAlias) {
+    private void createAtlas(java.awt.Font font, boolean antiAlias) {
         // Loop through the characters to get charWidth and charHeight
         int imageWidth = 0;
         int imageHeight = 0;
+        // Each char is only rasterized once, the images are drawn onto the atlas afterwards
+        BufferedImage[] charImages = new BufferedImage[glyphTable.length];
 
         // Start at char #32, because ASCII 0 to 31 are just control codes
         for (int i = 32; i < 256; i++) {
@@ -170,6 +190,7 @@ public class Font {
             }
             char c = (char) i;
             BufferedImage ch = createCharImage(font, c, antiAlias);
+            charImages[i] = ch;
             if (ch == null) {
                 // If char image is null that font does not contain the char
                 continue;
@@ -195,7 +216,7 @@ public class Font {
 
             char c = (char) i;
 
-            BufferedImage charImage = createCharImage(font, c, antiAlias);
+            BufferedImage charImage = charImages[i];
 
             // If char image is null that font does not contain the char
             if (charImage == null) continue;
@@ -207,22 +228,25 @@ public class Font {
             Glyph ch = new Glyph(charWidth, charHeight, x, image.getHeight() - charHeight);
             g.drawImage(charImage, x, 0, null);
             x += ch.width;
+            ch.font = this;
             glyphs.put(c, ch);
+            glyphTable[i] = ch;
         }
+        g.dispose();
 
-        Texture finalTexture = bufferedImageToTexture(image);
+        atlasPixels = bufferedImageToPixels(image);
+        atlasWidth = image.getWidth();
+        atlasHeight = image.getHeight();
 
-        // Finally, calculate the UV coordinates on the generated texture and store it in each Glyph
-        for (int i = 32; i < 256; i++) {
-            if (glyphs.get((char) i) != null) {
-                glyphs.get((char) i).calculateUVs(finalTexture);
+        // Finally, calculate the UV coordinates on the atlas and store it in each Glyph
+        for (Glyph glyph : glyphTable) {
+            if (glyph != null) {
+                glyph.calculateUVs(atlasWidth, atlasHeight);
             }
         }
-
-        return finalTexture;
     }
 
-    private Texture bufferedImageToTexture(BufferedImage image) {
+    private ByteBuffer bufferedImageToPixels(BufferedImage image) {
         // Flip image Horizontally
         AffineTransform transform = AffineTransform.getScaleInstance(1f, -1f);
         transform.translate(0, -image.getHeight());
@@ -256,7 +280,7 @@ public class Font {
 
         buffer.flip();
 
-        return new Texture().createTexture(width, height, buffer);
+        return buffer;
     }
 
     /**
@@ -321,8 +345,8 @@ public class Font {
 
             if (c == '\r') continue;
 
-            Glyph g = glyphs.get(c);
-            lineHeight = Math.max(lineHeight, g.height);
+            Glyph g = getGlyph(c);
+            if (g != null) lineHeight = Math.max(lineHeight, g.height);
         }
         height += lineHeight;
         return height;
@@ -336,7 +360,26 @@ public class Font {
         return glyphs;
     }
 
+    /**
+     * Gets the glyph of a char without boxing it.
+     *
+     * @param c The char
+     * @return The glyph, or null if the font does not contain the char
+     */
+    public Glyph getGlyph(char c) {
+        return c < glyphTable.length ? glyphTable[c] : null;
+    }
+
+    /**
+     * Gets the font texture, which is uploaded to the GPU by the first call.
+     *
+     * @return Font texture
+     */
     public Texture getTexture() {
+        if (texture == null) {
+            texture = new Texture().createTexture(atlasWidth, atlasHeight, atlasPixels);
+            atlasPixels = null;
+        }
         return texture;
     }
 }
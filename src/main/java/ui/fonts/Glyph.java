@@ -16,6 +16,8 @@ public class Glyph extends Sprite {
     public final int x;
     public final int y;
     public Vector2f[] uvCoordinates;
+    // The font whose atlas contains this glyph
+    Font font;
 
     /**
      * Creates a font Glyph.
@@ -26,7 +28,7 @@ public class Glyph extends Sprite {
      * @param y       Y coordinate on the font texture
      */
     public Glyph(int width, int height, int x, int y) {
-        super(new Texture());
+        super((Texture) null);
         this.width = width;
         this.height = height;
         this.x = x;
@@ -35,11 +37,20 @@ public class Glyph extends Sprite {
 
     public void calculateUVs (Texture texture) {
         this.texture = texture;
+        calculateUVs(texture.getWidth(), texture.getHeight());
+    }
 
-        float topY = (y + height) / (float)texture.getHeight();
-        float rightX = (x + width) / (float)texture.getWidth();
-        float leftX = x / (float)texture.getWidth();
-        float bottomY = y / (float)texture.getHeight();
+    /**
+     * Calculates the UV coordinates on an atlas, which might not be uploaded yet.
+     *
+     * @param atlasWidth  Width of the atlas
+     * @param atlasHeight Height of the atlas
+     */
+    public void calculateUVs (int atlasWidth, int atlasHeight) {
+        float topY = (y + height) / (float)atlasHeight;
+        float rightX = (x + width) / (float)atlasWidth;
+        float leftX = x / (float)atlasWidth;
+        float bottomY = y / (float)atlasHeight;
 
         uvCoordinates = new Vector2f[] {
                 new Vector2f(rightX, bottomY),
@@ -49,6 +60,19 @@ public class Glyph extends Sprite {
         };
     }
 
+    @Override
+    public Texture getTexture() {
+        if (texture == null && font != null) texture = font.getTexture();
+        return texture;
+    }
+
+    /**
+     * @return true, if the glyph was removed from the atlas of its font and has to be looked up again
+     */
+    public boolean isEvicted () {
+        return false;
+    }
+
     public Vector2f[] getUV () {
         return uvCoordinates;
     }
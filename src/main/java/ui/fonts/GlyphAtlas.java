@@ -0,0 +1,262 @@
+package ui.fonts;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Packs glyph bitmaps into square pages of one byte per pixel, as they are needed.
+ * Glyphs are placed on shelves: rows of the height of their first glyph, which are filled from left to right.
+ * <p>
+ * The amount of pages is limited. If no page has room for another glyph, the page used least recently is cleared,
+ * and the glyphs it contained are reported to the eviction listener, so they can be rasterized again once they are used.
+ * Pages do not depend on OpenGL, the changed area of a page is tracked, so only that area has to be uploaded.
+ *
+ * @see TrueTypeFont
+ */
+public class GlyphAtlas {
+
+    public static final int DEFAULT_PAGE_SIZE = 512;
+    public static final int DEFAULT_MAX_PAGES = 4;
+
+    // Empty pixels between two glyphs, so filtering does not bleed into the neighbours
+    private static final int PADDING = 1;
+
+    private final int pageSize;
+    private final int maxPages;
+    private final List<Page> pages;
+    private final Consumer<List<Region>> evictionListener;
+    private long clock;
+
+    /**
+     * @param pageSize         the width and height of a page in pixels
+     * @param maxPages         the maximum amount of pages
+     * @param evictionListener receives the regions of a page right before it is cleared, may be null
+     */
+    public GlyphAtlas(int pageSize, int maxPages, Consumer<List<Region>> evictionListener) {
+        if (pageSize <= 0) throw new IllegalArgumentException("the size of an atlas page has to be positive");
+        if (maxPages <= 0) throw new IllegalArgumentException("an atlas requires at least one page");
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.pages = new ArrayList<>();
+        this.evictionListener = evictionListener;
+    }
+
+    public GlyphAtlas(Consumer<List<Region>> evictionListener) {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES, evictionListener);
+    }
+
+    /**
+     * Finds room for a glyph, clearing the least recently used page if all pages are full.
+     *
+     * @param key    identifies the glyph, e.g. its codepoint, and is reported back on eviction
+     * @param width  the width of the glyph
+     * @param height the height of the glyph
+     * @return the region of the glyph, or null if the glyph is larger than a page
+     */
+    public Region allocate(int key, int width, int height) {
+        if (width < 0 || height < 0) throw new IllegalArgumentException("the size of a glyph cannot be negative");
+        if (width + PADDING > pageSize || height + PADDING > pageSize) return null;
+
+        for (Page page : pages) {
+            Region region = page.allocate(key, width, height);
+            if (region != null) return touch(region);
+        }
+
+        Page page;
+        if (pages.size() < maxPages) {
+            page = new Page(pages.size(), pageSize);
+            pages.add(page);
+        } else {
+            page = pages.get(0);
+            for (Page p : pages)
+                if (p.lastUsed < page.lastUsed) page = p;
+            evict(page);
+        }
+        return touch(page.allocate(key, width, height));
+    }
+
+    private void evict(Page page) {
+        if (evictionListener != null && !page.regions.isEmpty())
+            evictionListener.accept(page.regions);
+        page.clear();
+    }
+
+    /**
+     * Marks the page of a region as used, so it is the last one to be cleared.
+     *
+     * @param region the region
+     * @return the region
+     */
+    public Region touch(Region region) {
+        region.page.lastUsed = ++clock;
+        return region;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public List<Page> getPages() {
+        return pages;
+    }
+
+    /**
+     * A square image of glyphs
+     */
+    public static final class Page {
+
+        private final int index;
+        private final int size;
+        private final ByteBuffer pixels;
+        private final List<Region> regions = new ArrayList<>();
+        // Each shelf is stored as y, height and the next free x
+        private int[] shelves = new int[3 * 16];
+        private int shelfCount;
+        private int nextShelfY;
+        private int generation;
+        private long lastUsed;
+        // The changed rows, which have to be uploaded again
+        private int dirtyMinY = Integer.MAX_VALUE, dirtyMaxY = -1;
+
+        Page(int index, int size) {
+            this.index = index;
+            this.size = size;
+            this.pixels = BufferUtils.createByteBuffer(size * size);
+        }
+
+        Region allocate(int key, int width, int height) {
+            int paddedWidth = width + PADDING, paddedHeight = height + PADDING;
+            // The flattest shelf the glyph fits on, so tall shelves are not wasted on small glyphs
+            int best = -1;
+            for (int i = 0; i < shelfCount; i++) {
+                int shelf = i * 3;
+                if (shelves[shelf + 1] >= paddedHeight && shelves[shelf + 2] + paddedWidth <= size
+                        && (best < 0 || shelves[shelf + 1] < shelves[best + 1]))
+                    best = shelf;
+            }
+            if (best < 0) {
+                if (nextShelfY + paddedHeight > size) return null;
+                if (shelfCount * 3 == shelves.length) shelves = Arrays.copyOf(shelves, shelves.length * 2);
+                best = shelfCount++ * 3;
+                shelves[best] = nextShelfY;
+                shelves[best + 1] = paddedHeight;
+                shelves[best + 2] = 0;
+                nextShelfY += paddedHeight;
+            }
+            Region region = new Region(this, key, shelves[best + 2], shelves[best], width, height);
+            shelves[best + 2] += paddedWidth;
+            regions.add(region);
+            return region;
+        }
+
+        void clear() {
+            generation++;
+            regions.clear();
+            shelfCount = 0;
+            nextShelfY = 0;
+            MemoryUtil.memSet(pixels, 0);
+            markDirty(0, size);
+        }
+
+        /**
+         * Marks rows as changed
+         *
+         * @param y      the first row
+         * @param height the amount of rows
+         */
+        public void markDirty(int y, int height) {
+            dirtyMinY = Math.min(dirtyMinY, y);
+            dirtyMaxY = Math.max(dirtyMaxY, y + height - 1);
+        }
+
+        public boolean isDirty() {
+            return dirtyMaxY >= dirtyMinY;
+        }
+
+        public int getDirtyMinY() {
+            return dirtyMinY;
+        }
+
+        public int getDirtyMaxY() {
+            return dirtyMaxY;
+        }
+
+        public void clearDirty() {
+            dirtyMinY = Integer.MAX_VALUE;
+            dirtyMaxY = -1;
+        }
+
+        /**
+         * @return the position of this page in the atlas
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return the coverage of every pixel, row by row
+         */
+        public ByteBuffer getPixels() {
+            return pixels;
+        }
+
+        /**
+         * @return the amount of glyphs on this page
+         */
+        public int getGlyphCount() {
+            return regions.size();
+        }
+
+        /**
+         * @return increased every time the page is cleared
+         */
+        public int getGeneration() {
+            return generation;
+        }
+
+    }
+
+    /**
+     * The place of a single glyph on a page
+     */
+    public static final class Region {
+
+        public final Page page;
+        public final int key;
+        public final int x, y, width, height;
+        private final int generation;
+
+        Region(Page page, int key, int x, int y, int width, int height) {
+            this.page = page;
+            this.key = key;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.generation = page.generation;
+        }
+
+        /**
+         * @return false, once the page of this region was cleared
+         */
+        public boolean isValid() {
+            return generation == page.generation;
+        }
+
+    }
+
+}
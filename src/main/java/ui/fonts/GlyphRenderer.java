@@ -55,6 +55,28 @@ public class GlyphRenderer {
         }
     }
 
+    /**
+     * Reuses this renderer for another char, e.g. after the text has changed. Only marks it dirty if something has changed.
+     * @param x the x position of the glyph
+     * @param y the y position of the glyph
+     * @param glyph the glyph to draw
+     * @param c the char of the glyph
+     * @param color the normalized color, which is copied
+     */
+    public void set (float x, float y, Glyph glyph, char c, Vector4f color) {
+        if (glyph != this.glyph || x != localTransform.getX() || y != localTransform.getY()) {
+            localTransform.getPosition().set(x, y);
+            localTransform.scale.set(glyph.width, glyph.height);
+            this.glyph = glyph;
+            isDirty = true;
+        }
+        if (!this.color.equals(color)) {
+            this.color = new Vector4f(color);
+            isDirty = true;
+        }
+        this.character = c;
+    }
+
     public void updatePosition (Vector2f delta) {
         localTransform.addX(delta.x());
         localTransform.addY(delta.y());
@@ -68,7 +90,7 @@ public class GlyphRenderer {
      * @return type Texture of the sprite if applicable.
      */
     public Texture getTexture() {
-        return glyph.getTexture();
+        return glyph().getTexture();
     }
 
 
@@ -76,7 +98,18 @@ public class GlyphRenderer {
      * @return Vector2f array of the UV coordinates of the sprite if applicable.
      */
     public Vector2f[] getTexCoords() {
-        return glyph.getUV();
+        return glyph().getUV();
+    }
+
+    /**
+     * Fonts with a dynamic atlas might have evicted the glyph, it is rasterized again on demand
+     */
+    private Glyph glyph() {
+        if (glyph.isEvicted() && glyph.font != null) {
+            Glyph current = glyph.font.getGlyph(character);
+            if (current != null) glyph = current;
+        }
+        return glyph;
     }
 
     /**
@@ -0,0 +1,287 @@
+package ui.fonts;
+
+import graphics.Texture;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
+import static org.lwjgl.opengl.GL30.GL_R8;
+import static org.lwjgl.opengl.GL33.GL_TEXTURE_SWIZZLE_RGBA;
+import static org.lwjgl.stb.STBTruetype.*;
+
+/**
+ * A font rasterized by STB TrueType, which creates the glyph of a char only when it is used for the first time.
+ * Any char of the font can be drawn, not only Latin ones, and creating the font does not rasterize anything.
+ * <p>
+ * Glyphs are packed into the pages of a {@link GlyphAtlas}, the amount of pages and therefore the memory is limited.
+ * Glyphs on a page that was not used recently might be evicted to make room for new ones, they are rasterized again
+ * once they are drawn. Every page is a texture of its own, which is uploaded lazily and only for the changed rows.
+ * <pre>
+ * Font font = new TrueTypeFont("src/assets/fonts/OpenSans-Regular.ttf", 24);
+ * Text text = new Text("Grüße, Привет", font, Color.WHITE, 100, 100);
+ * </pre>
+ * Only chars of the basic multilingual plane are supported by {@link ui.Text}, but any codepoint can be rasterized.
+ *
+ * @see GlyphAtlas
+ */
+public class TrueTypeFont extends Font {
+
+    private static final int LAST_CODEPOINT = 0x10FFFF;
+
+    // The font data has to stay alive as long as the font info, stb only keeps a pointer to it
+    private final ByteBuffer data;
+    private final STBTTFontinfo info;
+    private final float scale;
+    private final int ascent;
+    private final int lineHeight;
+
+    private final GlyphAtlas atlas;
+    // The glyphs in the atlas, indexed by codepoint in blocks of 256, which are created when needed
+    private final AtlasGlyph[][] blocks = new AtlasGlyph[(LAST_CODEPOINT >> 8) + 1][];
+    private final Texture[] pageTextures;
+    private ByteBuffer bitmap = BufferUtils.createByteBuffer(64 * 64);
+
+    /**
+     * Loads a font with an atlas of the default size.
+     *
+     * @param path Path to the TTF file
+     * @param size Height of a line in pixels
+     */
+    public TrueTypeFont(String path, float size) {
+        this(path, size, GlyphAtlas.DEFAULT_PAGE_SIZE, GlyphAtlas.DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Loads a font.
+     *
+     * @param path     Path to the TTF file
+     * @param size     Height of a line in pixels
+     * @param pageSize Width and height of an atlas page
+     * @param maxPages Maximum amount of atlas pages
+     */
+    public TrueTypeFont(String path, float size, int pageSize, int maxPages) {
+        this(read(path), size, pageSize, maxPages);
+    }
+
+    /**
+     * Creates a font from the data of a TTF file.
+     *
+     * @param data     The TTF file, a direct buffer
+     * @param size     Height of a line in pixels
+     * @param pageSize Width and height of an atlas page
+     * @param maxPages Maximum amount of atlas pages
+     */
+    public TrueTypeFont(ByteBuffer data, float size, int pageSize, int maxPages) {
+        this(data, load(data), size, pageSize, maxPages);
+    }
+
+    private TrueTypeFont(ByteBuffer data, STBTTFontinfo info, float size, int pageSize, int maxPages) {
+        super(new HashMap<>(), lineHeight(info, size));
+        this.data = data;
+        this.info = info;
+        this.scale = stbtt_ScaleForPixelHeight(info, size);
+        this.lineHeight = getFontHeight();
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer ascent = stack.mallocInt(1);
+            stbtt_GetFontVMetrics(info, ascent, null, null);
+            this.ascent = Math.round(ascent.get(0) * scale);
+        }
+        this.atlas = new GlyphAtlas(pageSize, maxPages, this::evicted);
+        this.pageTextures = new Texture[maxPages];
+    }
+
+    private static ByteBuffer read(String path) {
+        try {
+            byte[] bytes = Files.readAllBytes(Paths.get(path));
+            ByteBuffer buffer = BufferUtils.createByteBuffer(bytes.length);
+            buffer.put(bytes).flip();
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not load font " + path, e);
+        }
+    }
+
+    private static STBTTFontinfo load(ByteBuffer data) {
+        if (data == null || !data.isDirect()) throw new IllegalArgumentException("the font data has to be a direct buffer");
+        STBTTFontinfo info = STBTTFontinfo.create();
+        if (!stbtt_InitFont(info, data)) throw new IllegalArgumentException("the font data is not a TrueType font");
+        return info;
+    }
+
+    private static int lineHeight(STBTTFontinfo info, float size) {
+        if (!(size > 0)) throw new IllegalArgumentException("the size of a font has to be positive");
+        float scale = stbtt_ScaleForPixelHeight(info, size);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer ascent = stack.mallocInt(1);
+            IntBuffer descent = stack.mallocInt(1);
+            IntBuffer lineGap = stack.mallocInt(1);
+            stbtt_GetFontVMetrics(info, ascent, descent, lineGap);
+            return Math.round(ascent.get(0) * scale) - Math.round(descent.get(0) * scale);
+        }
+    }
+
+    @Override
+    public Glyph getGlyph(char c) {
+        return getGlyph((int) c);
+    }
+
+    /**
+     * Gets the glyph of a codepoint, rasterizing it if it is not in the atlas.
+     *
+     * @param codepoint The unicode codepoint
+     * @return The glyph, or null if the font does not contain the codepoint
+     */
+    public Glyph getGlyph(int codepoint) {
+        if (codepoint < 0 || codepoint > LAST_CODEPOINT) return null;
+        AtlasGlyph[] block = blocks[codepoint >> 8];
+        AtlasGlyph glyph = block == null ? null : block[codepoint & 0xFF];
+        if (glyph != null) return glyph;
+
+        int index = stbtt_FindGlyphIndex(info, codepoint);
+        if (index == 0) return null;
+        glyph = rasterize(codepoint, index);
+        if (glyph == null) return null;
+        if (block == null) block = blocks[codepoint >> 8] = new AtlasGlyph[256];
+        block[codepoint & 0xFF] = glyph;
+        return glyph;
+    }
+
+    /**
+     * Draws a glyph into a cell of the atlas, which is as wide as the advance of the glyph and as high as a line,
+     * so glyphs can be placed next to each other like the glyphs of a baked font.
+     */
+    private AtlasGlyph rasterize(int codepoint, int index) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer advance = stack.mallocInt(1);
+            IntBuffer x0 = stack.mallocInt(1), y0 = stack.mallocInt(1);
+            IntBuffer x1 = stack.mallocInt(1), y1 = stack.mallocInt(1);
+            stbtt_GetGlyphHMetrics(info, index, advance, null);
+            stbtt_GetGlyphBitmapBox(info, index, scale, scale, x0, y0, x1, y1);
+
+            int left = Math.max(x0.get(0), 0);
+            int cellWidth = Math.max(Math.round(advance.get(0) * scale), x1.get(0));
+            GlyphAtlas.Region region = atlas.allocate(codepoint, cellWidth, lineHeight);
+            if (region == null) return null;
+
+            int bitmapWidth = x1.get(0) - x0.get(0), bitmapHeight = y1.get(0) - y0.get(0);
+            if (bitmapWidth > 0 && bitmapHeight > 0) {
+                if (bitmap.capacity() < bitmapWidth * bitmapHeight)
+                    bitmap = BufferUtils.createByteBuffer(bitmapWidth * bitmapHeight);
+                stbtt_MakeGlyphBitmap(info, bitmap, bitmapWidth, bitmapHeight, bitmapWidth, scale, scale, index);
+                copyFlipped(region, bitmapWidth, bitmapHeight, left, ascent + y0.get(0), x0.get(0) < 0 ? -x0.get(0) : 0);
+            }
+            region.page.markDirty(region.y, region.height);
+
+            AtlasGlyph glyph = new AtlasGlyph(region);
+            glyph.font = this;
+            glyph.calculateUVs(atlas.getPageSize(), atlas.getPageSize());
+            return glyph;
+        }
+    }
+
+    /**
+     * Copies the bitmap into its cell upside down, since the rows of a texture start at the bottom
+     */
+    private void copyFlipped(GlyphAtlas.Region region, int width, int height, int cellX, int cellY, int skipX) {
+        ByteBuffer pixels = region.page.getPixels();
+        int pageSize = region.page.getSize();
+        int copyWidth = Math.min(width - skipX, region.width - cellX);
+        for (int row = 0; row < height; row++) {
+            int y = cellY + row;
+            if (y < 0 || y >= region.height || copyWidth <= 0) continue;
+            int target = (region.y + region.height - 1 - y) * pageSize + region.x + cellX;
+            MemoryUtil.memCopy(MemoryUtil.memAddress(bitmap, row * width + skipX), MemoryUtil.memAddress(pixels, target), copyWidth);
+        }
+    }
+
+    private void evicted(List<GlyphAtlas.Region> regions) {
+        for (GlyphAtlas.Region region : regions) {
+            AtlasGlyph[] block = blocks[region.key >> 8];
+            if (block != null) block[region.key & 0xFF] = null;
+        }
+    }
+
+    /**
+     * Gets the texture of an atlas page, creating or updating it if the page has changed.
+     */
+    private Texture pageTexture(GlyphAtlas.Page page) {
+        Texture texture = pageTextures[page.getIndex()];
+        int size = page.getSize();
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        if (texture == null) {
+            texture = new Texture();
+            texture.setWidth(size);
+            texture.setHeight(size);
+            texture.bind();
+            texture.setParameter(GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+            texture.setParameter(GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+            texture.setParameter(GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+            texture.setParameter(GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+            // A single channel of coverage, drawn as white with the coverage as alpha
+            glTexParameteriv(GL_TEXTURE_2D, GL_TEXTURE_SWIZZLE_RGBA, new int[]{GL_ONE, GL_ONE, GL_ONE, GL_RED});
+            texture.uploadData(GL_R8, size, size, GL_RED, page.getPixels());
+            pageTextures[page.getIndex()] = texture;
+            page.clearDirty();
+        } else if (page.isDirty()) {
+            int minY = page.getDirtyMinY(), rows = page.getDirtyMaxY() - minY + 1;
+            texture.bind();
+            glTexSubImage2D(GL_TEXTURE_2D, 0, 0, minY, size, rows, GL_RED, GL_UNSIGNED_BYTE,
+                    MemoryUtil.memSlice(page.getPixels(), minY * size, rows * size));
+            page.clearDirty();
+        }
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+        return texture;
+    }
+
+    /**
+     * @return the texture of the first atlas page, glyphs might be on other pages
+     */
+    @Override
+    public Texture getTexture() {
+        List<GlyphAtlas.Page> pages = atlas.getPages();
+        return pages.isEmpty() ? null : pageTexture(pages.get(0));
+    }
+
+    public GlyphAtlas getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * A glyph placed in a region of the atlas
+     */
+    private static final class AtlasGlyph extends Glyph {
+
+        private final GlyphAtlas.Region region;
+
+        AtlasGlyph(GlyphAtlas.Region region) {
+            super(region.width, region.height, region.x, region.y);
+            this.region = region;
+        }
+
+        @Override
+        public Texture getTexture() {
+            TrueTypeFont font = (TrueTypeFont) this.font;
+            font.atlas.touch(region);
+            return font.pageTexture(region.page);
+        }
+
+        @Override
+        public boolean isEvicted() {
+            return !region.isValid();
+        }
+
+    }
+
+}
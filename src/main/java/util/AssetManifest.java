@@ -0,0 +1,85 @@
+package util;
+
+import io.json.JSONBinder;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists all assets of a level, so they can be loaded in the background before the level starts.
+ * A manifest can be built in code or read from a JSON file like:
+ * <pre>
+ * {
+ *     "textures": ["src/assets/images/tiles.png", "src/assets/images/player.png"],
+ *     "audio": ["src/assets/sounds/theme.ogg"],
+ *     "dataFiles": ["src/assets/levels/level1.tmx"],
+ *     "shaders": []
+ * }
+ * </pre>
+ *
+ * @see Assets#preload(AssetManifest)
+ */
+public class AssetManifest {
+
+    private static final JSONBinder BINDER = new JSONBinder();
+
+    private List<String> textures = new ArrayList<>();
+    private List<String> audio = new ArrayList<>();
+    private List<String> dataFiles = new ArrayList<>();
+    private List<String> shaders = new ArrayList<>();
+
+    /**
+     * Reads a manifest from a JSON file
+     *
+     * @param path the path of the manifest
+     * @return the manifest
+     */
+    public static AssetManifest load(String path) {
+        try (InputStream input = new FileInputStream(path)) {
+            return BINDER.read(input, AssetManifest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the asset manifest \"" + path + "\"", e);
+        }
+    }
+
+    public AssetManifest texture(String path) {
+        textures.add(path);
+        return this;
+    }
+
+    public AssetManifest audio(String path) {
+        audio.add(path);
+        return this;
+    }
+
+    public AssetManifest dataFile(String path) {
+        dataFiles.add(path);
+        return this;
+    }
+
+    public AssetManifest shader(String path) {
+        shaders.add(path);
+        return this;
+    }
+
+    public List<String> getTextures() {
+        return textures;
+    }
+
+    public List<String> getAudio() {
+        return audio;
+    }
+
+    public List<String> getDataFiles() {
+        return dataFiles;
+    }
+
+    public List<String> getShaders() {
+        return shaders;
+    }
+
+}
@@ -5,22 +5,52 @@ import graphics.Shader;
 import graphics.Spritesheet;
 import graphics.Texture;
 import io.bin.BinaryIO;
+import ui.fonts.Font;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * The Assets class contains methods to assist in loading common resources used by the engine from the filesystem as well as HashMaps to keep track of loaded resources.
  * If the same path is loaded again via the Assets class, it will call the item up from the hashmap rather than reload it.
+ * <p>
+ * Assets can also be loaded asynchronously: files are read and decoded on background threads and only the final step,
+ * like the upload to the GPU, is queued for the main thread, which runs a limited amount of these steps every frame.
+ * Concurrent requests for the same asset share a single load.
+ * <pre>
+ * Assets.loadTextureAsync("src/assets/images/player.png").thenAccept(texture -&gt; ...);
+ * Assets.preload(AssetManifest.load("src/assets/levels/level1.json")).thenRun(() -&gt; ...);
+ * </pre>
  */
 public class Assets {
-    private static HashMap<String, Shader> shaders = new HashMap<>();
-    private static HashMap<String, ByteBuffer> dataFiles = new HashMap<>();
-    private static HashMap<String, Texture> textures = new HashMap<>();
-    private static HashMap<String, AudioBuffer> audioBuffers = new HashMap<>();
-    private static HashMap<String, Spritesheet> spritesheets = new HashMap<>();
+    /**
+     * The default time per frame spent on finishing asynchronously loaded assets, in milliseconds
+     */
+    public static final float DEFAULT_UPLOAD_BUDGET = 4;
+
+    private static final Map<String, Shader> shaders = new ConcurrentHashMap<>();
+    private static final Map<String, ByteBuffer> dataFiles = new ConcurrentHashMap<>();
+    private static final Map<String, Texture> textures = new ConcurrentHashMap<>();
+    private static final Map<String, AudioBuffer> audioBuffers = new ConcurrentHashMap<>();
+    private static final Map<String, Spritesheet> spritesheets = new ConcurrentHashMap<>();
+    private static final Map<String, Font> fonts = new ConcurrentHashMap<>();
+
+    //loads in progress, so concurrent requests of the same asset are only loaded once
+    private static final Map<String, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+    private static final UploadQueue uploads = new UploadQueue((long) (DEFAULT_UPLOAD_BUDGET * 1_000_000));
+    private static ExecutorService workers;
 
     /**
      * Loads a shader from the filesystem, compiles it, then returns type Shader.
@@ -83,6 +113,33 @@ public class Assets {
         return texture;
     }
 
+    /**
+     * Loads a TrueType font from the filesystem. Every combination of font, size and anti-aliasing is only rasterized once.
+     *
+     * @param path      to the .ttf file
+     * @param size      font size
+     * @param antiAlias whether the font should be anti-aliased or not
+     * @return returns type Font
+     */
+    public static Font getFont(String path, float size, boolean antiAlias) {
+        String key = new File(path).getAbsolutePath() + ":" + size + (antiAlias ? ":aa" : "");
+        return fonts.computeIfAbsent(key, k -> {
+            Log.debug("font requested to load: \"" + path + "\" at size " + size);
+            return new Font(path, size, antiAlias);
+        });
+    }
+
+    /**
+     * Gets the default monospaced font. Every combination of size and anti-aliasing is only rasterized once.
+     *
+     * @param size      font size
+     * @param antiAlias whether the font should be anti-aliased or not
+     * @return returns type Font
+     */
+    public static Font getFont(int size, boolean antiAlias) {
+        return fonts.computeIfAbsent("monospaced:" + size + (antiAlias ? ":aa" : ""), k -> new Font(size, antiAlias));
+    }
+
     /**
      * Loads an audio file from the filesystem and returns an AudioBuffer.
      *
@@ -101,6 +158,23 @@ public class Assets {
         return audioBuffer;
     }
 
+    /**
+     * Prepares an audio file to be streamed from the filesystem instead of decoding it into memory as a whole.
+     * Use this for music and other long files.
+     *
+     * @param path to audio file (.wav or .ogg)
+     * @return the streamed AudioBuffer
+     * @see AudioBuffer#stream(String)
+     */
+    public static AudioBuffer getStreamedAudioBuffer(String path) {
+        return audioBuffers.computeIfAbsent("stream:" + new File(path).getAbsolutePath(), k -> {
+            Log.debug("streamed audiobuffer requested to load: \"" + path + "\"");
+            AudioBuffer audioBuffer = AudioBuffer.stream(path);
+            audioBuffer.upload();
+            return audioBuffer;
+        });
+    }
+
     /**
      * Adds a filepath and spritesheet to the Asset class's spritesheet hashmap. (private)
      * @param path to Texture resource (usually a .png file)
@@ -144,4 +218,189 @@ public class Assets {
         return getSpritesheet(path);
     }
 
+    // ----- asynchronous loading -----
+
+    private static synchronized ExecutorService workers() {
+        if (workers == null) {
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+            AtomicInteger counter = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "Asset Loader " + counter.incrementAndGet());
+                //never keep the engine alive
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workers;
+    }
+
+    /**
+     * Starts a load, unless the asset is loaded already or a load of it is in progress.
+     *
+     * @param kind   the kind of asset, since the same file could be loaded as different assets
+     * @param key    the absolute path of the asset
+     * @param loaded the cache of loaded assets
+     * @param load   starts the load of the asset, the result is put into the cache by this method
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> loadAsync(String kind, String key, Map<String, T> loaded, Supplier<CompletableFuture<T>> load) {
+        T asset = loaded.get(key);
+        if (asset != null) return CompletableFuture.completedFuture(asset);
+        String pendingKey = kind + ":" + key;
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<?> present = pending.putIfAbsent(pendingKey, created);
+        if (present != null) return (CompletableFuture<T>) present;
+        load.get().whenComplete((result, error) -> {
+            pending.remove(pendingKey, created);
+            if (error != null) {
+                Log.fatal(kind + " failed to load asynchronously: \"" + key + "\"");
+                created.completeExceptionally(error);
+            } else {
+                created.complete(result);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Decodes on a worker thread and finishes the asset on the main thread, unless it was loaded synchronously meanwhile.
+     */
+    private static <D, T> CompletableFuture<T> decodeAndUpload(String key, Map<String, T> loaded, Supplier<D> decode, Function<D, T> upload) {
+        return CompletableFuture.supplyAsync(decode, workers()).thenCompose(data -> uploads.submit(() -> {
+            T asset = loaded.get(key);
+            if (asset == null) {
+                asset = upload.apply(data);
+                loaded.put(key, asset);
+            }
+            return asset;
+        }));
+    }
+
+    /**
+     * Loads a texture in the background. The image is decoded on a worker thread and uploaded on the main thread.
+     *
+     * @param path to Texture resource (usually a .png file)
+     * @return a future completed on the main thread with the texture
+     */
+    public static CompletableFuture<Texture> loadTextureAsync(String path) {
+        String key = new File(path).getAbsolutePath();
+        return loadAsync("texture", key, textures, () -> decodeAndUpload(key, textures, () -> {
+            Texture.ImageData image = Texture.decode(path);
+            if (image == null) throw new IllegalArgumentException("Could not decode image \"" + path + "\"");
+            return image;
+        }, image -> {
+            Log.debug("texture loaded asynchronously: \"" + path + "\"");
+            return new Texture(path, image);
+        }));
+    }
+
+    /**
+     * Loads an audio file in the background. The file is decoded on a worker thread and its buffers are created on the main thread.
+     *
+     * @param path to audio file (.wav or .ogg)
+     * @return a future completed on the main thread with the audio buffer
+     */
+    public static CompletableFuture<AudioBuffer> loadAudioBufferAsync(String path) {
+        String key = new File(path).getAbsolutePath();
+        return loadAsync("audiobuffer", key, audioBuffers, () -> decodeAndUpload(key, audioBuffers, () -> {
+            AudioBuffer buffer = AudioBuffer.decode(path);
+            if (!buffer.isValid()) throw new IllegalArgumentException("Could not decode audio \"" + path + "\"");
+            return buffer;
+        }, buffer -> {
+            buffer.upload();
+            Log.debug("audiobuffer loaded asynchronously: \"" + path + "\"");
+            return buffer;
+        }));
+    }
+
+    /**
+     * Loads a shader in the background. The source is read on a worker thread and compiled on the main thread.
+     *
+     * @param path to GLSL shader resource
+     * @return a future completed on the main thread with the compiled shader
+     */
+    public static CompletableFuture<Shader> loadShaderAsync(String path) {
+        String key = new File(path).getAbsolutePath();
+        return loadAsync("shader", key, shaders, () -> decodeAndUpload(key, shaders, () -> new Shader(path), shader -> {
+            shader.compile();
+            return shader;
+        }));
+    }
+
+    /**
+     * Reads a data file in the background, it does not need the main thread at all.
+     *
+     * @param path to data file
+     * @return a future completed on a worker thread with the data
+     */
+    public static CompletableFuture<ByteBuffer> loadDataFileAsync(String path) {
+        File file = new File(path);
+        String key = file.getAbsolutePath();
+        return loadAsync("data file", key, dataFiles, () -> CompletableFuture.supplyAsync(() -> {
+            try {
+                ByteBuffer data = BinaryIO.readData(file);
+                ByteBuffer present = dataFiles.putIfAbsent(key, data);
+                return present != null ? present : data;
+            } catch (IOException e) {
+                throw new UncheckedIOException("file not found: \"" + path + "\"", e);
+            }
+        }, workers()));
+    }
+
+    /**
+     * Loads a spritesheet in the background.
+     *
+     * @param path         to Texture resource (usually a .png file)
+     * @param spriteWidth  of each sprite
+     * @param spriteHeight of each sprite
+     * @param numSprites   of sprites in the sheet
+     * @param spacing      spacing between sprites (0 if no spacing)
+     * @return a future completed on the main thread with the spritesheet
+     */
+    public static CompletableFuture<Spritesheet> loadSpritesheetAsync(String path, int spriteWidth, int spriteHeight, int numSprites, int spacing) {
+        return loadTextureAsync(path).thenApply(texture -> {
+            addSpritesheet(path, new Spritesheet(texture, spriteWidth, spriteHeight, numSprites, spacing));
+            return getSpritesheet(path);
+        });
+    }
+
+    /**
+     * Loads all assets of a manifest in the background, e.g. all assets of a level while a loading screen is shown.
+     *
+     * @param manifest the assets to load
+     * @return a future completed after all assets are loaded, or exceptionally if any of them failed
+     */
+    public static CompletableFuture<Void> preload(AssetManifest manifest) {
+        List<CompletableFuture<?>> loads = new ArrayList<>();
+        manifest.getTextures().forEach(path -> loads.add(loadTextureAsync(path)));
+        manifest.getAudio().forEach(path -> loads.add(loadAudioBufferAsync(path)));
+        manifest.getDataFiles().forEach(path -> loads.add(loadDataFileAsync(path)));
+        manifest.getShaders().forEach(path -> loads.add(loadShaderAsync(path)));
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Finishes asynchronously loaded assets on the main thread within the upload budget.
+     * Called once per frame by the window.
+     *
+     * @return the amount of finished steps
+     */
+    public static int processUploads() {
+        return uploads.process();
+    }
+
+    /**
+     * @return the amount of assets currently loading asynchronously
+     */
+    public static int pendingLoads() {
+        return pending.size();
+    }
+
+    /**
+     * @param millis the time per frame spent on finishing asynchronously loaded assets
+     */
+    public static void setUploadBudget(float millis) {
+        uploads.setBudget((long) (millis * 1_000_000));
+    }
+
 }
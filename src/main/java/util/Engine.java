@@ -32,6 +32,7 @@ public final class Engine {
     private Window window;
     private boolean running;
     private float deltaTime;
+    private FixedTimestep fixedTimestep;
 
     // private to prevent creating new instances
     private Engine() {
@@ -55,6 +56,52 @@ public final class Engine {
         getInstance().deltaTime = deltaTime;
     }
 
+    /**
+     * Simulate the scenes in ticks of a fixed length instead of once per frame.
+     * {@link #deltaTime()} is the length of a tick during the simulation then.
+     *
+     * @param tickRate        the amount of ticks per second
+     * @param maxCatchUpSteps the maximum amount of ticks simulated in a single frame
+     * @see FixedTimestep
+     */
+    public static void setFixedTimestep(float tickRate, int maxCatchUpSteps) {
+        getInstance().fixedTimestep = new FixedTimestep(tickRate, maxCatchUpSteps);
+    }
+
+    /**
+     * @param tickRate the amount of ticks per second
+     * @see #setFixedTimestep(float, int)
+     */
+    public static void setFixedTimestep(float tickRate) {
+        getInstance().fixedTimestep = new FixedTimestep(tickRate);
+    }
+
+    /**
+     * Go back to simulating the scenes once per frame, which is the default.
+     */
+    public static void setVariableTimestep() {
+        getInstance().fixedTimestep = null;
+    }
+
+    /**
+     * @return the fixed timestep or null, if the scenes are simulated once per frame
+     */
+    public static FixedTimestep fixedTimestep() {
+        return getInstance().fixedTimestep;
+    }
+
+    /**
+     * How far the current frame is between the last two simulation ticks.
+     * Renderers can use it to interpolate between the previous and the current state.
+     *
+     * @return the interpolation alpha, always 1 without a fixed timestep
+     * @see FixedTimestep#alpha()
+     */
+    public static float interpolationAlpha() {
+        FixedTimestep timestep = getInstance().fixedTimestep;
+        return timestep == null ? 1 : timestep.alpha();
+    }
+
     public static boolean isRunning() {
         return getInstance().running;
     }
@@ -74,6 +121,7 @@ public final class Engine {
      */
     public void interrupt(int code) {
         windowStopped();
+        Log.stopLogging();
         System.exit(code);
     }
 
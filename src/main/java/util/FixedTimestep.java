@@ -0,0 +1,115 @@
+package util;
+
+/**
+ * Splits the variable time between two frames into simulation ticks of a fixed length.
+ * The time of each frame is added to an accumulator and every full tick in it is simulated,
+ * the remainder is carried over to the next frame.
+ * <p>
+ * If a frame took too long, e.g. because of a slow render or a hiccup of the machine, at most
+ * {@link #getMaxCatchUpSteps()} ticks are simulated and the remaining time is dropped.
+ * This keeps the simulation from falling further and further behind, while it slows down instead.
+ * <p>
+ * The {@link #alpha()} describes how far the current frame is between the last two ticks
+ * and can be used to interpolate between the previous and the current simulation state while rendering.
+ *
+ * @see Engine#setFixedTimestep(float, int)
+ */
+public class FixedTimestep {
+
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
+    private final float tickRate;
+    private final double stepTime;
+    private final int maxCatchUpSteps;
+
+    private double accumulator;
+    private long ticks;
+    private long droppedTicks;
+
+    /**
+     * @param tickRate        the amount of ticks per second
+     * @param maxCatchUpSteps the maximum amount of ticks simulated in a single frame
+     */
+    public FixedTimestep(float tickRate, int maxCatchUpSteps) {
+        if (!(tickRate > 0)) throw new IllegalArgumentException("The tick rate has to be positive, but was " + tickRate);
+        if (maxCatchUpSteps < 1)
+            throw new IllegalArgumentException("At least one tick per frame has to be allowed, but was " + maxCatchUpSteps);
+        this.tickRate = tickRate;
+        this.stepTime = 1.0 / tickRate;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * @param tickRate the amount of ticks per second
+     */
+    public FixedTimestep(float tickRate) {
+        this(tickRate, DEFAULT_MAX_CATCH_UP_STEPS);
+    }
+
+    /**
+     * Adds the time of a frame and determines how many ticks have to be simulated for it.
+     *
+     * @param frameTime the time since the last frame in seconds
+     * @return the amount of ticks to simulate, never more than the max catch up steps
+     */
+    public int advance(double frameTime) {
+        if (frameTime > 0) accumulator += frameTime;
+        int steps = (int) (accumulator / stepTime);
+        if (steps > maxCatchUpSteps) {
+            //give up on the time that cannot be caught up anyways
+            droppedTicks += steps - maxCatchUpSteps;
+            steps = maxCatchUpSteps;
+            accumulator = 0;
+        } else {
+            accumulator -= steps * stepTime;
+        }
+        ticks += steps;
+        return steps;
+    }
+
+    /**
+     * The progress of the current frame between the last tick and the next one.
+     *
+     * @return a value from 0 (inclusive) to 1 (exclusive)
+     */
+    public float alpha() {
+        return (float) Math.min(accumulator / stepTime, 1.0);
+    }
+
+    /**
+     * Forget any accumulated time, e.g. after the window was minimized.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+
+    /**
+     * @return the length of a single tick in seconds
+     */
+    public float getStepTime() {
+        return (float) stepTime;
+    }
+
+    public float getTickRate() {
+        return tickRate;
+    }
+
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+
+    /**
+     * @return the amount of ticks simulated so far
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return the amount of ticks that were skipped, since the simulation could not catch up with them
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+}
@@ -4,6 +4,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.function.Supplier;
 
 /**
  * Logging utility to print colored and labeled errors with class references.
@@ -14,6 +15,8 @@ import java.io.PrintStream;
  * - WARNINGS -> includes fatal errors and minor warnings; useful for detecting common issues <br>
  * - NO_DEBUG -> displays all information except for hard debug logs; for integrity checks <br>
  * - ALL -> shows all logs including hard debug for a detailed overview over vital systems <br>
+ * Logs filtered out by both the terminal and the file level return right away, without looking up the source or
+ * building the line. Messages which are expensive to build can be passed as a {@link Supplier}, which is only called if the log is enabled.
  */
 public class Log {
 
@@ -32,16 +35,24 @@ public class Log {
 
     private static int logLevel = FATAL_ONLY;
 
-    private static LoggingThread loggingThread;
+    private static volatile LoggingThread loggingThread;
 
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final String NAME = Log.class.getName();
+
+    //the method calling into this class
     private static StackTraceElement source() {
-        return Thread.currentThread().getStackTrace()[3];
+        return source(0);
     }
 
+    //a method further down the stack, or the bottom of the stack if it is not that deep
     private static StackTraceElement source(int stepUp) {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        if (stackTrace.length >= stepUp + 3) return stackTrace[stackTrace.length - 1];
-        return stackTrace[3 + stepUp];
+        return WALKER.walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().equals(NAME))
+                .limit(Math.max(stepUp, 0) + 1L)
+                .reduce((first, second) -> second)
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .orElse(null));
     }
 
     /**
@@ -62,6 +73,16 @@ public class Log {
         loggingThread.start();
     }
 
+    /**
+     * Writes the remaining logs to the file and stops the thread started by {@link #startLogging(File, int)}.
+     */
+    public synchronized static void stopLogging() {
+        if (loggingThread == null) return;
+        LoggingThread thread = loggingThread;
+        loggingThread = null;
+        thread.close();
+    }
+
     /**
      * Set the log level to filter the amount of logs printed to the terminal
      *
@@ -71,6 +92,18 @@ public class Log {
         Log.logLevel = Math.abs(logLevel) % 4;
     }
 
+    /**
+     * Checks whether logs of a level are printed or saved, e.g. to skip building an expensive message.
+     *
+     * @param level {@link Log#FATAL_ONLY}, {@link Log#WARNINGS}, {@link Log#NO_DEBUG}, {@link Log#ALL}
+     * @return true, if logs of the level are printed to the terminal or saved to the log file
+     */
+    public static boolean isEnabled(int level) {
+        if (logLevel >= level) return true;
+        LoggingThread thread = loggingThread;
+        return thread != null && thread.getLogLevel() >= level;
+    }
+
     /**
      * Printed on level {@link Log#ALL} only. Use this method to print a detailed debug message about vital information in the system.
      * Includes the source class of the method call in the log.
@@ -78,6 +111,7 @@ public class Log {
      * @param log the information to be logged
      */
     public static void debug(String log) {
+        if (!isEnabled(ALL)) return;
         StackTraceElement source = source();
         String line = "[DEBUG] {" + source.getClassName() + "} " + log;
         println(ALL, CL_CYAN + line);
@@ -93,6 +127,7 @@ public class Log {
      *               then D would be the default calling class and a stepUp of 2 would specify B as the second one to log.
      */
     public static void debug(String log, int stepUp) {
+        if (!isEnabled(ALL)) return;
         StackTraceElement source = source(stepUp);
         StackTraceElement source2 = source();
         String line = "[DEBUG] {" + source.getClassName() + " -> " + source2.getClassName() + "} " + log;
@@ -107,11 +142,25 @@ public class Log {
      * @param printSource if set to false, the source class is excluded; if set to true, the call is identical to {@link Log#debug(String)}
      */
     public static void debug(String log, boolean printSource) {
-        StackTraceElement source = source();
+        if (!isEnabled(ALL)) return;
+        StackTraceElement source = printSource ? source() : null;
         String line = "[DEBUG]" + (printSource ? " {" + source.getClassName() + "} " : " ") + log;
         println(ALL, CL_CYAN + line);
     }
 
+    /**
+     * Printed on level {@link Log#ALL} only. The message is only built if the log is enabled, use this method for expensive messages or logs inside of loops.
+     * Includes the source class of the method call in the log.
+     *
+     * @param log supplies the information to be logged
+     */
+    public static void debug(Supplier<String> log) {
+        if (!isEnabled(ALL)) return;
+        StackTraceElement source = source();
+        String line = "[DEBUG] {" + source.getClassName() + "} " + log.get();
+        println(ALL, CL_CYAN + line);
+    }
+
     /**
      * Printed on levels {@link Log#ALL} and {@link Log#NO_DEBUG} only. Use this method to notify of regular system events like successful loading operations for example.
      * Includes the source class of the method call in the log.
@@ -119,6 +168,7 @@ public class Log {
      * @param info the information to be logged
      */
     public static void info(String info) {
+        if (!isEnabled(NO_DEBUG)) return;
         StackTraceElement source = source();
         String line = "[INFO] {" + source.getClassName() + "} " + info;
         println(NO_DEBUG, CL_GREEN + line);
@@ -134,6 +184,7 @@ public class Log {
      *               then D would be the default calling class and a stepUp of 2 would specify B as the second one to log.
      */
     public static void info(String info, int stepUp) {
+        if (!isEnabled(NO_DEBUG)) return;
         StackTraceElement source = source(stepUp);
         StackTraceElement source2 = source();
         String line = "[INFO] {" + source.getClassName() + " -> " + source2.getClassName() + "} " + info;
@@ -148,11 +199,25 @@ public class Log {
      * @param printSource if set to false, the source class is excluded; if set to true, the call is identical to {@link Log#info(String)}
      */
     public static void info(String info, boolean printSource) {
-        StackTraceElement source = source();
+        if (!isEnabled(NO_DEBUG)) return;
+        StackTraceElement source = printSource ? source() : null;
         String line = "[INFO]" + (printSource ? " {" + source.getClassName() + "} " : " ") + info;
         println(NO_DEBUG, CL_GREEN + line);
     }
 
+    /**
+     * Printed on levels {@link Log#ALL} and {@link Log#NO_DEBUG} only. The message is only built if the log is enabled, use this method for expensive messages or logs inside of loops.
+     * Includes the source class of the method call in the log.
+     *
+     * @param info supplies the information to be logged
+     */
+    public static void info(Supplier<String> info) {
+        if (!isEnabled(NO_DEBUG)) return;
+        StackTraceElement source = source();
+        String line = "[INFO] {" + source.getClassName() + "} " + info.get();
+        println(NO_DEBUG, CL_GREEN + line);
+    }
+
     /**
      * Printed on levels {@link Log#ALL}, {@link Log#NO_DEBUG} and {@link Log#WARNINGS}. Use this method to warn about unintended behaviour that might lead to bugs that aren't spotted yet.
      * Includes the source class of the method call in the log.
@@ -160,6 +225,7 @@ public class Log {
      * @param warn the warning to be logged
      */
     public static void warn(String warn) {
+        if (!isEnabled(WARNINGS)) return;
         StackTraceElement source = source();
         String line = "[WARN] {" + source + "} " + warn;
         println(WARNINGS, CL_ORANGE + line);
@@ -175,6 +241,7 @@ public class Log {
      *               then D would be the default calling class and a stepUp of 2 would specify B as the second one to log.
      */
     public static void warn(String warn, int stepUp) {
+        if (!isEnabled(WARNINGS)) return;
         StackTraceElement source = source(stepUp);
         StackTraceElement source2 = source();
         String line = "[WARN] {" + source + " -> " + source2 + "} " + warn;
@@ -189,11 +256,25 @@ public class Log {
      * @param printSource if set to false, the source class is excluded; if set to true, the call is identical to {@link Log#warn(String)}
      */
     public static void warn(String warn, boolean printSource) {
-        StackTraceElement source = source();
+        if (!isEnabled(WARNINGS)) return;
+        StackTraceElement source = printSource ? source() : null;
         String line = "[WARN]" + (printSource ? " {" + source + "} " : " ") + warn;
         println(WARNINGS, CL_ORANGE + line);
     }
 
+    /**
+     * Printed on levels {@link Log#ALL}, {@link Log#NO_DEBUG} and {@link Log#WARNINGS}. The message is only built if the log is enabled, use this method for expensive messages or logs inside of loops.
+     * Includes the source class of the method call in the log.
+     *
+     * @param warn supplies the warning to be logged
+     */
+    public static void warn(Supplier<String> warn) {
+        if (!isEnabled(WARNINGS)) return;
+        StackTraceElement source = source();
+        String line = "[WARN] {" + source + "} " + warn.get();
+        println(WARNINGS, CL_ORANGE + line);
+    }
+
     /**
      * Printed on all four levels {@link Log#ALL}, {@link Log#NO_DEBUG}, {@link Log#WARNINGS} and {@link Log#FATAL_ONLY}. Use this method to document fatal failures in vital functions.
      * Includes the source class of the method call in the log.
@@ -201,6 +282,7 @@ public class Log {
      * @param error the error to be logged
      */
     public static void fatal(String error) {
+        if (!isEnabled(FATAL_ONLY)) return;
         StackTraceElement source = source();
         String line = "[FATAL] {" + source + "} " + error;
         println(FATAL_ONLY, CL_RED + line);
@@ -216,6 +298,7 @@ public class Log {
      *               then D would be the default calling class and a stepUp of 2 would specify B as the second one to log.
      */
     public static void fatal(String error, int stepUp) {
+        if (!isEnabled(FATAL_ONLY)) return;
         StackTraceElement source = source(stepUp);
         StackTraceElement source2 = source();
         String line = "[FATAL] {" + source + " -> " + source2 + "} " + error;
@@ -230,7 +313,8 @@ public class Log {
      * @param printSource if set to false, the source class is excluded; if set to true, the call is identical to {@link Log#fatal(String)}
      */
     public static void fatal(String error, boolean printSource) {
-        StackTraceElement source = source();
+        if (!isEnabled(FATAL_ONLY)) return;
+        StackTraceElement source = printSource ? source() : null;
         String line = "[FATAL]" + (printSource ? " {" + source + "} " : " ") + error;
         println(FATAL_ONLY, CL_RED + line);
     }
@@ -276,15 +360,17 @@ public class Log {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         PrintStream ps = new PrintStream(bos);
         e.printStackTrace(ps);
-        if (loggingThread != null) {
-            loggingThread.log(bos.toString(), -1);
-            loggingThread.save();
+        LoggingThread thread = loggingThread;
+        if (thread != null) {
+            thread.log(bos.toString(), -1);
+            thread.save();
         }
     }
 
     private static void println(int level, String line) {
         if (logLevel >= level) System.out.println(line);
-        if (loggingThread != null) loggingThread.log(line.substring(CL_RED.length()), level);
+        LoggingThread thread = loggingThread;
+        if (thread != null) thread.log(line.substring(CL_RED.length()), level);
     }
 
 }
\ No newline at end of file
@@ -1,36 +1,87 @@
 package util;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
+ * Writes the log into a file in the background.
+ * Lines are put into a bounded ring buffer, which is drained by this thread every {@link #CYCLE} seconds
+ * or as soon as it is half full, and written in batches to a file channel, which stays open.
+ * If the buffer is full, new lines are dropped instead of blocking the logging thread, the amount of dropped lines is logged afterwards.
+ * <p>
+ * Once the file grows beyond its maximum size, it is renamed to {@code <name>.1.log}, older files move up by one
+ * and only the newest few are kept.
  *
+ * @see Log#startLogging(File, int)
  */
 public class LoggingThread extends Thread {
 
     public static String LOG_NAME = "Azurite";
 
-    public static int CYCLE = 60; // 60 seconds
+    public static int CYCLE = 1; // 1 second
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final long DEFAULT_MAX_FILE_SIZE = 8 * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+
+    private static final byte[] NEW_LINE = {'\n'};
 
     private final File path;
 
     private final File target;
 
-    private final Queue<String> logQueue;
+    private final String baseName;
 
     private int logLevel;
 
+    //the ring buffer, guarded by itself
+    private final String[] lines;
+    private int head, size;
+    private long dropped;
+    private volatile boolean closed;
+
+    //only used while holding the write lock
+    private final Object writeLock = new Object();
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private String[] batch;
+    private FileChannel channel;
+    private long fileSize;
+
     public LoggingThread(File path, int logLevel) {
+        this(path, logLevel, DEFAULT_CAPACITY, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * @param path        the folder of the log files
+     * @param logLevel    the logging level for the saved file
+     * @param capacity    the amount of lines buffered at most before new lines are dropped
+     * @param maxFileSize the size in bytes, after which the log file is rotated
+     * @param maxFiles    the amount of rotated files kept besides the current one
+     */
+    public LoggingThread(File path, int logLevel, int capacity, long maxFileSize, int maxFiles) {
+        super("Log writer");
+        if (capacity <= 0) throw new IllegalArgumentException("the log buffer requires a positive capacity");
+        if (maxFileSize <= 0) throw new IllegalArgumentException("the maximum size of a log file has to be positive");
+        if (maxFiles < 0) throw new IllegalArgumentException("the amount of rotated log files cannot be negative");
         this.path = path;
-        String name = LOG_NAME + " " + new SimpleDateFormat("dd-MM-yyyy_HH-mm-ss").format(new Date()) + ".log";
-        this.target = new File(path, name);
+        this.baseName = LOG_NAME + " " + new SimpleDateFormat("dd-MM-yyyy_HH-mm-ss").format(new Date());
+        this.target = new File(path, baseName + ".log");
         this.logLevel = Math.abs(logLevel) % 4;
-        this.logQueue = new ConcurrentLinkedQueue<>();
+        this.lines = new String[capacity];
+        this.batch = new String[capacity];
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        setDaemon(true);
     }
 
     public boolean init() throws IOException {
@@ -46,23 +97,152 @@ public class LoggingThread extends Thread {
         this.logLevel = logLevel;
     }
 
+    public int getLogLevel() {
+        return logLevel;
+    }
+
+    /**
+     * @return the file currently written to
+     */
+    public File getTarget() {
+        return target;
+    }
+
+    /**
+     * Puts a line into the buffer, or drops it if the buffer is full.
+     *
+     * @param log      the line
+     * @param logLevel the level of the line
+     */
     public void log(String log, int logLevel) {
-        if (this.logLevel < logLevel) return;
-        logQueue.offer(log);
+        if (this.logLevel < logLevel || closed) return;
+        synchronized (lines) {
+            if (size == lines.length) {
+                dropped++;
+                return;
+            }
+            lines[(head + size) % lines.length] = log;
+            size++;
+            if (size == lines.length / 2 + 1) lines.notify();
+        }
     }
 
+    /**
+     * Writes all buffered lines to the file.
+     */
     protected void save() {
-        //determine size of writing block and if writing is necessary
-        int size = logQueue.size();
-        if (size > 0) {
-            try (FileWriter fw = new FileWriter(target, true)) {
-                //write the set amount of lines
-                for (int i = 0; i < size; i++) {
-                    fw.write(logQueue.poll() + "\n");
+        synchronized (writeLock) {
+            int count;
+            long lost;
+            synchronized (lines) {
+                count = size;
+                for (int i = 0; i < count; i++) {
+                    int index = (head + i) % lines.length;
+                    batch[i] = lines[index];
+                    lines[index] = null;
+                }
+                head = (head + count) % lines.length;
+                size = 0;
+                lost = dropped;
+                dropped = 0;
+            }
+            if (count == 0 && lost == 0) return;
+            try {
+                for (int i = 0; i < count; i++) {
+                    write(batch[i].getBytes(StandardCharsets.UTF_8));
+                    write(NEW_LINE);
+                    batch[i] = null;
                 }
-                fw.flush();
+                if (lost > 0)
+                    write(("[WARN] {" + LoggingThread.class.getName() + "} " + lost + " lines were dropped, because the log buffer was full\n").getBytes(StandardCharsets.UTF_8));
+                flushBuffer();
+                if (fileSize >= maxFileSize) rotate();
+            } catch (IOException e) {
+                System.err.println("Exception in the logger... we are sorry, no logs for you.");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            flushBuffer();
+            if (bytes.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileSize = channel.size();
+        }
+        while (data.hasRemaining())
+            fileSize += channel.write(data);
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(target.toPath());
+            return;
+        }
+        Files.deleteIfExists(rotated(maxFiles).toPath());
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File file = rotated(i);
+            if (file.exists()) Files.move(file.toPath(), rotated(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(target.toPath(), rotated(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @param index how many times the file was rotated, starting at 1
+     * @return the rotated log file
+     */
+    public File rotated(int index) {
+        return new File(path, baseName + "." + index + ".log");
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel == null) return;
+        channel.close();
+        channel = null;
+        fileSize = 0;
+    }
+
+    /**
+     * Writes the remaining lines and closes the file. Lines logged afterwards are ignored.
+     */
+    public void close() {
+        closed = true;
+        synchronized (lines) {
+            lines.notify();
+        }
+        if (isAlive() && Thread.currentThread() != this) {
+            try {
+                join(1000L * CYCLE + 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        finish();
+    }
+
+    private void finish() {
+        synchronized (writeLock) {
+            save();
+            try {
+                closeChannel();
             } catch (IOException e) {
-                Log.fatal("Exception in the logger... we are sorry, no logs for you.");
                 e.printStackTrace();
             }
         }
@@ -70,19 +250,19 @@ public class LoggingThread extends Thread {
 
     @Override
     public void run() {
-        int c;
-        while (Engine.isRunning()) {
-            c = 0;
-            while (Engine.isRunning() && c < CYCLE) {
-                try {
-                    Thread.sleep(1000L);
-                } catch (InterruptedException e) {
+        while (Engine.isRunning() && !closed) {
+            synchronized (lines) {
+                if (size <= lines.length / 2 && !closed) {
+                    try {
+                        lines.wait(1000L * CYCLE);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
                 }
-                c++;
             }
             save();
         }
+        finish();
     }
 
 }
-
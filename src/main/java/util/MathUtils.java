@@ -3,12 +3,11 @@ package util;
 import org.joml.Matrix3x2f;
 import org.joml.Vector2f;
 import physics.collision.CollisionInformation;
+import physics.collision.narrowphase.Contact;
+import physics.collision.narrowphase.NarrowPhase;
 import physics.collision.shape.PrimitiveShape;
-import physics.collision.shape.ShapeType;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -37,88 +36,22 @@ public class MathUtils {
      * since an unfinished triangle (3 points, 2 vectors) already determines collision.
      * <p>
      * This algorithm was implemented and alternated on 19th of June by Julius K.
+     * <p>
+     * The algorithm itself runs in {@link NarrowPhase}, which does not allocate, this method wraps its simplex into vectors.
      *
      * @param shapeA shape a
      * @param shapeB shape b
      * @return whether shape a and shape b intersect
      */
     public static CollisionInformation gjksmCollision(PrimitiveShape shapeA, PrimitiveShape shapeB) {
-        Vector2f startPoint = maxDotPointMinkDiff(shapeA, shapeB, shapeA.centroid().mul(-1, new Vector2f()));
-        Vector2f direction = new Vector2f(-startPoint.x, -startPoint.y);
-
-        //will contain the triangle containing the origin
-        Triple<Vector2f, Vector2f, Vector2f> simplex = new Triple<>();
-
-        simplex.setLeft(startPoint);
-
-        int pointsConfirmed = 1;
-        int loop = 0;
-        int maxLoop = shapeA.vertices() + shapeB.vertices();
-        if (shapeA.type() == ShapeType.CIRCLE || shapeB.type() == ShapeType.CIRCLE) maxLoop += 20;
-
-        while (pointsConfirmed < 3) {
-
-            loop++;
-            //loop at max 20 times plus the amount of both shapes faces, so that there is enough room to find collision.
-            //this is obviously not a good solution, but it should do fine for now.
-            if (loop > maxLoop) return new CollisionInformation(null, false);
-
-            //the point furthest in the direction
-            //Shape combinedShape = minkDiff(shapeA, shapeB); combinedShape.supportPoint(direction);
-            Vector2f pointA = maxDotPointMinkDiff(shapeA, shapeB, direction);
-
-            if (pointA.dot(direction) < 0) return new CollisionInformation(null, false); //no intersection
-
-            //do Simplex -> two points needed for that
-            {
-                //vector AB
-                Vector2f ab = startPoint.sub(pointA, new Vector2f()); //aToB(pointA, startPoint);
-                //vector towards the origin of A
-                Vector2f ao = new Vector2f(-pointA.x, -pointA.y);
-
-                //the origin is between a and b considering perpendicular lines of ab through a and b
-                if (rightDirection(ab, ao)) {
-
-                    //one of the perpendicular vectors
-                    Vector2f perpendicular = new Vector2f(ab).perpendicular();
-
-                    //decide if negating is necessary - it should point towards AO, therefore dot product has to be > 0
-                    if (!rightDirection(perpendicular, ao)) perpendicular.mul(-1);
-
-                    direction.set(perpendicular);
-
-                    //points.add(ao);
-                    if (pointsConfirmed == 1) simplex.setMiddle(pointA);
-                    else if (pointsConfirmed == 2) simplex.setRight(pointA);
-
-                    //triangular check not necessary
-                    //if the next point derived from the perpendicular direction can find a point
-                    //where the new point is enclosing the origin, we got it
-                    pointsConfirmed++;
-
-                } else {
-
-                    //should only happen to search the startpoint,
-                    //any second point should be cancelled out
-                    startPoint = pointA;
-                    direction.set(ao);
-                    simplex.setLeft(pointA);
-
-                    pointsConfirmed = 1;
-
-                }
-            }
-        }
-
-        //3 points are confirmed, there is intersection
-        Vector2f[] vector2fs = Arrays.asList(simplex.getLeft(), simplex.getMiddle(), simplex.getRight()).toArray(new Vector2f[0]);
-        return new CollisionInformation(vector2fs, true);
-
-    }
-
-    //helper function, just to define whether a certain point goes in the right direction
-    private static boolean rightDirection(Vector2f vector, Vector2f towardsOrigin) {
-        return vector.dot(towardsOrigin) > 0;
+        float[] points = new float[6];
+        int count = NarrowPhase.simplex(shapeA, shapeB, points);
+        if (count == 0) return CollisionInformation.NO_COLLISION;
+        //the simplex enclosing the origin, less than 3 points if the shapes only touch
+        Vector2f[] simplex = new Vector2f[count];
+        for (int i = 0; i < count; i++)
+            simplex[i] = new Vector2f(points[i * 2], points[i * 2 + 1]);
+        return new CollisionInformation(simplex, true);
     }
 
     /**
@@ -130,60 +63,18 @@ public class MathUtils {
      * @param shapeB  the second shape, that collides with the first one
      * @param simplex the simplex returned by GJK or any simplex inside both shapes borders enclosing the overlapping area of both shapes
      * @return the penetration vector of both shapes, if there is one found within a series of steps
+     * @see NarrowPhase#collide(PrimitiveShape, PrimitiveShape, Contact)
      */
     public static Optional<Vector2f> expandingPolytopeAlgorithm(PrimitiveShape shapeA, PrimitiveShape shapeB, Vector2f[] simplex) {
-        int faceSize = shapeA.vertices() + shapeB.vertices();
-        List<Vector2f> polygon = new ArrayList<>(faceSize);
-        polygon.addAll(Arrays.asList(simplex));
-
-        Vector2f normal;
-        for (int i = 0; i < faceSize + 1; i++) {
-            Triple<Integer, Float, Vector2f> closestFace = closestFaceToOrigin(polygon); //index, dist, norm
-            float squareLength = closestFace.getMiddle();
-            //vector from origin to face
-            normal = closestFace.getRight();
-            Vector2f vector2f = maxDotPointMinkDiff(shapeA, shapeB, normal);
-            //if the vector*normal is close to normal*normal, its the point we seek
-            if (Math.abs(normal.dot(vector2f) - squareLength) < 0.001f) return Optional.of(normal.mul(-1));
-            polygon.add(1 + closestFace.getLeft(), vector2f);
-        }
-        return Optional.empty();
-    }
-
-    //helper method for EPA - calculates the the closest face to the origin of a given simplex representing a polygon
-    private static Triple<Integer, Float, Vector2f> closestFaceToOrigin(List<Vector2f> simplex) {
-        int index = 0;
-        //ensures, that the first calculation will be less then this
-        float dist = Float.POSITIVE_INFINITY;
-        Vector2f hitPoint = null;
-        //calculate for all faces of the simplex its distance using the helper method
-        //and determine if the next face is closer then all faces before
-        for (int i = 0; i < simplex.size(); i++) {
-            Vector2f pointA = simplex.get(i);
-            Vector2f pointB = simplex.get((i + 1) % simplex.size());
-            Vector2f hit = faceDistanceToOriginVector(pointA, pointB);
-            float v = hit.lengthSquared();
-            if (dist > v) {
-                dist = v;
-                index = i;
-                hitPoint = hit;
-            }
+        float[] points = new float[simplex.length * 2];
+        for (int i = 0; i < simplex.length; i++) {
+            points[i * 2] = simplex[i].x;
+            points[i * 2 + 1] = simplex[i].y;
         }
-        //return the index of the start point of the face inside the simplex,
-        //the distance squared to the origin
-        //and the point on the face, thats closed to the origin and in line with the normal of the face
-        return new Triple<>(index, dist, hitPoint);
-    }
-
-    //helper method for EPA - calculates the distance of a face to the origin using linear algebra instead of expensive square roots
-    private static Vector2f faceDistanceToOriginVector(Vector2f pointA, Vector2f secondPoint) {
-        Vector2f rayA = secondPoint.sub(pointA, new Vector2f());
-        Vector2f rayB = new Vector2f(rayA).perpendicular();
-        Vector2f pointB = new Vector2f(0, 0);
-        //solve the linear equation
-        Vector2f factors = solveSimultaneousEquations(rayA.x, -rayB.x, rayA.y, -rayB.y, pointB.x - pointA.x, pointB.y - pointA.y);
-        //calculate the point where the intersection happened and return
-        return rayB.mul(factors.y); //+pointB is not necessary, its the origin
+        Contact contact = new Contact();
+        NarrowPhase.expand(shapeA, shapeB, points, simplex.length, contact);
+        if (!contact.isColliding()) return Optional.empty();
+        return Optional.of(contact.getPenetration(new Vector2f()));
     }
 
     /**
@@ -192,9 +83,7 @@ public class MathUtils {
      * @return the maximum point in a specific direction
      */
     public static Vector2f maxDotPointMinkDiff(PrimitiveShape shapeA, PrimitiveShape shapeB, Vector2f direction) {
-        Vector2f pointA = shapeA.supportPoint(direction);
-        Vector2f pointB = shapeB.supportPoint(new Vector2f(-direction.x, -direction.y));
-        return new Vector2f(pointA.x - pointB.x, pointA.y - pointB.y);
+        return NarrowPhase.support(shapeA, shapeB, direction.x, direction.y, new Vector2f());
     }
 
     /**
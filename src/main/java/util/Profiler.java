@@ -0,0 +1,305 @@
+package util;
+
+import io.json.JSONWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Measures where the time of a frame goes, with named scopes which can be nested.
+ * <pre>
+ * Profiler.begin("physics");
+ * ...
+ * Profiler.end();
+ *
+ * try (Profiler.Scope scope = Profiler.scope("pathfinding")) {
+ *     ...
+ * }
+ * </pre>
+ * The samples of the last frames are kept in ring buffers, which are allocated once the profiler is enabled,
+ * so recording does not allocate. While the profiler is disabled, a scope costs a single check.
+ * Names are stored by reference, so they should be constants instead of strings built for every call.
+ * <p>
+ * Only the thread running the game loop is recorded, scopes opened on other threads are ignored.
+ * The recorded frames can be shown with a {@link util.debug.ProfilerOverlay} or exported for the trace viewer
+ * of Chrome with {@link #exportChromeTrace(Writer)}.
+ */
+public final class Profiler {
+
+    public static final int FRAMES = 120;
+    public static final int SAMPLES = 1 << 16;
+    private static final int MAX_DEPTH = 64;
+
+    private static final Scope SCOPE = new Scope();
+
+    private static boolean enabled;
+    private static Thread owner;
+
+    // all samples of all frames, addressed by an ever increasing index
+    private static String[] names;
+    private static long[] starts, ends;
+    private static int[] depths;
+    private static long sampleCursor;
+
+    private static Frame[] frames;
+    private static long frameCursor;
+    private static Frame current;
+
+    // the samples of the currently open scopes
+    private static final long[] open = new long[MAX_DEPTH];
+    private static int depth;
+
+    private Profiler() {
+    }
+
+    /**
+     * Starts recording on the calling thread, which should be the thread running the game loop.
+     */
+    public static void enable() {
+        if (names == null) {
+            names = new String[SAMPLES];
+            starts = new long[SAMPLES];
+            ends = new long[SAMPLES];
+            depths = new int[SAMPLES];
+            frames = new Frame[FRAMES];
+            for (int i = 0; i < FRAMES; i++)
+                frames[i] = new Frame();
+        }
+        owner = Thread.currentThread();
+        enabled = true;
+    }
+
+    /**
+     * Stops recording, the recorded frames are kept.
+     */
+    public static void disable() {
+        enabled = false;
+        current = null;
+        depth = 0;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Forgets all recorded frames.
+     */
+    public static void clear() {
+        if (frames == null) return;
+        for (Frame frame : frames)
+            frame.sampleCount = -1;
+        current = null;
+        depth = 0;
+    }
+
+    /**
+     * Starts a new frame, closing the last one if it was not ended.
+     */
+    public static void beginFrame() {
+        if (!enabled || Thread.currentThread() != owner) return;
+        if (current != null) endFrame();
+        current = frames[(int) (frameCursor++ % FRAMES)];
+        current.index = frameCursor - 1;
+        current.firstSample = sampleCursor;
+        current.sampleCount = 0;
+        current.start = System.nanoTime();
+        depth = 0;
+    }
+
+    /**
+     * Ends the current frame, closing all scopes left open.
+     */
+    public static void endFrame() {
+        if (!enabled || current == null || Thread.currentThread() != owner) return;
+        while (depth > 0)
+            end();
+        current.end = System.nanoTime();
+        current.sampleCount = (int) (sampleCursor - current.firstSample);
+        current = null;
+    }
+
+    /**
+     * Opens a scope, which has to be closed with {@link #end()}.
+     *
+     * @param name the name of the scope, preferably a constant
+     */
+    public static void begin(String name) {
+        if (!enabled || current == null || Thread.currentThread() != owner) return;
+        if (depth < MAX_DEPTH) {
+            long sample = sampleCursor++;
+            int slot = (int) (sample & (SAMPLES - 1));
+            names[slot] = name;
+            depths[slot] = depth;
+            ends[slot] = -1;
+            open[depth] = sample;
+            starts[slot] = System.nanoTime();
+        }
+        depth++;
+    }
+
+    /**
+     * Closes the scope opened last.
+     */
+    public static void end() {
+        if (!enabled || current == null || depth == 0 || Thread.currentThread() != owner) return;
+        depth--;
+        if (depth < MAX_DEPTH) ends[(int) (open[depth] & (SAMPLES - 1))] = System.nanoTime();
+    }
+
+    /**
+     * Opens a scope which is closed by closing the returned object, for try with resources.
+     * The same object is returned for every call.
+     *
+     * @param name the name of the scope, preferably a constant
+     * @return the scope
+     */
+    public static Scope scope(String name) {
+        begin(name);
+        return SCOPE;
+    }
+
+    /**
+     * Gets a recorded frame.
+     *
+     * @param ago 0 for the last finished frame, 1 for the one before
+     * @return the frame, or null if it was not recorded
+     */
+    public static Frame getFrame(int ago) {
+        if (frames == null || ago < 0 || ago >= FRAMES) return null;
+        long index = frameCursor - 1 - ago - (current != null ? 1 : 0);
+        if (index < 0) return null;
+        Frame frame = frames[(int) (index % FRAMES)];
+        return frame.index == index && frame.isValid() ? frame : null;
+    }
+
+    /**
+     * Writes the recorded frames in the trace event format, which can be opened in chrome://tracing or Perfetto.
+     *
+     * @param writer the output
+     * @throws IOException if the output cannot be written
+     */
+    public static void exportChromeTrace(Writer writer) throws IOException {
+        JSONWriter json = new JSONWriter(writer);
+        json.beginObject().name("traceEvents").beginArray();
+        Frame first = null;
+        for (int ago = FRAMES - 1; ago >= 0; ago--) {
+            Frame frame = getFrame(ago);
+            if (frame == null) continue;
+            if (first == null) first = frame;
+            long origin = first.start;
+            event(json, "frame", frame.start - origin, frame.getDuration());
+            for (int i = 0; i < frame.getSampleCount(); i++)
+                event(json, frame.getName(i), frame.getStart(i) - origin, frame.getDuration(i));
+        }
+        json.endArray().name("displayTimeUnit").value("ms").endObject();
+        json.flush();
+    }
+
+    private static void event(JSONWriter json, String name, long start, long duration) {
+        json.beginObject()
+                .name("name").value(name)
+                .name("ph").value("X")
+                .name("ts").value(start / 1000.0)
+                .name("dur").value(duration / 1000.0)
+                .name("pid").value(1)
+                .name("tid").value(1)
+                .endObject();
+    }
+
+    /**
+     * Closes the last opened scope, see {@link #scope(String)}
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private Scope() {
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+
+    }
+
+    /**
+     * The samples of a single frame. A frame object is reused for a later frame once the ring buffer wraps around.
+     */
+    public static final class Frame {
+
+        private long index = -1;
+        private long start, end;
+        private long firstSample;
+        private int sampleCount = -1;
+
+        private Frame() {
+        }
+
+        /**
+         * @return false, once the samples of this frame were overwritten by later frames
+         */
+        public boolean isValid() {
+            return sampleCount >= 0 && sampleCursor - firstSample <= SAMPLES;
+        }
+
+        /**
+         * @return the duration of the whole frame in nanoseconds
+         */
+        public long getDuration() {
+            return end - start;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public int getSampleCount() {
+            return sampleCount;
+        }
+
+        public String getName(int sample) {
+            return names[slot(sample)];
+        }
+
+        /**
+         * @return the nesting level of a scope, 0 for scopes not inside of another one
+         */
+        public int getDepth(int sample) {
+            return depths[slot(sample)];
+        }
+
+        public long getStart(int sample) {
+            return starts[slot(sample)];
+        }
+
+        /**
+         * @return the duration of a scope in nanoseconds
+         */
+        public long getDuration(int sample) {
+            int slot = slot(sample);
+            return ends[slot] - starts[slot];
+        }
+
+        /**
+         * Sums up the time of all scopes with a name, e.g. of a scope opened once for every collider.
+         *
+         * @param name the name of the scopes
+         * @return the total duration in nanoseconds
+         */
+        public long getTotal(String name) {
+            long total = 0;
+            for (int i = 0; i < sampleCount; i++) {
+                int slot = slot(i);
+                if (name.equals(names[slot])) total += ends[slot] - starts[slot];
+            }
+            return total;
+        }
+
+        private int slot(int sample) {
+            if (sample < 0 || sample >= sampleCount) throw new IndexOutOfBoundsException("sample " + sample + " of " + sampleCount);
+            return (int) ((firstSample + sample) & (SAMPLES - 1));
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Collects work which has to be done on the main thread, like uploads to the GPU, from any thread.
+ * The work is spread over several frames: each call of {@link #process()} only runs as many tasks as fit into the budget,
+ * so loading a lot of assets at once does not stall a single frame.
+ *
+ * @see Assets#processUploads()
+ */
+public class UploadQueue {
+
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile long budgetNanos;
+
+    /**
+     * @param budgetNanos the time per frame that may be spent on tasks in nanoseconds
+     */
+    public UploadQueue(long budgetNanos) {
+        setBudget(budgetNanos);
+    }
+
+    /**
+     * Queues a task, which runs on the thread calling {@link #process()}.
+     *
+     * @param task the task
+     * @return a future completed with the result of the task, after it ran
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        tasks.add(() -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs queued tasks until the budget is used up.
+     * At least one task runs each call, so even tasks longer than the budget make progress.
+     *
+     * @return the amount of tasks that ran
+     */
+    public int process() {
+        long start = System.nanoTime();
+        int count = 0;
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+            count++;
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+        return count;
+    }
+
+    /**
+     * @return the amount of tasks waiting to run
+     */
+    public int size() {
+        return tasks.size();
+    }
+
+    public long getBudget() {
+        return budgetNanos;
+    }
+
+    /**
+     * @param budgetNanos the time per frame that may be spent on tasks in nanoseconds
+     */
+    public void setBudget(long budgetNanos) {
+        if (budgetNanos < 0) throw new IllegalArgumentException("The budget shall not be negative, but was " + budgetNanos);
+        this.budgetNanos = budgetNanos;
+    }
+
+}
@@ -0,0 +1,162 @@
+package util.debug;
+
+import ecs.Component;
+import graphics.Camera;
+import graphics.Color;
+import org.joml.Vector2f;
+import ui.Text;
+import util.Assets;
+import util.Profiler;
+
+/**
+ * Shows the frames recorded by the {@link Profiler} in the corner of the screen:
+ * a graph of the last frame times drawn by the debug renderer, and the average time of the outermost scopes as text.
+ * The graph is only visible while the debug mode of the scene is on.
+ * <pre>
+ * Profiler.enable();
+ * GameObject overlay = new GameObject(this, "Profiler", new Transform(), 100);
+ * overlay.addComponent(new ProfilerOverlay());
+ * </pre>
+ */
+public class ProfilerOverlay extends Component {
+
+    private static final Color FAST = new Color(0, 200, 80);
+    private static final Color SLOW = new Color(230, 160, 0);
+    private static final Color TOO_SLOW = new Color(230, 40, 40);
+
+    // frames taking longer than this are drawn in a warning color
+    private static final float BUDGET_MS = 1000f / 60;
+    private static final int MAX_SCOPES = 12;
+
+    private final float x, y;
+    private final float pixelsPerMs;
+    private final int averagedFrames;
+
+    private final DebugLine[] bars = new DebugLine[Profiler.FRAMES];
+    private final DebugLine budgetLine;
+    private final DebugPrimitive[] primitives;
+
+    private Text text;
+    private int framesUntilRefresh;
+    private final StringBuilder builder = new StringBuilder();
+    private final String[] scopeNames = new String[MAX_SCOPES];
+    private final long[] scopeTotals = new long[MAX_SCOPES];
+
+    /**
+     * Shows the overlay in the top left corner
+     */
+    public ProfilerOverlay() {
+        this(10, 10, 4, 30);
+    }
+
+    /**
+     * @param x              the left edge of the overlay on the screen
+     * @param y              the top edge of the overlay on the screen
+     * @param pixelsPerMs    the height of a bar of the graph for each millisecond of its frame
+     * @param averagedFrames the amount of frames the text averages and after which it is refreshed
+     */
+    public ProfilerOverlay(float x, float y, float pixelsPerMs, int averagedFrames) {
+        super(ComponentOrder.POST_DRAW);
+        if (averagedFrames <= 0 || averagedFrames > Profiler.FRAMES)
+            throw new IllegalArgumentException("the overlay can only average between 1 and " + Profiler.FRAMES + " frames");
+        this.x = x;
+        this.y = y;
+        this.pixelsPerMs = pixelsPerMs;
+        this.averagedFrames = averagedFrames;
+        for (int i = 0; i < bars.length; i++)
+            bars[i] = new DebugLine(new Vector2f(), new Vector2f(), FAST);
+        budgetLine = new DebugLine(new Vector2f(), new Vector2f(), TOO_SLOW);
+        DebugLine[] lines = new DebugLine[bars.length + 1];
+        System.arraycopy(bars, 0, lines, 0, bars.length);
+        lines[bars.length] = budgetLine;
+        primitives = new DebugPrimitive[]{new DebugPrimitive(lines)};
+    }
+
+    @Override
+    public void start() {
+        text = new Text(gameObject.getParentScene(), " ", Assets.getFont(14, true), Color.WHITE,
+                x, y + graphHeight() + 8, 100, true, false);
+    }
+
+    @Override
+    public void update(float dt) {
+        updateGraph();
+        if (--framesUntilRefresh <= 0) {
+            framesUntilRefresh = averagedFrames;
+            text.change(summary());
+        }
+    }
+
+    private float graphHeight() {
+        return BUDGET_MS * 2 * pixelsPerMs;
+    }
+
+    /**
+     * Moves the bars of the graph along with the camera, the newest frame is on the right
+     */
+    private void updateGraph() {
+        Camera camera = gameObject.getParentScene().camera();
+        float left = camera.position.x + x, bottom = camera.position.y + y + graphHeight();
+        for (int i = 0; i < bars.length; i++) {
+            Profiler.Frame frame = Profiler.getFrame(bars.length - 1 - i);
+            float ms = frame == null ? 0 : frame.getDuration() / 1e6f;
+            DebugLine bar = bars[i];
+            bar.start.set(left + i, bottom);
+            bar.end.set(left + i, bottom - Math.min(ms, BUDGET_MS * 2) * pixelsPerMs);
+            bar.color = ms > BUDGET_MS * 1.5f ? TOO_SLOW : ms > BUDGET_MS ? SLOW : FAST;
+            bar.markDirty();
+        }
+        budgetLine.start.set(left, bottom - BUDGET_MS * pixelsPerMs);
+        budgetLine.end.set(left + bars.length, bottom - BUDGET_MS * pixelsPerMs);
+        budgetLine.markDirty();
+    }
+
+    /**
+     * Averages the frame time and the time of the outermost scopes over the last frames
+     *
+     * @return the text of the overlay
+     */
+    String summary() {
+        int scopes = 0, frames = 0;
+        long frameTotal = 0;
+        for (int ago = 0; ago < averagedFrames; ago++) {
+            Profiler.Frame frame = Profiler.getFrame(ago);
+            if (frame == null) break;
+            frames++;
+            frameTotal += frame.getDuration();
+            for (int i = 0; i < frame.getSampleCount(); i++) {
+                if (frame.getDepth(i) != 0) continue;
+                String name = frame.getName(i);
+                int scope = 0;
+                while (scope < scopes && !scopeNames[scope].equals(name)) scope++;
+                if (scope == scopes) {
+                    if (scopes == MAX_SCOPES) continue;
+                    scopeNames[scopes] = name;
+                    scopeTotals[scopes++] = 0;
+                }
+                scopeTotals[scope] += frame.getDuration(i);
+            }
+        }
+        builder.setLength(0);
+        if (frames == 0) return Profiler.isEnabled() ? "profiling..." : "profiler disabled";
+        appendTime(builder.append("frame "), frameTotal / frames);
+        for (int i = 0; i < scopes; i++) {
+            appendTime(builder.append('\n').append(scopeNames[i]).append(' '), scopeTotals[i] / frames);
+            scopeNames[i] = null;
+        }
+        return builder.toString();
+    }
+
+    private static void appendTime(StringBuilder builder, long nanos) {
+        long hundredths = nanos / 10_000;
+        builder.append(hundredths / 100).append('.');
+        if (hundredths % 100 < 10) builder.append('0');
+        builder.append(hundredths % 100).append(" ms");
+    }
+
+    @Override
+    public DebugPrimitive[] debug() {
+        return primitives;
+    }
+
+}
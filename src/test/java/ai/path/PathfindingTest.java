@@ -9,6 +9,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -144,4 +145,47 @@ public class PathfindingTest {
         String pathString = pathToString(path.fullPath());
         Assert.assertEquals(expectedPath1, pathString);
     }
+
+    @Test
+    public void repeatedQueries() {
+        //the graph must not keep any state of previous searches
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(expectedPath1, pathToString(Pathfinding.dijkstra(map1).get().fullPath()));
+            Assert.assertEquals(expectedPath1, pathToString(Pathfinding.astar(map1, Vector2f::distanceSquared).get().fullPath()));
+        }
+        //the reverse direction on the same graph
+        Vector2fMap reverse = new Vector2fMap(map1.target(), map1.start());
+        List<Node<Vector2f>> reversePath = Pathfinding.dijkstra(reverse).get().fullPath();
+        Assert.assertEquals(map1.target(), reversePath.get(0));
+        Assert.assertEquals(map1.start(), reversePath.get(reversePath.size() - 1));
+        Assert.assertEquals(16, reversePath.size());
+    }
+
+    @Test
+    public void noPath() {
+        Vector2fNode isolated = new Vector2fNode(new Vector2f(-1, -1));
+        Assert.assertFalse(Pathfinding.dijkstra(new Vector2fMap(map1.start(), isolated)).isPresent());
+        Assert.assertFalse(Pathfinding.astar(new Vector2fMap(map1.start(), isolated), Vector2f::distanceSquared).isPresent());
+        //start and target are the same
+        Optional<ResultPath<Vector2f>> same = Pathfinding.astar(new Vector2fMap(isolated, isolated), Vector2f::distanceSquared);
+        Assert.assertTrue(same.isPresent());
+        Assert.assertEquals(Collections.singletonList(isolated), same.get().fullPath());
+    }
+
+    @Test
+    public void solveAll() {
+        List<Vector2fMap> maps = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            maps.add(i % 2 == 0 ? map1 : new Vector2fMap(map1.target(), map1.start()));
+        List<Optional<ResultPath<Vector2f>>> results = Pathfinding.solveAll(maps, map -> Pathfinding.astar(map, Vector2f::distanceSquared));
+        Assert.assertEquals(maps.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertTrue(results.get(i).isPresent());
+            List<Node<Vector2f>> path = results.get(i).get().fullPath();
+            Assert.assertEquals(maps.get(i).start(), path.get(0));
+            Assert.assertEquals(maps.get(i).target(), path.get(path.size() - 1));
+            //all equal queries have to find the same path
+            Assert.assertEquals(pathToString(results.get(i % 2).get().fullPath()), pathToString(path));
+        }
+    }
 }
\ No newline at end of file
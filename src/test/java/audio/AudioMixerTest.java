@@ -0,0 +1,133 @@
+package audio;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class AudioMixerTest {
+
+    static AudioClip constant(int value, int frames) {
+        short[] samples = new short[frames];
+        Arrays.fill(samples, (short) value);
+        return new AudioClip(samples, 1, 44100);
+    }
+
+    @Test
+    public void mixesCenteredSound() {
+        AudioMixer mixer = new AudioMixer(44100, 4, 8);
+        long sound = mixer.play(constant(10000, 1000), 1, 0);
+        short[] out = new short[2 * 256];
+        mixer.mix(out, 256);
+        //equal power panning puts a centered sound at cos(45°) on both sides
+        Assert.assertEquals(7071, out[0], 1);
+        Assert.assertEquals(7071, out[1], 1);
+        Assert.assertEquals(7071, out[511], 1);
+        Assert.assertTrue(mixer.isPlaying(sound));
+
+        //the clip ends after 1000 frames, so the rest of the fourth block is silent
+        for (int i = 0; i < 3; i++) mixer.mix(out, 256);
+        Assert.assertEquals(0, out[2 * 255]);
+        Assert.assertFalse(mixer.isPlaying(sound));
+        Assert.assertEquals(0, mixer.getPlayingCount());
+    }
+
+    @Test
+    public void pansAndAttenuates() {
+        AudioMixer mixer = new AudioMixer(44100, 4, 8);
+        mixer.setDistances(100, 1100);
+        mixer.setListener(0, 0);
+        mixer.play(constant(10000, 1000), 600, 0, 1, 0, false);
+        short[] out = new short[2 * 16];
+        mixer.mix(out, 16);
+        //half way to the maximum distance, on the right side
+        Assert.assertTrue(out[1] > out[0]);
+        double gain = 0.5, angle = (600.0 / 1100 + 1) * Math.PI / 4;
+        Assert.assertEquals(10000 * gain * Math.cos(angle), out[0], 1);
+        Assert.assertEquals(10000 * gain * Math.sin(angle), out[1], 1);
+    }
+
+    @Test
+    public void virtualizesDistantSounds() {
+        AudioMixer mixer = new AudioMixer(44100, 2, 8);
+        mixer.setDistances(100, 1000);
+        AudioClip clip = constant(1000, 44100);
+        long near = mixer.play(clip, 0, 0, 1, 0, true);
+        long middle = mixer.play(clip, 500, 0, 1, 0, true);
+        long far = mixer.play(clip, 800, 0, 1, 0, true);
+        long silent = mixer.play(clip, 5000, 0, 1, 0, true);
+        mixer.mix(new short[64], 32);
+        Assert.assertEquals(2, mixer.getRealVoices());
+        Assert.assertFalse(mixer.isVirtual(near));
+        Assert.assertFalse(mixer.isVirtual(middle));
+        Assert.assertTrue(mixer.isVirtual(far));
+        Assert.assertTrue(mixer.isVirtual(silent));
+
+        //a priority beats any distance
+        mixer.stop(middle);
+        long important = mixer.play(clip, 900, 0, 1, 5, true);
+        mixer.mix(new short[64], 32);
+        Assert.assertFalse(mixer.isVirtual(important));
+        Assert.assertFalse(mixer.isVirtual(near));
+        Assert.assertTrue(mixer.isVirtual(far));
+    }
+
+    @Test
+    public void virtualSoundsKeepTime() {
+        AudioMixer mixer = new AudioMixer(44100, 1, 4);
+        long loud = mixer.play(constant(1000, 44100), 1, 0);
+        long quiet = mixer.play(constant(1000, 300), 0.5f, 0);
+        short[] out = new short[2 * 256];
+        mixer.mix(out, 256);
+        Assert.assertTrue(mixer.isVirtual(quiet));
+        mixer.mix(out, 256);
+        //the virtual sound ended after 300 frames without being mixed once
+        Assert.assertFalse(mixer.isPlaying(quiet));
+        Assert.assertTrue(mixer.isPlaying(loud));
+        Assert.assertEquals(707, out[0], 1);
+    }
+
+    @Test
+    public void poolsSounds() {
+        AudioMixer mixer = new AudioMixer(44100, 1, 2);
+        AudioClip clip = constant(1000, 1000);
+        long first = mixer.play(clip, 1, 1);
+        long second = mixer.play(clip, 0.5f, 1);
+        //the pool is full and neither sound is less important
+        Assert.assertEquals(AudioMixer.NO_SOUND, mixer.play(clip, 0.5f, 0));
+        //a louder sound takes the slot of the quietest one
+        long third = mixer.play(clip, 0.8f, 1);
+        Assert.assertNotEquals(AudioMixer.NO_SOUND, third);
+        Assert.assertFalse(mixer.isPlaying(second));
+        Assert.assertTrue(mixer.isPlaying(first));
+
+        //a stale handle does not affect the sound reusing its slot
+        mixer.stop(first);
+        long fourth = mixer.play(clip, 1, 1);
+        Assert.assertFalse(mixer.stop(first));
+        Assert.assertTrue(mixer.isPlaying(fourth));
+        Assert.assertEquals(2, mixer.getPlayingCount());
+    }
+
+    @Test
+    public void clipsLoudMixes() {
+        AudioMixer mixer = new AudioMixer(44100, 4, 4);
+        for (int i = 0; i < 4; i++)
+            mixer.play(constant(30000, 100), 1, 0);
+        short[] out = new short[2 * 16];
+        mixer.mix(out, 16);
+        Assert.assertEquals(Short.MAX_VALUE, out[0]);
+    }
+
+    @Test
+    public void resamples() {
+        //a clip at half the rate of the mixer plays for twice as many frames
+        AudioMixer mixer = new AudioMixer(44100, 1, 1);
+        long sound = mixer.play(new AudioClip(new short[100], 1, 22050), 1, 0);
+        mixer.mix(new short[2 * 150], 150);
+        Assert.assertTrue(mixer.isPlaying(sound));
+        mixer.mix(new short[2 * 60], 60);
+        Assert.assertFalse(mixer.isPlaying(sound));
+    }
+
+}
@@ -0,0 +1,138 @@
+package audio;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+public class AudioStreamTest {
+
+    static final int FRAMES = 10_000;
+
+    File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("azurite", ".wav");
+        writeWave(file, 2, 22050, FRAMES);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Writes 16 bit samples counting up, so every sample can be checked
+     */
+    static void writeWave(File file, int channels, int sampleRate, int frames) throws IOException {
+        int dataSize = frames * channels * 2;
+        ByteBuffer wave = ByteBuffer.allocate(44 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        wave.put("RIFF".getBytes()).putInt(36 + dataSize).put("WAVE".getBytes());
+        wave.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) channels)
+                .putInt(sampleRate).putInt(sampleRate * channels * 2).putShort((short) (channels * 2)).putShort((short) 16);
+        wave.put("data".getBytes()).putInt(dataSize);
+        for (int i = 0; i < frames * channels; i++)
+            wave.putShort((short) i);
+        Files.write(file.toPath(), wave.array());
+    }
+
+    @Test
+    public void readsMappedWave() {
+        try (WaveStream stream = new WaveStream(file.getPath())) {
+            Assert.assertEquals(2, stream.getChannels());
+            Assert.assertEquals(16, stream.getSampleSize());
+            Assert.assertEquals(22050, stream.getSampleRate());
+            Assert.assertEquals(FRAMES * 4, stream.getLength());
+
+            //an odd amount of bytes only reads whole frames
+            ByteBuffer target = ByteBuffer.allocateDirect(1003).order(ByteOrder.LITTLE_ENDIAN);
+            Assert.assertEquals(1000, stream.read(target));
+            Assert.assertEquals(0, target.getShort(0));
+            Assert.assertEquals(499, target.getShort(998));
+
+            stream.rewind();
+            target.clear();
+            stream.read(target);
+            Assert.assertEquals(1, target.getShort(2));
+        }
+    }
+
+    @Test
+    public void reusesRingBuffers() {
+        AudioStreamer streamer = new AudioStreamer(3, 4096);
+        streamer.open(new WaveStream(file.getPath()));
+        ByteBuffer first = streamer.next();
+        ByteBuffer second = streamer.next();
+        ByteBuffer third = streamer.next();
+        Assert.assertNotSame(first, second);
+        Assert.assertNotSame(second, third);
+        Assert.assertSame(first, streamer.next());
+
+        int sample = 4 * 4096 / 2;
+        int total = 4 * 4096;
+        ByteBuffer buffer;
+        while ((buffer = streamer.next()) != null) {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            Assert.assertEquals((short) sample, buffer.getShort(0));
+            sample += buffer.remaining() / 2;
+            total += buffer.remaining();
+        }
+        Assert.assertEquals(FRAMES * 4, total);
+        Assert.assertTrue(streamer.isAtEnd());
+        Assert.assertNull(streamer.next());
+        streamer.close();
+    }
+
+    @Test
+    public void loopsWithoutGap() {
+        AudioStreamer streamer = new AudioStreamer(2, 4096);
+        streamer.setLooping(true);
+        streamer.open(new WaveStream(file.getPath()));
+        //the buffer containing the end of the file continues with its start
+        int wrap = FRAMES * 4 % 4096;
+        ByteBuffer buffer = null;
+        for (int i = 0; i <= FRAMES * 4 / 4096; i++)
+            buffer = streamer.next();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(4096, buffer.remaining());
+        Assert.assertEquals((short) (FRAMES * 2 - 1), buffer.getShort(wrap - 2));
+        Assert.assertEquals(0, buffer.getShort(wrap));
+        Assert.assertFalse(streamer.isAtEnd());
+        streamer.close();
+    }
+
+    @Test
+    public void streamsLikeDecoded() {
+        AudioBuffer decoded = AudioBuffer.decode(file.getPath());
+        AudioBuffer streamed = AudioBuffer.stream(file.getPath());
+        Assert.assertTrue(streamed.isValid());
+        Assert.assertTrue(streamed.isStreaming());
+        Assert.assertNull(streamed.getAudioData());
+        Assert.assertEquals(decoded.getFormat(), streamed.getFormat());
+        Assert.assertEquals(decoded.getTime(), streamed.getTime());
+        Assert.assertEquals(FRAMES * 1000L / 22050, streamed.getTime());
+
+        ByteBuffer a = ByteBuffer.allocateDirect(FRAMES * 4 + 8), b = ByteBuffer.allocateDirect(FRAMES * 4 + 8);
+        try (AudioStream s1 = decoded.openStream(); AudioStream s2 = streamed.openStream()) {
+            while (s1.read(a) > 0) ;
+            while (s2.read(b) > 0) ;
+        }
+        a.flip();
+        b.flip();
+        Assert.assertEquals(FRAMES * 4, a.remaining());
+        Assert.assertEquals(a, b);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidVorbis() {
+        new VorbisStream(file.getPath());
+    }
+
+}
@@ -0,0 +1,206 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.BodyType;
+import physics.collision.Collider;
+import physics.collision.CollisionInformation;
+import physics.collision.Shapes;
+import physics.collision.narrowphase.Contact;
+import physics.force.ConstantForce;
+import scene.Scene;
+import tiles.TileLayer;
+import tiles.TileMap;
+import util.Engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CollisionHandlerTest {
+
+    Scene scene;
+    GameObject wall;
+    GameObject body;
+    List<String> calls = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        Engine.updateDeltaTime(1 / 60f);
+        wall = new GameObject(scene, "wall", new Vector2f(0, 0), 0);
+        wall.addComponent(new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10)).layer(1).mask(1));
+        body = new GameObject(scene, "body", new Vector2f(-30, 0), 0);
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10)).layer(1).mask(1);
+        body.addComponent(collider);
+        body.addComponent(new CollisionHandler(collider) {
+            @Override
+            protected void beginContact(Collider environment, Contact contact) {
+                calls.add("begin " + contact.getDepth());
+            }
+
+            @Override
+            protected void persistContact(Collider environment, Contact contact) {
+                calls.add("persist " + contact.getDepth());
+            }
+
+            @Override
+            protected void endContact(Collider environment, Contact contact) {
+                calls.add("end");
+            }
+
+            @Override
+            public void collision(Collider environment, CollisionInformation collisionInformation) {
+                //the data of the detection of the collider, not the contact
+                Assert.assertTrue(collisionInformation.get() instanceof Vector2f[]);
+                calls.add("collision");
+            }
+        });
+    }
+
+    void moveTo(float x) {
+        body.setPosition(x, 0);
+        scene.updateGameObjects();
+    }
+
+    @Test
+    public void contactCallbacks() {
+        moveTo(-30);
+        Assert.assertEquals(List.of(), calls);
+        moveTo(-5);
+        moveTo(-4);
+        Assert.assertEquals(List.of("begin 5.0", "collision", "persist 6.0", "collision"), calls);
+        calls.clear();
+        //close enough for the bounding spheres, but separated
+        moveTo(-10.5f);
+        Assert.assertEquals(List.of("end"), calls);
+        calls.clear();
+        moveTo(-5);
+        //too far away to be tested at all
+        moveTo(40);
+        Assert.assertEquals(List.of("begin 5.0", "collision", "end"), calls);
+    }
+
+    @Test
+    public void eachTileHasItsOwnContact() {
+        TileMap tileMap = new TileMap(10, 10);
+        TileLayer layer = new TileLayer("walls", 10, 10, true);
+        layer.set(2, 0, 1);
+        layer.set(3, 0, 1);
+        tileMap.addLayer(layer);
+        tileMap.getTileCollider().layer(1).mask(1);
+        scene.addTileMap(tileMap);
+
+        //touching both tiles
+        moveTo(25);
+        Assert.assertEquals(List.of("begin 5.0", "collision", "begin 5.0", "collision"), calls);
+        calls.clear();
+        //only the tile at x = 3 is still touched
+        moveTo(33);
+        Assert.assertEquals(List.of("persist 7.0", "collision", "end"), calls);
+    }
+
+    @Test
+    public void passiveCollidersFollowTheirGameObject() {
+        GameObject platform = new GameObject(scene, "platform", new Vector2f(100, 0), 0);
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10), true).layer(1).mask(1);
+        platform.addComponent(collider);
+        Assert.assertEquals(BodyType.KINEMATIC, collider.bodyType());
+        moveTo(-30);
+        platform.setPosition(-25, 0);
+        //the platform is updated after the body, which sees it moved in the next frame
+        moveTo(-30);
+        moveTo(-30);
+        Assert.assertEquals(List.of("begin 5.0", "collision"), calls);
+    }
+
+    @Test
+    public void staticCollidersAreKeptApart() {
+        PolygonCollider collider = wall.getComponent(PolygonCollider.class);
+        collider.bodyType(BodyType.STATIC);
+        Assert.assertEquals(List.of(collider), scene.getStaticColliders());
+        Assert.assertFalse(scene.getColliders().contains(collider));
+        Assert.assertEquals(1, scene.getStaticBroadPhase().size());
+        moveTo(-5);
+        Assert.assertEquals(List.of("begin 5.0", "collision"), calls);
+        calls.clear();
+
+        //a static collider stays where it was placed
+        wall.setPosition(100, 0);
+        moveTo(-5);
+        Assert.assertEquals(List.of("persist 5.0", "collision"), calls);
+        calls.clear();
+
+        collider.bodyType(BodyType.KINEMATIC);
+        Assert.assertTrue(scene.getStaticColliders().isEmpty());
+        Assert.assertEquals(0, scene.getStaticBroadPhase().size());
+        moveTo(-5);
+        Assert.assertEquals(List.of("end"), calls);
+    }
+
+    Dynamics fallAsleep() {
+        moveTo(-30);
+        //added after the collider was placed
+        Dynamics dynamics = new Dynamics();
+        body.addComponent(dynamics);
+        for (int i = 0; i < Dynamics.SLEEP_FRAMES; i++)
+            scene.updateGameObjects();
+        Assert.assertTrue(dynamics.isSleeping());
+        return dynamics;
+    }
+
+    @Test
+    public void sleepingBodiesWakeWhenMovedInto() {
+        Dynamics dynamics = fallAsleep();
+        //moving close without touching lets it sleep
+        wall.setPosition(-45, 0);
+        scene.updateGameObjects();
+        Assert.assertTrue(dynamics.isSleeping());
+
+        //a collider without a handler moved into it by its dynamics
+        GameObject pusher = new GameObject(scene, "pusher", new Vector2f(-50, 0), 0);
+        pusher.addComponent(new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10)).layer(1).mask(1));
+        Dynamics push = new Dynamics();
+        push.applyForce(new ConstantForce("push", new Vector2f(0, 4)));
+        pusher.addComponent(push);
+        wall.setPosition(100, 0);
+        scene.updateGameObjects();
+        Assert.assertTrue(dynamics.isSleeping());
+        pusher.setPosition(-30, -20);
+        //the body is updated before the pusher, so it sees the overlap a frame later
+        for (int i = 0; i < 4; i++)
+            scene.updateGameObjects();
+        Assert.assertFalse(dynamics.isSleeping());
+        Assert.assertEquals("begin", calls.get(0).substring(0, 5));
+        calls.clear();
+        pusher.removeComponent(Dynamics.class);
+        pusher.setPosition(-50, 0);
+        for (int i = 0; i <= Dynamics.SLEEP_FRAMES; i++)
+            scene.updateGameObjects();
+        Assert.assertTrue(dynamics.isSleeping());
+
+        //a wall moved into it by setPosition
+        wall.setPosition(-25, 0);
+        scene.updateGameObjects();
+        Assert.assertFalse(dynamics.isSleeping());
+        scene.updateGameObjects();
+        Assert.assertTrue(calls.contains("begin 5.0"));
+    }
+
+    @Test
+    public void sleepingBodiesWakeOnContact() {
+        Dynamics dynamics = fallAsleep();
+        GameObject other = new GameObject(scene, "other", new Vector2f(-40, 0), 0);
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10)).layer(1).mask(1);
+        other.addComponent(collider);
+        other.addComponent(CollisionHandlers.unpassablePolygonCollider(collider));
+        other.setPosition(-38, 0);
+        scene.updateGameObjects();
+        Assert.assertFalse(dynamics.isSleeping());
+        scene.updateGameObjects();
+        Assert.assertEquals("begin", calls.get(0).substring(0, 5));
+    }
+
+}
@@ -0,0 +1,233 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.BodyType;
+import physics.collision.Collider;
+import physics.collision.CollisionInformation;
+import physics.collision.Shapes;
+import physics.collision.narrowphase.Contact;
+import physics.force.ConstantForce;
+import scene.Scene;
+import util.Engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class CollisionPassTest {
+
+    List<String> calls = new ArrayList<>();
+    int detections;
+
+    @Before
+    public void setUp() {
+        Engine.updateDeltaTime(1 / 60f);
+    }
+
+    PolygonCollider box(float size) {
+        return new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, size, size)) {
+            @Override
+            public boolean detectCollision(Collider collider, Contact contact) {
+                detections++;
+                return super.detectCollision(collider, contact);
+            }
+        }.layer(1).mask(1);
+    }
+
+    //a mirrored normal may hold a negative zero
+    static String format(Object contact) {
+        return String.valueOf(contact).replace("-0.0", "0.0");
+    }
+
+    //an unpassable handler, which records its callbacks
+    CollisionHandler recorder(String name, PolygonCollider collider, List<String> calls) {
+        CollisionHandler unpassable = CollisionHandlers.unpassablePolygonCollider(collider);
+        return new CollisionHandler(collider) {
+            @Override
+            protected void beginContact(Collider environment, Contact contact) {
+                calls.add(name + " begin " + format(contact));
+            }
+
+            @Override
+            protected void persistContact(Collider environment, Contact contact) {
+                calls.add(name + " persist " + format(contact));
+            }
+
+            @Override
+            protected void endContact(Collider environment, Contact contact) {
+                calls.add(name + " end");
+            }
+
+            @Override
+            public void collision(Collider environment, Contact contact) {
+                calls.add(name + " collision " + format(contact));
+                unpassable.collision(environment, contact);
+            }
+
+            @Override
+            public void collision(Collider environment, CollisionInformation collisionInformation) {
+                Assert.fail("the contact is handed to the other overload");
+            }
+        };
+    }
+
+    GameObject body(Scene scene, String name, float x, float y, List<String> calls) {
+        GameObject object = new GameObject(scene, name, new Vector2f(x, y), 0);
+        PolygonCollider collider = box(10);
+        object.addComponent(collider);
+        object.addComponent(recorder(name, collider, calls));
+        return object;
+    }
+
+    Scene scene(boolean pass) {
+        Scene scene = new Scene() {
+        };
+        scene.enableEntityStore();
+        if (pass) scene.enableCollisionPass();
+        return scene;
+    }
+
+    //a crowd of drifting bodies between static walls, each resolving its own collisions
+    List<GameObject> crowd(Scene scene, List<String> calls) {
+        Random random = new Random(3);
+        List<GameObject> bodies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            GameObject wall = new GameObject(scene, "wall " + i, new Vector2f(i * 20, 100), 0);
+            wall.addComponent(box(20).bodyType(BodyType.STATIC));
+        }
+        for (int i = 0; i < 30; i++) {
+            GameObject body = body(scene, "body " + i, random.nextInt(200), random.nextInt(100), calls);
+            Dynamics dynamics = new Dynamics();
+            dynamics.applyForce(new ConstantForce("drift", new Vector2f(random.nextInt(3) - 1, 1)));
+            body.addComponent(dynamics);
+            bodies.add(body);
+        }
+        return bodies;
+    }
+
+    @Test
+    public void sameOutcomeAsHandlers() {
+        List<String> expectedCalls = new ArrayList<>();
+        Scene expectedScene = scene(false);
+        List<GameObject> expected = crowd(expectedScene, expectedCalls);
+        Scene actualScene = scene(true);
+        List<GameObject> actual = crowd(actualScene, calls);
+        Assert.assertEquals(30, actualScene.getCollisionPass().size());
+        int saved = 0;
+        for (int frame = 0; frame < 60; frame++) {
+            detections = 0;
+            expectedScene.updateGameObjects();
+            saved += detections;
+            detections = 0;
+            actualScene.updateGameObjects();
+            saved -= detections;
+            //the callbacks of a frame arrive in another order
+            Collections.sort(expectedCalls);
+            Collections.sort(calls);
+            Assert.assertEquals("frame " + frame, expectedCalls, calls);
+            expectedCalls.clear();
+            calls.clear();
+            for (int i = 0; i < expected.size(); i++)
+                Assert.assertEquals(expected.get(i).getReadOnlyPosition(), actual.get(i).getReadOnlyPosition());
+        }
+        Assert.assertTrue("the pass did not save any detection", saved > 0);
+    }
+
+    @Test
+    public void detectsEachPairOnce() {
+        Scene scene = scene(true);
+        body(scene, "a", 0, 0, calls);
+        body(scene, "b", 6, 0, calls);
+        scene.updateGameObjects();
+        Assert.assertEquals(1, detections);
+        Assert.assertEquals(List.of(
+                "a begin Contact{normal=(1.0, 0.0), depth=4.0}",
+                "a collision Contact{normal=(1.0, 0.0), depth=4.0}",
+                "b begin Contact{normal=(-1.0, 0.0), depth=4.0}",
+                "b collision Contact{normal=(-1.0, 0.0), depth=4.0}"), calls);
+    }
+
+    @Test
+    public void dispatchesInCreationOrder() {
+        Scene scene = scene(true);
+        GameObject a = new GameObject(scene, "a", new Vector2f(0, 0), 0);
+        GameObject b = new GameObject(scene, "b", new Vector2f(8, 0), 0);
+        GameObject c = new GameObject(scene, "c", new Vector2f(16, 0), 0);
+        //the components are added in reverse, so the scheduler updates c first
+        for (GameObject object : List.of(c, b, a)) {
+            PolygonCollider collider = box(10);
+            object.addComponent(collider);
+            object.addComponent(recorder(object.name(), collider, calls));
+        }
+        scene.updateGameObjects();
+        List<String> order = new ArrayList<>();
+        for (String call : calls)
+            if (call.contains("begin")) order.add(call.substring(0, 1));
+        Assert.assertEquals(List.of("a", "b", "b", "c"), order);
+
+        b.removeComponent(CollisionHandler.class);
+        Assert.assertEquals(2, scene.getCollisionPass().size());
+        calls.clear();
+        scene.updateGameObjects();
+        for (String call : calls)
+            Assert.assertFalse(call, call.startsWith("b"));
+    }
+
+    @Test
+    public void removedObjectsAreNotDispatched() {
+        Scene scene = scene(true);
+        body(scene, "a", 0, 0, calls);
+        GameObject b = body(scene, "b", 6, 0, calls);
+        //placed and removed while overlapping a
+        b.getComponent(PolygonCollider.class).start();
+        scene.removeGameObjectFromScene(b);
+        Assert.assertEquals(1, scene.getCollisionPass().size());
+        Assert.assertEquals(1, scene.getBroadPhase().size());
+        Assert.assertFalse(scene.getColliders().contains(b.getComponent(Collider.class)));
+        scene.updateGameObjects();
+        Assert.assertEquals(List.of(), calls);
+
+        //added again, it takes part like before
+        scene.addGameObjectToScene(b);
+        Assert.assertEquals(2, scene.getCollisionPass().size());
+        scene.updateGameObjects();
+        Assert.assertEquals(1, detections);
+        Assert.assertTrue(calls.contains("a begin Contact{normal=(1.0, 0.0), depth=4.0}"));
+        Assert.assertTrue(calls.contains("b begin Contact{normal=(-1.0, 0.0), depth=4.0}"));
+    }
+
+    //a body pushed through a wall, which stops it
+    GameObject pushed(Scene scene, List<String> calls) {
+        GameObject wall = new GameObject(scene, "wall", new Vector2f(0, 0), 0);
+        wall.addComponent(box(10));
+        GameObject body = body(scene, "body", -20, 0, calls);
+        Dynamics dynamics = new Dynamics();
+        dynamics.applyForce(new ConstantForce("push", new Vector2f(3, 0.5f)));
+        body.addComponent(dynamics);
+        return body;
+    }
+
+    @Test
+    public void sameOutcomeWithoutEntityStore() {
+        List<String> expectedCalls = new ArrayList<>();
+        Scene expectedScene = new Scene() {
+        };
+        GameObject expected = pushed(expectedScene, expectedCalls);
+        Scene actualScene = new Scene() {
+        };
+        actualScene.enableCollisionPass();
+        GameObject actual = pushed(actualScene, calls);
+        for (int frame = 0; frame < 30; frame++) {
+            expectedScene.updateGameObjects();
+            actualScene.updateGameObjects();
+            Assert.assertEquals(expected.getReadOnlyPosition(), actual.getReadOnlyPosition());
+        }
+        Assert.assertTrue(calls.contains("body persist Contact{normal=(1.0, 0.0), depth=3.0}"));
+        Assert.assertEquals(expectedCalls, calls);
+    }
+
+}
@@ -0,0 +1,85 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Shapes;
+import physics.force.ConstantForce;
+import scene.Scene;
+import util.Engine;
+
+public class DynamicsTest {
+
+    @Before
+    public void setUp() {
+        Engine.updateDeltaTime(1 / 60f);
+    }
+
+    GameObject body(Scene scene) {
+        GameObject object = new GameObject(scene, "body", new Vector2f(10, 10), 0);
+        object.addComponent(new Dynamics());
+        object.addComponent(new PolygonCollider(Shapes.circle(0, 0, 5)));
+        return object;
+    }
+
+    void fallsAsleepAndWakesUp(Scene scene) {
+        GameObject object = body(scene);
+        Dynamics dynamics = object.getComponent(Dynamics.class);
+        PolygonCollider collider = object.getComponent(PolygonCollider.class);
+        for (int i = 1; i < Dynamics.SLEEP_FRAMES; i++)
+            scene.updateGameObjects();
+        Assert.assertFalse(dynamics.isSleeping());
+        scene.updateGameObjects();
+        Assert.assertTrue(dynamics.isSleeping());
+        Assert.assertTrue(collider.isSleeping());
+
+        dynamics.applyForce(new ConstantForce("push", new Vector2f(2, 0)));
+        Assert.assertFalse(dynamics.isSleeping());
+        scene.updateGameObjects();
+        Assert.assertEquals(new Vector2f(12, 10), object.getReadOnlyPosition());
+        Assert.assertEquals(new Vector2f(12, 10), collider.getShape().centroid());
+
+        //a tiny velocity still counts as resting
+        dynamics.removeForce("push");
+        dynamics.applyForce(new ConstantForce("drift", new Vector2f(Dynamics.SLEEP_VELOCITY / 2, 0)));
+        for (int i = 0; i < Dynamics.SLEEP_FRAMES; i++)
+            scene.updateGameObjects();
+        Assert.assertTrue(dynamics.isSleeping());
+        Vector2f rested = object.getReadOnlyPosition();
+        scene.updateGameObjects();
+        Assert.assertEquals(rested, object.getReadOnlyPosition());
+
+        //moved by something else
+        object.setPosition(50, 50);
+        scene.updateGameObjects();
+        Assert.assertFalse(dynamics.isSleeping());
+        Assert.assertEquals(new Vector2f(50, 50), collider.getShape().centroid());
+    }
+
+    @Test
+    public void fallsAsleepAndWakesUp() {
+        fallsAsleepAndWakesUp(new Scene() {
+        });
+    }
+
+    @Test
+    public void fallsAsleepAndWakesUpInEntityStore() {
+        Scene scene = new Scene() {
+        };
+        scene.enableEntityStore();
+        fallsAsleepAndWakesUp(scene);
+    }
+
+    @Test
+    public void sleepingCanBeForbidden() {
+        Scene scene = new Scene() {
+        };
+        Dynamics dynamics = body(scene).getComponent(Dynamics.class);
+        dynamics.setSleepingAllowed(false);
+        for (int i = 0; i < Dynamics.SLEEP_FRAMES * 2; i++)
+            scene.updateGameObjects();
+        Assert.assertFalse(dynamics.isSleeping());
+    }
+
+}
@@ -0,0 +1,257 @@
+package ecs;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Collider;
+import physics.collision.Shapes;
+import physics.force.ConstantForce;
+import scene.Scene;
+import util.Engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SystemSchedulerTest {
+
+    Scene scene;
+
+    @Before
+    public void setUp() {
+        scene = new Scene() {
+        };
+        scene.enableEntityStore();
+        Engine.updateDeltaTime(1 / 60f);
+    }
+
+    GameObject mover(Scene scene, float x, float y, float vx, float vy) {
+        GameObject object = new GameObject(scene, "mover", new Vector2f(x, y), 0);
+        Dynamics dynamics = new Dynamics();
+        dynamics.applyForce(new ConstantForce("push", new Vector2f(vx, vy)));
+        object.addComponent(dynamics);
+        object.addComponent(new PolygonCollider(Shapes.circle(0, 0, 5)));
+        return object;
+    }
+
+    @Test
+    public void sameResultAsGameObjectUpdate() {
+        Scene legacy = new Scene() {
+        };
+        List<GameObject> expected = new ArrayList<>();
+        List<GameObject> actual = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expected.add(mover(legacy, i * 10, -i, i % 3, i % 2));
+            actual.add(mover(scene, i * 10, -i, i % 3, i % 2));
+        }
+        for (int i = 0; i < 30; i++) {
+            legacy.updateGameObjects();
+            scene.updateGameObjects();
+        }
+        EntityStore store = scene.getScheduler().getStore();
+        for (int i = 0; i < expected.size(); i++) {
+            GameObject a = expected.get(i);
+            GameObject b = actual.get(i);
+            Assert.assertEquals(a.getReadOnlyPosition(), b.getReadOnlyPosition());
+            Assert.assertEquals(a.getComponent(Dynamics.class).velocity(), b.getComponent(Dynamics.class).velocity());
+            Assert.assertEquals(a.getComponent(Collider.class).getShape().centroid(), b.getComponent(Collider.class).getShape().centroid());
+            Assert.assertEquals(b.getPositionData()[0], store.getX()[b.storeIndex], 0);
+            Assert.assertEquals(b.getPositionData()[1], store.getY()[b.storeIndex], 0);
+        }
+    }
+
+    @Test
+    public void phaseOrder() {
+        List<String> calls = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            GameObject object = new GameObject(scene, "object" + i, new Vector2f(), 0);
+            int id = i;
+            object.addComponent(new Component(Component.ComponentOrder.DRAW) {
+                @Override
+                public void update(float dt) {
+                    calls.add("draw" + id);
+                }
+            });
+            object.addComponent(new Component(Component.ComponentOrder.INPUT) {
+                @Override
+                public void update(float dt) {
+                    calls.add("input" + id);
+                }
+            });
+        }
+        scene.getScheduler().addSystem(new EntitySystem() {
+            @Override
+            public Component.ComponentOrder order() {
+                return Component.ComponentOrder.DRAW;
+            }
+
+            @Override
+            public void update(EntityStore store, float dt) {
+                calls.add("system" + store.size());
+            }
+        });
+        scene.updateGameObjects();
+        Assert.assertEquals(List.of("input0", "input1", "system2", "draw0", "draw1"), calls);
+    }
+
+    @Test
+    public void removeKeepsIndicesConsistent() {
+        GameObject first = mover(scene, 0, 0, 1, 0);
+        GameObject second = mover(scene, 100, 0, 0, 1);
+        GameObject third = mover(scene, 200, 0, 0, 0);
+        scene.removeGameObjectFromScene(first);
+
+        EntityStore store = scene.getScheduler().getStore();
+        Assert.assertEquals(2, store.size());
+        Assert.assertEquals(-1, first.storeIndex);
+        Assert.assertSame(third, store.getGameObject(third.storeIndex));
+        Assert.assertSame(second, store.getGameObject(second.storeIndex));
+        Assert.assertSame(third.getComponent(Dynamics.class), store.getDynamics()[third.storeIndex]);
+
+        scene.updateGameObjects();
+        Assert.assertEquals(new Vector2f(100, 1), second.getReadOnlyPosition());
+        Assert.assertEquals(new Vector2f(200, 0), third.getReadOnlyPosition());
+        Assert.assertEquals(new Vector2f(0, 0), first.getReadOnlyPosition());
+    }
+
+    @Test
+    public void setPositionMovesCollider() {
+        GameObject object = mover(scene, 0, 0, 0, 0);
+        scene.updateGameObjects();
+        object.setPosition(500, 500);
+        scene.updateGameObjects();
+
+        Assert.assertEquals(new Vector2f(500, 500), object.getComponent(Collider.class).getShape().centroid());
+        List<Collider> found = new ArrayList<>();
+        scene.getBroadPhase().query(490, 490, 510, 510, found);
+        Assert.assertTrue(found.contains(object.getComponent(Collider.class)));
+    }
+
+    @Test
+    public void positionDataWritesAreKept() {
+        Scene legacy = new Scene() {
+        };
+        GameObject expected = mover(legacy, 0, 0, 1, 0);
+        GameObject object = mover(scene, 0, 0, 1, 0);
+        legacy.updateGameObjects();
+        scene.updateGameObjects();
+        for (GameObject o : List.of(expected, object)) {
+            o.getPositionData()[0] = 500;
+            o.getPositionData()[1] = 500;
+        }
+        legacy.updateGameObjects();
+        scene.updateGameObjects();
+        Assert.assertEquals(expected.getReadOnlyPosition(), object.getReadOnlyPosition());
+        Assert.assertEquals(expected.getReadOnlyPosition(), object.getComponent(Collider.class).getShape().centroid());
+        EntityStore store = scene.getScheduler().getStore();
+        Assert.assertEquals(expected.getReadOnlyPosition().x, store.getX()[object.storeIndex], 0);
+        Assert.assertTrue(object.getReadOnlyPosition().x > 500);
+    }
+
+    @Test
+    public void removedComponentsAreNotUpdated() {
+        GameObject object = mover(scene, 0, 0, 1, 0);
+        scene.updateGameObjects();
+        object.removeComponent(Dynamics.class);
+        Assert.assertNull(object.getComponent(Dynamics.class));
+        scene.updateGameObjects();
+        Assert.assertEquals(new Vector2f(1, 0), object.getReadOnlyPosition());
+        Assert.assertEquals(0, scene.getScheduler().getStore().getVelocityX()[object.storeIndex], 0);
+    }
+
+    static class Counter extends Component implements ConcurrentUpdate {
+
+        final AtomicInteger shared;
+        final Set<Thread> threads;
+        int count;
+
+        Counter(ComponentOrder order, AtomicInteger shared, Set<Thread> threads) {
+            super(order);
+            this.shared = shared;
+            this.threads = threads;
+        }
+
+        @Override
+        public void update(float dt) {
+            count = shared.incrementAndGet();
+            threads.add(Thread.currentThread());
+        }
+
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        Scene sequential = new Scene() {
+        };
+        sequential.enableEntityStore();
+        scene.getScheduler().setParallelism(4);
+        Assert.assertEquals(4, scene.getScheduler().getParallelism());
+        List<GameObject> expected = new ArrayList<>();
+        List<GameObject> actual = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            expected.add(mover(sequential, i, -i, i % 7 - 3, i % 5 - 2));
+            actual.add(mover(scene, i, -i, i % 7 - 3, i % 5 - 2));
+        }
+        for (int i = 0; i < 10; i++) {
+            sequential.updateGameObjects();
+            scene.updateGameObjects();
+        }
+        for (int i = 0; i < expected.size(); i++)
+            Assert.assertEquals(expected.get(i).getReadOnlyPosition(), actual.get(i).getReadOnlyPosition());
+        scene.getScheduler().setParallelism(1);
+        Assert.assertEquals(1, scene.getScheduler().getParallelism());
+    }
+
+    @Test
+    public void phasesWaitForEachOther() {
+        scene.getScheduler().setParallelism(4);
+        AtomicInteger input = new AtomicInteger();
+        AtomicInteger transform = new AtomicInteger();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Counter> inputs = new ArrayList<>();
+        int objects = 1000;
+        for (int i = 0; i < objects; i++) {
+            GameObject object = new GameObject(scene, "object" + i, new Vector2f(), 0);
+            Counter counter = new Counter(Component.ComponentOrder.INPUT, input, threads);
+            inputs.add(counter);
+            object.addComponent(counter);
+            object.addComponent(new Component(Component.ComponentOrder.TRANSFORM) {
+                @Override
+                public void update(float dt) {
+                    //every input has to be done before any transform starts
+                    if (input.get() == objects) transform.incrementAndGet();
+                }
+            });
+        }
+        scene.updateGameObjects();
+        Assert.assertEquals(objects, input.get());
+        Assert.assertEquals(objects, transform.get());
+        Assert.assertFalse(threads.contains(Thread.currentThread()));
+        scene.getScheduler().setParallelism(1);
+
+        //the single threaded fallback updates in order of insertion
+        input.set(0);
+        threads.clear();
+        scene.updateGameObjects();
+        for (int i = 0; i < objects; i++)
+            Assert.assertEquals(i + 1, inputs.get(i).count);
+        Assert.assertEquals(Set.of(Thread.currentThread()), threads);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidParallelism() {
+        scene.getScheduler().setParallelism(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void enableAfterGameObjects() {
+        Scene other = new Scene() {
+        };
+        new GameObject(other, "early", new Vector2f(), 0);
+        other.enableEntityStore();
+    }
+
+}
@@ -0,0 +1,125 @@
+package event;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class EventBusTest {
+
+    static class CountEvent extends EventData {
+        int value;
+
+        CountEvent set(int value) {
+            this.value = value;
+            return this;
+        }
+    }
+
+    static class OtherEvent extends EventData {
+    }
+
+    @Test
+    public void dispatchesByTypeAndPhase() {
+        EventBus bus = new EventBus();
+        List<Integer> values = new ArrayList<>();
+        bus.subscribe(CountEvent.class, e -> values.add(e.value));
+        bus.subscribe(OtherEvent.class, e -> values.add(-1));
+
+        bus.post(new CountEvent().set(1));
+        bus.post(new CountEvent().set(2), EventBus.Phase.FRAME_END);
+        bus.post(new OtherEvent());
+        Assert.assertTrue(values.isEmpty());
+
+        Assert.assertEquals(2, bus.dispatch(EventBus.Phase.FRAME_START));
+        Assert.assertEquals(List.of(1, -1), values);
+        Assert.assertEquals(1, bus.dispatch(EventBus.Phase.FRAME_END));
+        Assert.assertEquals(List.of(1, -1, 2), values);
+        Assert.assertEquals(0, bus.dispatch(EventBus.Phase.FRAME_START));
+
+        bus.publish(new CountEvent().set(3));
+        Assert.assertEquals(List.of(1, -1, 2, 3), values);
+    }
+
+    @Test
+    public void leavesEventsPostedWhileDispatchingForLater() {
+        EventBus bus = new EventBus();
+        int[] calls = new int[1];
+        bus.subscribe(CountEvent.class, e -> {
+            calls[0]++;
+            bus.post(new CountEvent());
+        });
+        bus.post(new CountEvent());
+        Assert.assertEquals(1, bus.dispatch(EventBus.Phase.FRAME_START));
+        Assert.assertEquals(1, bus.dispatch(EventBus.Phase.FRAME_START));
+        Assert.assertEquals(2, calls[0]);
+    }
+
+    @Test
+    public void releasesPooledEvents() {
+        EventBus bus = new EventBus();
+        EventPool<CountEvent> pool = new EventPool<>(CountEvent::new, 4);
+        CountEvent first = pool.obtain().set(1);
+        bus.post(first);
+        Assert.assertThrows(IllegalStateException.class, () -> bus.post(first));
+        Assert.assertEquals(0, pool.getFreeCount());
+        bus.dispatch(EventBus.Phase.FRAME_START);
+        Assert.assertEquals(1, pool.getFreeCount());
+        Assert.assertSame(first, pool.obtain());
+
+        //events without a pool are left to the garbage collector
+        bus.post(new CountEvent());
+        bus.dispatch(EventBus.Phase.FRAME_START);
+        Assert.assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    public void listenersMayUnsubscribeWhileNotified() {
+        EventBus bus = new EventBus();
+        int[] calls = new int[2];
+        EventListener<CountEvent> once = new EventListener<>() {
+            @Override
+            public void onEvent(CountEvent e) {
+                calls[0]++;
+                bus.unsubscribe(CountEvent.class, this);
+            }
+        };
+        bus.subscribe(CountEvent.class, once);
+        bus.subscribe(CountEvent.class, e -> calls[1]++);
+        bus.publish(new CountEvent());
+        bus.publish(new CountEvent());
+        Assert.assertArrayEquals(new int[]{1, 2}, calls);
+        Assert.assertEquals(1, bus.node(CountEvent.class).getListenerCount());
+        Assert.assertFalse(bus.unsubscribe(CountEvent.class, once));
+    }
+
+    @Test
+    public void collectsEventsOfSeveralThreads() throws InterruptedException {
+        EventBus bus = new EventBus();
+        EventPool<CountEvent> pool = new EventPool<>(CountEvent::new, 256);
+        long[] sum = new long[1];
+        int[] received = new int[1];
+        bus.subscribe(CountEvent.class, e -> {
+            sum[0] += e.value;
+            received[0]++;
+        });
+
+        int threads = 4, perThread = 20_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 1; i <= perThread; i++)
+                    bus.post(pool.obtain().set(i));
+                done.countDown();
+            }).start();
+        }
+        while (done.getCount() > 0)
+            bus.dispatch(EventBus.Phase.FRAME_START);
+        bus.dispatch(EventBus.Phase.FRAME_START);
+        Assert.assertEquals(threads * perThread, received[0]);
+        Assert.assertEquals(threads * (long) perThread * (perThread + 1) / 2, sum[0]);
+    }
+
+}
@@ -0,0 +1,80 @@
+package graphics;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL31.GL_TEXTURE_BUFFER;
+
+public class GLStateTest {
+
+    RecordingGL gl;
+    GLBackend former;
+
+    @Before
+    public void setUp() {
+        gl = new RecordingGL();
+        former = GLState.setBackend(gl);
+    }
+
+    @After
+    public void tearDown() {
+        GLState.setBackend(former);
+    }
+
+    @Test
+    public void skipsRedundantBinds() {
+        GLState.useProgram(3);
+        GLState.useProgram(3);
+        GLState.bindVertexArray(7);
+        GLState.bindVertexArray(7);
+        GLState.useProgram(4);
+        Assert.assertEquals(List.of("useProgram 3", "bindVertexArray 7", "useProgram 4"), gl.take());
+
+        GLState.invalidate();
+        GLState.useProgram(4);
+        Assert.assertEquals(List.of("useProgram 4"), gl.take());
+    }
+
+    @Test
+    public void tracksTexturesPerUnit() {
+        Texture a = Texture.wrap(10), b = Texture.wrap(11);
+        a.bindToSlot(1);
+        b.bindToSlot(2);
+        //a batch with the same textures does not bind anything
+        a.bindToSlot(1);
+        b.bindToSlot(2);
+        Assert.assertEquals(List.of(
+                "activeTexture 1", "bindTexture " + GL_TEXTURE_2D + " 10",
+                "activeTexture 2", "bindTexture " + GL_TEXTURE_2D + " 11"), gl.take());
+
+        //binds to the active unit, which is still 2
+        a.bind();
+        Assert.assertEquals(List.of("bindTexture " + GL_TEXTURE_2D + " 10"), gl.take());
+        Assert.assertEquals(10, GLState.getTexture(2));
+
+        //other targets are always bound, but the active unit is tracked
+        GLState.bindTexture(2, GL_TEXTURE_BUFFER, 5);
+        GLState.bindTexture(2, GL_TEXTURE_BUFFER, 5);
+        Assert.assertEquals(List.of("bindTexture " + GL_TEXTURE_BUFFER + " 5", "bindTexture " + GL_TEXTURE_BUFFER + " 5"), gl.take());
+    }
+
+    @Test
+    public void forgetsDeletedObjects() {
+        GLState.bindTexture(0, 10);
+        GLState.bindVertexArray(7);
+        gl.take();
+        //opengl unbinds deleted objects and may return their names for new ones
+        GLState.textureDeleted(10);
+        GLState.vertexArrayDeleted(7);
+        Assert.assertEquals(0, GLState.getTexture(0));
+        GLState.bindTexture(0, 10);
+        GLState.bindVertexArray(7);
+        Assert.assertEquals(List.of("bindTexture " + GL_TEXTURE_2D + " 10", "bindVertexArray 7"), gl.take());
+    }
+
+}
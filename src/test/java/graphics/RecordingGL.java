@@ -0,0 +1,118 @@
+package graphics;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the calls instead of passing them to OpenGL, so the state tracking and uniform caching
+ * can be tested without a context. Every uniform name gets its own location, except the ones marked as missing.
+ */
+public class RecordingGL implements GLBackend {
+
+    public final List<String> calls = new ArrayList<>();
+    private final Map<String, Integer> locations = new HashMap<>();
+
+    public void missing(String name) {
+        locations.put(name, -1);
+    }
+
+    /**
+     * @return the recorded calls, which are forgotten afterwards
+     */
+    public List<String> take() {
+        List<String> taken = new ArrayList<>(calls);
+        calls.clear();
+        return taken;
+    }
+
+    @Override
+    public void useProgram(int program) {
+        calls.add("useProgram " + program);
+    }
+
+    @Override
+    public void activeTexture(int unit) {
+        calls.add("activeTexture " + unit);
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        calls.add("bindTexture " + target + " " + texture);
+    }
+
+    @Override
+    public void bindVertexArray(int vertexArray) {
+        calls.add("bindVertexArray " + vertexArray);
+    }
+
+    @Override
+    public int getUniformLocation(int program, String name) {
+        calls.add("getUniformLocation " + program + " " + name);
+        return locations.computeIfAbsent(name, n -> locations.size());
+    }
+
+    @Override
+    public void uniform1i(int location, int value) {
+        calls.add("uniform1i " + location + " " + value);
+    }
+
+    @Override
+    public void uniform1f(int location, float value) {
+        calls.add("uniform1f " + location + " " + value);
+    }
+
+    @Override
+    public void uniform2f(int location, float x, float y) {
+        calls.add("uniform2f " + location + " " + x + " " + y);
+    }
+
+    @Override
+    public void uniform4f(int location, float x, float y, float z, float w) {
+        calls.add("uniform4f " + location + " " + x + " " + y + " " + z + " " + w);
+    }
+
+    @Override
+    public void uniform1iv(int location, IntBuffer values) {
+        StringBuilder call = new StringBuilder("uniform1iv ").append(location);
+        for (int i = values.position(); i < values.limit(); i++)
+            call.append(' ').append(values.get(i));
+        calls.add(call.toString());
+    }
+
+    @Override
+    public void uniform1fv(int location, FloatBuffer values) {
+        calls.add(floats("uniform1fv", location, values));
+    }
+
+    @Override
+    public void uniform2fv(int location, FloatBuffer values) {
+        calls.add(floats("uniform2fv", location, values));
+    }
+
+    @Override
+    public void uniform3fv(int location, FloatBuffer values) {
+        calls.add(floats("uniform3fv", location, values));
+    }
+
+    @Override
+    public void uniformMatrix3fv(int location, FloatBuffer values) {
+        calls.add(floats("uniformMatrix3fv", location, values));
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, FloatBuffer values) {
+        calls.add(floats("uniformMatrix4fv", location, values));
+    }
+
+    private static String floats(String name, int location, FloatBuffer values) {
+        StringBuilder call = new StringBuilder(name).append(' ').append(location);
+        for (int i = values.position(); i < values.limit(); i++)
+            call.append(' ').append(values.get(i));
+        return call.toString();
+    }
+
+}
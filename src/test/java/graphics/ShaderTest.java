@@ -0,0 +1,100 @@
+package graphics;
+
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ShaderTest {
+
+    RecordingGL gl;
+    GLBackend former;
+    Shader shader;
+
+    @Before
+    public void setUp() {
+        gl = new RecordingGL();
+        former = GLState.setBackend(gl);
+        shader = new Shader(5);
+    }
+
+    @After
+    public void tearDown() {
+        GLState.setBackend(former);
+    }
+
+    @Test
+    public void skipsUnchangedValues() {
+        Shader.Uniform projection = shader.uniform("uProjection");
+        Assert.assertSame(projection, shader.uniform("uProjection"));
+        Matrix4f matrix = new Matrix4f().ortho(0, 2, 1, 0, 0, 100);
+
+        projection.set(matrix);
+        projection.set(matrix);
+        shader.uploadMat4f("uProjection", new Matrix4f(matrix));
+        List<String> calls = gl.take();
+        Assert.assertEquals(3, calls.size());
+        Assert.assertEquals("getUniformLocation 5 uProjection", calls.get(0));
+        Assert.assertEquals("useProgram 5", calls.get(1));
+        Assert.assertTrue(calls.get(2).startsWith("uniformMatrix4fv 0 1.0 0.0"));
+
+        matrix.translate(1, 0, 0);
+        projection.set(matrix);
+        Assert.assertEquals(1, gl.take().size());
+
+        projection.invalidate();
+        projection.set(matrix);
+        Assert.assertEquals(1, gl.take().size());
+    }
+
+    @Test
+    public void cachesEachKindOfValue() {
+        shader.uploadInt("uTilesX", 4);
+        shader.uploadFloat("uTileSize", 32);
+        shader.uploadVec2f("uOffset", new Vector2f(1, 2));
+        shader.uploadIntArray("uTextures", new int[]{0, 1, 2});
+        shader.uploadFloatArray("uWeights", new float[]{0.5f});
+        gl.calls.removeIf(call -> call.startsWith("getUniformLocation"));
+        Assert.assertEquals(List.of("useProgram 5", "uniform1i 0 4", "uniform1f 1 32.0", "uniform2f 2 1.0 2.0",
+                "uniform1iv 3 0 1 2", "uniform1fv 4 0.5"), gl.take());
+
+        shader.uploadInt("uTilesX", 4);
+        shader.uploadFloat("uTileSize", 32);
+        shader.uploadVec2f("uOffset", new Vector2f(1, 2));
+        shader.uploadIntArray("uTextures", new int[]{0, 1, 2});
+        shader.uploadFloatArray("uWeights", new float[]{0.5f});
+        Assert.assertEquals(List.of(), gl.take());
+
+        //a longer array is a different value, even if it starts the same
+        shader.uploadIntArray("uTextures", new int[]{0, 1, 2, 3});
+        shader.uploadVec2f("uOffset", new Vector2f(1, 3));
+        Assert.assertEquals(List.of("uniform1iv 3 0 1 2 3", "uniform2f 2 1.0 3.0"), gl.take());
+    }
+
+    @Test
+    public void attachesOnlyWhenUploading() {
+        Shader other = new Shader(6);
+        shader.uploadInt("uValue", 1);
+        other.uploadInt("uValue", 1);
+        //the values are stored per program, so switching programs does not invalidate them
+        shader.uploadInt("uValue", 1);
+        other.attach();
+        shader.uploadInt("uValue", 2);
+        gl.calls.removeIf(call -> call.startsWith("getUniformLocation"));
+        Assert.assertEquals(List.of("useProgram 5", "uniform1i 0 1", "useProgram 6", "uniform1i 0 1",
+                "useProgram 5", "uniform1i 0 2"), gl.take());
+    }
+
+    @Test
+    public void ignoresMissingUniforms() {
+        gl.missing("uUnused");
+        shader.uploadFloat("uUnused", 1);
+        shader.uploadFloat("uUnused", 2);
+        Assert.assertEquals(List.of("getUniformLocation 5 uUnused"), gl.take());
+    }
+
+}
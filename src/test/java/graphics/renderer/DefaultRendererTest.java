@@ -0,0 +1,249 @@
+package graphics.renderer;
+
+import ecs.GameObject;
+import ecs.SpriteRenderer;
+import graphics.Color;
+import graphics.ShaderDatatype;
+import graphics.Sprite;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+import tiles.TileLayer;
+import tiles.TileMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DefaultRendererTest {
+
+    //the quad of a sprite: 4 vertices of position, color, texture coordinates and texture id
+    static final int FLOATS_PER_QUAD = 4 * (2 + 4 + 2 + 1);
+
+    //keeps all batches on the cpu
+    static class CpuRenderer extends DefaultRenderer {
+        //the area to cull against, culling is skipped without one
+        float[] view;
+
+        @Override
+        protected boolean updateView() {
+            if (view == null) return false;
+            setView(view[0], view[1], view[2], view[3]);
+            return true;
+        }
+
+        @Override
+        SpriteBatch createSpriteBatch(int size, int zIndex) {
+            return new SpriteBatch(size, zIndex, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT4, ShaderDatatype.FLOAT2, ShaderDatatype.FLOAT);
+        }
+
+        @Override
+        void deleteSpriteBatch(SpriteBatch batch) {
+        }
+
+        //what the renderer would upload this frame
+        int frame() {
+            rebuffer();
+            int dirty = 0;
+            for (RenderBatch batch : batches) {
+                dirty += ((SpriteBatch) batch).dirtyLength();
+                ((SpriteBatch) batch).clearDirty();
+            }
+            return dirty;
+        }
+
+        int size() {
+            int size = 0;
+            for (RenderBatch batch : batches)
+                size += ((SpriteBatch) batch).size();
+            return size;
+        }
+    }
+
+    CpuRenderer renderer;
+    List<GameObject> objects;
+
+    @Before
+    public void setUp() {
+        Scene scene = new Scene() {
+        };
+        scene.activate();
+        renderer = new CpuRenderer();
+        objects = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            GameObject object = new GameObject(scene, "sprite " + i, new Vector2f(i, i), 0);
+            object.addComponent(new SpriteRenderer(Color.WHITE, new Vector2f(10, 20)));
+            object.start();
+            renderer.add(object);
+            objects.add(object);
+        }
+    }
+
+    @Test
+    public void staticSprites() {
+        Assert.assertEquals(2500 * FLOATS_PER_QUAD, renderer.frame());
+        Assert.assertEquals(3, renderer.batches.size());
+        Assert.assertEquals(2500, renderer.size());
+        //nothing changed, nothing to upload
+        Assert.assertEquals(0, renderer.frame());
+        Assert.assertEquals(0, renderer.frame());
+    }
+
+    @Test
+    public void movedSprite() {
+        renderer.frame();
+        GameObject object = objects.get(1234);
+        object.getPositionData()[0] = 500;
+        //the update of the sprite notices the movement
+        object.update(1 / 60f);
+        Assert.assertEquals(FLOATS_PER_QUAD, renderer.frame());
+        //the first vertex is the bottom right corner
+        SpriteBatch batch = (SpriteBatch) renderer.batches.get(1);
+        int offset = 234 * FLOATS_PER_QUAD;
+        Assert.assertEquals(510, batch.data[offset], 0);
+        Assert.assertEquals(1254, batch.data[offset + 1], 0);
+        //a changed color marks the sprite dirty
+        object.getComponent(SpriteRenderer.class).setColor(Color.RED);
+        Assert.assertEquals(FLOATS_PER_QUAD, renderer.frame());
+    }
+
+    @Test
+    public void zIndexAndRemoval() {
+        renderer.frame();
+        GameObject object = objects.get(10);
+        object.setZIndex(5);
+        //the old slot is cleared and a new slot in a new batch is written
+        Assert.assertEquals(2 * FLOATS_PER_QUAD, renderer.frame());
+        Assert.assertEquals(4, renderer.batches.size());
+        Assert.assertEquals(2500, renderer.size());
+        renderer.remove(object);
+        Assert.assertEquals(2499, renderer.size());
+        renderer.frame();
+        //the free slot is reused by the next sprite, so only this slot is uploaded
+        renderer.remove(objects.get(20));
+        object.setZIndex(0);
+        renderer.add(object);
+        Assert.assertEquals(FLOATS_PER_QUAD, renderer.frame());
+        Assert.assertEquals(2499, renderer.size());
+        Assert.assertEquals(4, renderer.batches.size());
+    }
+
+    @Test
+    public void culling() {
+        renderer.view = new float[]{0, 0, 100, 100};
+        //only the sprites from (0, 0) to (100, 100) are written
+        Assert.assertEquals(101 * FLOATS_PER_QUAD, renderer.frame());
+        Assert.assertEquals(101, renderer.getSubmittedCount());
+        Assert.assertEquals(2399, renderer.getCulledCount());
+        Assert.assertEquals(101, renderer.size());
+        Assert.assertEquals(0, renderer.frame());
+
+        //the sprites leaving the view give up their slots
+        renderer.view = new float[]{1000, 1000, 1100, 1100};
+        renderer.frame();
+        Assert.assertEquals(111, renderer.getSubmittedCount());
+        Assert.assertEquals(111, renderer.size());
+        Assert.assertEquals(0, renderer.frame());
+
+        //a sprite moving into the view is written
+        objects.get(5).setPosition(1050, 1050);
+        objects.get(5).update(1 / 60f);
+        Assert.assertEquals(FLOATS_PER_QUAD, renderer.frame());
+        Assert.assertEquals(112, renderer.size());
+        renderer.remove(objects.get(5));
+        renderer.frame();
+        Assert.assertEquals(111, renderer.size());
+
+        renderer.setCulling(false);
+        renderer.frame();
+        Assert.assertEquals(2499, renderer.getSubmittedCount());
+        Assert.assertEquals(0, renderer.getCulledCount());
+        Assert.assertEquals(2499, renderer.size());
+    }
+
+    @Test
+    public void onlyChangedSpritesAreRefreshed() {
+        Scene scene = new Scene() {
+        };
+        scene.activate();
+        CpuRenderer renderer = new CpuRenderer();
+        int[] refreshed = new int[1];
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            GameObject object = new GameObject(scene, "sprite " + i, new Vector2f(i, i), 0);
+            object.addComponent(new SpriteRenderer(Color.WHITE, new Vector2f(10, 20)) {
+                @Override
+                public Vector2f getInterpolatedPosition(float alpha, Vector2f dest) {
+                    refreshed[0]++;
+                    return super.getInterpolatedPosition(alpha, dest);
+                }
+            });
+            object.start();
+            renderer.add(object);
+            objects.add(object);
+        }
+        renderer.frame();
+        Assert.assertEquals(100, refreshed[0]);
+        refreshed[0] = 0;
+        renderer.frame();
+        Assert.assertEquals(0, refreshed[0]);
+
+        //a moving sprite is refreshed until an update finds it resting
+        GameObject object = objects.get(50);
+        object.setPosition(200, 200);
+        object.update(1 / 60f);
+        renderer.frame();
+        renderer.frame();
+        Assert.assertEquals(2, refreshed[0]);
+        object.update(1 / 60f);
+        renderer.frame();
+        renderer.frame();
+        Assert.assertEquals(3, refreshed[0]);
+
+        //resizing marks the sprite dirty
+        object.getComponent(SpriteRenderer.class).setSize(new Vector2f(30, 30));
+        Assert.assertEquals(FLOATS_PER_QUAD, renderer.frame());
+        Assert.assertEquals(4, refreshed[0]);
+    }
+
+    @Test
+    public void tileChunks() {
+        CpuRenderer renderer = new CpuRenderer();
+        renderer.view = new float[]{0, 0, 100, 100};
+        TileMap tileMap = new TileMap(10, 10);
+        TileLayer layer = new TileLayer("ground", 64, 64, false);
+        for (int y = 0; y < 64; y++)
+            for (int x = 0; x < 64; x++)
+                layer.set(x, y, 1);
+        tileMap.addLayer(layer);
+        tileMap.setSprite(1, new Sprite(null, new Vector2f[]{new Vector2f(), new Vector2f(), new Vector2f(), new Vector2f()}));
+        renderer.add(tileMap);
+
+        //the chunk in view and the chunks next to it are written once
+        int chunk = TileLayer.CHUNK_SIZE * TileLayer.CHUNK_SIZE * FLOATS_PER_QUAD;
+        Assert.assertEquals(4 * chunk, renderer.frame());
+        Assert.assertEquals(4, renderer.batches.size());
+        Assert.assertEquals(0, renderer.frame());
+
+        //only the changed chunk is written again
+        layer.set(20, 5, 0);
+        Assert.assertEquals(chunk - FLOATS_PER_QUAD, renderer.frame());
+        Assert.assertEquals(4 * TileLayer.CHUNK_SIZE * TileLayer.CHUNK_SIZE - 1, renderer.size());
+
+        //the chunks far from the view are dropped, the ones uncovered by the camera are written
+        renderer.view = new float[]{400, 400, 500, 500};
+        Assert.assertEquals(8 * chunk, renderer.frame());
+        Assert.assertEquals(9, renderer.batches.size());
+        Assert.assertEquals(0, renderer.frame());
+
+        //a new sprite affects every chunk
+        tileMap.setSprite(1, new Sprite(null, new Vector2f[]{new Vector2f(), new Vector2f(), new Vector2f(), new Vector2f()}));
+        Assert.assertEquals(9 * chunk, renderer.frame());
+        Assert.assertEquals(9, renderer.batches.size());
+
+        renderer.remove(tileMap);
+        Assert.assertTrue(renderer.batches.isEmpty());
+    }
+
+}
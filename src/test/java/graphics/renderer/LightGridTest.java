@@ -0,0 +1,128 @@
+package graphics.renderer;
+
+import ecs.GameObject;
+import ecs.PointLight;
+import graphics.Color;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Test;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class LightGridTest {
+
+    //the lights of a tile, read from the packed lists
+    static List<Integer> lightsOf(LightGrid grid, int tileX, int tileY) {
+        int tile = tileY * grid.getTilesX() + tileX;
+        List<Integer> result = new ArrayList<>();
+        for (int i = grid.getOffsets()[tile]; i < grid.getOffsets()[tile + 1]; i++)
+            result.add(grid.getIndices()[i]);
+        return result;
+    }
+
+    @Test
+    public void binning() {
+        LightGrid grid = new LightGrid(100);
+        float[] x = {50, 250, 1000, -50, 150};
+        float[] y = {50, 50, 1000, 160, 150};
+        float[] radius = {10, 40, 500, 60, 400};
+        grid.bin(0, 0, 300, 200, x, y, radius, 5);
+
+        Assert.assertEquals(3, grid.getTilesX());
+        Assert.assertEquals(2, grid.getTilesY());
+        //the third light does not reach the view
+        Assert.assertEquals(4, grid.getVisibleLights());
+        //the last light covers every tile, the lists are in ascending order
+        Assert.assertEquals(List.of(0, 4), lightsOf(grid, 0, 0));
+        Assert.assertEquals(List.of(4), lightsOf(grid, 1, 0));
+        Assert.assertEquals(List.of(1, 4), lightsOf(grid, 2, 0));
+        Assert.assertEquals(List.of(3, 4), lightsOf(grid, 0, 1));
+        Assert.assertEquals(List.of(4), lightsOf(grid, 1, 1));
+        Assert.assertEquals(List.of(4), lightsOf(grid, 2, 1));
+        Assert.assertEquals(9, grid.getIndexCount());
+
+        //moving the view drops the lights left behind
+        grid.bin(5000, 5000, 300, 200, x, y, radius, 5);
+        Assert.assertEquals(0, grid.getVisibleLights());
+        Assert.assertEquals(0, grid.getIndexCount());
+    }
+
+    @Test
+    public void matchesBruteForce() {
+        Random random = new Random(3);
+        int count = 2000;
+        float[] x = new float[count], y = new float[count], radius = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = random.nextFloat() * 4000 - 1000;
+            y[i] = random.nextFloat() * 3000 - 1000;
+            radius[i] = random.nextFloat() * 200;
+        }
+        LightGrid grid = new LightGrid();
+        grid.bin(0, 0, 1280, 720, x, y, radius, count);
+        for (int tx = 0; tx < grid.getTilesX(); tx++)
+            for (int ty = 0; ty < grid.getTilesY(); ty++) {
+                List<Integer> expected = new ArrayList<>();
+                float minX = tx * grid.tileSize(), minY = ty * grid.tileSize();
+                for (int i = 0; i < count; i++) {
+                    if (x[i] + radius[i] >= minX && x[i] - radius[i] < minX + grid.tileSize()
+                            && y[i] + radius[i] >= minY && y[i] - radius[i] < minY + grid.tileSize())
+                        expected.add(i);
+                }
+                Assert.assertEquals(expected, lightsOf(grid, tx, ty));
+            }
+    }
+
+    @Test
+    public void radius() {
+        float radius = LightGrid.radius(1, 1 / 256f);
+        //the attenuation of the lightmap shader at the radius
+        Assert.assertEquals(1 / 256f, 1 / (1 + 0.001f * radius * radius), 1e-6);
+        Assert.assertEquals(0, LightGrid.radius(0, 1 / 256f), 0);
+    }
+
+    @Test
+    public void unlimitedLights() {
+        Scene scene = new Scene() {
+        };
+        LightmapRenderer renderer = new LightmapRenderer();
+        List<GameObject> torches = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            GameObject torch = new GameObject(scene, "torch", new Vector2f(i * 100, 300), 0);
+            torch.addComponent(new PointLight(Color.WHITE, 0.5f));
+            renderer.add(torch);
+            torches.add(torch);
+        }
+
+        //the view only sees a few torches, while light further away is culled
+        renderer.updateLights(10000, 0, 1280, 720);
+        Assert.assertTrue(renderer.lightsChanged);
+        Assert.assertTrue(renderer.tilesChanged);
+        int visible = renderer.getSubmittedCount();
+        Assert.assertTrue(visible > 0 && visible < 40);
+        Assert.assertEquals(500 - visible, renderer.getCulledCount());
+
+        //nothing changed, nothing to upload
+        renderer.lightsChanged = false;
+        renderer.tilesChanged = false;
+        renderer.updateLights(10000, 0, 1280, 720);
+        Assert.assertFalse(renderer.lightsChanged);
+        Assert.assertFalse(renderer.tilesChanged);
+
+        //a moving camera only bins again
+        renderer.updateLights(10100, 0, 1280, 720);
+        Assert.assertFalse(renderer.lightsChanged);
+        Assert.assertTrue(renderer.tilesChanged);
+
+        renderer.tilesChanged = false;
+        torches.get(105).setPosition(10500, 300);
+        renderer.remove(torches.get(499));
+        renderer.updateLights(10100, 0, 1280, 720);
+        Assert.assertTrue(renderer.lightsChanged);
+        Assert.assertTrue(renderer.tilesChanged);
+        Assert.assertEquals(499, renderer.getSubmittedCount() + renderer.getCulledCount());
+    }
+
+}
@@ -0,0 +1,270 @@
+package io.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JSONTest {
+
+    enum Difficulty {
+        EASY, HARD
+    }
+
+    static class Item {
+        String name;
+        int amount;
+
+        Item() {
+        }
+
+        Item(String name, int amount) {
+            this.name = name;
+            this.amount = amount;
+        }
+    }
+
+    static class Entity {
+        float x, y;
+        boolean alive = true;
+    }
+
+    static class SaveGame extends Entity {
+        private long seed;
+        double time;
+        char rank;
+        short level;
+        byte lives;
+        String player;
+        Difficulty difficulty;
+        int[] tiles;
+        float[] weights;
+        String[] tags;
+        List<Item> inventory;
+        Map<String, Integer> stats;
+        Item equipped;
+        Integer boxed;
+        transient int ignored = 7;
+        final int constant = 3;
+    }
+
+    private static SaveGame saveGame() {
+        SaveGame save = new SaveGame();
+        save.x = 1.5f;
+        save.y = -20;
+        save.alive = false;
+        save.seed = Long.MIN_VALUE;
+        save.time = 1e-9;
+        save.rank = 'S';
+        save.level = 12;
+        save.lives = -3;
+        save.player = "Quote \" backslash \\ newline \n tab \t unicode ä control \u0001";
+        save.difficulty = Difficulty.HARD;
+        save.tiles = new int[]{0, 1, 65535, Integer.MIN_VALUE};
+        save.weights = new float[]{0.1f, 3.4028235E38f, -0f};
+        save.tags = new String[]{"a", null, "c"};
+        save.inventory = new ArrayList<>();
+        save.inventory.add(new Item("potion", 3));
+        save.inventory.add(new Item("key", 1));
+        save.stats = new LinkedHashMap<>();
+        save.stats.put("kills", 10);
+        save.stats.put("deaths", 0);
+        save.equipped = new Item("sword", 1);
+        save.boxed = 42;
+        save.ignored = 9;
+        return save;
+    }
+
+    private static void assertSaveGame(SaveGame expected, SaveGame actual) {
+        Assert.assertEquals(expected.x, actual.x, 0);
+        Assert.assertEquals(expected.y, actual.y, 0);
+        Assert.assertEquals(expected.alive, actual.alive);
+        Assert.assertEquals(expected.seed, actual.seed);
+        Assert.assertEquals(expected.time, actual.time, 0);
+        Assert.assertEquals(expected.rank, actual.rank);
+        Assert.assertEquals(expected.level, actual.level);
+        Assert.assertEquals(expected.lives, actual.lives);
+        Assert.assertEquals(expected.player, actual.player);
+        Assert.assertEquals(expected.difficulty, actual.difficulty);
+        Assert.assertArrayEquals(expected.tiles, actual.tiles);
+        Assert.assertArrayEquals(expected.weights, actual.weights, 0);
+        Assert.assertArrayEquals(expected.tags, actual.tags);
+        Assert.assertEquals(expected.inventory.size(), actual.inventory.size());
+        for (int i = 0; i < expected.inventory.size(); i++) {
+            Assert.assertEquals(expected.inventory.get(i).name, actual.inventory.get(i).name);
+            Assert.assertEquals(expected.inventory.get(i).amount, actual.inventory.get(i).amount);
+        }
+        Assert.assertEquals(expected.stats, actual.stats);
+        Assert.assertEquals(expected.equipped.name, actual.equipped.name);
+        Assert.assertEquals(expected.boxed, actual.boxed);
+    }
+
+    @Test
+    public void roundTrip() {
+        JSONBinder binder = new JSONBinder();
+        SaveGame save = saveGame();
+        for (boolean pretty : new boolean[]{false, true}) {
+            String json = binder.toJSON(save, pretty);
+            Assert.assertFalse(json.contains("ignored"));
+            Assert.assertFalse(json.contains("constant"));
+            SaveGame read = binder.fromJSON(json, SaveGame.class);
+            assertSaveGame(save, read);
+            //not written, so it keeps the default
+            Assert.assertEquals(7, read.ignored);
+        }
+    }
+
+    @Test
+    public void streams() {
+        JSONBinder binder = new JSONBinder();
+        SaveGame save = saveGame();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        binder.write(save, out);
+        assertSaveGame(save, binder.read(new ByteArrayInputStream(out.toByteArray()), SaveGame.class));
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            items.add(new Item("item" + i, i));
+        StringWriter writer = new StringWriter();
+        binder.write(items.toArray(new Item[0]), writer);
+        Item[] read = binder.read(new StringReader(writer.toString()), Item[].class);
+        Assert.assertEquals(items.size(), read.length);
+        Assert.assertEquals("item4999", read[4999].name);
+        Assert.assertEquals(4999, read[4999].amount);
+    }
+
+    @Test
+    public void unknownAndMissingProperties() {
+        JSONBinder binder = new JSONBinder();
+        Item item = binder.fromJSON("{\"unknown\": {\"a\": [1, 2, {\"b\": null}]}, \"amount\": 5, \"other\": true}", Item.class);
+        Assert.assertNull(item.name);
+        Assert.assertEquals(5, item.amount);
+        //files of the old writer use a float suffix
+        Entity entity = binder.fromJSON("{\"y\": 2.5f, \"x\": 1.0F}", Entity.class);
+        Assert.assertEquals(1, entity.x, 0);
+        Assert.assertEquals(2.5f, entity.y, 0);
+        Assert.assertTrue(entity.alive);
+    }
+
+    @Test
+    public void untyped() {
+        Object value = new JSONBinder().fromJSON("{\"a\": [1, \"two\", false, null], \"b\": {}}", Object.class);
+        Map<String, Object> expected = new LinkedHashMap<>();
+        List<Object> a = new ArrayList<>();
+        a.add(1.0);
+        a.add("two");
+        a.add(false);
+        a.add(null);
+        expected.put("a", a);
+        expected.put("b", new LinkedHashMap<>());
+        Assert.assertEquals(expected, value);
+    }
+
+    @Test
+    public void reader() {
+        JSONReader reader = new JSONReader(" {\"a\" : [ -12 , 3.5e2, \"x\\u0041\" ], \"b\":true } ");
+        Assert.assertEquals(JSONReader.Event.BEGIN_OBJECT, reader.next());
+        Assert.assertEquals(JSONReader.Event.NAME, reader.next());
+        Assert.assertTrue(reader.nameEquals("a"));
+        Assert.assertEquals(JSONReader.Event.BEGIN_ARRAY, reader.next());
+        Assert.assertEquals(2, reader.depth());
+        Assert.assertEquals(JSONReader.Event.NUMBER, reader.next());
+        Assert.assertEquals(-12, reader.getInt());
+        Assert.assertEquals(JSONReader.Event.NUMBER, reader.next());
+        Assert.assertEquals(350, reader.getLong());
+        Assert.assertEquals(JSONReader.Event.STRING, reader.next());
+        Assert.assertEquals("xA", reader.getString());
+        Assert.assertEquals(JSONReader.Event.END_ARRAY, reader.next());
+        Assert.assertEquals(JSONReader.Event.NAME, reader.next());
+        Assert.assertEquals("b", reader.getName());
+        Assert.assertEquals(JSONReader.Event.BOOLEAN, reader.next());
+        Assert.assertTrue(reader.getBoolean());
+        Assert.assertEquals(JSONReader.Event.END_OBJECT, reader.next());
+        Assert.assertEquals(JSONReader.Event.END_DOCUMENT, reader.next());
+    }
+
+    @Test
+    public void malformed() {
+        String[] documents = {"", "{", "{\"a\" 1}", "{\"a\": 1,}", "[1 2]", "[1,]", "{\"a\": tru}", "\"open", "{} {}", "[1.2.3]", "{a: 1}"};
+        for (String document : documents) {
+            try {
+                new JSONBinder().fromJSON(document, Object.class);
+                Assert.fail("Accepted " + document);
+            } catch (JSONSyntaxException e) {
+                //expected
+            }
+        }
+        try {
+            new JSONBinder().fromJSON("{\"amount\": \"many\"}", Item.class);
+            Assert.fail();
+        } catch (JSONSyntaxException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void writer() {
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out);
+        writer.beginObject().name("a").beginArray().value(1).value(2.5f).nullValue().endArray().name("b").beginObject().endObject().endObject();
+        writer.flush();
+        Assert.assertEquals("{\"a\":[1,2.5,null],\"b\":{}}", out.toString());
+
+        try {
+            new JSONWriter(new StringWriter()).beginObject().value(1);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        try {
+            new JSONWriter(new StringWriter()).beginArray().name("a");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void legacyObject() {
+        JSONObject object = new JSONObject();
+        object.startJSON();
+        //written twice, the second time with the fields looked up before
+        object.addObject("first", new Item("sword", 2), 1, true, true);
+        object.addObject("second", new Item("shield", 1), 1, true, false);
+        object.endJSON();
+        Assert.assertEquals("{\n"
+                + "\t\"first\": {\n\t\t\"name\":\"sword\",\n\t\t\"amount\":2\n\t},\n"
+                + "\t\"second\": {\n\t\t\"name\":\"shield\",\n\t\t\"amount\":1\n\t}\n"
+                + "}", object.getJSON());
+    }
+
+    static class Unbindable {
+        String name = "dice";
+        //the fields of java.util classes cannot be bound
+        java.util.Random random = new java.util.Random();
+    }
+
+    @Test
+    public void constructorFallsBackToLegacyObject() throws IOException {
+        JSONConstructor constructor = new JSONConstructor();
+        constructor.toJSON(new Unbindable());
+        File file = File.createTempFile("fallback", ".json");
+        file.deleteOnExit();
+        constructor.saveToFile(file.getPath());
+        String json = Files.readString(file.toPath());
+        Assert.assertTrue(json, json.startsWith("{\n\t\"name\":\"dice\""));
+
+        Assert.assertThrows(IllegalStateException.class, () -> new JSONConstructor().print());
+    }
+
+}
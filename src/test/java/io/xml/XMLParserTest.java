@@ -5,6 +5,9 @@ import org.junit.Test;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author Juyas
@@ -48,6 +51,69 @@ public class XMLParserTest {
 
     }
 
+    @Test
+    public void parseValuesAndAttributes() {
+        XMLElement root = XML.parse("<?xml version=\"1.0\"?>\n<map width='2' name=\"a &amp; b\">\n" +
+                " <layer id=\"1\">\n  <data encoding=\"csv\">\n1,2,\n3,4\n</data>\n </layer>\n" +
+                " <empty></empty>\n <text><![CDATA[<raw>]]></text>\n</map>");
+        Assert.assertEquals("map", root.getTag());
+        Assert.assertEquals("2", root.getAttributes().get("width"));
+        Assert.assertEquals("a & b", root.getAttributes().get("name"));
+        Assert.assertEquals(3, root.getChildren().size());
+        XMLElement data = root.getChildren().get(0).getChildren().get(0);
+        Assert.assertEquals("data", data.getTag());
+        Assert.assertEquals("csv", data.getAttributes().get("encoding"));
+        Assert.assertEquals("\n1,2,\n3,4\n", data.getValue());
+        Assert.assertNull(root.getChildren().get(1).getValue());
+        Assert.assertEquals("<raw>", root.getChildren().get(2).getValue());
+    }
+
+    @Test(expected = XMLSyntaxException.class)
+    public void parseUnclosed() {
+        XML.parse("<root><child></root>");
+    }
+
+    @Test(expected = XMLSyntaxException.class)
+    public void parseEndOfFile() {
+        XML.parse("<root><child/>");
+    }
+
+    @Test
+    public void pullReader() {
+        XMLReader reader = new XMLReader("<a x=\"1\"><!--c--><b/>text</a>");
+        Assert.assertEquals(XMLReader.Event.START_ELEMENT, reader.next());
+        Assert.assertEquals("a", reader.getTag());
+        Assert.assertEquals("1", reader.getAttributes().get("x"));
+        Assert.assertEquals(XMLReader.Event.COMMENT, reader.next());
+        Assert.assertEquals("c", reader.getValue());
+        Assert.assertEquals(XMLReader.Event.START_ELEMENT, reader.next());
+        Assert.assertEquals(2, reader.depth());
+        Assert.assertEquals(XMLReader.Event.END_ELEMENT, reader.next());
+        Assert.assertEquals("b", reader.getTag());
+        Assert.assertEquals(XMLReader.Event.VALUE, reader.next());
+        Assert.assertEquals("text", reader.getValue());
+        Assert.assertEquals(XMLReader.Event.END_ELEMENT, reader.next());
+        Assert.assertEquals("a", reader.getTag());
+        Assert.assertEquals(XMLReader.Event.END_DOCUMENT, reader.next());
+    }
+
+    @Test
+    public void handler() {
+        List<String> events = new ArrayList<>();
+        XML.read(header1, new XMLHandler() {
+            @Override
+            public void startElement(String tag, Map<String, String> attributes) {
+                events.add("<" + tag + attributes.getOrDefault("tileid", ""));
+            }
+
+            @Override
+            public void endElement(String tag) {
+                events.add("/" + tag);
+            }
+        });
+        Assert.assertEquals("[<root, <wangtile6, /wangtile, <wangtile7, /wangtile, <wangtile8, /wangtile, /root]", events.toString());
+    }
+
     private static String strip(String s) {
         return s.replaceAll("\n", "").replaceAll("\t", "");
     }
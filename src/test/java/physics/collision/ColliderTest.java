@@ -1,10 +1,12 @@
 package physics.collision;
 
 import ecs.PolygonCollider;
+import org.joml.Vector2f;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import physics.collision.shape.ShapeType;
+import util.MathUtils;
 
 /**
  * @author Juyas
@@ -31,6 +33,20 @@ public class ColliderTest {
         Assert.assertEquals(ShapeType.QUADRILATERAL, staticCollider.getShape().type());
     }
 
+    @Test
+    public void detectCollision() {
+        rigidBody.getShape().setPosition(0, 0);
+        staticCollider.getShape().setPosition(95, 50);
+        CollisionInformation first = rigidBody.detectCollision(staticCollider);
+        Assert.assertTrue(first.collision());
+        //every detection returns its own simplex, which can be handed to EPA
+        Assert.assertNotSame(first, rigidBody.detectCollision(staticCollider));
+        Assert.assertTrue(MathUtils.expandingPolytopeAlgorithm(rigidBody.getShape(), staticCollider.getShape(), (Vector2f[]) first.get()).isPresent());
+
+        staticCollider.getShape().setPosition(200, 50);
+        Assert.assertFalse(rigidBody.detectCollision(staticCollider).collision());
+    }
+
     @Test
     public void canCollideWith() {
         Assert.assertTrue(rigidBody.canCollideWith(staticCollider));
@@ -0,0 +1,86 @@
+package physics.collision;
+
+import ecs.PolygonCollider;
+import org.junit.Assert;
+import org.junit.Test;
+import physics.collision.narrowphase.Contact;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ContactCacheTest {
+
+    int detections;
+
+    PolygonCollider collider(float x, float y) {
+        PolygonCollider collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10)) {
+            @Override
+            public boolean detectCollision(Collider collider, Contact contact) {
+                detections++;
+                return super.detectCollision(collider, contact);
+            }
+        };
+        collider.getShape().setPosition(x, y);
+        return collider;
+    }
+
+    @Test
+    public void keepsPairsTestedEveryFrame() {
+        ContactCache cache = new ContactCache();
+        Collider self = collider(0, 0);
+        Collider first = collider(5, 0);
+        Collider second = collider(20, 0);
+        List<Collider> ended = new ArrayList<>();
+
+        cache.beginFrame();
+        ContactCache.Pair pair = cache.get(first);
+        Assert.assertFalse(pair.isColliding());
+        Assert.assertTrue(pair.detect(self));
+        Assert.assertFalse(cache.get(second).detect(self));
+        cache.endFrame(p -> ended.add(p.getOther()));
+        Assert.assertEquals(2, cache.size());
+
+        cache.beginFrame();
+        Assert.assertSame(pair, cache.get(first));
+        Assert.assertTrue(pair.isColliding());
+        cache.endFrame(p -> ended.add(p.getOther()));
+        //the second pair was not tested, but it was not colliding either
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(ended.isEmpty());
+
+        cache.beginFrame();
+        cache.endFrame(p -> ended.add(p.getOther()));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(List.of(first), ended);
+
+        cache.beginFrame();
+        Assert.assertNotSame(pair, cache.get(first));
+    }
+
+    @Test
+    public void reusesResultWhileNothingMoved() {
+        ContactCache cache = new ContactCache();
+        Collider self = collider(0, 0);
+        Collider other = collider(8, 0);
+        ContactCache.Pair pair = cache.get(other);
+        Assert.assertTrue(pair.detect(self));
+        Assert.assertTrue(pair.detect(self));
+        Assert.assertEquals(1, detections);
+        Assert.assertEquals(2, pair.getContact().getDepth(), 1e-5f);
+
+        //setting the same position again is not a change
+        other.getShape().setPosition(8, 0);
+        pair.detect(self);
+        Assert.assertEquals(1, detections);
+
+        other.getShape().setPosition(9, 0);
+        Assert.assertTrue(pair.detect(self));
+        Assert.assertEquals(2, detections);
+        Assert.assertEquals(1, pair.getContact().getDepth(), 1e-5f);
+
+        self.getShape().setPosition(-3, 0);
+        Assert.assertFalse(pair.detect(self));
+        Assert.assertEquals(3, detections);
+    }
+
+}
@@ -0,0 +1,133 @@
+package physics.collision.broadphase;
+
+import ecs.PolygonCollider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Collider;
+import physics.collision.Shapes;
+import physics.collision.shape.Circle;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class BroadPhaseTest {
+
+    List<PolygonCollider> colliders;
+    Random random;
+
+    @Before
+    public void setUp() {
+        random = new Random(42);
+        colliders = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            PolygonCollider collider;
+            if (i % 3 == 0)
+                collider = new PolygonCollider(Shapes.circle(0, 0, 5 + random.nextFloat() * 40));
+            else
+                collider = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 5 + random.nextFloat() * 100, 5 + random.nextFloat() * 30));
+            collider.getShape().setPosition(random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000);
+            colliders.add(collider);
+        }
+    }
+
+    @Test
+    public void uniformGrid() {
+        testBroadPhase(new UniformGrid(64));
+    }
+
+    @Test
+    public void sweepAndPrune() {
+        testBroadPhase(new SweepAndPrune());
+    }
+
+    @Test
+    public void interleavedUpdatesAndQueries() {
+        for (BroadPhase broadPhase : new BroadPhase[]{new UniformGrid(64), new SweepAndPrune()}) {
+            colliders.forEach(broadPhase::add);
+            List<Collider> result = new ArrayList<>();
+            //like a frame of a scene, every collider moves and looks up its candidates right away
+            for (int frame = 0; frame < 3; frame++)
+                for (PolygonCollider collider : colliders) {
+                    collider.getShape().setPosition(collider.getShape().position().x + random.nextFloat() * 60 - 30,
+                            collider.getShape().position().y + random.nextFloat() * 60 - 30);
+                    broadPhase.update(collider);
+                    result.clear();
+                    broadPhase.query(collider, result);
+                    for (PolygonCollider other : colliders)
+                        if (other != collider && intersects(collider.getShape().boundingSphere(), other.getShape().boundingSphere()))
+                            Assert.assertTrue(result.contains(other));
+                }
+            broadPhase.clear();
+        }
+    }
+
+    @Test
+    public void unplacedCollider() {
+        BroadPhase broadPhase = new UniformGrid();
+        PolygonCollider unplaced = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 10, 10));
+        broadPhase.add(unplaced);
+        Assert.assertEquals(1, broadPhase.size());
+        List<Collider> result = new ArrayList<>();
+        broadPhase.query(-100, -100, 100, 100, result);
+        Assert.assertTrue(result.isEmpty());
+        unplaced.getShape().setPosition(0, 0);
+        broadPhase.update(unplaced);
+        broadPhase.query(-100, -100, 100, 100, result);
+        Assert.assertEquals(1, result.size());
+        Assert.assertTrue(broadPhase.remove(unplaced));
+        Assert.assertFalse(broadPhase.remove(unplaced));
+        Assert.assertEquals(0, broadPhase.size());
+    }
+
+    private void testBroadPhase(BroadPhase broadPhase) {
+        colliders.forEach(broadPhase::add);
+        Assert.assertEquals(colliders.size(), broadPhase.size());
+        assertMatchesBruteForce(broadPhase);
+
+        //move some colliders around
+        for (int i = 0; i < colliders.size(); i += 2) {
+            PolygonCollider collider = colliders.get(i);
+            collider.getShape().setPosition(random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000);
+            broadPhase.update(collider);
+        }
+        assertMatchesBruteForce(broadPhase);
+
+        //remove some colliders
+        for (int i = colliders.size() - 1; i >= 0; i -= 3) {
+            Assert.assertTrue(broadPhase.remove(colliders.remove(i)));
+        }
+        Assert.assertEquals(colliders.size(), broadPhase.size());
+        assertMatchesBruteForce(broadPhase);
+
+        broadPhase.clear();
+        Assert.assertEquals(0, broadPhase.size());
+    }
+
+    private void assertMatchesBruteForce(BroadPhase broadPhase) {
+        List<Collider> result = new ArrayList<>();
+        for (PolygonCollider collider : colliders) {
+            result.clear();
+            broadPhase.query(collider, result);
+            Set<Collider> found = new HashSet<>(result);
+            //no duplicates and never the collider itself
+            Assert.assertEquals(result.size(), found.size());
+            Assert.assertFalse(found.contains(collider));
+            for (PolygonCollider other : colliders) {
+                if (other == collider) continue;
+                //every pair with intersecting bounding spheres has to be a candidate
+                if (intersects(collider.getShape().boundingSphere(), other.getShape().boundingSphere()))
+                    Assert.assertTrue(found.contains(other));
+            }
+        }
+    }
+
+    private boolean intersects(Circle a, Circle b) {
+        float r = a.radius() + b.radius();
+        return a.centroid().distanceSquared(b.centroid()) <= r * r;
+    }
+
+}
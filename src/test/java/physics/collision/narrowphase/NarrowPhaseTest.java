@@ -0,0 +1,199 @@
+package physics.collision.narrowphase;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Test;
+import physics.collision.CollisionInformation;
+import physics.collision.Shapes;
+import physics.collision.shape.Circle;
+import physics.collision.shape.PrimitiveShape;
+import util.MathUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.Random;
+
+public class NarrowPhaseTest {
+
+    private static PrimitiveShape box(float x, float y, float width, float height) {
+        PrimitiveShape box = Shapes.axisAlignedRectangle(0, 0, width, height);
+        box.setPosition(x, y);
+        return box;
+    }
+
+    private static Circle circle(float x, float y, float radius) {
+        Circle circle = Shapes.circle(0, 0, radius);
+        circle.setPosition(x, y);
+        return circle;
+    }
+
+    @Test
+    public void separatedShapes() {
+        Contact contact = new Contact();
+        Assert.assertFalse(NarrowPhase.intersects(box(0, 0, 10, 10), box(20, 0, 10, 10)));
+        Assert.assertFalse(NarrowPhase.collide(box(0, 0, 10, 10), box(3, 12, 10, 10), contact));
+        Assert.assertFalse(contact.isColliding());
+        Assert.assertFalse(NarrowPhase.collide(circle(0, 0, 5), circle(10.5f, 0, 5), contact));
+        Assert.assertFalse(NarrowPhase.collide(box(0, 0, 10, 10), circle(14, 14, 5), contact));
+    }
+
+    @Test
+    public void overlappingBoxes() {
+        Contact contact = new Contact();
+        Assert.assertTrue(NarrowPhase.collide(box(0, 0, 10, 10), box(8, 1, 10, 10), contact));
+        Assert.assertTrue(contact.isColliding());
+        Assert.assertEquals(1, contact.getNormalX(), 1e-5f);
+        Assert.assertEquals(0, contact.getNormalY(), 1e-5f);
+        Assert.assertEquals(2, contact.getDepth(), 1e-4f);
+        Assert.assertEquals(new Vector2f(-2, 0), contact.getPenetration(new Vector2f()));
+
+        Assert.assertTrue(NarrowPhase.collide(box(0, 0, 10, 10), box(-1, -7, 10, 10), contact));
+        Assert.assertEquals(0, contact.getNormalX(), 1e-5f);
+        Assert.assertEquals(-1, contact.getNormalY(), 1e-5f);
+        Assert.assertEquals(3, contact.getDepth(), 1e-4f);
+    }
+
+    @Test
+    public void touchingBoxes() {
+        Contact contact = new Contact();
+        Assert.assertTrue(NarrowPhase.collide(box(0, 0, 10, 10), box(10, 0, 10, 10), contact));
+        Assert.assertEquals(0, contact.getDepth(), 1e-5f);
+        Assert.assertEquals(1, contact.getNormalX(), 1e-5f);
+    }
+
+    @Test
+    public void curvedShapes() {
+        Contact contact = new Contact();
+        Assert.assertTrue(NarrowPhase.collide(circle(0, 0, 5), circle(8, 0, 5), contact));
+        Assert.assertEquals(2, contact.getDepth(), 1e-2f);
+        Assert.assertEquals(1, contact.getNormalX(), 1e-3f);
+
+        Assert.assertTrue(NarrowPhase.collide(box(0, 0, 10, 10), circle(11, 5, 2), contact));
+        Assert.assertEquals(1, contact.getDepth(), 1e-2f);
+        Assert.assertEquals(1, contact.getNormalX(), 1e-3f);
+
+        //the same position, every direction is as close, so the polytope stays a rough approximation of the circle
+        Assert.assertTrue(NarrowPhase.collide(circle(3, 3, 2), circle(3, 3, 1), contact));
+        Assert.assertEquals(3, contact.getDepth(), 3e-2f);
+    }
+
+    @Test
+    public void matchesBoxOverlap() {
+        Random random = new Random(7);
+        Contact contact = new Contact();
+        for (int i = 0; i < 2000; i++) {
+            float ax = random.nextFloat() * 20, ay = random.nextFloat() * 20;
+            float aw = 1 + random.nextFloat() * 10, ah = 1 + random.nextFloat() * 10;
+            float bx = random.nextFloat() * 20, by = random.nextFloat() * 20;
+            float bw = 1 + random.nextFloat() * 10, bh = 1 + random.nextFloat() * 10;
+            //the shortest way out on each axis, to either side
+            float overlapX = Math.min(ax + aw - bx, bx + bw - ax);
+            float overlapY = Math.min(ay + ah - by, by + bh - ay);
+            boolean expected = overlapX > 0 && overlapY > 0;
+            PrimitiveShape a = box(ax, ay, aw, ah), b = box(bx, by, bw, bh);
+            Assert.assertEquals(expected, NarrowPhase.collide(a, b, contact));
+            if (expected)
+                Assert.assertEquals(Math.min(overlapX, overlapY), contact.getDepth(), 1e-3f);
+        }
+    }
+
+    @Test
+    public void matchesCircleOverlap() {
+        Random random = new Random(11);
+        Contact contact = new Contact();
+        for (int i = 0; i < 2000; i++) {
+            float ra = 1 + random.nextFloat() * 5, rb = 1 + random.nextFloat() * 5;
+            Circle a = circle(random.nextFloat() * 10, random.nextFloat() * 10, ra);
+            Circle b = circle(random.nextFloat() * 10, random.nextFloat() * 10, rb);
+            float distance = a.centroid().distance(b.centroid());
+            //skip pairs too close to touching for the tolerance of the curved support
+            if (Math.abs(distance - ra - rb) < 1e-2f) continue;
+            boolean expected = distance < ra + rb;
+            Assert.assertEquals(expected, NarrowPhase.collide(a, b, contact));
+            //deep overlaps are approximated more roughly, since more faces of the polytope are close to the origin
+            if (expected)
+                Assert.assertEquals(ra + rb - distance, contact.getDepth(), 1e-3f + (ra + rb - distance) * 1e-2f);
+        }
+    }
+
+    @Test
+    public void penetrationSeparates() {
+        Random random = new Random(3);
+        Contact contact = new Contact();
+        Vector2f penetration = new Vector2f();
+        for (int i = 0; i < 500; i++) {
+            PrimitiveShape a = Shapes.triangle(0, 0, 6, 1, 2, 5);
+            a.setPosition(random.nextFloat() * 6, random.nextFloat() * 6);
+            PrimitiveShape b = random.nextBoolean() ? box(3, 3, 5, 4) : circle(5, 5, 3);
+            if (!NarrowPhase.collide(a, b, contact)) continue;
+            a.setPosition(a.position().add(contact.getPenetration(penetration), new Vector2f()));
+            //moved out of b, so they may only touch
+            NarrowPhase.collide(a, b, contact);
+            Assert.assertEquals(0, contact.getDepth(), 2e-2f);
+        }
+    }
+
+    @Test
+    public void matchesWrappers() {
+        Random random = new Random(5);
+        Contact contact = new Contact();
+        for (int i = 0; i < 500; i++) {
+            PrimitiveShape a = box(random.nextFloat() * 10, random.nextFloat() * 10, 6, 4);
+            PrimitiveShape b = circle(random.nextFloat() * 10, random.nextFloat() * 10, 3);
+            //the wrappers do not warm start
+            contact.clearWarmStart();
+            boolean collides = NarrowPhase.collide(a, b, contact);
+            CollisionInformation information = MathUtils.gjksmCollision(a, b);
+            Assert.assertEquals(collides, information.collision());
+            if (!collides) {
+                Assert.assertSame(CollisionInformation.NO_COLLISION, information);
+                continue;
+            }
+            Optional<Vector2f> penetration = MathUtils.expandingPolytopeAlgorithm(a, b, (Vector2f[]) information.get());
+            Assert.assertTrue(penetration.isPresent());
+            Assert.assertEquals(contact.getPenetration(new Vector2f()), penetration.get());
+        }
+    }
+
+    @Test
+    public void warmStartMatchesColdStart() {
+        Random random = new Random(9);
+        PrimitiveShape a = Shapes.convexPolygon(0, 0, 6, 0, 8, 4, 3, 7, -1, 4);
+        PrimitiveShape b = Shapes.triangle(0, 0, 5, 1, 2, 6);
+        b.setPosition(4, 4);
+        Contact warm = new Contact(), cold = new Contact();
+        float x = -10, y = 0;
+        for (int frame = 0; frame < 2000; frame++) {
+            //a slowly wanders around b, so the axis of the last frame is mostly still valid
+            x = Math.max(-10, Math.min(15, x + random.nextFloat() - 0.5f));
+            y = Math.max(-10, Math.min(15, y + random.nextFloat() - 0.5f));
+            a.setPosition(x, y);
+            cold.clearWarmStart();
+            boolean expected = NarrowPhase.collide(a, b, cold);
+            Assert.assertEquals(expected, NarrowPhase.collide(a, b, warm));
+            if (expected)
+                Assert.assertEquals(cold.getDepth(), warm.getDepth(), 1e-3f);
+        }
+    }
+
+    @Test
+    public void collidesWithoutAllocation() {
+        PrimitiveShape boxA = box(0, 0, 10, 10), boxB = box(7, 4, 10, 10);
+        Circle circleA = circle(0, 0, 5), circleB = circle(6, 3, 4);
+        Contact contact = new Contact();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int warmup = 0; warmup < 3; warmup++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 10_000; i++) {
+                NarrowPhase.collide(boxA, boxB, contact);
+                NarrowPhase.collide(circleA, boxB, contact);
+                NarrowPhase.collide(circleA, circleB, contact);
+                NarrowPhase.intersects(boxA, circleB);
+            }
+            if (warmup == 2)
+                Assert.assertTrue(threads.getThreadAllocatedBytes(thread) - before < 1024);
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package physics.collision.narrowphase;
+
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Test;
+import physics.collision.Shapes;
+import physics.collision.shape.Circle;
+import physics.collision.shape.Point;
+import physics.collision.shape.PrimitiveShape;
+import physics.collision.shape.RotationType;
+import util.MathUtils;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class ShapePairsTest {
+
+    private final Random random = new Random(13);
+
+    private PrimitiveShape box() {
+        PrimitiveShape box = Shapes.axisAlignedRectangle(0, 0, 1 + random.nextFloat() * 8, 1 + random.nextFloat() * 8);
+        box.setPosition(random.nextFloat() * 12, random.nextFloat() * 12);
+        return box;
+    }
+
+    private PrimitiveShape circle() {
+        Circle circle = Shapes.circle(0, 0, 0.5f + random.nextFloat() * 4);
+        circle.setPosition(random.nextFloat() * 12, random.nextFloat() * 12);
+        return circle;
+    }
+
+    private PrimitiveShape polygon() {
+        PrimitiveShape polygon = random.nextBoolean()
+                ? Shapes.triangle(0, 0, 2 + random.nextFloat() * 6, random.nextFloat(), random.nextFloat() * 4, 2 + random.nextFloat() * 6)
+                : Shapes.axisAlignedRectangle(0, 0, 1 + random.nextFloat() * 8, 1 + random.nextFloat() * 8);
+        polygon.setPosition(random.nextFloat() * 12, random.nextFloat() * 12);
+        polygon.rotateShape(0.1f + random.nextFloat(), RotationType.AROUND_CENTER, null);
+        return polygon;
+    }
+
+    /**
+     * Compares the closed form test with GJK and EPA for random pairs.
+     * Pairs only touching within the tolerance may be decided differently.
+     */
+    private void matchesNarrowPhase(Supplier<PrimitiveShape> first, Supplier<PrimitiveShape> second, float tolerance) {
+        Contact closedForm = new Contact(), narrowPhase = new Contact();
+        Vector2f penetration = new Vector2f();
+        int collisions = 0;
+        for (int i = 0; i < 2000; i++) {
+            PrimitiveShape a = first.get(), b = second.get();
+            boolean expected = NarrowPhase.collide(a, b, narrowPhase);
+            boolean actual = ShapePairs.collide(a, b, closedForm);
+            Assert.assertEquals(actual, closedForm.isColliding());
+            if (expected != actual) {
+                Assert.assertEquals(0, (expected ? narrowPhase : closedForm).getDepth(), tolerance);
+                continue;
+            }
+            if (!actual) continue;
+            collisions++;
+            Assert.assertEquals(narrowPhase.getDepth(), closedForm.getDepth(), tolerance * Math.max(1, narrowPhase.getDepth()));
+            Assert.assertEquals(1, closedForm.getNormal(penetration).length(), 1e-5f);
+            //the penetration has to separate the shapes, even if another axis of the same depth was chosen
+            a.setPosition(a.position().add(closedForm.getPenetration(penetration), new Vector2f()));
+            if (NarrowPhase.collide(a, b, narrowPhase))
+                Assert.assertEquals(0, narrowPhase.getDepth(), tolerance * Math.max(1, closedForm.getDepth()));
+        }
+        Assert.assertTrue("too few collisions to compare", collisions > 200);
+    }
+
+    @Test
+    public void boxBox() {
+        matchesNarrowPhase(this::box, this::box, 1e-3f);
+    }
+
+    @Test
+    public void circleCircle() {
+        matchesNarrowPhase(this::circle, this::circle, 1e-2f);
+    }
+
+    @Test
+    public void circleBox() {
+        matchesNarrowPhase(this::circle, this::box, 1e-2f);
+        matchesNarrowPhase(this::box, this::circle, 1e-2f);
+    }
+
+    @Test
+    public void circlePolygon() {
+        matchesNarrowPhase(this::circle, this::polygon, 1e-2f);
+        matchesNarrowPhase(this::polygon, this::circle, 1e-2f);
+    }
+
+    @Test
+    public void centerInsideOfBox() {
+        PrimitiveShape box = Shapes.axisAlignedRectangle(0, 0, 10, 10);
+        box.setPosition(0, 0);
+        Circle circle = Shapes.circle(0, 0, 2);
+        circle.setPosition(9, 4);
+        Contact contact = new Contact();
+        //pushed out through the closest edge
+        Assert.assertTrue(ShapePairs.collide(circle, box, contact));
+        Assert.assertEquals(-1, contact.getNormalX(), 0);
+        Assert.assertEquals(3, contact.getDepth(), 1e-6f);
+        Assert.assertTrue(ShapePairs.collide(box, circle, contact));
+        Assert.assertEquals(1, contact.getNormalX(), 0);
+        Assert.assertEquals(3, contact.getDepth(), 1e-6f);
+    }
+
+    @Test
+    public void flippedContactWarmStarts() {
+        PrimitiveShape box = Shapes.axisAlignedRectangle(0, 0, 10, 10);
+        box.setPosition(0, 0);
+        Circle circle = Shapes.circle(0, 0, 3);
+        circle.setPosition(12, 5);
+        //tested as circle and box, then flipped
+        Contact contact = new Contact();
+        Assert.assertTrue(ShapePairs.collide(box, circle, contact));
+        Assert.assertEquals(1, contact.getNormalX(), 0);
+        Assert.assertEquals(contact.getNormalX(), contact.axisX, 0);
+        Assert.assertEquals(contact.getNormalY(), contact.axisY, 0);
+
+        //the axis still points from the box towards the circle, so it separates them right away
+        circle.setPosition(20, 5);
+        Assert.assertFalse(NarrowPhase.collide(box, circle, contact));
+        Assert.assertTrue(contact.axisX > 0);
+        circle.setPosition(11, 5);
+        Assert.assertTrue(NarrowPhase.collide(box, circle, contact));
+        Assert.assertEquals(2, contact.getDepth(), 1e-3f);
+        Assert.assertEquals(1, contact.getNormalX(), 1e-3f);
+    }
+
+    @Test
+    public void kinds() {
+        PrimitiveShape box = Shapes.axisAlignedRectangle(0, 0, 4, 2);
+        box.setPosition(1, 1);
+        Assert.assertEquals(ShapePairs.AABB, ShapePairs.kind(box));
+        box.rotateShape(MathUtils.radian(30), RotationType.AROUND_CENTER, null);
+        Assert.assertEquals(ShapePairs.POLYGON, ShapePairs.kind(box));
+        Assert.assertEquals(ShapePairs.CIRCLE, ShapePairs.kind(Shapes.circle(0, 0, 1)));
+        Assert.assertEquals(ShapePairs.POLYGON, ShapePairs.kind(Shapes.triangle(0, 0, 1, 0, 0, 1)));
+        Assert.assertEquals(ShapePairs.OTHER, ShapePairs.kind(new Point(new Vector2f())));
+    }
+
+}
@@ -0,0 +1,82 @@
+package scene;
+
+import ecs.Component;
+import ecs.Dynamics;
+import ecs.GameObject;
+import org.joml.Vector2f;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.force.ConstantForce;
+
+public class HeadlessLoopTest {
+
+    HeadlessLoop loop;
+    TestScene scene;
+
+    static class TestScene extends Scene {
+
+        GameObject mover;
+        int ticks;
+        float time;
+
+        @Override
+        public void awake() {
+            //no camera without a window
+            mover = new GameObject(this, "mover", new Vector2f(0, 0), 0);
+            Dynamics dynamics = new Dynamics();
+            dynamics.applyForce(new ConstantForce("push", new Vector2f(1, 0)));
+            mover.addComponent(dynamics);
+            mover.addComponent(new Component() {
+                @Override
+                public void update(float dt) {
+                    ticks++;
+                    time += dt;
+                }
+            });
+        }
+
+    }
+
+    @Before
+    public void setUp() {
+        loop = new HeadlessLoop(50);
+        scene = new TestScene();
+        loop.getSceneManager().switchScene(scene);
+        loop.start();
+    }
+
+    @Test
+    public void runFor() {
+        Assert.assertTrue(loop.getSceneManager().isHeadless());
+        Assert.assertEquals(100, loop.runFor(2));
+        Assert.assertEquals(100, scene.ticks);
+        Assert.assertEquals(2, scene.time, 1e-4f);
+        //the movement per tick does not depend on any frame rate
+        Assert.assertEquals(100, scene.mover.getReadOnlyPosition().x, 1e-4f);
+    }
+
+    @Test
+    public void frames() {
+        //uneven frames result in the same amount of ticks
+        int ticks = 0;
+        for (int i = 0; i < 40; i++)
+            ticks += loop.frame(i % 2 == 0 ? 0.005 : 0.045);
+        Assert.assertEquals(50, ticks);
+        Assert.assertEquals(50, scene.ticks);
+        Assert.assertEquals(50, scene.mover.getReadOnlyPosition().x, 1e-4f);
+    }
+
+    @Test
+    public void inactiveScene() {
+        scene.deactivate();
+        loop.runFor(1);
+        Assert.assertEquals(0, scene.ticks);
+    }
+
+    @Test
+    public void noScene() {
+        Assert.assertThrows(IllegalStateException.class, () -> new HeadlessLoop(60).start());
+    }
+
+}
@@ -0,0 +1,130 @@
+package tiles;
+
+import ecs.PolygonCollider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import physics.collision.Collider;
+import physics.collision.Shapes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TileMapTest {
+
+    TileMap tileMap;
+    TileLayer ground;
+    TileLayer walls;
+
+    @Before
+    public void setUp() {
+        tileMap = new TileMap(10, 10);
+        ground = new TileLayer("ground", 100, 50, false);
+        walls = new TileLayer("walls collidable", 100, 50, true);
+        for (int x = 0; x < 100; x++) {
+            ground.set(x, 0, 1);
+            walls.set(x, 49, 2);
+        }
+        walls.set(20, 20, 3);
+        tileMap.addLayer(ground).addLayer(walls);
+        tileMap.getTileCollider().layer(2).mask(2);
+    }
+
+    @Test
+    public void getAndSet() {
+        Assert.assertEquals(1, ground.get(0, 0));
+        Assert.assertEquals(0, ground.get(0, 1));
+        Assert.assertEquals(3, walls.get(20, 20));
+        //outside of the layer is always empty
+        Assert.assertEquals(0, walls.get(-1, 20));
+        Assert.assertEquals(0, walls.get(100, 49));
+        //ids are stored unsigned
+        ground.set(5, 5, TileLayer.MAX_TILE_ID);
+        Assert.assertEquals(TileLayer.MAX_TILE_ID, ground.get(5, 5));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ground.set(5, 5, TileLayer.MAX_TILE_ID + 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ground.set(100, 0, 1));
+    }
+
+    @Test
+    public void chunks() {
+        Assert.assertEquals(7, ground.getChunksX());
+        Assert.assertEquals(4, ground.getChunksY());
+        //only the chunks of the first row contain tiles
+        Assert.assertEquals(7, ground.allocatedChunks());
+        Assert.assertFalse(ground.isChunkEmpty(0, 0));
+        Assert.assertTrue(ground.isChunkEmpty(0, 1));
+        //removing the last tile releases the chunk
+        walls.set(20, 20, 0);
+        Assert.assertTrue(walls.isChunkEmpty(1, 1));
+        //removing from an empty chunk does not allocate it
+        walls.set(40, 20, 0);
+        Assert.assertTrue(walls.isChunkEmpty(2, 1));
+    }
+
+    @Test
+    public void fromIds() {
+        int[] ids = {0, 1, 2, 3, 0, 5};
+        TileLayer layer = TileLayer.of("layer", 3, 2, false, ids);
+        Assert.assertEquals(0, layer.get(0, 0));
+        Assert.assertEquals(2, layer.get(2, 0));
+        Assert.assertEquals(3, layer.get(0, 1));
+        Assert.assertEquals(5, layer.get(2, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> TileLayer.of("layer", 3, 3, false, ids));
+    }
+
+    @Test
+    public void forEachTile() {
+        List<int[]> visited = new ArrayList<>();
+        tileMap.forEachTile(0, 0, 49, 49, false, (layer, x, y, id) -> visited.add(new int[]{x, y, id}));
+        //5 ground tiles in the first row
+        Assert.assertEquals(5, visited.size());
+        for (int[] tile : visited) {
+            Assert.assertEquals(0, tile[1]);
+            Assert.assertEquals(1, tile[2]);
+        }
+        visited.clear();
+        tileMap.forEachTile(150, 150, 250, 250, false, (layer, x, y, id) -> visited.add(new int[]{x, y, id}));
+        Assert.assertEquals(1, visited.size());
+        Assert.assertArrayEquals(new int[]{20, 20, 3}, visited.get(0));
+        visited.clear();
+        //the ground layer is not collidable
+        tileMap.forEachTile(0, 0, 999, 499, true, (layer, x, y, id) -> visited.add(new int[]{x, y, id}));
+        Assert.assertEquals(101, visited.size());
+        //areas outside of the map
+        visited.clear();
+        tileMap.forEachTile(-500, -500, -1, -1, false, (layer, x, y, id) -> visited.add(new int[]{x, y, id}));
+        Assert.assertTrue(visited.isEmpty());
+    }
+
+    @Test
+    public void query() {
+        PolygonCollider body = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 8, 8)).layer(2).mask(2);
+        body.getShape().setPosition(205, 205);
+        List<float[]> found = new ArrayList<>();
+        tileMap.query(body, tile -> {
+            if (body.detectCollision(tile).collision())
+                found.add(new float[]{tile.getShape().position().x, tile.getShape().position().y});
+        });
+        Assert.assertEquals(1, found.size());
+        Assert.assertArrayEquals(new float[]{200, 200}, found.get(0), 0);
+        //far away from any solid tile
+        body.getShape().setPosition(500, 250);
+        List<Collider> none = new ArrayList<>();
+        tileMap.query(body, none::add);
+        Assert.assertTrue(none.isEmpty());
+        //different collision layers never see the tiles
+        PolygonCollider ghost = new PolygonCollider(Shapes.axisAlignedRectangle(0, 0, 8, 8)).layer(3).mask(3);
+        ghost.getShape().setPosition(205, 205);
+        tileMap.query(ghost, none::add);
+        Assert.assertTrue(none.isEmpty());
+    }
+
+    @Test
+    public void parseCsv() {
+        int[] ids = Tilesystem.parseCsv("\n1,2,0,\n3221225473,4,\n5\n", 6);
+        //the flipping flags of the fourth id are removed
+        Assert.assertArrayEquals(new int[]{1, 2, 0, 1, 4, 5}, ids);
+        Assert.assertThrows(IllegalArgumentException.class, () -> Tilesystem.parseCsv("1,x,2", 3));
+    }
+
+}
@@ -0,0 +1,79 @@
+package ui;
+
+import graphics.Color;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.Scene;
+import ui.fonts.Font;
+import ui.fonts.GlyphRenderer;
+import util.Assets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TextTest {
+
+    Scene scene;
+    Font font;
+
+    @Before
+    public void setUp() {
+        System.setProperty("java.awt.headless", "true");
+        scene = new Scene() {
+        };
+        font = Assets.getFont(16, true);
+    }
+
+    @Test
+    public void sharedFonts() {
+        Assert.assertSame(font, Assets.getFont(16, true));
+        Assert.assertNotSame(font, Assets.getFont(16, false));
+        Assert.assertNotSame(font, Assets.getFont(20, true));
+        Assert.assertSame(font.getGlyphs().get('a'), font.getGlyph('a'));
+        Assert.assertNull(font.getGlyph('一'));
+    }
+
+    @Test
+    public void reusesGlyphs() {
+        Text text = new Text(scene, "Score: 10", font, Color.WHITE, 100, 50, 1, true, false);
+        List<GlyphRenderer> glyphs = new ArrayList<>(text.getGlyphRenderers());
+        Assert.assertEquals(9, glyphs.size());
+        glyphs.forEach(GlyphRenderer::setClean);
+
+        //only the changed digit is redrawn, the trailing space is appended by change
+        text.change("Score: 11");
+        Assert.assertEquals(10, text.getGlyphRenderers().size());
+        for (int i = 0; i < 9; i++) {
+            Assert.assertSame(glyphs.get(i), text.getGlyphRenderers().get(i));
+            Assert.assertEquals(i == 8, glyphs.get(i).isDirty());
+        }
+        Assert.assertEquals('1', glyphs.get(8).getCharacter());
+        float width = font.getGlyph('S').width;
+        Assert.assertEquals(100 + 8 * width, glyphs.get(8).getLocalTransform().getX(), 0);
+
+        //the same string again changes nothing
+        glyphs.forEach(GlyphRenderer::setClean);
+        text.change("Score: 11");
+        for (GlyphRenderer glyph : glyphs)
+            Assert.assertFalse(glyph.isDirty());
+
+        text.change("Hi");
+        Assert.assertEquals(3, text.getGlyphRenderers().size());
+        Assert.assertSame(glyphs.get(0), text.getGlyphRenderers().get(0));
+    }
+
+    @Test
+    public void centeredLines() {
+        Text text = new Text(scene, "ab\nabcd", font, Color.WHITE, 100, 50, 1, true, true);
+        //monospaced, so every glyph has the same width
+        float width = font.getGlyph('a').width;
+        List<GlyphRenderer> glyphs = text.getGlyphRenderers();
+        Assert.assertEquals(6, glyphs.size());
+        Assert.assertEquals(100 - width, glyphs.get(0).getLocalTransform().getX(), 1);
+        Assert.assertEquals(100 - 2 * width, glyphs.get(2).getLocalTransform().getX(), 1);
+        Assert.assertEquals(50 + font.getFontHeight(), glyphs.get(2).getLocalTransform().getY(), 0);
+        Assert.assertEquals(4 * width, text.getLongestLineWidth(), 0);
+    }
+
+}
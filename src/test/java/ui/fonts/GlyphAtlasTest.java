@@ -0,0 +1,98 @@
+package ui.fonts;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GlyphAtlasTest {
+
+    private static final String FONT = "src/assets/fonts/OpenSans-Regular.ttf";
+
+    @Test
+    public void packsWithoutOverlap() {
+        GlyphAtlas atlas = new GlyphAtlas(128, 1, null);
+        List<GlyphAtlas.Region> regions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            GlyphAtlas.Region region = atlas.allocate(i, 5 + i % 7, 8 + i % 5);
+            Assert.assertNotNull(region);
+            Assert.assertTrue(region.x + region.width <= 128 && region.y + region.height <= 128);
+            for (GlyphAtlas.Region other : regions)
+                Assert.assertFalse(region.x < other.x + other.width && other.x < region.x + region.width
+                        && region.y < other.y + other.height && other.y < region.y + region.height);
+            regions.add(region);
+        }
+        Assert.assertEquals(1, atlas.getPages().size());
+        Assert.assertEquals(40, atlas.getPages().get(0).getGlyphCount());
+        Assert.assertNull(atlas.allocate(99, 200, 10));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedPage() {
+        List<Integer> evicted = new ArrayList<>();
+        GlyphAtlas atlas = new GlyphAtlas(32, 2, regions -> regions.forEach(r -> evicted.add(r.key)));
+        GlyphAtlas.Region first = atlas.allocate(1, 30, 30);
+        GlyphAtlas.Region second = atlas.allocate(2, 30, 30);
+        Assert.assertNotSame(first.page, second.page);
+
+        //the first page was used more recently, so the second one is cleared
+        atlas.touch(first);
+        GlyphAtlas.Region third = atlas.allocate(3, 30, 30);
+        Assert.assertSame(second.page, third.page);
+        Assert.assertEquals(List.of(2), evicted);
+        Assert.assertFalse(second.isValid());
+        Assert.assertTrue(first.isValid());
+        Assert.assertTrue(third.isValid());
+    }
+
+    @Test
+    public void rasterizesOnDemand() {
+        TrueTypeFont font = new TrueTypeFont(FONT, 24);
+        Assert.assertTrue(font.getAtlas().getPages().isEmpty());
+
+        Glyph a = font.getGlyph('A');
+        Assert.assertNotNull(a);
+        Assert.assertSame(a, font.getGlyph('A'));
+        Assert.assertEquals(font.getFontHeight(), a.height);
+        Assert.assertTrue(a.width > 0);
+
+        GlyphAtlas.Page page = font.getAtlas().getPages().get(0);
+        Assert.assertTrue(page.isDirty());
+        Assert.assertTrue(coverage(page.getPixels(), page.getSize(), a) > 0);
+
+        Assert.assertNull(font.getGlyph(0x4E00));
+        Assert.assertEquals(1, page.getGlyphCount());
+    }
+
+    @Test
+    public void rasterizesEvictedGlyphsAgain() {
+        TrueTypeFont font = new TrueTypeFont(FONT, 24, 64, 1);
+        Glyph first = font.getGlyph('W');
+        for (char c = 'a'; c <= 'z'; c++)
+            Assert.assertNotNull(font.getGlyph(c));
+        Assert.assertTrue(first.isEvicted());
+
+        Glyph again = font.getGlyph('W');
+        Assert.assertNotSame(first, again);
+        Assert.assertFalse(again.isEvicted());
+        GlyphAtlas.Page page = font.getAtlas().getPages().get(0);
+        Assert.assertTrue(coverage(page.getPixels(), page.getSize(), again) > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidFonts() {
+        ByteBuffer data = ByteBuffer.allocateDirect(64);
+        new TrueTypeFont(data, 16, 64, 1);
+    }
+
+    private static int coverage(ByteBuffer pixels, int pageSize, Glyph glyph) {
+        int sum = 0;
+        for (int y = glyph.y; y < glyph.y + glyph.height; y++)
+            for (int x = glyph.x; x < glyph.x + glyph.width; x++)
+                sum += pixels.get(y * pageSize + x) & 0xFF;
+        return sum;
+    }
+
+}
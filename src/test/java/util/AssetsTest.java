@@ -0,0 +1,74 @@
+package util;
+
+import audio.AudioBuffer;
+import graphics.Texture;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Covers the parts of the asynchronous loading that do not need a window or an audio device
+ */
+public class AssetsTest {
+
+    @Test
+    public void dataFileRequestsShareOneLoad() throws IOException {
+        File file = File.createTempFile("azurite", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "level data".getBytes());
+
+        CompletableFuture<ByteBuffer> first = Assets.loadDataFileAsync(file.getPath());
+        CompletableFuture<ByteBuffer> second = Assets.loadDataFileAsync(file.getAbsolutePath());
+        ByteBuffer data = first.join();
+        Assert.assertSame(data, second.join());
+        Assert.assertEquals("level data".length(), data.remaining());
+        //cached afterwards
+        Assert.assertSame(data, Assets.getDataFile(file.getPath()));
+        Assert.assertSame(data, Assets.loadDataFileAsync(file.getPath()).join());
+        Assert.assertEquals(0, Assets.pendingLoads());
+    }
+
+    @Test
+    public void missingFile() {
+        CompletableFuture<ByteBuffer> future = Assets.loadDataFileAsync("does/not/exist.bin");
+        try {
+            future.join();
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertTrue(future.isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    public void decodeOffThread() {
+        Texture.ImageData image = CompletableFuture.supplyAsync(() -> Texture.decode("src/assets/images/icon.png")).join();
+        Assert.assertNotNull(image);
+        Assert.assertTrue(image.width > 0 && image.height > 0);
+        Assert.assertEquals(image.width * image.height * image.channels, image.getPixels().remaining());
+        image.free();
+        Assert.assertNull(image.getPixels());
+        Assert.assertNull(Texture.decode("does/not/exist.png"));
+
+        AudioBuffer audio = CompletableFuture.supplyAsync(() -> AudioBuffer.decode("src/assets/sounds/hit.wav")).join();
+        Assert.assertTrue(audio.isValid());
+        Assert.assertTrue(audio.getAudioData().length > 0);
+    }
+
+    @Test
+    public void manifest() throws IOException {
+        File file = File.createTempFile("manifest", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "{\"textures\": [\"a.png\", \"b.png\"], \"dataFiles\": [\"c.tmx\"]}".getBytes());
+        AssetManifest manifest = AssetManifest.load(file.getPath());
+        Assert.assertEquals(2, manifest.getTextures().size());
+        Assert.assertEquals("c.tmx", manifest.getDataFiles().get(0));
+        Assert.assertTrue(manifest.getAudio().isEmpty());
+        Assert.assertTrue(manifest.getShaders().isEmpty());
+    }
+
+}
@@ -0,0 +1,43 @@
+package util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FixedTimestepTest {
+
+    @Test
+    public void accumulate() {
+        FixedTimestep timestep = new FixedTimestep(50, 5);
+        Assert.assertEquals(0.02f, timestep.getStepTime(), 1e-6f);
+        //not a full tick yet
+        Assert.assertEquals(0, timestep.advance(0.015));
+        Assert.assertEquals(0.75f, timestep.alpha(), 1e-4f);
+        //the remainder is carried over
+        Assert.assertEquals(1, timestep.advance(0.015));
+        Assert.assertEquals(0.5f, timestep.alpha(), 1e-4f);
+        Assert.assertEquals(3, timestep.advance(0.05));
+        Assert.assertEquals(4, timestep.getTicks());
+        Assert.assertEquals(0, timestep.getDroppedTicks());
+    }
+
+    @Test
+    public void catchUpLimit() {
+        FixedTimestep timestep = new FixedTimestep(50, 5);
+        //a one second hiccup only runs the maximum amount of ticks and drops the rest
+        Assert.assertEquals(5, timestep.advance(1));
+        Assert.assertEquals(45, timestep.getDroppedTicks());
+        Assert.assertEquals(0, timestep.alpha(), 0);
+        Assert.assertEquals(1, timestep.advance(0.02));
+    }
+
+    @Test
+    public void invalidArguments() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new FixedTimestep(60, 0));
+        FixedTimestep timestep = new FixedTimestep(60);
+        //time never runs backwards
+        Assert.assertEquals(0, timestep.advance(-1));
+        Assert.assertEquals(0, timestep.alpha(), 0);
+    }
+
+}
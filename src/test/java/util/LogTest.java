@@ -0,0 +1,89 @@
+package util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class LogTest {
+
+    File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("azurite-log").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        Log.setLogLevel(Log.FATAL_ONLY);
+        File[] files = folder.listFiles();
+        if (files != null) for (File file : files) file.delete();
+        folder.delete();
+    }
+
+    @Test
+    public void skipsDisabledLogs() {
+        Log.setLogLevel(Log.WARNINGS);
+        Assert.assertTrue(Log.isEnabled(Log.FATAL_ONLY));
+        Assert.assertTrue(Log.isEnabled(Log.WARNINGS));
+        Assert.assertFalse(Log.isEnabled(Log.NO_DEBUG));
+        Log.debug(() -> {
+            throw new AssertionError("the message of a disabled log was built");
+        });
+        Log.info(() -> {
+            throw new AssertionError("the message of a disabled log was built");
+        });
+    }
+
+    @Test
+    public void writesBatches() throws IOException {
+        LoggingThread writer = new LoggingThread(folder, Log.NO_DEBUG);
+        Assert.assertTrue(writer.init());
+        writer.log("first", Log.FATAL_ONLY);
+        writer.log("filtered", Log.ALL);
+        writer.log("second", Log.NO_DEBUG);
+        writer.save();
+        writer.log("third", Log.WARNINGS);
+        writer.close();
+        writer.log("closed", Log.FATAL_ONLY);
+        writer.save();
+        Assert.assertEquals(List.of("first", "second", "third"), Files.readAllLines(writer.getTarget().toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void dropsLinesOfAFullBuffer() throws IOException {
+        LoggingThread writer = new LoggingThread(folder, Log.ALL, 2, 1 << 20, 1);
+        writer.init();
+        for (int i = 0; i < 5; i++)
+            writer.log("line " + i, Log.ALL);
+        writer.close();
+        List<String> lines = Files.readAllLines(writer.getTarget().toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(3, lines.size());
+        Assert.assertEquals("line 1", lines.get(1));
+        Assert.assertTrue(lines.get(2).contains("3 lines were dropped"));
+    }
+
+    @Test
+    public void rotatesFiles() throws IOException {
+        LoggingThread writer = new LoggingThread(folder, Log.ALL, 16, 10, 2);
+        writer.init();
+        for (int i = 0; i < 4; i++) {
+            writer.log("rotation " + i, Log.ALL);
+            writer.save();
+        }
+        writer.log("current", Log.ALL);
+        writer.close();
+        Assert.assertEquals(List.of("current"), Files.readAllLines(writer.getTarget().toPath()));
+        Assert.assertEquals(List.of("rotation 3"), Files.readAllLines(writer.rotated(1).toPath()));
+        Assert.assertEquals(List.of("rotation 2"), Files.readAllLines(writer.rotated(2).toPath()));
+        Assert.assertFalse(writer.rotated(3).exists());
+    }
+
+}
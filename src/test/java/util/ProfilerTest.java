@@ -0,0 +1,154 @@
+package util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import scene.HeadlessLoop;
+import scene.Scene;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+public class ProfilerTest {
+
+    @Before
+    public void setUp() {
+        Profiler.enable();
+        Profiler.clear();
+    }
+
+    @After
+    public void tearDown() {
+        Profiler.disable();
+        Profiler.clear();
+    }
+
+    @Test
+    public void nestedScopes() {
+        Profiler.beginFrame();
+        Profiler.begin("update");
+        Profiler.begin("collision");
+        Profiler.end();
+        Profiler.begin("collision");
+        Profiler.end();
+        Profiler.end();
+        try (Profiler.Scope scope = Profiler.scope("render")) {
+            Assert.assertNotNull(scope);
+            Assert.assertNull(Profiler.getFrame(0));
+        }
+        Profiler.endFrame();
+
+        Profiler.Frame frame = Profiler.getFrame(0);
+        Assert.assertNotNull(frame);
+        Assert.assertEquals(4, frame.getSampleCount());
+        Assert.assertEquals("update", frame.getName(0));
+        Assert.assertEquals(0, frame.getDepth(0));
+        Assert.assertEquals(1, frame.getDepth(1));
+        Assert.assertEquals(1, frame.getDepth(2));
+        Assert.assertEquals("render", frame.getName(3));
+        Assert.assertEquals(0, frame.getDepth(3));
+        Assert.assertTrue(frame.getDuration(0) >= frame.getDuration(1) + frame.getDuration(2));
+        Assert.assertEquals(frame.getDuration(1) + frame.getDuration(2), frame.getTotal("collision"));
+        Assert.assertTrue(frame.getDuration() >= frame.getDuration(0) + frame.getDuration(3));
+    }
+
+    @Test
+    public void closesOpenScopes() {
+        Profiler.beginFrame();
+        Profiler.begin("left open");
+        Profiler.beginFrame();
+        Profiler.endFrame();
+        Profiler.Frame previous = Profiler.getFrame(1);
+        Assert.assertEquals(1, previous.getSampleCount());
+        Assert.assertTrue(previous.getDuration(0) >= 0);
+        Assert.assertEquals(0, Profiler.getFrame(0).getSampleCount());
+    }
+
+    @Test
+    public void keepsLastFrames() {
+        for (int i = 0; i < Profiler.FRAMES + 5; i++) {
+            Profiler.beginFrame();
+            Profiler.begin("frame " + i);
+            Profiler.end();
+            Profiler.endFrame();
+        }
+        Assert.assertEquals("frame " + (Profiler.FRAMES + 4), Profiler.getFrame(0).getName(0));
+        Assert.assertEquals("frame 5", Profiler.getFrame(Profiler.FRAMES - 1).getName(0));
+        Assert.assertNull(Profiler.getFrame(Profiler.FRAMES));
+    }
+
+    @Test
+    public void ignoresDisabledAndOtherThreads() throws InterruptedException {
+        Thread other = new Thread(() -> {
+            Profiler.beginFrame();
+            Profiler.begin("other");
+            Profiler.end();
+            Profiler.endFrame();
+        });
+        other.start();
+        other.join();
+        Assert.assertNull(Profiler.getFrame(0));
+
+        Profiler.disable();
+        Profiler.beginFrame();
+        Profiler.begin("disabled");
+        Profiler.end();
+        Profiler.endFrame();
+        Assert.assertNull(Profiler.getFrame(0));
+    }
+
+    @Test
+    public void recordsWithoutAllocating() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int warmup = 0; warmup < 3; warmup++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int f = 0; f < 100; f++) {
+                Profiler.beginFrame();
+                for (int i = 0; i < 100; i++) {
+                    try (Profiler.Scope scope = Profiler.scope("outer")) {
+                        Assert.assertNotNull(scope);
+                        Profiler.begin("inner");
+                        Profiler.end();
+                    }
+                }
+                Profiler.endFrame();
+            }
+            if (warmup == 2)
+                Assert.assertTrue(threads.getThreadAllocatedBytes(thread) - before < 1024);
+        }
+    }
+
+    @Test
+    public void exportsChromeTrace() throws IOException {
+        Profiler.beginFrame();
+        Profiler.begin("update");
+        Profiler.end();
+        Profiler.endFrame();
+        StringWriter writer = new StringWriter();
+        Profiler.exportChromeTrace(writer);
+        String json = writer.toString();
+        Assert.assertTrue(json.startsWith("{\"traceEvents\":[{\"name\":\"frame\",\"ph\":\"X\",\"ts\":0.0,"));
+        Assert.assertTrue(json.contains("{\"name\":\"update\",\"ph\":\"X\""));
+        Assert.assertTrue(json.endsWith("],\"displayTimeUnit\":\"ms\"}"));
+    }
+
+    @Test
+    public void headlessFrames() {
+        HeadlessLoop loop = new HeadlessLoop(60);
+        loop.getSceneManager().switchScene(new Scene() {
+            @Override
+            public void awake() {
+                //no camera without a window
+            }
+        });
+        loop.start();
+        loop.frame(1 / 30.0);
+        Profiler.Frame frame = Profiler.getFrame(0);
+        Assert.assertEquals(2, frame.getSampleCount());
+        Assert.assertEquals("gameObjects", frame.getName(1));
+    }
+
+}
@@ -0,0 +1,52 @@
+package util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class UploadQueueTest {
+
+    @Test
+    public void runsOnProcessingThread() {
+        UploadQueue queue = new UploadQueue(1_000_000_000L);
+        CompletableFuture<Thread> future = queue.submit(Thread::currentThread);
+        Assert.assertFalse(future.isDone());
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals(1, queue.process());
+        Assert.assertSame(Thread.currentThread(), future.join());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void budget() {
+        //no budget at all still runs a single task per call
+        UploadQueue queue = new UploadQueue(0);
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 3; i++)
+            queue.submit(ran::incrementAndGet);
+        Assert.assertEquals(1, queue.process());
+        Assert.assertEquals(1, ran.get());
+        queue.setBudget(1_000_000_000L);
+        Assert.assertEquals(2, queue.process());
+        Assert.assertEquals(3, ran.get());
+        Assert.assertEquals(0, queue.process());
+    }
+
+    @Test
+    public void failures() {
+        UploadQueue queue = new UploadQueue(1_000_000L);
+        CompletableFuture<Object> future = queue.submit(() -> {
+            throw new IllegalStateException("upload failed");
+        });
+        queue.process();
+        Assert.assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeBudget() {
+        new UploadQueue(-1);
+    }
+
+}